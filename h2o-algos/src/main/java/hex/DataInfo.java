@@ -1246,6 +1246,70 @@ public class DataInfo extends Keyed<DataInfo> {
       row.offset = chunks[offsetChunkId()].atd(rid);
     return row;
   }
+  /**
+   * @return true if {@link #innerProductChunk(Chunk[], double[], double[], double[])} can be used, ie. there are no
+   * interaction columns
+   */
+  public final boolean supportsChunkInnerProduct() {
+    return (_interactionVecs == null || _interactionVecs.length == 0) && numNums() == _nums;
+  }
+
+  /**
+   * Column-wise equivalent of <code>extractDenseRow(chunks, r, row).innerProduct(beta)</code> for all the rows
+   * of the chunks: the chunks are decoded one column at a time and the contribution of each column is added
+   * to the linear predictor of every row.  Rows with a missing predictor get NaN when missing values are skipped.
+   * Weights and offsets are not taken into account.
+   *
+   * @param chunks chunks of the adapted frame
+   * @param beta coefficients, intercept last
+   * @param eta output, linear predictor of each row; length at least chunk length
+   * @param buf temporary buffer, length at least chunk length
+   * @return eta
+   */
+  public final double[] innerProductChunk(Chunk[] chunks, double[] beta, double[] eta, double[] buf) {
+    assert supportsChunkInnerProduct();
+    final int len = chunks[0]._len;
+    Arrays.fill(eta, 0, len, _intercept ? beta[beta.length - 1] : 0);
+    for (int i = 0; i < _cats; ++i) {
+      chunks[i].getDoubles(buf, 0, len);
+      for (int r = 0; r < len; ++r) {
+        int val;
+        if (Double.isNaN(buf[r])) {
+          if (_skipMissing) {
+            eta[r] = Double.NaN;
+            continue;
+          }
+          val = _catNAFill[i];
+        } else
+          val = (int) buf[r];
+        int cid = getCategoricalId(i, val);
+        if (cid >= 0)
+          eta[r] += beta[cid];
+      }
+    }
+    final int numStart = numStart();
+    final boolean normalize = _normMul != null && _normSub != null;
+    for (int i = 0; i < _nums; ++i) {
+      final double b = beta[numStart + i];
+      final double fill = _numNAFill[i];
+      chunks[_cats + i].getDoubles(buf, 0, len);
+      for (int r = 0; r < len; ++r) {
+        double d = buf[r];
+        if (Double.isNaN(d)) {
+          if (_skipMissing) {
+            eta[r] = Double.NaN;
+            continue;
+          }
+          d = fill;
+        }
+        if (normalize)
+          d = (d - _normSub[i]) * _normMul[i];
+        eta[r] += d * b;
+      }
+    }
+    return eta;
+  }
+
   public int getInteractionOffset(Chunk[] chunks, int cid, int rid) {
     boolean useAllFactors = ((InteractionWrappedVec)chunks[cid].vec())._useAllFactorLevels;
     InteractionWrappedVec.InteractionWrappedChunk c = (InteractionWrappedVec.InteractionWrappedChunk)chunks[cid];
@@ -30,7 +30,8 @@ public class RegisterAlgos extends AlgoAbstractRegister {
             new hex.generic     .Generic     (true),
             new hex.gam         .GAM         (true),
             new PSVM(true),
-            new hex.rulefit     .RuleFit     (true)
+            new hex.rulefit     .RuleFit     (true),
+            new hex.knn         .KNN         (true)
     };
 
     // "Word2Vec", "Example", "Grep"
@@ -39,7 +40,8 @@ public class RegisterAlgos extends AlgoAbstractRegister {
       int version = SchemaServer.getStableVersion();
       if ( base.equals("SVD") ||
               base.equals("Aggregator") ||
-              base.equals("StackedEnsemble")) {
+              base.equals("StackedEnsemble") ||
+              base.equals("KNN")) {
         version = SchemaServer.getExperimentalVersion();
       }
       registerModelBuilder(context, algo, version);
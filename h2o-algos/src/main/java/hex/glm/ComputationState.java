@@ -794,7 +794,17 @@ public final class ComputationState {
     }
   }
 
+  /**
+   * Use the Gram matrices shared by all the cross-validation folds instead of computing them from the data.
+   */
+  void setFoldGrams(FoldGrams foldGrams, int fold) {
+    _foldGrams = foldGrams;
+    _fold = fold;
+  }
+
   protected GramXY computeNewGram(DataInfo activeData, double [] beta, GLMParameters.Solver s){
+    if (_foldGrams != null)
+      return computeFoldGram(activeData, beta);
     double obj_reg = _parms._obj_reg;
     if(_glmw == null) _glmw = new GLMModel.GLMWeightsFun(_parms);
     GLMTask.GLMIterationTask gt = new GLMTask.GLMIterationTask(_job._key, activeData, _glmw, beta,
@@ -821,8 +831,27 @@ public final class ComputationState {
     return res;
   }
 
+  private GramXY computeFoldGram(DataInfo activeData, double [] beta) {
+    double obj_reg = _parms._obj_reg;
+    double [] xy = MemoryManager.malloc8d(activeData.fullN()+1);
+    double [] yy = new double[1];
+    Gram gram = _foldGrams.foldGram(_fold, _dinfo, activeData, xy, yy);
+    gram.mul(obj_reg);
+    ArrayUtils.mult(xy,obj_reg);
+    int [] zeros = gram.findZeroCols();
+    // the likelihood is not needed by the least squares solver
+    if(zeros.length > 0) {
+      gram.dropCols(zeros);
+      removeCols(zeros);
+      return new GramXY(gram,ArrayUtils.removeIds(xy, zeros),null,beta == null?null:ArrayUtils.removeIds(beta, zeros),activeData().activeCols(),null,yy[0],Double.NaN);
+    }
+    return new GramXY(gram,xy,null,beta,activeData.activeCols(),null,yy[0],Double.NaN);
+  }
+
   GramXY _currGram;
   GLMModel.GLMWeightsFun _glmw;
+  private FoldGrams _foldGrams;
+  private int _fold;
 
 
   // get cached gram or incrementally update or compute new one
@@ -831,6 +860,10 @@ public final class ComputationState {
     boolean weighted = _parms._family != Family.gaussian || _parms._link != GLMParameters.Link.identity;
     if(_parms._family == Family.multinomial) // no caching
       return computeNewGram(activeDataMultinomial(_activeClass),beta,s);
+    if(_foldGrams != null) { // cheaper than any incremental update
+      GramXY gram = computeNewGram(activeData(),beta,s);
+      return s == GLMParameters.Solver.COORDINATE_DESCENT ? (_currGram = gram) : gram;
+    }
     if(s != GLMParameters.Solver.COORDINATE_DESCENT)
       // only cache for solver==COD
       //    caching only makes difference when running with lambda search
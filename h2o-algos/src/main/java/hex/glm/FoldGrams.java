@@ -0,0 +1,258 @@
+package hex.glm;
+
+import hex.DataInfo;
+import hex.gram.Gram;
+import water.Iced;
+import water.MRTask;
+import water.MemoryManager;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.Vec;
+import water.util.ArrayUtils;
+
+import java.util.Arrays;
+
+/**
+ * Gram matrices of all the cross-validation folds of a least squares GLM, computed in a single pass.
+ * <p>
+ * For every fold, the moments (X'WX, X'Wz and the sum of squared responses) of its holdout rows are accumulated
+ * in the expanded space of the main model's {@link DataInfo}. The moments of the training rows of fold k are
+ * then the moments of all the rows minus the ones of fold k. As the columns of the fold models are only
+ * standardized differently (with the weighted means and standard deviations of their own training rows),
+ * the Gram of a fold model is obtained by an affine change of variables, without another pass over the data.
+ * <p>
+ * This only holds when the Gram doesn't depend on the coefficients, ie. for the gaussian family with identity link.
+ */
+final class FoldGrams extends Iced<FoldGrams> {
+
+  // (dense) Gram matrices bigger than that are not shared, the moments of all the folds are kept in memory
+  static final int MAX_COLS = 500;
+
+  private final int _nfolds;
+  private final int _fullN;
+  private final int[] _catOffsets;
+  private final double[] _normSub; // null if the main model doesn't standardize
+  private final double[] _normMul;
+  private final boolean _interceptXY;
+
+  // total and per-fold holdout moments, lower triangle of X'WX with the intercept last
+  private final double[][] _xxTotal;
+  private final double[] _xyTotal;
+  private final double _yyTotal;
+  private final double[][][] _xx;
+  private final double[][] _xy;
+  private final double[] _yy;
+
+  private FoldGrams(DataInfo dinfo, MomentsTask mt) {
+    _nfolds = mt._nfolds;
+    _fullN = dinfo.fullN();
+    _catOffsets = dinfo._catOffsets.clone();
+    _normSub = dinfo._normSub == null || dinfo._normMul == null ? null : dinfo._normSub.clone();
+    _normMul = _normSub == null ? null : dinfo._normMul.clone();
+    _interceptXY = dinfo._intercept;
+    _xx = mt._xx;
+    _xy = mt._xy;
+    _yy = mt._yy;
+    _xxTotal = ArrayUtils.deepClone(_xx[0]);
+    _xyTotal = _xy[0].clone();
+    double yy = _yy[0];
+    for (int f = 1; f < _nfolds; f++) {
+      ArrayUtils.add(_xxTotal, _xx[f]);
+      ArrayUtils.add(_xyTotal, _xy[f]);
+      yy += _yy[f];
+    }
+    _yyTotal = yy;
+  }
+
+  /**
+   * @return true iff the fold models of this GLM can use the shared Gram matrices.
+   */
+  static boolean isSupported(GLMModel.GLMParameters parms, GLMModel.GLMParameters.Solver solver, DataInfo dinfo) {
+    return parms._family == GLMModel.GLMParameters.Family.gaussian
+            && parms._link == GLMModel.GLMParameters.Link.identity
+            && (solver == GLMModel.GLMParameters.Solver.IRLSM || solver == GLMModel.GLMParameters.Solver.COORDINATE_DESCENT)
+            && parms._glmType == GLMModel.GLMParameters.GLMType.glm
+            && !parms._HGLM
+            && parms.interactionSpec() == null
+            && dinfo != null
+            && dinfo.fullN() + 1 <= MAX_COLS;
+  }
+
+  /**
+   * Computes the holdout moments of all the folds.
+   *
+   * @param dinfo DataInfo of the main model
+   * @param foldAssignment fold of every row of the training frame
+   * @param nfolds number of folds
+   */
+  static FoldGrams compute(DataInfo dinfo, Vec foldAssignment, int nfolds) {
+    Frame fr = new Frame(dinfo._adaptedFrame);
+    fr.add("__fold_assignment", foldAssignment);
+    MomentsTask mt = new MomentsTask(dinfo, nfolds).doAll(fr);
+    return new FoldGrams(dinfo, mt);
+  }
+
+  /**
+   * @return true iff the columns of the fold model are expanded the same way as in the main model.
+   */
+  boolean matches(DataInfo dinfo) {
+    return dinfo.fullN() == _fullN && Arrays.equals(dinfo._catOffsets, _catOffsets)
+            && (dinfo._normSub == null || dinfo._normMul == null) == (_normSub == null)
+            && dinfo._intercept == _interceptXY;
+  }
+
+  /**
+   * Gram of the training rows of a fold model, in the expanded space of its (possibly filtered) active data.
+   *
+   * @param fold index of the fold
+   * @param foldDinfo DataInfo of the fold model, see {@link #matches(DataInfo)}
+   * @param activeData active columns of the fold model
+   * @return X'WX (with intercept) and, in the xy and yy out parameters, X'Wz and the sum of the squared responses
+   */
+  Gram foldGram(int fold, DataInfo foldDinfo, DataInfo activeData, double[] xy, double[] yy) {
+    final int P = _fullN + 1;
+    // change of variables from the main model's columns to the fold model's: x' = a * x + b * intercept
+    final double[] a = new double[P];
+    final double[] b = new double[P];
+    Arrays.fill(a, 1);
+    if (_normSub != null) {
+      final int ns = foldDinfo.numStart();
+      for (int i = 0; i < _normMul.length; i++) {
+        a[ns + i] = foldDinfo._normMul[i] / _normMul[i];
+        b[ns + i] = (_normSub[i] - foldDinfo._normSub[i]) * foldDinfo._normMul[i];
+      }
+    }
+    final double[][] hxx = _xx[fold];
+    final double[] hxy = _xy[fold];
+    final int icpt = P - 1;
+    final double xxIcpt = _xxTotal[icpt][icpt] - hxx[icpt][icpt];
+    final double xyIcpt = _xyTotal[icpt] - hxy[icpt];
+
+    // expanded columns of the active data (the intercept is always last)
+    final int[] activeCols = activeData.activeCols();
+    final int N = activeData.fullN() + 1;
+    final int[] cols = new int[N];
+    for (int i = 0; i < N - 1; i++)
+      cols[i] = activeCols[i];
+    cols[N - 1] = icpt;
+
+    Gram gram = new Gram(activeData.fullN(), activeData.largestCat(), activeData.numNums(), activeData._cats, true);
+    for (int i = 0; i < N; i++) {
+      final int ci = cols[i];
+      final double xyi = _xyTotal[ci] - hxy[ci];
+      xy[i] = a[ci] * xyi + b[ci] * xyIcpt;
+      final double xiIcpt = trainXX(hxx, ci, icpt);
+      for (int j = i < gram._diagN ? i : 0; j <= i; j++) {
+        final int cj = cols[j];
+        final double v = a[ci] * a[cj] * trainXX(hxx, ci, cj)
+                + a[ci] * b[cj] * xiIcpt
+                + b[ci] * a[cj] * trainXX(hxx, cj, icpt)
+                + b[ci] * b[cj] * xxIcpt;
+        if (i < gram._diagN) gram._diag[i] = v;
+        else gram._xx[i - gram._diagN][j] = v;
+      }
+    }
+    if (!_interceptXY)
+      xy[N - 1] = 0;
+    yy[0] = _yyTotal - _yy[fold];
+    return gram;
+  }
+
+  private double trainXX(double[][] hxx, int i, int j) {
+    return i >= j ? _xxTotal[i][j] - hxx[i][j] : _xxTotal[j][i] - hxx[j][i];
+  }
+
+  private static class MomentsTask extends MRTask<MomentsTask> {
+    // IN
+    final DataInfo _dinfo;
+    final int _nfolds;
+
+    // OUT
+    double[][][] _xx;
+    double[][] _xy;
+    double[] _yy;
+
+    MomentsTask(DataInfo dinfo, int nfolds) {
+      _dinfo = dinfo;
+      _nfolds = nfolds;
+    }
+
+    @Override
+    public void map(Chunk[] cs) {
+      final int P = _dinfo.fullN() + 1;
+      final int numStart = _dinfo.numStart();
+      final Chunk fold = cs[cs.length - 1];
+      _xx = new double[_nfolds][P][];
+      for (double[][] xx : _xx)
+        for (int i = 0; i < P; i++)
+          xx[i] = MemoryManager.malloc8d(i + 1);
+      _xy = new double[_nfolds][P];
+      _yy = new double[_nfolds];
+
+      final DataInfo.Row row = _dinfo.newDenseRow();
+      final int[] ids = new int[P];
+      final double[] vals = new double[P];
+      for (int r = 0; r < fold._len; r++) {
+        if (fold.isNA(r)) continue;
+        _dinfo.extractDenseRow(cs, r, row);
+        if (row.isBad() || row.weight == 0) continue;
+        final int f = (int) fold.at8(r) % _nfolds; // same as ModelBuilder.cv_makeWeights
+        final double w = row.weight;
+        final double y = row.response(0);
+        final double wz = w * (y - row.offset);
+        // non-zero entries of the expanded row, in increasing order
+        int n = 0;
+        for (int i = 0; i < row.nBins; i++) {
+          ids[n] = row.binIds[i];
+          vals[n++] = 1;
+        }
+        for (int i = 0; i < row.nNums; i++) {
+          ids[n] = numStart + i;
+          vals[n++] = row.numVals[i];
+        }
+        ids[n] = P - 1;
+        vals[n++] = 1;
+
+        final double[][] xx = _xx[f];
+        final double[] xy = _xy[f];
+        _yy[f] += y * y;
+        for (int i = 0; i < n; i++) {
+          final double[] xxi = xx[ids[i]];
+          final double wxi = w * vals[i];
+          xy[ids[i]] += wz * vals[i];
+          for (int j = 0; j <= i; j++)
+            xxi[ids[j]] += wxi * vals[j];
+        }
+      }
+    }
+
+    @Override
+    public void reduce(MomentsTask mt) {
+      if (_xx == null) {
+        _xx = mt._xx;
+        _xy = mt._xy;
+        _yy = mt._yy;
+      } else if (mt._xx != null) {
+        for (int f = 0; f < _nfolds; f++) {
+          ArrayUtils.add(_xx[f], mt._xx[f]);
+          ArrayUtils.add(_xy[f], mt._xy[f]);
+        }
+        ArrayUtils.add(_yy, mt._yy);
+      }
+    }
+
+    @Override
+    protected void postGlobal() {
+      if (_xx == null) { // no rows at all
+        final int P = _dinfo.fullN() + 1;
+        _xx = new double[_nfolds][P][];
+        for (double[][] xx : _xx)
+          for (int i = 0; i < P; i++)
+            xx[i] = MemoryManager.malloc8d(i + 1);
+        _xy = new double[_nfolds][P];
+        _yy = new double[_nfolds];
+      }
+    }
+  }
+
+}
@@ -124,6 +124,20 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
     super.computeCrossValidation();
   }
 
+  /**
+   * Least squares GLMs compute the Gram matrices of all the folds while the fold assignment is at hand,
+   * in a single pass over the data (see {@link FoldGrams}); the fold models don't compute their own.
+   */
+  @Override
+  public Vec[] cv_makeWeights(int N, Vec foldAssignment) {
+    Solver solver = _parms._solver == Solver.AUTO ? defaultSolver() : _parms._solver;
+    if (FoldGrams.isSupported(_parms, solver, _dinfo)) {
+      _foldGrams = FoldGrams.compute(_dinfo, foldAssignment, N);
+      Log.info(LogMsg("Computed the Gram matrices of " + N + " cross-validation folds in a single pass"));
+    }
+    return super.cv_makeWeights(N, foldAssignment);
+  }
+
   /**
    * If run with lambda search, we need to take extra action performed after cross-val models are built.
    * Each of the folds have been computed with ots own private validation dataset and it performed early stopping based on it.
@@ -136,6 +150,7 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
    */
   @Override
   public void cv_computeAndSetOptimalParameters(ModelBuilder[] cvModelBuilders) {
+    _foldGrams = null; // the fold models are built
     if(_parms._max_runtime_secs != 0) _parms._max_runtime_secs = 0;
       _xval_deviances = new double[_parms._lambda.length*_parms._alpha.length];
       _xval_sd = new double [_parms._lambda.length*_parms._alpha.length];
@@ -228,6 +243,7 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
   DataInfo _dinfo;
 
   private transient DataInfo _validDinfo;
+  private transient FoldGrams _foldGrams; // shared by the cross-validation models
   // time per iteration in ms
 
   private static class ScoringHistory {
@@ -577,6 +593,8 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
       if (_valid != null)
         _validDinfo = _dinfo.validDinfo(_valid);
       _state = new ComputationState(_job, _parms, _dinfo, null, nclasses(), _penaltyMatrix, _gamColIndices);
+      if (_parms._is_cv_model && _foldGrams != null && _foldGrams.matches(_dinfo))
+        _state.setFoldGrams(_foldGrams, _parms._cv_fold);
         
       // skipping extra rows? (outside of weights == 0)GLMT
       boolean skippingRows = (_parms.missingValuesHandling() == GLMParameters.MissingValuesHandling.Skip && _train.hasNAs());
@@ -1791,7 +1809,7 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
         _state.set_likelihoodInfo(mmHGLMBd._hlik, mmHGLMBd._pvh, mmHGLMBd._pbvh, mmHGLMBd._caic);
       }
       mb.makeModelMetrics(_model, train, _dinfo._adaptedFrame, null);  // add generated metric to DKV
-      scorePostProcessing(train, t1);
+      scorePostProcessing(train, t1, true);
     }
     
     private void calHlikStuff(ModelMetricsHGLM.MetricBuilderHGLM mmHGLMBd, Frame glmmmeReturns, Frame augXZ) {
@@ -1997,16 +2015,27 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
       mmHGLMBd._nobs = _nobs;
     }
     
-    private void scoreAndUpdateModel(){
+    /**
+     * @param finalScoring false for the intermediate scoring of the scoring history, the metrics are then computed
+     *                     without materializing the predictions (and without gains/lift tables)
+     */
+    private void scoreAndUpdateModel(boolean finalScoring){
       // compute full validation on train and test
       Log.info(LogMsg("Scoring after " + timeSinceLastScoring() + "ms"));
       long t1 = System.currentTimeMillis();
       Frame train = DKV.<Frame>getGet(_parms._train); // need to keep this frame to get scoring metrics back
-      _model.score(train).delete();
-      scorePostProcessing(train, t1);
+      scoreFrame(train, finalScoring);
+      scorePostProcessing(train, t1, finalScoring);
+    }
+
+    private void scoreFrame(Frame fr, boolean finalScoring) {
+      if (finalScoring)
+        _model.score(fr).delete();
+      else
+        _model.scoreMetricsOnly(fr);
     }
     
-    private void scorePostProcessing(Frame train, long t1) {
+    private void scorePostProcessing(Frame train, long t1, boolean finalScoring) {
       _scoreIterationList.add(_state._iter);
       ModelMetrics mtrain = ModelMetrics.getFromDKV(_model, train); // updated by model.scoreAndUpdateModel
       long t2 = System.currentTimeMillis();
@@ -2028,7 +2057,7 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
       Log.info(LogMsg("Training metrics computed in " + (t2 - t1) + "ms"));
       if (_valid != null) {
         Frame valid = DKV.<Frame>getGet(_parms._valid);
-        _model.score(valid).delete();
+        scoreFrame(valid, finalScoring);
         _model._output._validation_metrics = ModelMetrics.getFromDKV(_model, valid); //updated by model.scoreAndUpdateModel
         ScoreKeeper validScore = new ScoreKeeper(Double.NaN);
         validScore.fillFrom(_model._output._validation_metrics);
@@ -2228,7 +2257,7 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
 
           if (_parms._lambda_search && (_parms._score_each_iteration || timeSinceLastScoring() > _scoringInterval)) {
             _model._output.setSubmodelIdx(_model._output._best_submodel_idx = submodelCount); // quick and easy way to set submodel parameters
-            scoreAndUpdateModel(); // update partial results
+            scoreAndUpdateModel(false); // update partial results
           }
           _job.update(_workPerIteration, "iter=" + _state._iter + " lmb=" + 
                   lambdaFormatter.format(_state.lambda()) + " alpha=" + lambdaFormatter.format(_state.alpha())+ 
@@ -2258,7 +2287,7 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
         _model.update(_job._key);
       }
       if (!_parms._HGLM)  // no need to do for HGLM
-        scoreAndUpdateModel();
+        scoreAndUpdateModel(true);
       TwoDimTable scoring_history_early_stop = ScoringInfo.createScoringHistoryTable(_model.getScoringInfo(),
               (null != _parms._valid), false, _model._output.getModelCategory(), false);
       _model._output._scoring_history = combineScoringHistory(_model._output._scoring_history,
@@ -2389,7 +2418,7 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
       _job.update(_workPerIteration,_state.toString());
       if(canScore && (_parms._score_each_iteration || timeSinceLastScoring() > _scoringInterval)) {
         _model.update(_state.expandBeta(_state.beta()), -1, -1, _state._iter);
-        scoreAndUpdateModel();
+        scoreAndUpdateModel(false);
         _earlyStop = updateEarlyStop();
       }
     }
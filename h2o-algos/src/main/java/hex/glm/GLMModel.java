@@ -1875,6 +1875,20 @@ public class GLMModel extends Model<GLMModel,GLMModel.GLMParameters,GLMModel.GLM
     return gs.doAll(gs._dinfo._adaptedFrame)._mb;
   }
 
+  /**
+   * Computes the metrics of a frame (and stores them in the DKV like {@link #score(Frame)} does) without
+   * materializing the predictions. Gains/lift are not computed as they need the predictions.
+   */
+  ModelMetrics scoreMetricsOnly(Frame fr) {
+    Frame adaptFr = new Frame(fr);
+    adaptTestForTrain(adaptFr, true, true);
+    try {
+      return scoreMetrics(adaptFr).makeModelMetrics(this, fr, adaptFr, null);
+    } finally {
+      Frame.deleteTempFrameAndItsNonSharedVecs(adaptFr, fr);
+    }
+  }
+
   @Override
   public boolean haveMojo() {
     if (_parms.interactionSpec() == null) return super.haveMojo();
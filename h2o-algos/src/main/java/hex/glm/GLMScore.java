@@ -114,17 +114,21 @@ public class GLMScore extends MRTask<GLMScore> {
       for (int c = 0; c < bm.length; ++c)
         preds[c + 1] = eta[c] * sumExp;
       preds[0] = ArrayUtils.maxIndex(eta);
-    } else {
-      double mu = _m._parms.linkInv(r.innerProduct(_beta) + o);
-      if (_m._parms._family == GLMModel.GLMParameters.Family.binomial 
-              || _m._parms._family == GLMModel.GLMParameters.Family.quasibinomial 
-              || _m._parms._family == GLMModel.GLMParameters.Family.fractionalbinomial) { // threshold for prediction
-        preds[0] = mu >= _defaultThreshold?1:0;
-        preds[1] = 1.0 - mu; // class 0
-        preds[2] = mu; // class 1
-      } else
-        preds[0] = mu;
-    }
+    } else
+      scoreEta(r.innerProduct(_beta) + o, preds);
+    return preds;
+  }
+
+  private double [] scoreEta(double eta, double [] preds) {
+    double mu = _m._parms.linkInv(eta);
+    if (_m._parms._family == GLMModel.GLMParameters.Family.binomial
+            || _m._parms._family == GLMModel.GLMParameters.Family.quasibinomial
+            || _m._parms._family == GLMModel.GLMParameters.Family.fractionalbinomial) { // threshold for prediction
+      preds[0] = mu >= _defaultThreshold?1:0;
+      preds[1] = 1.0 - mu; // class 0
+      preds[2] = mu; // class 1
+    } else
+      preds[0] = mu;
     return preds;
   }
 
@@ -147,6 +151,44 @@ public class GLMScore extends MRTask<GLMScore> {
       }
     }
   }
+  /**
+   * Dense scoring of a whole chunk at once: the linear predictor of all the rows is computed column by column
+   * (see {@link DataInfo#innerProductChunk}) instead of materializing every row, the rest mirrors
+   * {@link #processRow}.
+   */
+  private void processChunk(Chunk[] chks, float [] res, double [] ps, NewChunk [] preds, int ncols) {
+    final int len = chks[0]._len;
+    final double[] eta = _dinfo.innerProductChunk(chks, _beta, MemoryManager.malloc8d(len), MemoryManager.malloc8d(len));
+    final Chunk weights = _dinfo._weights ? chks[_dinfo.weightChunkId()] : null;
+    final Chunk offsets = _dinfo._offset ? chks[_dinfo.offsetChunkId()] : null;
+    final Chunk responses = _dinfo._responses != 0 ? chks[_dinfo.responseChunkId(0)] : null;
+    for (int rid = 0; rid < len; ++rid) {
+      final double w = weights != null ? weights.atd(rid) : 1;
+      boolean responseBad = false;
+      if (responses != null) {
+        double y = responses.atd(rid);
+        if (Double.isNaN(y))
+          responseBad = true;
+        else if (_dinfo._normRespMul != null)
+          y = (y - _dinfo._normRespSub[0]) * _dinfo._normRespMul[0];
+        res[0] = (float) y;
+      }
+      if (w == 0) {
+        Arrays.fill(ps, 0);
+      } else if (_dinfo._skipMissing && Double.isNaN(eta[rid])) { // missing predictor
+        Arrays.fill(ps, Double.NaN);
+      } else {
+        final double o = offsets != null ? offsets.atd(rid) : 0;
+        scoreEta(eta[rid] + o, ps);
+        if (_computeMetrics && !responseBad)
+          _mb.perRow(ps, res, w, o, _m);
+      }
+      if (_generatePredictions)
+        for (int c = 0; c < ncols; c++)
+          preds[c].addNum(ps[c]);
+    }
+  }
+
   public void map(Chunk[] chks, NewChunk[] preds) {
     if (isCancelled() || _j != null && _j.stop_requested()) return;
     if(_m._parms._family == GLMModel.GLMParameters.Family.multinomial ||
@@ -171,6 +213,8 @@ public class GLMScore extends MRTask<GLMScore> {
     if (_sparse) {
       for (DataInfo.Row r : _dinfo.extractSparseRows(chks))
         processRow(r,res,ps,preds,ncols);
+    } else if (_beta != null && (_vcov == null || !_generatePredictions) && _dinfo.supportsChunkInnerProduct()) {
+      processChunk(chks, res, ps, preds, ncols);
     } else {
       DataInfo.Row r = _dinfo.newDenseRow();
       for (int rid = 0; rid < chks[0]._len; ++rid) {
@@ -1,6 +1,7 @@
 package hex.gram;
 
 
+import hex.DMatrix;
 import hex.DataInfo;
 import hex.FrameTask2;
 import jsr166y.ForkJoinTask;
@@ -813,6 +814,32 @@ public final class Gram extends Iced<Gram> {
     if(hasDiag)
       _diag[row.binIds[0]] += w;
   }
+  /**
+   * Adds a tile of dense rows to a Gram without categoricals; same as {@link #addRowDense} for each
+   * row, but computed with the cache-blocked {@link DMatrix#syrkLower} kernel.
+   * @param tile column-major rows, tile[column][row]
+   * @param w row weights, null for all ones
+   * @param nrows number of valid rows in the tile
+   */
+  public final void addRowsDense(double[][] tile, double[] w, int nrows) {
+    assert _diagN == 0 && tile.length == _denseN && _denseN == _fullN - (_hasIntercept ? 1 : 0);
+    DMatrix.syrkLower(tile, w, nrows, _xx);
+    if (_hasIntercept) {
+      final double[] interceptRow = _xx[_denseN];
+      for (int i = 0; i < _denseN; ++i) {
+        final double[] col = tile[i];
+        double s = 0;
+        for (int r = 0; r < nrows; ++r)
+          s += (w == null ? col[r] : w[r] * col[r]);
+        interceptRow[i] += s;
+      }
+      double sw = 0;
+      for (int r = 0; r < nrows; ++r)
+        sw += w == null ? 1 : w[r];
+      interceptRow[_denseN] += sw;
+    }
+  }
+
   public void mul(double x){
     if(_diag != null)for(int i = 0; i < _diag.length; ++i)
       _diag[i] *= x;
@@ -990,17 +1017,45 @@ public final class Gram extends Iced<Gram> {
       _std = std;
       _intercept = intercept;
     }
+    // All-numeric dense rows are buffered into a column-major tile and added to the Gram a tile at a time
+    private transient double[][] _tile;
+    private transient double[] _tileW;
+    private transient int _tileRows;
+
     @Override public void chunkInit(){
       _gram = new Gram(_dinfo.fullN(), _dinfo.largestCat(), _dinfo.numNums(), _dinfo._cats, _intercept);
+      if (!_sparse && _dinfo._cats == 0 && _dinfo.numNums() > 0) {
+        _tile = new double[_dinfo.numNums()][DMatrix.TILE_ROWS];
+        _tileW = _dinfo._weights ? new double[DMatrix.TILE_ROWS] : null;
+        _tileRows = 0;
+      }
+    }
+    private void flushTile() {
+      if (_tileRows > 0)
+        _gram.addRowsDense(_tile, _tileW, _tileRows);
+      _tileRows = 0;
     }
     double _prev = 0;
     @Override protected void processRow(DataInfo.Row r) {
+      if (_tile != null) {
+        for (int i = 0; i < _tile.length; ++i)
+          _tile[i][_tileRows] = r.numVals[i];
+        if (_tileW != null) _tileW[_tileRows] = r.weight;
+        if (++_tileRows == DMatrix.TILE_ROWS) flushTile();
+        ++_nobs;
+        return;
+      }
       _gram.addRow(r, r.weight);
       ++_nobs;
       double current = (_gram.get(_dinfo.fullN()-1,_dinfo.fullN()-1) - _prev);
       _prev += current;
     }
     @Override public void chunkDone(){
+      if (_tile != null) {
+        flushTile();
+        _tile = null;
+        _tileW = null;
+      }
       if(_std) {
         if (_nobs > 0) {  // removing NA rows may produce _nobs=0
           double r = 1.0 / _nobs;
@@ -8,6 +8,7 @@ import water.*;
 import water.exceptions.H2OModelBuilderIllegalArgumentException;
 import water.fvec.Chunk;
 import water.fvec.Frame;
+import water.fvec.RowBlock;
 import water.fvec.Vec;
 import water.util.*;
 
@@ -582,10 +583,11 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
     }
 
     @Override public void map(Chunk[] cs) {
+      RowBlock blk = new RowBlock(cs, cs.length);
       for( int row = 0; row < cs[0]._len; row++ ) {
         double[] values = new double[cs.length];
         // fetch the data - using consistent NA and categorical data handling (same as for training)
-        data(values, cs, row, _means, _mults, _modes);
+        data(values, blk, row, _means, _mults, _modes);
         // compute the distance from the (standardized) cluster centroids
         _tss += hex.genmodel.GenModel.KMeans_distance(_gc, values, _isCats);
       }
@@ -616,9 +618,10 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
 
     @Override public void map(Chunk[] cs) {
       double[] values = new double[cs.length];
+      RowBlock blk = new RowBlock(cs, values.length);
       ClusterDist cd = new ClusterDist();
       for( int row = 0; row < cs[0]._len; row++ ) {
-        data(values, cs, row, _means, _mults, _modes);
+        data(values, blk, row, _means, _mults, _modes);
         _sqr += minSqr(_centers, values, _isCats, cd);
       }
       _means = _mults = null;
@@ -661,13 +664,14 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
     @Override public void map(Chunk[] cs) {
       int N = cs.length - (_hasWeight?1:0);
       double[] values = new double[N];
+      RowBlock blk = new RowBlock(cs, N);
       ArrayList<double[]> list = new ArrayList<>();
       Random rand = RandomUtils.getRNG(0);
       ClusterDist cd = new ClusterDist();
 
       for( int row = 0; row < cs[0]._len; row++ ) {
         rand.setSeed(_seed + cs[0].start()+row);
-        data(values, cs, row, _means, _mults, _modes);
+        data(values, blk, row, _means, _mults, _modes);
         double sqr = minSqr(_centers, values, _isCats, cd);
         if( _probability * sqr > rand.nextDouble() * _sqr )
           list.add(values.clone());
@@ -750,12 +754,13 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
       Chunk assignment = cs[cs.length-1];
       // Find closest cluster center for each row
       double[] values = new double[N]; // Temp data to hold row as doubles
+      RowBlock blk = new RowBlock(cs, N);
       ClusterDist cd = new ClusterDist();
       for( int row = 0; row < cs[0]._len; row++ ) {
         double weight = _hasWeight ? cs[N].atd(row) : 1;
         if (weight == 0) continue; //skip holdout rows
         assert(weight == 1); //K-Means only works for weight 1 (or weight 0 for holdout)
-        data(values, cs, row, _means, _mults, _modes); // Load row as doubles
+        data(values, blk, row, _means, _mults, _modes); // Load row as doubles
         closest(_centers, values, _isCats, cd); // Find closest cluster center
         if (cd._cluster != assignment.at8(row)) {
           _reassigned_count+=weight;
@@ -845,12 +850,13 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
       int vecsStart = _hasWeight ? N+1 : N;
       
       double[] values = new double[N]; // Temp data to hold row as doubles
+      RowBlock blk = new RowBlock(cs, N);
       for (int row = 0; row < cs[0]._len; row++) {
         double weight = _hasWeight ? cs[N].atd(row) : 1;
         if (weight == 0) continue; //skip holdout rows
         _non_zero_weights++;
         assert (weight == 1); //K-Means only works for weight 1 (or weight 0 for holdout)
-        data(values, cs, row, _means, _mults, _modes); // Load row as doubles
+        data(values, blk, row, _means, _mults, _modes); // Load row as doubles
         double[] distances = getDistances(_centers, values, _isCats);
         for(int cluster=0; cluster<distances.length; cluster++){
           double tmpDist = distances[cluster];
@@ -897,11 +903,12 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
       Chunk newAssignments = cs[cs.length-1];
       // Find closest cluster center for each row
       double[] values = new double[N]; // Temp data to hold row as doubles
+      RowBlock blk = new RowBlock(cs, N);
       for( int row = 0; row < cs[0]._len; row++ ) {
         double weight = _hasWeight ? cs[N].atd(row) : 1;
         if (weight == 0) continue; //skip holdout rows
         assert(weight == 1); //K-Means only works for weight 1 (or weight 0 for holdout)
-        data(values, cs, row, _means, _mults, _modes); // Load row as doubles
+        data(values, blk, row, _means, _mults, _modes); // Load row as doubles
         int cluster = (int) newAssignments.at8(row);
         double distance = distances.atd(row);
         if (cluster != oldAssignments.at8(row)) {
@@ -1079,9 +1086,10 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
     }
   }
 
-  private static void data(double[] values, Chunk[] chks, int row, double[] means, double[] mults, int[] modes) {
+  private static void data(double[] values, RowBlock blk, int row, double[] means, double[] mults, int[] modes) {
+    blk.row(row, values);
     for( int i = 0; i < values.length; i++ ) {
-      values[i] = Kmeans_preprocessData(chks[i].atd(row), i, means, mults, modes);
+      values[i] = Kmeans_preprocessData(values[i], i, means, mults, modes);
     }
   }
 
@@ -1139,6 +1147,7 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
       Chunk assignment = cs[cs.length-1];
       // Find closest cluster center for each row
       double[] values = new double[N]; // Temp data to hold row as doubles
+      RowBlock blk = new RowBlock(cs, N);
       ClusterDist cd = new ClusterDist();
       for( int row = 0; row < cs[0]._len; row++ ) {
         if (assignment.at8(row) != _clusterToSplit) continue;
@@ -1148,7 +1157,7 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
 
         assert(weight == 1); //K-Means only works for weight 1 (or weight 0 for holdout)
 
-        data(values, cs, row, _means, _mults, _modes); // Load row as doubles
+        data(values, blk, row, _means, _mults, _modes); // Load row as doubles
         assert (_isCats[_dimToSplit]==null);
         if (values[_dimToSplit] > _centers[_clusterToSplit][_dimToSplit]) {
           cd._cluster = _centers.length-1;
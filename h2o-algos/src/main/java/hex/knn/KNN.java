@@ -0,0 +1,115 @@
+package hex.knn;
+
+import hex.ModelBuilder;
+import hex.ModelCategory;
+import hex.knn.KNNModel.KNNOutput;
+import hex.knn.KNNModel.KNNParameters;
+import water.H2O;
+import water.Key;
+import water.exceptions.H2OModelBuilderIllegalArgumentException;
+import water.fvec.Frame;
+import water.fvec.Vec;
+import water.util.ArrayUtils;
+import water.util.Log;
+
+/**
+ * k-nearest-neighbour search.
+ * <p>
+ * Training indexes the reference rows: every node builds a vantage-point tree over its own chunks
+ * of the training frame, no rows are moved. Scoring finds the k nearest reference rows of each
+ * row of the scored frame; batches of query rows are searched on all the nodes at once and the
+ * node-local top-k lists are merged in the reduce phase.
+ */
+public class KNN extends ModelBuilder<KNNModel,KNNParameters,KNNOutput> {
+  @Override public ModelCategory[] can_build() { return new ModelCategory[]{ ModelCategory.Unknown, }; }
+  @Override public BuilderVisibility builderVisibility() { return BuilderVisibility.Experimental; }
+  @Override public boolean isSupervised() { return false; }
+  @Override public boolean haveMojo() { return true; }
+
+  public KNN( KNNParameters parms ) { super(parms); init(false); }
+  public KNN(boolean startup_once) { super(new KNNParameters(),startup_once); }
+  @Override protected KNNDriver trainModelImpl() { return new KNNDriver(); }
+
+  @Override public void init(boolean expensive) {
+    // The id column is not a feature
+    if (_parms._id_column != null && !ArrayUtils.contains(_parms._ignored_columns, _parms._id_column))
+      _parms._ignored_columns = ArrayUtils.append(_parms._ignored_columns, _parms._id_column);
+    super.init(expensive);
+    if (_parms._k < 1)
+      error("_k", "k must be at least 1");
+    if (_parms._epsilon < 0)
+      error("_epsilon", "epsilon must be non-negative");
+    if (_parms._distance == null)
+      error("_distance", "distance must be set");
+    if (_parms._nfolds > 0)
+      error("_nfolds", "Cross-validation is not supported by KNN");
+    if (_parms._id_column != null && _parms.train() != null) {
+      Vec ids = _parms.train().vec(_parms._id_column);
+      if (ids == null)
+        error("_id_column", "Id column '" + _parms._id_column + "' not found in the training frame");
+      else if (!ids.isInt() && !ids.isConst())
+        error("_id_column", "Id column '" + _parms._id_column + "' must contain integers");
+      else if (expensive && ids.naCnt() > 0)
+        error("_id_column", "Id column '" + _parms._id_column + "' must not contain missing values");
+    }
+    if (_train != null) {
+      for (int i = 0; i < _train.numCols(); i++) {
+        Vec v = _train.vec(i);
+        if (!v.isNumeric() && !v.isTime())
+          error("_train", "KNN supports numeric features only, column '" + _train.name(i) + "' is not numeric");
+      }
+      if (_train.numCols() == 0)
+        error("_train", "There are no features to measure the distances on");
+    }
+  }
+
+  private class KNNDriver extends Driver {
+    @Override public void computeImpl() {
+      KNNModel model = null;
+      Vec alignedIds = null;
+      try {
+        init(true);
+        if (error_count() > 0)
+          throw H2OModelBuilderIllegalArgumentException.makeFromBuilder(KNN.this);
+
+        model = new KNNModel(dest(), _parms, new KNNOutput(KNN.this));
+        model.delete_and_lock(_job);
+
+        final Frame train = train();
+        final int p = train.numCols();
+        model._output._means = new double[p];
+        model._output._mults = new double[p];
+        for (int i = 0; i < p; i++) {
+          Vec v = train.vec(i);
+          model._output._means[i] = v.mean();
+          model._output._mults[i] = v.sigma() > 0 ? 1 / v.sigma() : 1;
+        }
+        model._output._nrows = train.numRows();
+        _job.update(1);
+
+        Frame fr = new Frame(train);
+        if (_parms._id_column != null) {
+          // The training frame might have been rebalanced
+          Vec ids = _parms.train().vec(_parms._id_column);
+          if (!ids.isCompatibleWith(train.anyVec()))
+            ids = alignedIds = train.anyVec().align(ids);
+          fr.add(_parms._id_column, ids);
+        }
+        final int nodes = H2O.CLOUD.size();
+        Key[] indexKeys = new Key[nodes];
+        for (int i = 0; i < nodes; i++)
+          indexKeys[i] = KNNIndex.key(model._key, i);
+        model._output._index_keys = indexKeys;
+        long start = System.currentTimeMillis();
+        new KNNIndex.BuildTask(model._key, p, _parms._id_column != null, model._output._means, model._output._mults,
+                _parms._standardize, _parms._distance).doAll(fr);
+        Log.info("KNN: indexed " + model._output._nrows + " rows on " + nodes + " nodes in " + (System.currentTimeMillis() - start) / 1000. + " (s)");
+        model.update(_job);
+        _job.update(1);
+      } finally {
+        if (alignedIds != null) alignedIds.remove();
+        if (model != null) model.unlock(_job);
+      }
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package hex.knn;
+
+import hex.genmodel.algos.knn.DistanceMeasure;
+import hex.genmodel.algos.knn.KNNMojoModel;
+import hex.genmodel.algos.knn.VPTree;
+import water.*;
+import water.fvec.Chunk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vantage-point tree over the reference rows homed on one node. Each node indexes only its own
+ * chunks, so building the index moves no data; a search visits the index of every node.
+ */
+public class KNNIndex extends Iced<KNNIndex> {
+  final int _p;
+  final double[] _coords;
+  final long[] _ids;
+  final double[] _mu;
+  private transient VPTree _tree;
+
+  KNNIndex(VPTree tree, int p) {
+    _p = p;
+    _coords = tree.coords();
+    _ids = tree.ids();
+    _mu = tree.mu();
+    _tree = tree;
+  }
+
+  VPTree tree() {
+    VPTree t = _tree;
+    if (t == null)
+      _tree = t = new VPTree(_p, _coords, _ids, _mu);
+    return t;
+  }
+
+  /** Key of the index of the given node, homed on that node. */
+  static Key key(Key modelKey, int node) {
+    return Key.make(modelKey + "_knn_index_" + node, (byte) 1, Key.HIDDEN_USER_KEY, false, H2O.CLOUD._memary[node]);
+  }
+
+  /**
+   * Builds the index of each node from its chunks of the reference frame: the features, optionally
+   * followed by the id column. The index of node i is stored under <code>key(model, i)</code>.
+   */
+  static class BuildTask extends MRTask<BuildTask> {
+    final Key _modelKey;
+    final int _p;
+    final boolean _hasIds;
+    final double[] _means;
+    final double[] _mults;
+    final boolean _standardize;
+    final DistanceMeasure _distance;
+    // Prepared rows of the local chunks, appended concurrently by the map calls
+    private transient List<double[]> _coordParts;
+    private transient List<long[]> _idParts;
+
+    BuildTask(Key modelKey, int p, boolean hasIds, double[] means, double[] mults, boolean standardize, DistanceMeasure distance) {
+      _modelKey = modelKey;
+      _p = p;
+      _hasIds = hasIds;
+      _means = means;
+      _mults = mults;
+      _standardize = standardize;
+      _distance = distance;
+    }
+
+    @Override
+    protected void setupLocal() {
+      _coordParts = new ArrayList<>();
+      _idParts = new ArrayList<>();
+    }
+
+    @Override
+    public void map(Chunk[] cs) {
+      final int len = cs[0]._len;
+      final double[] coords = new double[len * _p];
+      final long[] ids = new long[len];
+      final double[] row = new double[_p];
+      final double[] x = new double[_p];
+      final long start = cs[0].start();
+      for (int r = 0; r < len; r++) {
+        for (int c = 0; c < _p; c++) row[c] = cs[c].atd(r);
+        KNNMojoModel.prepare(row, _means, _mults, _standardize, _distance, x);
+        System.arraycopy(x, 0, coords, r * _p, _p);
+        ids[r] = _hasIds ? cs[_p].at8(r) : start + r;
+      }
+      synchronized (this) {
+        _coordParts.add(coords);
+        _idParts.add(ids);
+      }
+    }
+
+    @Override
+    protected void closeLocal() {
+      int n = 0;
+      for (long[] ids : _idParts) n += ids.length;
+      final double[] coords = new double[n * _p];
+      final long[] ids = new long[n];
+      int off = 0;
+      for (int i = 0; i < _idParts.size(); i++) {
+        long[] part = _idParts.get(i);
+        System.arraycopy(_coordParts.get(i), 0, coords, off * _p, part.length * _p);
+        System.arraycopy(part, 0, ids, off, part.length);
+        off += part.length;
+      }
+      _coordParts = null;
+      _idParts = null;
+      VPTree tree = VPTree.build(_p, coords, ids, _distance.manhattan());
+      DKV.put(key(_modelKey, H2O.SELF.index()), new KNNIndex(tree, _p), _fs);
+    }
+  }
+}
@@ -0,0 +1,275 @@
+package hex.knn;
+
+import hex.Model;
+import hex.ModelCategory;
+import hex.ModelMetrics;
+import hex.genmodel.algos.knn.DistanceMeasure;
+import hex.genmodel.algos.knn.KNNMojoModel;
+import hex.genmodel.algos.knn.Neighbours;
+import hex.genmodel.algos.knn.VPTree;
+import water.*;
+import water.exceptions.H2OIllegalArgumentException;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.Vec;
+import water.udf.CFuncRef;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class KNNModel extends Model<KNNModel,KNNModel.KNNParameters,KNNModel.KNNOutput> {
+
+  public static class KNNParameters extends Model.Parameters {
+    public String algoName() { return "KNN"; }
+    public String fullName() { return "k-Nearest Neighbors"; }
+    public String javaName() { return KNNModel.class.getName(); }
+    @Override public long progressUnits() { return 2; }
+
+    public int _k = 5;                     // Number of neighbours to find
+    public DistanceMeasure _distance = DistanceMeasure.Euclidean;
+    public boolean _standardize = true;    // Standardize the features before measuring distances
+    public double _epsilon = 0;            // Approximation factor, 0 for the exact search
+    public String _id_column;              // Ids of the reference rows, row numbers if not set
+  }
+
+  public static class KNNOutput extends Model.Output {
+    public double[] _means;   // Per feature, used to impute NAs and to standardize
+    public double[] _mults;   // Per feature, 1/sigma
+    public Key[] _index_keys; // Index of the reference rows stored on each node, by node index
+    public long _nrows;       // Number of reference rows
+    public KNNOutput(KNN b) { super(b); }
+    @Override public ModelCategory getModelCategory() { return ModelCategory.Unknown; }
+  }
+
+  public KNNModel(Key<KNNModel> selfKey, KNNParameters parms, KNNOutput output) { super(selfKey, parms, output); }
+
+  @Override
+  public ModelMetrics.MetricBuilder makeMetricBuilder(String[] domain) {
+    throw new H2OIllegalArgumentException("KNN models have no model metrics, they only report the nearest neighbours of the scored rows.");
+  }
+
+  // Local copies of the indexes of all the nodes, for scoring single rows
+  private transient volatile VPTree[] _localTrees;
+
+  /**
+   * Finds the nearest neighbours of a single row in the indexes of all the nodes (fetched to this node once),
+   * the same way the MOJO does.
+   */
+  @Override
+  protected double[] score0(double[] data, double[] preds) {
+    final int k = _parms._k;
+    if (preds.length < 2 * k)
+      throw new H2OIllegalArgumentException("KNN predictions hold " + 2 * k + " values (ids and distances of the " +
+              k + " nearest neighbours), but only " + preds.length + " were requested; use predict on a frame instead.");
+    VPTree[] trees = _localTrees;
+    if (trees == null)
+      _localTrees = trees = gatherIndexes();
+    final int p = _output._means.length;
+    double[] q = KNNMojoModel.prepare(data, _output._means, _output._mults, _parms._standardize, _parms._distance, new double[p]);
+    Neighbours res = new Neighbours(k);
+    for (VPTree t : trees)
+      t.search(q, res, _parms._distance.manhattan(), _parms._epsilon);
+    long[] ids = new long[k];
+    double[] dists = new double[k];
+    res.drainSorted(ids, dists, 0);
+    for (int i = 0; i < k; i++) {
+      boolean found = ids[i] != Neighbours.NO_ID;
+      preds[i] = found ? ids[i] : Double.NaN;
+      preds[k + i] = found ? _parms._distance.fromTreeDistance(dists[i]) : Double.NaN;
+    }
+    return preds;
+  }
+
+  private static final int QUERY_BATCH_VALUES = 1 << 22;
+
+  /**
+   * Finds the nearest reference rows of each row of the frame; the result has the ids of the
+   * neighbours, nearest first, followed by their distances.
+   */
+  @Override
+  protected Frame predictScoreImpl(Frame orig, Frame adaptedFr, String destination_key, Job j, boolean computeMetrics, CFuncRef customMetricFunc) {
+    Frame queries = new Frame(_output.features(), adaptedFr.vecs(_output.features()));
+    return searchNeighbours(queries, Key.<Frame>make(destination_key), QUERY_BATCH_VALUES);
+  }
+
+  /**
+   * A single pass over the queries: the rows of each chunk are prepared where the chunk lives, searched on every node
+   * at once by a {@link SearchTask} (the node-local top-k lists are merged in reduce) and the neighbours are written
+   * to the chunk of the result. Nothing goes through the driver.
+   * @param batchValues number of (prepared) query values to search at once, a search has at least one row
+   */
+  Frame searchNeighbours(Frame queries, Key<Frame> destKey, int batchValues) {
+    final int k = _parms._k;
+    final Vec[] res = queries.anyVec().makeZeros(2 * k);
+    final int p = queries.numCols();
+    Vec[] vecs = new Vec[p + 2 * k];
+    System.arraycopy(queries.vecs(), 0, vecs, 0, p);
+    System.arraycopy(res, 0, vecs, p, 2 * k);
+    new NeighboursTask(this, p, Math.max(1, batchValues / p)).doAll(vecs);
+    Frame fr = new Frame(destKey, KNNMojoModel.outputNames(k), res);
+    DKV.put(fr);
+    return fr;
+  }
+
+  @Override
+  public KNNMojoWriter getMojo() {
+    return new KNNMojoWriter(this);
+  }
+
+  @Override
+  protected Futures remove_impl(Futures fs, boolean cascade) {
+    if (_output._index_keys != null)
+      for (Key k : _output._index_keys)
+        if (k != null) DKV.remove(k, fs);
+    return super.remove_impl(fs, cascade);
+  }
+
+  @Override
+  protected AutoBuffer writeAll_impl(AutoBuffer ab) {
+    for (Key k : _output._index_keys)
+      ab.putKey(k);
+    return super.writeAll_impl(ab);
+  }
+
+  @Override
+  protected Keyed readAll_impl(AutoBuffer ab, Futures fs) {
+    for (Key k : _output._index_keys)
+      ab.getKey(k, fs);
+    return super.readAll_impl(ab, fs);
+  }
+
+  /** @return the reference rows held by each node, in the order of the nodes */
+  VPTree[] gatherIndexes() {
+    VPTree[] trees = new VPTree[_output._index_keys.length];
+    for (int i = 0; i < trees.length; i++) {
+      KNNIndex idx = DKV.getGet(_output._index_keys[i]);
+      if (idx == null)
+        throw new IllegalStateException("Index of KNN model " + _key + " is missing for node " + i + ".");
+      trees[i] = idx.tree();
+    }
+    return trees;
+  }
+
+  // Finds the neighbours of the queries (the first p chunks) and writes them to the result (the next 2k chunks)
+  private static class NeighboursTask extends MRTask<NeighboursTask> {
+    final KNNParameters _parms;
+    final double[] _means;
+    final double[] _mults;
+    final Key[] _indexKeys;
+    final int _p;
+    final int _batchRows;
+
+    NeighboursTask(KNNModel model, int p, int batchRows) {
+      _parms = model._parms;
+      _means = model._output._means;
+      _mults = model._output._mults;
+      _indexKeys = model._output._index_keys;
+      _p = p;
+      _batchRows = batchRows;
+    }
+
+    @Override
+    public void map(Chunk[] cs) {
+      final int p = _p;
+      final int k = _parms._k;
+      final int len = cs[0]._len;
+      final double[] row = new double[p];
+      final double[] q = new double[p];
+      for (int from = 0; from < len; from += _batchRows) {
+        final int n = Math.min(_batchRows, len - from);
+        final double[] queries = new double[n * p];
+        for (int r = 0; r < n; r++) {
+          for (int c = 0; c < p; c++) row[c] = cs[c].atd(from + r);
+          KNNMojoModel.prepare(row, _means, _mults, _parms._standardize, _parms._distance, q);
+          System.arraycopy(q, 0, queries, r * p, p);
+        }
+        SearchTask st = new SearchTask(_indexKeys, p, queries, k, _parms._distance, _parms._epsilon).doAllNodes();
+        for (int r = 0; r < n; r++) {
+          for (int i = 0; i < k; i++) {
+            long id = st._ids[r * k + i];
+            cs[p + i].set(from + r, id == Neighbours.NO_ID ? Double.NaN : id);
+            double d = st._dists[r * k + i];
+            cs[p + k + i].set(from + r, Double.isInfinite(d) ? Double.NaN : _parms._distance.fromTreeDistance(d));
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Searches a batch of (prepared) queries in the indexes of all the nodes. Index i is searched by node
+   * i modulo the size of the cloud: the indexes stay searched also when a model is imported to a smaller cloud.
+   */
+  static class SearchTask extends MRTask<SearchTask> {
+    final Key[] _indexKeys;
+    final int _p;
+    final double[] _queries;
+    final int _k;
+    final DistanceMeasure _distance;
+    final double _epsilon;
+    // output, k neighbours of each query, nearest first
+    long[] _ids;
+    double[] _dists;
+
+    SearchTask(Key[] indexKeys, int p, double[] queries, int k, DistanceMeasure distance, double epsilon) {
+      _indexKeys = indexKeys;
+      _p = p;
+      _queries = queries;
+      _k = k;
+      _distance = distance;
+      _epsilon = epsilon;
+    }
+
+    @Override
+    protected void setupLocal() {
+      final int n = _queries.length / _p;
+      _ids = new long[n * _k];
+      _dists = new double[n * _k];
+      List<VPTree> trees = new ArrayList<>();
+      for (int i = H2O.SELF.index(); i < _indexKeys.length; i += H2O.CLOUD.size()) {
+        KNNIndex idx = DKV.getGet(_indexKeys[i]);
+        if (idx != null) trees.add(idx.tree());
+      }
+      // The queries are split in ranges searched by the cores of the node
+      final int nthreads = Math.max(1, Math.min(H2O.ARGS.nthreads, n));
+      H2O.submitTask(new LocalMR(new SearchRange(this, trees.toArray(new VPTree[0]), n, nthreads), nthreads)).join();
+    }
+
+    private static class SearchRange extends MrFun<SearchRange> {
+      private final SearchTask _task;
+      private final VPTree[] _trees;
+      private final int _n;
+      private final int _nthreads;
+
+      SearchRange(SearchTask task, VPTree[] trees, int n, int nthreads) {
+        _task = task;
+        _trees = trees;
+        _n = n;
+        _nthreads = nthreads;
+      }
+
+      @Override
+      protected void map(int id) {
+        final SearchTask t = _task;
+        final int from = (int) ((long) _n * id / _nthreads);
+        final int to = (int) ((long) _n * (id + 1) / _nthreads);
+        final Neighbours res = new Neighbours(t._k);
+        final double[] q = new double[t._p];
+        for (int r = from; r < to; r++) {
+          System.arraycopy(t._queries, r * t._p, q, 0, t._p);
+          for (VPTree tree : _trees)
+            tree.search(q, res, t._distance.manhattan(), t._epsilon);
+          res.drainSorted(t._ids, t._dists, r * t._k);
+        }
+      }
+    }
+
+    @Override
+    public void reduce(SearchTask mrt) {
+      final long[] tmpIds = new long[_k];
+      final double[] tmpDists = new double[_k];
+      for (int off = 0; off < _ids.length; off += _k)
+        Neighbours.mergeSorted(_k, _ids, _dists, mrt._ids, mrt._dists, off, tmpIds, tmpDists);
+    }
+  }
+}
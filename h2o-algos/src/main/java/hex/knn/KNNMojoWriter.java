@@ -0,0 +1,41 @@
+package hex.knn;
+
+import hex.ModelMojoWriter;
+import hex.genmodel.algos.knn.VPTree;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public class KNNMojoWriter extends ModelMojoWriter<KNNModel, KNNModel.KNNParameters, KNNModel.KNNOutput> {
+
+  @SuppressWarnings("unused")  // Called through reflection in ModelBuildersHandler
+  public KNNMojoWriter() {}
+
+  public KNNMojoWriter(KNNModel model) {
+    super(model);
+  }
+
+  @Override
+  public String mojoVersion() {
+    return "1.00";
+  }
+
+  @Override
+  protected void writeModelData() throws IOException {
+    writekv("k", model._parms._k);
+    writekv("distance", model._parms._distance);
+    writekv("epsilon", model._parms._epsilon);
+    writekv("standardize", model._parms._standardize);
+    final double[] means = model._output._means, mults = model._output._mults;
+    ByteBuffer bb = ByteBuffer.wrap(new byte[16 * means.length]);
+    for (double m : means) bb.putDouble(m);
+    for (double m : mults) bb.putDouble(m);
+    writeblob("standardization.bin", bb.array());
+    // The indexes of all the nodes are gathered here, the MOJO searches them one after another
+    VPTree[] trees = model.gatherIndexes();
+    writekv("tree_num", trees.length);
+    for (int i = 0; i < trees.length; i++)
+      writeblob("trees/t" + i + ".bin", trees[i].toBytes());
+  }
+
+}
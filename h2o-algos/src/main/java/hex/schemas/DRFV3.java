@@ -17,6 +17,7 @@ public class DRFV3 extends SharedTreeV3<DRF, DRFV3, DRFV3.DRFParametersV3> {
                 "keep_cross_validation_fold_assignment",
                 "score_each_iteration",
                 "score_tree_interval",
+                "async_validation_max_lag",
                 "fold_assignment",
                 "fold_column",
                 "response_column",
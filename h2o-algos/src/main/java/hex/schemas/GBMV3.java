@@ -19,6 +19,7 @@ public class GBMV3 extends SharedTreeV3<GBM,GBMV3,GBMV3.GBMParametersV3> {
       "keep_cross_validation_fold_assignment",
       "score_each_iteration",
       "score_tree_interval",
+      "async_validation_max_lag",
       "fold_assignment",
       "fold_column",
       "response_column",
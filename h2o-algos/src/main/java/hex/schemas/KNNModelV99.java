@@ -0,0 +1,28 @@
+package hex.schemas;
+
+import hex.knn.KNNModel;
+import water.api.API;
+import water.api.schemas3.ModelOutputSchemaV3;
+import water.api.schemas3.ModelSchemaV3;
+
+public class KNNModelV99 extends ModelSchemaV3<KNNModel, KNNModelV99, KNNModel.KNNParameters, KNNV99.KNNParametersV99, KNNModel.KNNOutput, KNNModelV99.KNNModelOutputV99> {
+  public static final class KNNModelOutputV99 extends ModelOutputSchemaV3<KNNModel.KNNOutput, KNNModelOutputV99> {
+    @API(help = "Means of the features, used to impute missing values and to standardize")
+    public double[] means;
+
+    @API(help = "Multipliers of the centered features (1/sigma), used to standardize")
+    public double[] mults;
+
+    @API(help = "Number of indexed reference rows")
+    public long nrows;
+  }
+
+  public KNNV99.KNNParametersV99 createParametersSchema() { return new KNNV99.KNNParametersV99(); }
+  public KNNModelOutputV99 createOutputSchema() { return new KNNModelOutputV99(); }
+
+  // Version&Schema-specific filling into the impl
+  @Override public KNNModel createImpl() {
+    KNNModel.KNNParameters parms = parameters.createImpl();
+    return new KNNModel( model_id.key(), parms, null );
+  }
+}
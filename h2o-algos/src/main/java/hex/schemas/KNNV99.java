@@ -0,0 +1,41 @@
+package hex.schemas;
+
+import hex.genmodel.algos.knn.DistanceMeasure;
+import hex.knn.KNN;
+import hex.knn.KNNModel;
+import water.api.API;
+import water.api.schemas3.FrameV3;
+import water.api.schemas3.ModelParametersSchemaV3;
+
+public class KNNV99 extends ModelBuilderSchema<KNN,KNNV99,KNNV99.KNNParametersV99> {
+
+  public static final class KNNParametersV99 extends ModelParametersSchemaV3<KNNModel.KNNParameters, KNNParametersV99> {
+    static public String[] fields = new String[] {
+            "model_id",
+            "training_frame",
+            "ignored_columns",
+            "ignore_const_cols",
+            "k",
+            "distance",
+            "standardize",
+            "epsilon",
+            "id_column",
+            "export_checkpoints_dir"
+    };
+
+    @API(help = "Number of nearest neighbours to find", direction = API.Direction.INOUT, gridable = true)
+    public int k;
+
+    @API(help = "Distance measure", values = { "Euclidean", "Manhattan", "Cosine" }, direction = API.Direction.INOUT, gridable = true)
+    public DistanceMeasure distance;
+
+    @API(help = "Standardize the features before measuring the distances", direction = API.Direction.INOUT, gridable = true)
+    public boolean standardize;
+
+    @API(help = "Approximation factor; a positive value speeds up the search, the reported distances are at most (1 + epsilon) times the exact ones", direction = API.Direction.INOUT, level = API.Level.expert)
+    public double epsilon;
+
+    @API(help = "Column with the integer ids of the reference rows, row numbers are used if not set", direction = API.Direction.INOUT, is_member_of_frames = {"training_frame"}, is_mutually_exclusive_with = {"ignored_columns"}, level = API.Level.secondary)
+    public FrameV3.ColSpecifierV3 id_column;
+  }
+}
@@ -78,6 +78,9 @@ public class SharedTreeV3<B extends SharedTree, S extends SharedTreeV3<B,S,P>, P
     @API(help="Score the model after every so many trees. Disabled if set to 0.", level = API.Level.secondary, gridable = false)
     public int score_tree_interval;
 
+    @API(help="Score the validation frame in the background while the next trees are built; its metrics, also those seen by early stopping, may be up to this many trees stale. Disabled if set to 0.", level = API.Level.expert, gridable = false)
+    public int async_validation_max_lag;
+
     @API(help="Minimum relative improvement in squared error reduction for a split to happen", level = API.Level.secondary, gridable = true)
     public double min_split_improvement;
 
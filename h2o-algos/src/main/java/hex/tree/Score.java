@@ -4,6 +4,7 @@ import hex.*;
 import hex.genmodel.GenModel;
 import hex.genmodel.utils.DistributionFamily;
 import hex.tree.gbm.GBMModel;
+import water.H2O;
 import water.Iced;
 import water.Key;
 import water.fvec.C0DChunk;
@@ -34,15 +35,22 @@ public class Score extends CMetricScoringTask<Score> {
    *  and contains a response which is adapted to confusion matrix domain.
    */
   public Score(SharedTree bldr, boolean is_train, boolean oob, Vec kresp, ModelCategory mcat, boolean computeGainsLift, Frame preds, CFuncRef customMetricFunc) {
-    this(bldr, is_train, null, oob, kresp, mcat, computeGainsLift, preds, customMetricFunc);
+    this(bldr, is_train, null, oob, kresp, mcat, computeGainsLift, preds, customMetricFunc, (byte) (currThrPriority() + 1));
   }
 
   public Score(SharedTree bldr, ScoreIncInfo sii, boolean oob, Vec kresp, ModelCategory mcat, boolean computeGainsLift, Frame preds, CFuncRef customMetricFunc) {
-    this(bldr, false, sii, oob, kresp, mcat, computeGainsLift, preds, customMetricFunc);
+    this(bldr, false, sii, oob, kresp, mcat, computeGainsLift, preds, customMetricFunc, (byte) (currThrPriority() + 1));
   }
 
-  private Score(SharedTree bldr, boolean is_train, ScoreIncInfo sii, boolean oob, Vec kresp, ModelCategory mcat, boolean computeGainsLift, Frame preds, CFuncRef customMetricFunc) {
-  super(customMetricFunc);
+  /** Incremental scoring meant to run in the background, below the priority of the calling thread. Nobody may block
+   *  on it with a join, it is started by {@link #forkScoring(Frame, boolean, H2O.H2OCountedCompleter)}. */
+  static Score background(SharedTree bldr, ScoreIncInfo sii, Vec kresp, ModelCategory mcat, boolean computeGainsLift, Frame preds, CFuncRef customMetricFunc) {
+    byte priority = (byte) Math.max(H2O.MIN_PRIORITY, currThrPriority() - 1);
+    return new Score(bldr, false, sii, false, kresp, mcat, computeGainsLift, preds, customMetricFunc, priority);
+  }
+
+  private Score(SharedTree bldr, boolean is_train, ScoreIncInfo sii, boolean oob, Vec kresp, ModelCategory mcat, boolean computeGainsLift, Frame preds, CFuncRef customMetricFunc, byte priority) {
+  super(customMetricFunc, priority);
     _bldr = bldr; _is_train = is_train; _sii = sii; _oob = oob; _kresp = kresp != null ? kresp._key : null; _mcat = mcat; _computeGainsLift = computeGainsLift;
     _preds = computeGainsLift ? preds : null; // don't keep the prediction cache if we don't need to compute gainslift
     assert _kresp != null || !_bldr.isSupervised();
@@ -65,12 +73,7 @@ public class Score extends CMetricScoringTask<Score> {
     // Because of adaption - the validation training set has at least as many
     // classes as the training set (it may have more).  The Confusion Matrix
     // needs to be at least as big as the training set domain.
-    final String[] domain;
-    if (m._parms._distribution == DistributionFamily.quasibinomial) {
-      domain = ((GBMModel) m)._output._quasibinomialDomains;
-    } else {
-      domain = _kresp != null ? _kresp.get().domain() : null;
-    }
+    final String[] domain = metricsDomain(m, _kresp != null ? _kresp.get() : null);
     final int nclass = _bldr.nclasses();
     _mb = m.makeMetricBuilder(domain);
     // If this is a score-on-train AND DRF, then oobColIdx makes sense,
@@ -122,6 +125,46 @@ public class Score extends CMetricScoringTask<Score> {
     }
   }
 
+  static String[] metricsDomain(SharedTreeModel m, Vec resp) {
+    if (m._parms._distribution == DistributionFamily.quasibinomial)
+      return ((GBMModel) m)._output._quasibinomialDomains;
+    return resp != null ? resp.domain() : null;
+  }
+
+  /**
+   * Scores the rows of a training chunk from the predictions cached in the tree columns, the same way
+   * {@link #map(Chunk[])} does on training data (without OOB and custom metrics). Lets a builder compute the
+   * training metrics in a pass that updates the tree columns anyway, instead of running a scoring pass.
+   *
+   * @param allchks chunks of the training frame, optionally followed by the chunks of the prediction cache
+   * @param cacheChunkIdx index of the first chunk of the prediction cache, -1 if predictions are not cached
+   */
+  public static void scoreTrainingRows(SharedTree bldr, ModelMetrics.MetricBuilder mb, Chunk[] allchks, int cacheChunkIdx) {
+    SharedTreeModel m = bldr._model;
+    Chunk ys = bldr.chk_resp(allchks);
+    Chunk weightsChunk = m._output.hasWeights() ? allchks[m._output.weightsIdx()] : null;
+    Chunk offsetChunk = m._output.hasOffset() ? allchks[m._output.offsetIdx()] : null;
+    final int nclass = bldr.nclasses();
+    final double[] cdists = mb._work;
+    float[] val = new float[1];
+    for (int row = 0; row < ys._len; row++) {
+      if (ys.isNA(row)) continue;
+      double weight = weightsChunk != null ? weightsChunk.atd(row) : 1;
+      if (weight == 0) continue;
+      double offset = offsetChunk != null ? offsetChunk.atd(row) : 0;
+      bldr.score2(allchks, weight, offset, cdists, row);
+      if (nclass > 2) {
+        cdists[0] = GenModel.getPredictionMultinomial(cdists, m._output._priorClassDist, null);
+      } else if (nclass == 2) {
+        cdists[0] = -1; // threshold is not known yet, see map()
+      }
+      val[0] = (float) ys.atd(row);
+      mb.perRow(cdists, val, weight, offset, m);
+      if (cacheChunkIdx >= 0)
+        mb.cachePrediction(cdists, allchks, row, cacheChunkIdx, m);
+    }
+  }
+
   // scoring chunks are those chunks that make the input to one of the scoring functions
   private Chunk[] getScoringChunks(Chunk[] allChunks) {
     if (_preds == null)
@@ -150,17 +193,34 @@ public class Score extends CMetricScoringTask<Score> {
   }
 
   ModelMetrics scoreAndMakeModelMetrics(SharedTreeModel model, Frame fr, Frame adaptedFr, boolean buildTreeOneNode) {
+    return forkScoring(adaptedFr, buildTreeOneNode)
+            .finishScoring(model, fr, adaptedFr);
+  }
+
+  /** Starts scoring without blocking, {@link #finishScoring} waits for the result. */
+  Score forkScoring(Frame adaptedFr, boolean buildTreeOneNode) {
     Frame input = _preds != null ? new Frame(adaptedFr).add(_preds) : adaptedFr;
-    return doAll(input, buildTreeOneNode)
-            .makeModelMetrics(model, fr, adaptedFr, _preds);
+    return dfork(null, input, buildTreeOneNode);
+  }
+
+  /** Starts scoring which completes the given completer, {@link #finishScoring} may be called once it completed. */
+  Score forkScoring(Frame adaptedFr, boolean buildTreeOneNode, H2O.H2OCountedCompleter completer) {
+    setCompleter(completer);
+    return forkScoring(adaptedFr, buildTreeOneNode);
+  }
+
+  ModelMetrics finishScoring(SharedTreeModel model, Frame fr, Frame adaptedFr) {
+    Score sc = getCompleter() == null ? getResult() : this; // a task with a completer is not joined
+    return makeModelMetrics(sc._mb, model, fr, adaptedFr, sc._preds, sc._computeGainsLift);
   }
 
-  // Run after the doAll scoring to convert the MetricsBuilder to a ModelMetrics
-  private ModelMetrics makeModelMetrics(SharedTreeModel model, Frame fr, Frame adaptedFr, Frame preds) {
+  // Run after the scoring to convert the MetricsBuilder to a ModelMetrics
+  static ModelMetrics makeModelMetrics(ModelMetrics.MetricBuilder mb, SharedTreeModel model, Frame fr, Frame adaptedFr,
+                                       Frame preds, boolean computeGainsLift) {
     ModelMetrics mm;
-    if (model._output.nclasses() == 2 && _computeGainsLift) {
+    if (model._output.nclasses() == 2 && computeGainsLift) {
       assert preds != null : "Predictions were pre-created";
-      mm = _mb.makeModelMetrics(model, fr, adaptedFr, preds);
+      mm = mb.makeModelMetrics(model, fr, adaptedFr, preds);
     } else {
       boolean calculatePreds = preds == null && model.isDistributionHuber();
       // FIXME: PUBDEV-4992 we should avoid doing full scoring!
@@ -168,7 +228,7 @@ public class Score extends CMetricScoringTask<Score> {
         Log.warn("Going to calculate predictions from scratch. This can be expensive for large models! See PUBDEV-4992");
         preds = model.score(fr);
       }
-      mm = _mb.makeModelMetrics(model, fr, null, preds);
+      mm = mb.makeModelMetrics(model, fr, null, preds);
       if (calculatePreds && (preds != null))
         preds.remove();
     }
@@ -185,9 +245,11 @@ public class Score extends CMetricScoringTask<Score> {
     public final int _workspaceColIdx;
     public final int _workspaceColCnt;
     public final int _predsAryOffset;
+    public final int _endTree; // exclusive, trees added to the model after the scoring started are ignored
 
-    public ScoreIncInfo(int startTree, int workspaceColIdx, int workspaceColCnt, int predsAryOffset) {
+    public ScoreIncInfo(int startTree, int endTree, int workspaceColIdx, int workspaceColCnt, int predsAryOffset) {
       _startTree = startTree;
+      _endTree = endTree;
       _workspaceColIdx = workspaceColIdx;
       _workspaceColCnt = workspaceColCnt;
       _predsAryOffset = predsAryOffset;
@@ -9,6 +9,7 @@ import hex.util.CheckpointUtils;
 import hex.tree.gbm.GBMModel;
 import hex.util.LinearAlgebraUtils;
 import jsr166y.CountedCompleter;
+import jsr166y.ForkJoinPool;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 import water.*;
@@ -22,7 +23,10 @@ import water.util.*;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 import static hex.util.LinearAlgebraUtils.toEigenArray;
@@ -70,6 +74,9 @@ public abstract class SharedTree<
 
   private transient Frame _calib;
 
+  // Top-level split points by column name, shared by the main model with its cross-validation models
+  transient Map<String, double[]> _globalSplitPoints; // package-private for tests
+
   protected final Frame validWorkspace() { return _validWorkspace; }
   protected transient Frame _validWorkspace;
   protected transient int _lastScoredTree = 0;
@@ -146,6 +153,7 @@ public abstract class SharedTree<
     if (_parms._min_rows <=0) error ("_min_rows", "_min_rows must be > 0.");
     if (_parms._r2_stopping!=Double.MAX_VALUE) warn("_r2_stopping", "_r2_stopping is no longer supported - please use stopping_rounds, stopping_metric and stopping_tolerance instead.");
     if (_parms._score_tree_interval < 0) error ("_score_tree_interval", "_score_tree_interval must be >= 0.");
+    if (_parms._async_validation_max_lag < 0) error ("_async_validation_max_lag", "_async_validation_max_lag must be >= 0.");
     validateRowSampleRate();
     if (_parms._min_split_improvement < 0)
       error("_min_split_improvement", "min_split_improvement must be >= 0, but is " + _parms._min_split_improvement + ".");
@@ -181,6 +189,138 @@ public abstract class SharedTree<
     }
   }
 
+  private boolean usesGlobalQuantiles() {
+    return _parms._histogram_type == SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal
+            || _parms._histogram_type == SharedTreeModel.SharedTreeParameters.HistogramType.RoundRobin;
+  }
+
+  /**
+   * The top-level split points of the main model are computed once, on the whole training frame,
+   * and shared with the cross-validation models (which would otherwise each compute their own on the training
+   * rows of their fold), so that all the models bin the data the same way.
+   */
+  @Override
+  protected void cv_prepareSharedData() {
+    if (!usesGlobalQuantiles() || _train == null)
+      return;
+    double[][] splitPoints = computeGlobalSplitPoints();
+    Map<String, double[]> shared = new HashMap<>();
+    for (int i = 0; i < splitPoints.length; i++)
+      shared.put(_train.name(i), splitPoints[i]);
+    _globalSplitPoints = shared;
+  }
+
+  // Recently computed top-level split points, by their inputs; the models of a grid search
+  // over other parameters (eg. depth, learn rate or sampling) all compute the same ones
+  private static final int GLOBAL_SPLIT_POINTS_CACHE_SIZE = 8;
+  private static final Map<SplitPointsKey, double[][]> GLOBAL_SPLIT_POINTS_CACHE =
+          new LinkedHashMap<SplitPointsKey, double[][]>(GLOBAL_SPLIT_POINTS_CACHE_SIZE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SplitPointsKey, double[][]> eldest) {
+              return size() > GLOBAL_SPLIT_POINTS_CACHE_SIZE;
+            }
+          };
+
+  /**
+   * @return top-level split points (padded quantiles) of all the columns of the training frame,
+   * null for the columns which are binned uniformly
+   */
+  private double[][] computeGlobalSplitPoints() {
+    final SplitPointsKey key = new SplitPointsKey(_train.checksum(), _parms._weights_column,
+            _parms._nbins, _parms._nbins_top_level);
+    synchronized (GLOBAL_SPLIT_POINTS_CACHE) {
+      double[][] splitPoints = GLOBAL_SPLIT_POINTS_CACHE.get(key);
+      if (splitPoints != null)
+        return splitPoints;
+    }
+    double[][] splitPoints = computeGlobalSplitPointsImpl();
+    synchronized (GLOBAL_SPLIT_POINTS_CACHE) {
+      GLOBAL_SPLIT_POINTS_CACHE.put(key, splitPoints);
+    }
+    return splitPoints;
+  }
+
+  /** All the inputs of the top-level split points */
+  private static final class SplitPointsKey {
+    private final long _trainChecksum;
+    private final String _weightsColumn;
+    private final int _nbins;
+    private final int _nbinsTopLevel;
+
+    private SplitPointsKey(long trainChecksum, String weightsColumn, int nbins, int nbinsTopLevel) {
+      _trainChecksum = trainChecksum;
+      _weightsColumn = weightsColumn;
+      _nbins = nbins;
+      _nbinsTopLevel = nbinsTopLevel;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof SplitPointsKey)) return false;
+      SplitPointsKey that = (SplitPointsKey) o;
+      return _trainChecksum == that._trainChecksum &&
+              _nbins == that._nbins &&
+              _nbinsTopLevel == that._nbinsTopLevel &&
+              (_weightsColumn == null ? that._weightsColumn == null : _weightsColumn.equals(that._weightsColumn));
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(new Object[]{_trainChecksum, _weightsColumn, _nbins, _nbinsTopLevel});
+    }
+  }
+
+  private double[][] computeGlobalSplitPointsImpl() {
+    int N = _parms._nbins;
+    QuantileModel.QuantileParameters p = new QuantileModel.QuantileParameters();
+    Key rndKey = Key.make();
+    if (DKV.get(rndKey)==null) DKV.put(rndKey, _train);
+    p._train = rndKey;
+    p._weights_column = _parms._weights_column;
+    p._combine_method = QuantileModel.CombineMethod.INTERPOLATE;
+    p._probs = new double[N];
+    for (int i = 0; i < N; ++i) //compute quantiles such that they span from (inclusive) min...maxEx (exclusive)
+      p._probs[i] = i * 1./N;
+    Job<QuantileModel> job = new Quantile(p).trainModel();
+    QuantileModel qm = job.get();
+    job.remove();
+    double[][] origQuantiles = qm._output._quantiles;
+    //pad the quantiles until we have nbins_top_level bins
+    double[][] splitPoints = new double[origQuantiles.length][];
+    for (int i=0;i<origQuantiles.length;++i) {
+      if (!_train.vec(i).isNumeric() || _train.vec(i).isCategorical() || _train.vec(i).isBinary() || origQuantiles[i].length <= 1)
+        continue;
+      // make the quantiles split points unique
+      splitPoints[i] = ArrayUtils.makeUniqueAndLimitToRange(origQuantiles[i], _train.vec(i).min(), _train.vec(i).max());
+      if (splitPoints[i].length <= 1) //not enough split points left - fall back to regular binning
+        splitPoints[i] = null;
+      else
+        splitPoints[i] = ArrayUtils.padUniformly(splitPoints[i], _parms._nbins_top_level);
+      assert splitPoints[i] == null || splitPoints[i].length > 1;
+    }
+    qm.delete();
+    DKV.remove(rndKey);
+    return splitPoints;
+  }
+
+  /**
+   * @return split points shared by the main model (see {@link #cv_prepareSharedData()}) for the columns
+   * of the current training frame, null if not available for all the predictors
+   */
+  private double[][] sharedGlobalSplitPoints() {
+    if (_globalSplitPoints == null)
+      return null;
+    double[][] splitPoints = new double[_train.numCols()][];
+    for (int i = 0; i < _ncols; i++) {
+      String name = _train.name(i);
+      if (!_globalSplitPoints.containsKey(name))
+        return null;
+      splitPoints[i] = _globalSplitPoints.get(name);
+    }
+    return splitPoints;
+  }
+
   // --------------------------------------------------------------------------
   // Top-level tree-algo driver
   abstract protected class Driver extends ModelBuilder<M,P,O>.Driver {
@@ -282,48 +422,21 @@ public abstract class SharedTree<
 
         // top-level quantiles for all columns
         // non-numeric columns get a vector full of NAs
-        if (_parms._histogram_type == SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal
-                || _parms._histogram_type == SharedTreeModel.SharedTreeParameters.HistogramType.RoundRobin) {
-          int N = _parms._nbins;
-          QuantileModel.QuantileParameters p = new QuantileModel.QuantileParameters();
-          Key rndKey = Key.make();
-          if (DKV.get(rndKey)==null) DKV.put(rndKey, _train);
-          p._train = rndKey;
-          p._weights_column = _parms._weights_column;
-          p._combine_method = QuantileModel.CombineMethod.INTERPOLATE;
-          p._probs = new double[N];
-          for (int i = 0; i < N; ++i) //compute quantiles such that they span from (inclusive) min...maxEx (exclusive)
-            p._probs[i] = i * 1./N;
-          Job<QuantileModel> job = new Quantile(p).trainModel();
+        if (usesGlobalQuantiles()) {
+          double[][] splitPoints = sharedGlobalSplitPoints();
+          if (splitPoints == null)
+            splitPoints = computeGlobalSplitPoints();
           _job.update(1, "Computing top-level histogram splitpoints.");
-          QuantileModel qm = job.get();
-          job.remove();
-          double[][] origQuantiles = qm._output._quantiles;
-          //pad the quantiles until we have nbins_top_level bins
-          double[][] splitPoints = new double[origQuantiles.length][];
           Key[] keys = new Key[splitPoints.length];
           for (int i=0;i<keys.length;++i)
             keys[i] = getGlobalQuantilesKey(i);
-          for (int i=0;i<origQuantiles.length;++i) {
-            if (!_train.vec(i).isNumeric() || _train.vec(i).isCategorical() || _train.vec(i).isBinary() || origQuantiles[i].length <= 1) {
-              keys[i] = null;
-              continue;
-            }
-            // make the quantiles split points unique
-            splitPoints[i] = ArrayUtils.makeUniqueAndLimitToRange(origQuantiles[i], _train.vec(i).min(), _train.vec(i).max());
-            if (splitPoints[i].length <= 1) //not enough split points left - fall back to regular binning
-              splitPoints[i] = null;
-            else
-              splitPoints[i] = ArrayUtils.padUniformly(splitPoints[i], _parms._nbins_top_level);
-            assert splitPoints[i] == null || splitPoints[i].length > 1;
+          for (int i=0;i<splitPoints.length;++i) {
             if (splitPoints[i]!=null && keys[i]!=null) {
 //              Log.info("Creating quantiles for column " + i + " (key: "+ keys[i] +")");
 //              Log.info("Quantiles for column " + i + ": " + Arrays.toString(quantiles[i]));
               DKV.put(new DHistogram.HistoQuantiles(keys[i], splitPoints[i]));
             }
           }
-          qm.delete();
-          DKV.remove(rndKey);
         }
 
         // Also add to the basic working Frame these sets:
@@ -371,6 +484,7 @@ public abstract class SharedTree<
         scoreAndBuildTrees(doOOBScoring());
 
       } finally {
+        awaitPendingValidation();
         if( _model!=null ) _model.unlock(_job);
         for (Key k : getGlobalQuantilesKeys()) Keyed.remove(k);
         if (_validWorkspace != null) {
@@ -707,6 +821,184 @@ public abstract class SharedTree<
 
   // --------------------------------------------------------------------------
   transient long _timeLastScoreStart, _timeLastScoreEnd, _firstScore;
+
+  // Training metrics of the model with _trainMetricsNTrees trees, computed by a builder pass
+  // over the tree columns (see scoreTrainingInPass)
+  private transient ModelMetrics.MetricBuilder _trainMetrics;
+  private transient int _trainMetricsNTrees = -1;
+  private transient int _trainingMetricsInPass;
+  private transient int _trainingScoringPasses;
+
+  /** @return number of times the training metrics were taken from a builder pass so far */
+  public int trainingMetricsInPass() {
+    return _trainingMetricsInPass;
+  }
+
+  /** @return number of scoring passes over the training frame so far */
+  public int trainingScoringPasses() {
+    return _trainingScoringPasses;
+  }
+
+  private boolean isScoringIteration(long now, int ntrees, boolean finalScoring) {
+    long sinceLastScore = now-_timeLastScoreStart;
+    boolean timeToScore = (now-_firstScore < _parms._initial_score_interval) || // Score every time for 4 secs
+        // Throttle scoring to keep the cost sane; limit to a 10% duty cycle & every 4 secs
+        (sinceLastScore > _parms._score_interval && // Limit scoring updates to every 4sec
+            (double)(_timeLastScoreEnd-_timeLastScoreStart)/sinceLastScore < 0.1); //10% duty cycle
+
+    boolean manualInterval = _parms._score_tree_interval > 0 && ntrees % _parms._score_tree_interval == 0;
+
+    return _parms._score_each_iteration || finalScoring || // always score under these circumstances
+        (timeToScore && _parms._score_tree_interval == 0) || // use time-based duty-cycle heuristic only if the user didn't specify _score_tree_interval
+        manualInterval;
+  }
+
+  /**
+   * Builders that update the tree columns of all training rows at the end of an iteration can compute the
+   * training metrics in the same pass (see {@link Score#scoreTrainingRows}) and save the scoring pass over
+   * the training frame.
+   * @return true if the model with one more tree is likely to be scored and its training metrics can be
+   * computed from the tree columns
+   */
+  protected boolean scoreTrainingInPass() {
+    if (!isSupervised() || _parms._custom_metric_func != null) // OOB & custom metrics need the Score task
+      return false;
+    int ntrees = _model._output._ntrees + 1;
+    return isScoringIteration(System.currentTimeMillis(), ntrees, ntrees >= _parms._ntrees);
+  }
+
+  /** @return a new metric builder for the training metrics computed in a builder pass */
+  protected final ModelMetrics.MetricBuilder makeTrainingMetricBuilder() {
+    return _model.makeMetricBuilder(Score.metricsDomain(_model, response()));
+  }
+
+  /** Saves the training metrics computed in a builder pass, must be called after the new trees were added to the model. */
+  protected final void setTrainingMetrics(ModelMetrics.MetricBuilder mb) {
+    _trainMetrics = mb;
+    _trainMetricsNTrees = _model._output._ntrees;
+  }
+
+  /** Validation scoring running in the background, see {@link SharedTreeModel.SharedTreeParameters#_async_validation_max_lag} */
+  private static class PendingValidation {
+    final Score _task;
+    final ScoringDone _done;
+    final Frame _adaptedFr;
+    final int _ntrees;
+
+    PendingValidation(Score task, ScoringDone done, Frame adaptedFr, int ntrees) {
+      _task = task;
+      _done = done;
+      _adaptedFr = adaptedFr;
+      _ntrees = ntrees;
+    }
+  }
+
+  /**
+   * Completer of the background scoring. The scoring runs below the priority of the driver, the driver must not join
+   * it (the lower priority pool may be busy with other work); it waits for this completer instead.
+   */
+  private static class ScoringDone extends H2O.H2OCountedCompleter<ScoringDone> implements ForkJoinPool.ManagedBlocker {
+    private boolean _completed;
+    private Throwable _ex;
+
+    ScoringDone() {
+      super((byte) Math.max(H2O.MIN_PRIORITY, currThrPriority() - 1)); // the priority of the scoring, never submitted
+    }
+
+    @Override
+    public void onCompletion(CountedCompleter caller) {
+      signal(null);
+    }
+
+    @Override
+    public boolean onExceptionalCompletion(Throwable ex, CountedCompleter caller) {
+      signal(ex);
+      return true;
+    }
+
+    private synchronized void signal(Throwable ex) {
+      _ex = ex;
+      _completed = true;
+      notifyAll();
+    }
+
+    @Override
+    public synchronized boolean isReleasable() {
+      return _completed;
+    }
+
+    @Override
+    public synchronized boolean block() throws InterruptedException {
+      while (!_completed) wait();
+      return true;
+    }
+
+    /** Waits for the scoring, rethrows its failure. */
+    void await() {
+      while (!isReleasable()) {
+        try {
+          ForkJoinPool.managedBlock(this);
+        } catch (InterruptedException ignore) {
+        }
+      }
+      if (_ex != null)
+        throw new RuntimeException("Background validation scoring failed", _ex);
+    }
+  }
+
+  private transient PendingValidation _pendingValidation;
+  private transient int _backgroundValidations;
+
+  /** @return number of validation scoring passes which ran in the background so far */
+  public int backgroundValidations() {
+    return _backgroundValidations;
+  }
+
+  private boolean canScoreValidationInBackground(Score.ScoreIncInfo sii, boolean finalScoring) {
+    // Only incremental scoring is bounded to the trees existing at the time it was started;
+    // Huber metrics need the predictions of the final model
+    return _parms._async_validation_max_lag > 0 && sii != null && !finalScoring && _model._output._ntrees > 0 &&
+            !_model.isDistributionHuber();
+  }
+
+  private void setValidationMetrics(ModelMetrics mmv, int ntrees) {
+    O out = _model._output;
+    out._validation_metrics = mmv;
+    if (ntrees>0 || scoreZeroTrees()) //don't score the 0-tree model - the error is too large
+      out._scored_valid[ntrees].fillFrom(mmv);
+  }
+
+  /**
+   * Applies the results of the background validation scoring if they are available, too stale to wait any longer
+   * or if <code>block</code> is set.
+   * @return true if validation metrics were updated
+   */
+  private boolean collectValidation(boolean block) {
+    final PendingValidation pv = _pendingValidation;
+    if (pv == null)
+      return false;
+    if (!block && !pv._done.isReleasable() && _model._output._ntrees - pv._ntrees < _parms._async_validation_max_lag)
+      return false;
+    _pendingValidation = null;
+    pv._done.await();
+    ModelMetrics mmv = pv._task.finishScoring(_model, _parms.valid(), pv._adaptedFr);
+    setValidationMetrics(mmv, pv._ntrees);
+    return true;
+  }
+
+  /** Waits for the background validation scoring (if any) to release the validation workspace. */
+  private void awaitPendingValidation() {
+    final PendingValidation pv = _pendingValidation;
+    if (pv == null)
+      return;
+    _pendingValidation = null;
+    try {
+      pv._done.await();
+    } catch (Throwable t) {
+      Log.warn("Background validation scoring failed", t);
+    }
+  }
+
   protected final boolean doScoringAndSaveModel(boolean finalScoring, boolean oob, boolean build_tree_one_node ) {
     long now = System.currentTimeMillis();
     if( _firstScore == 0 ) _firstScore=now;
@@ -714,17 +1006,17 @@ public abstract class SharedTree<
     boolean updated = false;
     _job.update(0,"Built " + _model._output._ntrees + " trees so far (out of " + _parms._ntrees + ").");
 
-    boolean timeToScore = (now-_firstScore < _parms._initial_score_interval) || // Score every time for 4 secs
-        // Throttle scoring to keep the cost sane; limit to a 10% duty cycle & every 4 secs
-        (sinceLastScore > _parms._score_interval && // Limit scoring updates to every 4sec
-            (double)(_timeLastScoreEnd-_timeLastScoreStart)/sinceLastScore < 0.1); //10% duty cycle
-
-    boolean manualInterval = _parms._score_tree_interval > 0 && _model._output._ntrees % _parms._score_tree_interval == 0;
+    final boolean scoring = isScoringIteration(now, _model._output._ntrees, finalScoring);
+    // Results of background validation scoring are applied once they arrive, at the latest when the next
+    // scoring starts or when they become too stale
+    if (collectValidation(scoring) && !scoring) {
+      _model._output._scoring_history = createScoringHistoryTable();
+      _model.update(_job);
+      updated = true;
+    }
 
     // Now model already contains tid-trees in serialized form
-    if( _parms._score_each_iteration || finalScoring || // always score under these circumstances
-        (timeToScore && _parms._score_tree_interval == 0) || // use time-based duty-cycle heuristic only if the user didn't specify _score_tree_interval
-        manualInterval) {
+    if (scoring) {
       checkMemoryFootPrint();
       if (error_count() > 0)
         throw H2OModelBuilderIllegalArgumentException.makeFromBuilder(SharedTree.this);
@@ -746,8 +1038,17 @@ public abstract class SharedTree<
       // Score on training data
       _job.update(0,"Scoring the model.");
       _model._output._job = _job; // to allow to share the job for quantiles task
-      Score sc = new Score(this,_model._output._ntrees>0/*score 0-tree model from scratch*/,oob,response(),_model._output.getModelCategory(),computeGainsLift,_trainPredsCache, CFuncRef.from(_parms._custom_metric_func));
-      ModelMetrics mm = sc.scoreAndMakeModelMetrics(_model, _parms.train(), train(), build_tree_one_node);
+      ModelMetrics mm;
+      if (_trainMetrics != null && _trainMetricsNTrees == _model._output._ntrees && !oob) {
+        // Already computed from the tree columns while they were updated
+        mm = Score.makeModelMetrics(_trainMetrics, _model, _parms.train(), train(), _trainPredsCache, computeGainsLift);
+        _trainingMetricsInPass++;
+      } else {
+        Score sc = new Score(this,_model._output._ntrees>0/*score 0-tree model from scratch*/,oob,response(),_model._output.getModelCategory(),computeGainsLift,_trainPredsCache, CFuncRef.from(_parms._custom_metric_func));
+        mm = sc.scoreAndMakeModelMetrics(_model, _parms.train(), train(), build_tree_one_node);
+        _trainingScoringPasses++;
+      }
+      _trainMetrics = null;
       out._training_metrics = mm;
       if (oob) out._training_metrics._description = "Metrics reported on Out-Of-Bag training samples";
       out._scored_train[out._ntrees].fillFrom(mm);
@@ -758,15 +1059,21 @@ public abstract class SharedTree<
         Score.ScoreIncInfo sii;
         if (validWorkspace() != null) {
           v = v.add(validWorkspace());
-          sii = new Score.ScoreIncInfo(_lastScoredTree, valid().numCols(), validWorkspace().numCols(), _nclass > 1 ? 1 : 0 /* skip class for classification problems */);
+          sii = new Score.ScoreIncInfo(_lastScoredTree, out._ntrees, valid().numCols(), validWorkspace().numCols(), _nclass > 1 ? 1 : 0 /* skip class for classification problems */);
         } else
           sii = null;
-        Score scv = new Score(this, sii,false, vresponse(), _model._output.getModelCategory(), computeGainsLift, _validPredsCache, CFuncRef.from(_parms._custom_metric_func));
-        ModelMetrics mmv = scv.scoreAndMakeModelMetrics(_model, _parms.valid(), v, build_tree_one_node);
+        if (canScoreValidationInBackground(sii, finalScoring)) {
+          // Overlap with building the next trees, the results are applied by collectValidation
+          Score scv = Score.background(this, sii, vresponse(), out.getModelCategory(), computeGainsLift, _validPredsCache, CFuncRef.from(_parms._custom_metric_func));
+          ScoringDone done = new ScoringDone();
+          _pendingValidation = new PendingValidation(scv.forkScoring(v, build_tree_one_node, done), done, v, out._ntrees);
+          _backgroundValidations++;
+        } else {
+          Score scv = new Score(this, sii,false, vresponse(), _model._output.getModelCategory(), computeGainsLift, _validPredsCache, CFuncRef.from(_parms._custom_metric_func));
+          ModelMetrics mmv = scv.scoreAndMakeModelMetrics(_model, _parms.valid(), v, build_tree_one_node);
+          setValidationMetrics(mmv, out._ntrees);
+        }
         _lastScoredTree = _model._output._ntrees;
-        out._validation_metrics = mmv;
-        if (_model._output._ntrees>0 || scoreZeroTrees()) //don't score the 0-tree model - the error is too large
-          out._scored_valid[out._ntrees].fillFrom(mmv);
       }
       out._model_summary = createModelSummaryTable(out._ntrees, out._treeStats);
       out._scoring_history = createScoringHistoryTable();
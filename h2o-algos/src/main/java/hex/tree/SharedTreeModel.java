@@ -24,6 +24,8 @@ import water.util.*;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 
 public abstract class SharedTreeModel<
         M extends SharedTreeModel<M, P, O>,
@@ -73,6 +75,11 @@ public abstract class SharedTreeModel<
 
     public int _score_interval = 4000; //Adding this parameter to take away the hard coded value of 4000 for scoring each iteration every 4 secs
 
+    // Score the validation frame in the background while the next trees are built, its metrics are applied
+    // at most this many trees late (0 = always score synchronously); early stopping sees the validation
+    // metrics as they arrive, so it can be up to this many trees stale and stop that many trees later
+    public int _async_validation_max_lag = 0;
+
     public double _sample_rate = 0.632; //fraction of rows to sample for each tree
 
     public double[] _sample_rate_per_class; //fraction of rows to sample for each tree, per class
@@ -237,6 +244,29 @@ public abstract class SharedTreeModel<
     super(selfKey, parms, output);
   }
 
+  // parameters which may differ between a model and its warm-started continuation
+  private static final Set<String> WARM_START_IGNORED_FIELDS = new HashSet<>(Arrays.asList(
+          "_ntrees", "_checkpoint", "_max_runtime_secs", "_export_checkpoints_dir"));
+
+  /**
+   * A tree model can be continued into a model with more trees: the trees are built with the same sequence of seeds
+   * (see {@link SharedTree}), so the first trees of the bigger model are the trees of this model. This only holds if
+   * all the trees of this model were actually built and nothing but the number of trees depends on when to stop.
+   */
+  @Override
+  public long warmStartWork(Model.Parameters parms) {
+    if (_input_parms == null || parms.getClass() != _input_parms.getClass() || parms._nfolds > 0 || parms._fold_column != null)
+      return 0;
+    @SuppressWarnings("unchecked") final P p = (P) parms;
+    if (p._stopping_rounds != 0 || _input_parms._stopping_rounds != 0)
+      return 0;
+    if (_output._ntrees != _input_parms._ntrees || p._ntrees <= _output._ntrees)
+      return 0;
+    if (parms.checksum(WARM_START_IGNORED_FIELDS) != _input_parms.checksum(WARM_START_IGNORED_FIELDS))
+      return 0;
+    return _output._ntrees;
+  }
+
 
   protected String[] makeAllTreeColumnNames() {
     int classTrees = 0;
@@ -569,6 +599,115 @@ public abstract class SharedTreeModel<
     }
   }
 
+  /**
+   * Turns the per-class sums of the predictions of all the trees into the final predictions
+   * (eg. link function, averaging). The chunk-at-a-time scoring path relies on it in the models
+   * which enable it in {@link #isBlockScoringSupported()}.
+   */
+  protected abstract double[] unifyPreds(double[] preds, double offset);
+
+  /**
+   * @return true if the model can be scored by {@link BlockScorePredict}, ie. its predictions are
+   * derived from the sum of tree predictions by {@link #unifyPreds(double[], double)}
+   */
+  protected boolean isBlockScoringSupported() {
+    return false;
+  }
+
+  @Override
+  protected BigScorePredict setupBigScorePredict(BigScore bs) {
+    if (!isBlockScoringSupported())
+      return super.setupBigScorePredict(bs);
+    return new BlockScorePredict();
+  }
+
+  /**
+   * Chunk-at-a-time scoring for {@link BigScore}. The trees are fetched from the DKV once per node
+   * (instead of once per row and tree), the chunk is decoded column-wise into blocks of rows and
+   * each block is scored tree-by-tree, so that the bytes of a tree stay in the cache for the whole block.
+   */
+  private class BlockScorePredict implements BigScorePredict {
+    private final CompressedTree[][] _trees;
+
+    BlockScorePredict() {
+      Key<CompressedTree>[][] treeKeys = _output._treeKeys;
+      _trees = new CompressedTree[treeKeys.length][];
+      for (int t = 0; t < treeKeys.length; t++) {
+        _trees[t] = new CompressedTree[treeKeys[t].length];
+        for (int c = 0; c < treeKeys[t].length; c++)
+          if (treeKeys[t][c] != null)
+            _trees[t][c] = DKV.getGet(treeKeys[t][c]);
+      }
+    }
+
+    @Override
+    public BigScoreChunkPredict initMap(Frame fr, Chunk[] chks) {
+      return new BlockScoreChunkPredict(_trees);
+    }
+  }
+
+  private class BlockScoreChunkPredict implements BigScoreChunkPredict {
+    private static final int BLOCK_SIZE = 256;
+
+    private final CompressedTree[][] _trees;
+    private final int _nfeatures;
+    private final double[][] _rows;   // [BLOCK_SIZE][nfeatures] row-major copy of the current block
+    private final double[][] _sums;   // [BLOCK_SIZE][npreds] sum of tree predictions for the current block
+    private final double[] _colBuf;
+    private int _blockStart = -1;
+
+    BlockScoreChunkPredict(CompressedTree[][] trees) {
+      _trees = trees;
+      _nfeatures = _output.nfeatures();
+      final int npreds = _output.nclasses() == 1 ? 1 : _output.nclasses() + 1;
+      _rows = new double[BLOCK_SIZE][_nfeatures];
+      _sums = new double[BLOCK_SIZE][npreds];
+      _colBuf = new double[BLOCK_SIZE];
+    }
+
+    private void scoreBlock(Chunk[] chks, int blockStart) {
+      final int n = Math.min(BLOCK_SIZE, chks[0]._len - blockStart);
+      for (int col = 0; col < _nfeatures; col++) {
+        chks[col].getDoubles(_colBuf, blockStart, blockStart + n);
+        for (int r = 0; r < n; r++)
+          _rows[r][col] = _colBuf[r];
+      }
+      for (int r = 0; r < n; r++)
+        Arrays.fill(_sums[r], 0);
+      final String[][] domains = _output._domains;
+      for (CompressedTree[] classTrees : _trees) {
+        for (int c = 0; c < classTrees.length; c++) {
+          final CompressedTree tree = classTrees[c];
+          if (tree == null) continue;
+          final int predIdx = classTrees.length == 1 ? 0 : c + 1;
+          for (int r = 0; r < n; r++)
+            _sums[r][predIdx] += tree.score(_rows[r], domains);
+        }
+      }
+      _blockStart = blockStart;
+    }
+
+    @Override
+    public double[] score0(Chunk[] chks, double offset, int row_in_chunk, double[] tmp, double[] preds) {
+      final int blockStart = row_in_chunk - row_in_chunk % BLOCK_SIZE;
+      if (blockStart != _blockStart)
+        scoreBlock(chks, blockStart);
+      final int r = row_in_chunk - blockStart;
+      System.arraycopy(_rows[r], 0, tmp, 0, _nfeatures);
+      Arrays.fill(preds, 0);
+      System.arraycopy(_sums[r], 0, preds, 0, _sums[r].length);
+      unifyPreds(preds, offset);
+      if (needsPostProcess() && isSupervised())
+        score0PostProcessSupervised(preds, tmp);
+      return preds;
+    }
+
+    @Override
+    public void close() {
+      // nothing to do
+    }
+  }
+
   /** Performs deep clone of given model.  */
   protected M deepClone(Key<M> result) {
     M newModel = IcedUtils.deepCopy(self());
@@ -58,6 +58,10 @@ public class DRFModel extends SharedTreeModelWithContributions<DRFModel, DRFMode
    *  subclass scoring logic. */
   @Override protected double[] score0(double[] data, double[] preds, double offset, int ntrees) {
     super.score0(data, preds, offset, ntrees);
+    return unifyPreds(preds, offset);
+  }
+
+  @Override protected double[] unifyPreds(double[] preds, double offset) {
     int N = _output._ntrees;
     if (_output.nclasses() == 1) { // regression - compute avg over all trees
       if (N>=1) preds[0] /= N;
@@ -74,6 +78,14 @@ public class DRFModel extends SharedTreeModelWithContributions<DRFModel, DRFMode
     }
     return preds;
   }
+
+  @Override protected boolean isBlockScoringSupported() {
+    return true;
+  }
+
+  @Override public boolean isSharedScoringSupported() {
+    return true;
+  }
   
   @Override protected void toJavaUnifyPreds(SBPrintStream body) {
     if (_output.nclasses() == 1) { // Regression
@@ -5,6 +5,7 @@ import hex.Model;
 import hex.genmodel.utils.DistributionFamily;
 import hex.Distribution;
 import hex.ModelCategory;
+import hex.ModelMetrics;
 import hex.quantile.Quantile;
 import hex.quantile.QuantileModel;
 import hex.tree.*;
@@ -439,9 +440,16 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
       // new tree, in the 'tree' columns.  Also, zap the NIDs for next pass.
       // Tree <== f(Tree)
       // Nids <== 0
-      new AddTreeContributions(
-              frameMap, ktrees, _parms._pred_noise_bandwidth, _parms._seed, _parms._ntrees, _model._output._ntrees
-      ).doAll(_train);
+      // If the next model is going to be scored, compute the training metrics from the updated 'tree' columns
+      final boolean scoreTrain = scoreTrainingInPass();
+      AddTreeContributions atc = new AddTreeContributions(
+              frameMap, ktrees, _parms._pred_noise_bandwidth, _parms._seed, _parms._ntrees, _model._output._ntrees,
+              scoreTrain ? GBM.this : null
+      );
+      if (scoreTrain && _trainPredsCache != null)
+        atc.doAll(new Frame(_train).add(_trainPredsCache));
+      else
+        atc.doAll(_train);
 
       // sanity check
       for (int k = 0; k < _nclass; k++) {
@@ -450,6 +458,8 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
 
       // Grow the model by K-trees
       _model._output.addKTrees(ktrees);
+      if (scoreTrain)
+        setTrainingMetrics(atc._mb);
 
       boolean converged = effective_learning_rate() < 1e-6;
       if (converged) {
@@ -1265,9 +1275,20 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
     private long _seed;
     private int _ntrees1;
     private int _ntrees2;
+    private final GBM _bldr; // not null if training metrics should be computed
+    private final int _cacheChunkIdx;
+    // output
+    ModelMetrics.MetricBuilder _mb;
 
     public AddTreeContributions(
             FrameMap frameMap, DTree[] ktrees, double predictionNoiseBandwidth, long seed, int nTreesInp, int nTreesOut
+    ) {
+      this(frameMap, ktrees, predictionNoiseBandwidth, seed, nTreesInp, nTreesOut, null);
+    }
+
+    AddTreeContributions(
+            FrameMap frameMap, DTree[] ktrees, double predictionNoiseBandwidth, long seed, int nTreesInp, int nTreesOut,
+            GBM scoringBuilder
     ) {
       fm = frameMap;
       _ktrees = ktrees;
@@ -1276,6 +1297,9 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
       _seed = seed;
       _ntrees1 = nTreesInp;
       _ntrees2 = nTreesOut;
+      _bldr = scoringBuilder;
+      _cacheChunkIdx = scoringBuilder != null && scoringBuilder._trainPredsCache != null ?
+              scoringBuilder._train.numCols() : -1;
     }
 
     @Override
@@ -1314,6 +1338,20 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
           ct_vals[row] = ((float) (ct.atd(row) + factor * ((LeafNode) tree.node(nid))._pred));
         }
       }
+      if (_bldr != null) {
+        _mb = _bldr.makeTrainingMetricBuilder();
+        Score.scoreTrainingRows(_bldr, _mb, chks, _cacheChunkIdx);
+      }
+    }
+
+    @Override
+    public void reduce(AddTreeContributions atc) {
+      if (_mb != null) _mb.reduce(atc._mb);
+    }
+
+    @Override
+    protected void postGlobal() {
+      if (_mb != null) _mb.postGlobal();
     }
   }
 
@@ -193,7 +193,7 @@ public class GBMModel extends SharedTreeModelWithContributions<GBMModel, GBMMode
       for (int i = 0; i < sii._workspaceColCnt; i++)
         preds[sii._predsAryOffset + i] = chks[sii._workspaceColIdx + i].atd(row_in_chunk);
 
-    score0(tmp, preds, offset, sii._startTree, _output._treeKeys.length);
+    score0(tmp, preds, offset, sii._startTree, sii._endTree);
 
     for (int i = 0; i < sii._workspaceColCnt; i++)
       chks[sii._workspaceColIdx + i].set(row_in_chunk, preds[sii._predsAryOffset + i]);
@@ -212,6 +212,18 @@ public class GBMModel extends SharedTreeModelWithContributions<GBMModel, GBMMode
     return score0Probabilities(preds, offset);
   }
 
+  @Override protected double[] unifyPreds(double[] preds, double offset) {
+    return score0Probabilities(preds, offset);
+  }
+
+  @Override protected boolean isBlockScoringSupported() {
+    return true;
+  }
+
+  @Override public boolean isSharedScoringSupported() {
+    return true;
+  }
+
   private double[] score0Probabilities(double preds[/*nclasses+1*/], double offset) {
     if (_parms._distribution == DistributionFamily.bernoulli
         || _parms._distribution == DistributionFamily.quasibinomial
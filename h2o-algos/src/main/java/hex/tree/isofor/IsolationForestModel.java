@@ -143,6 +143,14 @@ public class IsolationForestModel extends SharedTreeModel<IsolationForestModel,
    *  subclass scoring logic. */
   @Override protected double[] score0(double[] data, double[] preds, double offset, int ntrees) {
     super.score0(data, preds, offset, ntrees);
+    return pathLengthToScore(preds, ntrees);
+  }
+
+  @Override protected double[] unifyPreds(double[] preds, double offset) {
+    return pathLengthToScore(preds, _output._ntrees);
+  }
+
+  private double[] pathLengthToScore(double[] preds, int ntrees) {
     boolean outputAnomalyFlag = outputAnomalyFlag();
     int off = outputAnomalyFlag ? 1 : 0;
     if (ntrees >= 1) 
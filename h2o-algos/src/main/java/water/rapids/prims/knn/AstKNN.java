@@ -0,0 +1,84 @@
+package water.rapids.prims.knn;
+
+import hex.genmodel.algos.knn.DistanceMeasure;
+import hex.knn.KNN;
+import hex.knn.KNNModel;
+import water.DKV;
+import water.Key;
+import water.fvec.Frame;
+import water.rapids.Env;
+import water.rapids.ast.AstPrimitive;
+import water.rapids.ast.AstRoot;
+import water.rapids.vals.ValFrame;
+
+/**
+ * Finds the k nearest rows of the references for each row of the queries, without keeping a model
+ * around. The result has the row numbers of the neighbours in the references, nearest first,
+ * followed by their distances. Unlike the KNN model, the features are not standardized, the same
+ * as in the <code>distance</code> primitive.
+ */
+public class AstKNN extends AstPrimitive {
+
+  @Override
+  public String[] args() {
+    return new String[]{"references", "queries", "k", "measure"};
+  }
+
+  @Override
+  public int nargs() {
+    return 1 + 4;
+  } // (knn references queries k measure)
+
+  @Override
+  public String str() {
+    return "knn";
+  }
+
+  @Override
+  public ValFrame apply(Env env, Env.StackHelp stk, AstRoot asts[]) {
+    Frame references = stk.track(asts[1].exec(env)).getFrame();
+    Frame queries = stk.track(asts[2].exec(env)).getFrame();
+    int k = (int) asts[3].exec(env).getNum();
+    String measure = asts[4].exec(env).getStr();
+
+    KNNModel.KNNParameters parms = new KNNModel.KNNParameters();
+    parms._k = k;
+    parms._distance = parseMeasure(measure);
+    parms._standardize = false;
+    parms._ignore_const_cols = false;
+    // The builder needs the references in the DKV
+    Frame train = references;
+    boolean tmp = references._key == null || DKV.get(references._key) == null;
+    if (tmp) {
+      train = new Frame(Key.<Frame>make(), references.names(), references.vecs());
+      DKV.put(train);
+    }
+    KNNModel model = null;
+    try {
+      parms._train = train._key;
+      model = new KNN(parms).trainModel().get();
+      Frame scored = model.score(queries);
+      DKV.remove(scored._key);
+      return new ValFrame(new Frame(scored.names(), scored.vecs()));
+    } finally {
+      if (model != null) model.delete();
+      if (tmp) DKV.remove(train._key);
+    }
+  }
+
+  static DistanceMeasure parseMeasure(String measure) {
+    switch (measure.toLowerCase()) {
+      case "l2":
+      case "euclidean":
+        return DistanceMeasure.Euclidean;
+      case "l1":
+      case "manhattan":
+        return DistanceMeasure.Manhattan;
+      case "cosine":
+        return DistanceMeasure.Cosine;
+      default:
+        throw new IllegalArgumentException("Unknown distance measure '" + measure + "', expected one of: l1, l2, cosine");
+    }
+  }
+
+}
@@ -122,4 +122,60 @@ public class DMatrixTest extends TestUtil {
             if (tTrain != null) tTrain.delete();
         }
     }
+
+    private static double[][] randomMatrix(Random rnd, int nrows, int ncols, int sparseCol) {
+        double[][] m = new double[nrows][ncols];
+        for (int i = 0; i < nrows; i++)
+            for (int j = 0; j < ncols; j++)
+                m[i][j] = j == sparseCol ? (rnd.nextInt(50) == 0 ? rnd.nextInt(10) + 1 : 0) : rnd.nextGaussian();
+        return m;
+    }
+
+    /*
+    The blocked multiply walks x in tiles of 256 rows x 128 columns, use shapes crossing both
+    boundaries and a mostly-zero column (multiplied from its non-zeros only when stored sparse).
+     */
+    @Test public void testBlockedMatrixMultiply() {
+        Frame x = null, y = null, z = null;
+        try {
+            Random rnd = new Random(42);
+            double[][] xm = randomMatrix(rnd, 700, 150, 3);
+            double[][] ym = randomMatrix(rnd, 150, 7, -1);
+            x = ArrayUtils.frame(Key.<Frame>make(), null, xm);
+            y = ArrayUtils.frame(Key.<Frame>make(), null, ym);
+            z = DMatrix.mmul(x, y);
+            Assert.assertEquals(700, z.numRows());
+            Assert.assertEquals(7, z.numCols());
+            for (int i = 0; i < 700; i++)
+                for (int j = 0; j < 7; j++) {
+                    double expected = 0;
+                    for (int k = 0; k < 150; k++)
+                        expected += xm[i][k] * ym[k][j];
+                    Assert.assertEquals(expected, z.vec(j).at(i), 1e-10);
+                }
+        } finally {
+            if (x != null) x.delete();
+            if (y != null) y.delete();
+            if (z != null) z.delete();
+        }
+    }
+
+    @Test public void testCrossprod() {
+        Frame x = null;
+        try {
+            Random rnd = new Random(7);
+            double[][] xm = randomMatrix(rnd, 600, 135, 10);
+            x = ArrayUtils.frame(Key.<Frame>make(), null, xm);
+            double[][] xx = DMatrix.crossprod(x);
+            for (int i = 0; i < 135; i++)
+                for (int j = 0; j < 135; j++) {
+                    double expected = 0;
+                    for (int r = 0; r < 600; r++)
+                        expected += xm[r][i] * xm[r][j];
+                    Assert.assertEquals(expected, xx[i][j], 1e-9);
+                }
+        } finally {
+            if (x != null) x.delete();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package hex;
+
+import hex.glm.GLM;
+import hex.glm.GLMModel;
+import hex.tree.drf.DRF;
+import hex.tree.drf.DRFModel;
+import hex.tree.gbm.GBM;
+import hex.tree.gbm.GBMModel;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.DKV;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Frame;
+
+import static org.junit.Assert.*;
+
+public class MultiModelScorerTest extends TestUtil {
+
+  @BeforeClass
+  public static void setup() {
+    stall_till_cloudsize(1);
+  }
+
+  @Test
+  public void testSharedScoringMatchesScore() {
+    try {
+      Scope.enter();
+      Frame fr = parse_test_file("./smalldata/prostate/prostate.csv");
+      fr.toCategoricalCol("CAPSULE");
+      fr.remove("ID").remove();
+      DKV.put(fr);
+      Scope.track(fr);
+
+      GBMModel.GBMParameters gbmParms = new GBMModel.GBMParameters();
+      gbmParms._train = fr._key;
+      gbmParms._response_column = "CAPSULE";
+      gbmParms._ntrees = 5;
+      gbmParms._seed = 42;
+      GBMModel gbm = new GBM(gbmParms).trainModel().get();
+      Scope.track_generic(gbm);
+
+      DRFModel.DRFParameters drfParms = new DRFModel.DRFParameters();
+      drfParms._train = fr._key;
+      drfParms._response_column = "CAPSULE";
+      drfParms._ntrees = 5;
+      drfParms._seed = 42;
+      DRFModel drf = new DRF(drfParms).trainModel().get();
+      Scope.track_generic(drf);
+
+      GLMModel.GLMParameters glmParms = new GLMModel.GLMParameters(GLMModel.GLMParameters.Family.binomial);
+      glmParms._train = fr._key;
+      glmParms._response_column = "CAPSULE";
+      GLMModel glm = new GLM(glmParms).trainModel().get(); // scored on its own
+      Scope.track_generic(glm);
+
+      assertTrue(gbm.isSharedScoringSupported());
+      assertTrue(drf.isSharedScoringSupported());
+      assertFalse(glm.isSharedScoringSupported());
+
+      Model[] models = new Model[]{gbm, drf, glm};
+      ModelMetrics[] shared = new MultiModelScorer(models, fr).scoreMetrics();
+      assertEquals(models.length, shared.length);
+      for (int i = 0; i < models.length; i++) {
+        ModelMetricsBinomial actual = (ModelMetricsBinomial) shared[i];
+        assertNotNull(actual);
+        assertNotNull(actual.gainsLift());
+        // the cached metrics (eg. of model_performance) are the complete ones
+        assertNotNull(((ModelMetricsBinomial) ModelMetrics.getFromDKV(models[i], fr)).gainsLift());
+
+        Scope.track(models[i].score(fr));
+        ModelMetricsBinomial expected = (ModelMetricsBinomial) ModelMetrics.getFromDKV(models[i], fr);
+        assertEquals(expected._nobs, actual._nobs);
+        assertEquals(expected.auc(), actual.auc(), 1e-8);
+        assertEquals(expected.logloss(), actual.logloss(), 1e-8);
+        assertEquals(expected.mse(), actual.mse(), 1e-8);
+        assertEquals(expected.mean_per_class_error(), actual.mean_per_class_error(), 1e-8);
+        assertArrayEquals(expected.gainsLift().response_rates, actual.gainsLift().response_rates, 1e-8);
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+}
@@ -0,0 +1,86 @@
+package hex.glm;
+
+import hex.Model;
+import hex.glm.GLMModel.GLMParameters;
+import hex.glm.GLMModel.GLMParameters.Family;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.DKV;
+import water.Key;
+import water.MRTask;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class FoldGramsTest extends TestUtil {
+
+  @BeforeClass
+  public static void setup() {
+    stall_till_cloudsize(1);
+  }
+
+  @Test
+  public void testFoldModelsMatchModelsTrainedOnTheFoldWeights() {
+    try {
+      Scope.enter();
+      Frame fr = Scope.track(parse_test_file("smalldata/glm_test/prostate_cat_replaced.csv"));
+
+      GLMParameters params = new GLMParameters(Family.gaussian);
+      params._response_column = "AGE";
+      params._ignored_columns = new String[]{"ID"};
+      params._train = fr._key;
+      params._nfolds = 3;
+      params._fold_assignment = Model.Parameters.FoldAssignmentScheme.Modulo;
+      params._solver = GLMParameters.Solver.IRLSM;
+      params._lambda = new double[]{1e-3};
+      params._alpha = new double[]{0.5};
+      params._keep_cross_validation_models = true;
+      GLMModel model = new GLM(params).trainModel().get();
+      Scope.track_generic(model);
+      for (Key k : model._output._cross_validation_models)
+        Scope.track_generic((GLMModel) DKV.getGet(k));
+
+      for (int fold = 0; fold < params._nfolds; fold++) {
+        final int nfolds = params._nfolds;
+        final int holdout = fold;
+        Vec weights = new MRTask() {
+          @Override
+          public void map(Chunk c, NewChunk nc) {
+            for (int i = 0; i < c._len; i++)
+              nc.addNum((c.start() + i) % nfolds == holdout ? 0 : 1);
+          }
+        }.doAll(Vec.T_NUM, fr.anyVec()).outputFrame().anyVec();
+        Frame weighted = new Frame(Key.<Frame>make(), fr.names(), fr.vecs());
+        weighted.add("w", weights);
+        DKV.put(weighted);
+        Scope.track(weighted);
+
+        GLMParameters foldParams = (GLMParameters) params.clone();
+        foldParams._train = weighted._key;
+        foldParams._weights_column = "w";
+        foldParams._nfolds = 0;
+        foldParams._fold_assignment = Model.Parameters.FoldAssignmentScheme.AUTO;
+        foldParams._keep_cross_validation_models = false;
+        GLMModel expected = new GLM(foldParams).trainModel().get();
+        Scope.track_generic(expected);
+
+        GLMModel actual = DKV.getGet(model._output._cross_validation_models[fold]);
+        Map<String, Double> expectedCoefs = expected.coefficients();
+        Map<String, Double> actualCoefs = actual.coefficients();
+        assertEquals(expectedCoefs.keySet(), actualCoefs.keySet());
+        for (String name : expectedCoefs.keySet())
+          assertEquals(name, expectedCoefs.get(name), actualCoefs.get(name), 1e-6);
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+}
@@ -268,6 +268,66 @@ public class GLMTest  extends TestUtil {
     }
   }
 
+  @Test
+  public void testChunkScoringMatchesRowScoring() {
+    // dense binomial and gaussian models are scored a chunk at a time (see GLMScore.processChunk), the predictions
+    // have to match score0 row by row with weights, offsets, NAs and unseen categorical levels
+    for (Family family : new Family[]{Family.binomial, Family.gaussian}) {
+      Scope.enter();
+      try {
+        Frame train = makeScoringFrame(1000, family == Family.binomial, false, 0xC0FFEE);
+        GLMParameters params = new GLMParameters(family);
+        params._train = train._key;
+        params._response_column = "y";
+        params._weights_column = "w";
+        params._offset_column = "o";
+        params._lambda = new double[]{0};
+        GLMModel model = new GLM(params).trainModel().get();
+        Scope.track_generic(model);
+        testScoring(model, makeScoringFrame(777, family == Family.binomial, true, 0xFACE));
+      } finally {
+        Scope.exit();
+      }
+    }
+  }
+
+  private static Frame makeScoringFrame(int nrows, boolean binomial, boolean withUnseenLevels, long seed) {
+    final Random rnd = new Random(seed);
+    final String[] levels = withUnseenLevels ?
+            new String[]{"a", "b", "c", "d", "unseen"} : new String[]{"a", "b", "c", "d"};
+    double[] x1 = new double[nrows];
+    double[] x2 = new double[nrows];
+    String[] c1 = new String[nrows];
+    double[] w = new double[nrows];
+    double[] o = new double[nrows];
+    double[] yNum = new double[nrows];
+    String[] yCat = new String[nrows];
+    for (int i = 0; i < nrows; i++) {
+      x1[i] = rnd.nextInt(20) == 0 ? Double.NaN : rnd.nextGaussian();
+      x2[i] = rnd.nextDouble() * 10;
+      int level = rnd.nextInt(levels.length);
+      c1[i] = rnd.nextInt(20) == 0 ? null : levels[level];
+      w[i] = 0.5 + rnd.nextDouble() * 2;
+      o[i] = rnd.nextDouble() * 0.2 - 0.1;
+      yNum[i] = (Double.isNaN(x1[i]) ? 0 : x1[i]) - x2[i] / 5 + level % 3 + rnd.nextGaussian();
+      yCat[i] = yNum[i] > 0 ? "yes" : "no";
+    }
+    TestFrameBuilder builder = new TestFrameBuilder()
+            .withColNames("x1", "x2", "c1", "w", "o", "y")
+            .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_CAT, Vec.T_NUM, Vec.T_NUM, binomial ? Vec.T_CAT : Vec.T_NUM)
+            .withDataForCol(0, x1)
+            .withDataForCol(1, x2)
+            .withDataForCol(2, c1)
+            .withDataForCol(3, w)
+            .withDataForCol(4, o)
+            .withChunkLayout(nrows / 3, nrows / 2, nrows - nrows / 3 - nrows / 2);
+    if (binomial)
+      builder.withDataForCol(5, yCat);
+    else
+      builder.withDataForCol(5, yNum);
+    return builder.build();
+  }
+
   /**
    * Test Poisson regression on simple and small synthetic dataset.
    * Equation is: y = exp(x+1);
@@ -0,0 +1,293 @@
+package hex.knn;
+
+import hex.genmodel.algos.knn.DistanceMeasure;
+import hex.genmodel.algos.knn.KNNMojoModel;
+import hex.Model;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import water.Key;
+import water.Scope;
+import water.TestUtil;
+import water.exceptions.H2OIllegalArgumentException;
+import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+import water.rapids.Rapids;
+import water.runner.CloudSize;
+import water.runner.H2ORunner;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+@RunWith(H2ORunner.class)
+@CloudSize(1)
+public class KNNTest extends TestUtil {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private static final int P = 3;
+
+  private static Frame randomFrame(int nrows, long seed, boolean withIds) {
+    Random r = new Random(seed);
+    double[][] cols = new double[P][nrows];
+    for (int c = 0; c < P; c++)
+      for (int i = 0; i < nrows; i++)
+        cols[c][i] = r.nextGaussian() * (c + 1) + c;
+    TestFrameBuilder b = new TestFrameBuilder()
+            .withColNames(withIds ? new String[]{"x", "y", "z", "id"} : new String[]{"x", "y", "z"})
+            .withVecTypes(withIds ? new byte[]{Vec.T_NUM, Vec.T_NUM, Vec.T_NUM, Vec.T_NUM} : new byte[]{Vec.T_NUM, Vec.T_NUM, Vec.T_NUM})
+            .withChunkLayout(nrows / 5, nrows / 5, nrows - 2 * (nrows / 5));
+    for (int c = 0; c < P; c++)
+      b.withDataForCol(c, cols[c]);
+    if (withIds) {
+      long[] ids = new long[nrows];
+      for (int i = 0; i < nrows; i++) ids[i] = 1000 + 3 * i;
+      b.withDataForCol(P, ids);
+    }
+    return b.build();
+  }
+
+  private static double[] row(Frame fr, long i, double[] means, double[] mults) {
+    double[] x = new double[P];
+    for (int c = 0; c < P; c++)
+      x[c] = (fr.vec(c).at(i) - means[c]) * mults[c];
+    return x;
+  }
+
+  private static double distance(double[] a, double[] b, DistanceMeasure m) {
+    double s = 0, na = 0, nb = 0, dot = 0;
+    for (int c = 0; c < a.length; c++) {
+      s += m == DistanceMeasure.Manhattan ? Math.abs(a[c] - b[c]) : (a[c] - b[c]) * (a[c] - b[c]);
+      dot += a[c] * b[c];
+      na += a[c] * a[c];
+      nb += b[c] * b[c];
+    }
+    switch (m) {
+      case Manhattan: return s;
+      case Cosine: return 1 - dot / Math.sqrt(na * nb);
+      default: return Math.sqrt(s);
+    }
+  }
+
+  // Brute-force distances from the query row to all the reference rows, sorted
+  private static double[] bruteForce(Frame refs, Frame queries, long q, double[] means, double[] mults, DistanceMeasure m) {
+    double[] x = row(queries, q, means, mults);
+    double[] d = new double[(int) refs.numRows()];
+    for (int i = 0; i < d.length; i++)
+      d[i] = distance(x, row(refs, i, means, mults), m);
+    Arrays.sort(d);
+    return d;
+  }
+
+  private static KNNModel train(Frame fr, int k, DistanceMeasure m, String idColumn) {
+    KNNModel.KNNParameters parms = new KNNModel.KNNParameters();
+    parms._train = fr._key;
+    parms._k = k;
+    parms._distance = m;
+    parms._id_column = idColumn;
+    return new KNN(parms).trainModel().get();
+  }
+
+  @Test
+  public void testExactSearchMatchesBruteForce() {
+    Scope.enter();
+    try {
+      Frame refs = Scope.track(randomFrame(500, 1, true));
+      Frame queries = Scope.track(randomFrame(50, 2, false));
+      for (DistanceMeasure m : DistanceMeasure.values()) {
+        KNNModel model = train(refs, 4, m, "id");
+        Scope.track_generic(model);
+        assertEquals(500, model._output._nrows);
+        Frame res = Scope.track(model.score(queries));
+        assertArrayEquals(KNNMojoModel.outputNames(4), res.names());
+        for (long q = 0; q < queries.numRows(); q++) {
+          double[] expected = bruteForce(refs, queries, q, model._output._means, model._output._mults, m);
+          for (int i = 0; i < 4; i++) {
+            long id = (long) res.vec(i).at(q);
+            assertEquals(0, (id - 1000) % 3);
+            assertEquals(m + " query " + q, expected[i], res.vec(4 + i).at(q), 1e-9);
+            // The reported id belongs to a row at the reported distance
+            double[] x = row(queries, q, model._output._means, model._output._mults);
+            double[] y = row(refs, (id - 1000) / 3, model._output._means, model._output._mults);
+            assertEquals(expected[i], distance(x, y, m), 1e-9);
+          }
+        }
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testMoreNeighboursThanRows() {
+    Scope.enter();
+    try {
+      Frame refs = Scope.track(randomFrame(10, 3, false));
+      KNNModel model = train(refs, 12, DistanceMeasure.Euclidean, null);
+      Scope.track_generic(model);
+      Frame res = Scope.track(model.score(refs));
+      for (long q = 0; q < refs.numRows(); q++) {
+        assertEquals(q, (long) res.vec(0).at(q)); // Each row is its own nearest neighbour
+        assertEquals(0, res.vec(12).at(q), 0);
+        for (int i = 10; i < 12; i++) {
+          assertTrue(res.vec(i).isNA(q));
+          assertTrue(res.vec(12 + i).isNA(q));
+        }
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testMojoMatchesInH2OSearch() throws Exception {
+    Scope.enter();
+    try {
+      Frame refs = Scope.track(randomFrame(300, 4, false));
+      Frame queries = Scope.track(randomFrame(40, 5, false));
+      KNNModel model = train(refs, 3, DistanceMeasure.Manhattan, null);
+      Scope.track_generic(model);
+      Frame res = Scope.track(model.score(queries));
+      KNNMojoModel mojo = (KNNMojoModel) model.toMojo();
+      assertEquals(6, mojo.getPredsSize());
+      double[] preds = new double[6];
+      for (long q = 0; q < queries.numRows(); q++) {
+        double[] row = new double[P];
+        for (int c = 0; c < P; c++) row[c] = queries.vec(c).at(q);
+        mojo.score0(row, preds);
+        for (int i = 0; i < 6; i++)
+          assertEquals(res.vec(i).at(q), preds[i], 1e-12);
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testApproximateSearchIsWithinEpsilon() {
+    Scope.enter();
+    try {
+      Frame refs = Scope.track(randomFrame(500, 8, true));
+      Frame queries = Scope.track(randomFrame(50, 9, false));
+      final double epsilon = 0.5;
+      for (DistanceMeasure m : new DistanceMeasure[]{DistanceMeasure.Euclidean, DistanceMeasure.Manhattan}) {
+        KNNModel.KNNParameters parms = new KNNModel.KNNParameters();
+        parms._train = refs._key;
+        parms._k = 4;
+        parms._distance = m;
+        parms._id_column = "id";
+        parms._epsilon = epsilon;
+        KNNModel model = new KNN(parms).trainModel().get();
+        Scope.track_generic(model);
+        Frame res = Scope.track(model.score(queries));
+        for (long q = 0; q < queries.numRows(); q++) {
+          double[] exact = bruteForce(refs, queries, q, model._output._means, model._output._mults, m);
+          double[] x = row(queries, q, model._output._means, model._output._mults);
+          for (int i = 0; i < 4; i++) {
+            double d = res.vec(4 + i).at(q);
+            // never closer than the exact neighbour, at most (1 + epsilon) further
+            assertTrue(m + " query " + q, d >= exact[i] - 1e-9);
+            assertTrue(m + " query " + q, d <= (1 + epsilon) * exact[i] + 1e-9);
+            if (i > 0) assertTrue(d >= res.vec(3 + i).at(q));
+            long id = (long) res.vec(i).at(q);
+            assertEquals(d, distance(x, row(refs, (id - 1000) / 3, model._output._means, model._output._mults), m), 1e-9);
+          }
+        }
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testSearchInBatchesMatchesSingleBatch() {
+    Scope.enter();
+    try {
+      Frame refs = Scope.track(randomFrame(300, 10, false));
+      Frame queries = Scope.track(randomFrame(60, 11, false)); // chunks of 12, 12 and 36 rows
+      KNNModel model = train(refs, 3, DistanceMeasure.Euclidean, null);
+      Scope.track_generic(model);
+      Frame single = Scope.track(model.searchNeighbours(queries, Key.<Frame>make(), Integer.MAX_VALUE));
+      // one row per search, then searches of 5 rows (not aligned with the chunks)
+      for (int batchValues : new int[]{1, 5 * P})
+        assertBitIdentical(single, Scope.track(model.searchNeighbours(queries, Key.<Frame>make(), batchValues)));
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testScore0MatchesFrameScoring() {
+    Scope.enter();
+    try {
+      Frame refs = Scope.track(randomFrame(200, 12, false));
+      Frame queries = Scope.track(randomFrame(20, 13, false));
+      KNNModel model = train(refs, 3, DistanceMeasure.Cosine, null);
+      Scope.track_generic(model);
+      Frame res = Scope.track(model.score(queries));
+      double[] preds = new double[6];
+      for (long q = 0; q < queries.numRows(); q++) {
+        double[] row = new double[P];
+        for (int c = 0; c < P; c++) row[c] = queries.vec(c).at(q);
+        model.score0(row, preds);
+        for (int i = 0; i < 6; i++)
+          assertEquals(res.vec(i).at(q), preds[i], 1e-12);
+      }
+      try {
+        model.makeMetricBuilder(null);
+        fail("KNN models have no metrics");
+      } catch (H2OIllegalArgumentException e) {
+        assertTrue(e.getMessage().contains("no model metrics"));
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testExportedModelKeepsTheIndex() throws IOException {
+    Scope.enter();
+    try {
+      Frame refs = Scope.track(randomFrame(200, 14, true));
+      Frame queries = Scope.track(randomFrame(20, 15, false));
+      KNNModel model = train(refs, 3, DistanceMeasure.Manhattan, "id");
+      Frame expected = Scope.track(model.score(queries));
+      File file = temporaryFolder.newFile("knn.bin");
+      model.exportBinaryModel(file.getAbsolutePath(), true);
+      model.delete(); // removes the indexes as well
+      KNNModel imported = Model.importBinaryModel(file.getAbsolutePath());
+      Scope.track_generic(imported);
+      assertBitIdentical(expected, Scope.track(imported.score(queries)));
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testRapidsKnn() {
+    Scope.enter();
+    try {
+      Frame refs = Scope.track(randomFrame(200, 6, false));
+      Frame queries = Scope.track(randomFrame(20, 7, false));
+      Frame res = Scope.track(Rapids.exec("(knn " + refs._key + " " + queries._key + " 2 'l2')").getFrame());
+      double[] noScaling = new double[P];
+      double[] ones = new double[P];
+      Arrays.fill(ones, 1);
+      for (long q = 0; q < queries.numRows(); q++) {
+        double[] expected = bruteForce(refs, queries, q, noScaling, ones, DistanceMeasure.Euclidean);
+        assertEquals(expected[0], res.vec(2).at(q), 1e-9);
+        assertEquals(expected[1], res.vec(3).at(q), 1e-9);
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+}
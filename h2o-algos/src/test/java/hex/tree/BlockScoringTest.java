@@ -0,0 +1,198 @@
+package hex.tree;
+
+import hex.genmodel.utils.DistributionFamily;
+import hex.tree.drf.DRF;
+import hex.tree.drf.DRFModel;
+import hex.tree.gbm.GBM;
+import hex.tree.gbm.GBMModel;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.MRTask;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Chunk-at-a-time scoring of tree models ({@link SharedTreeModel#setupBigScorePredict}) has to give
+ * the same predictions as scoring the rows one by one.
+ */
+public class BlockScoringTest extends TestUtil {
+
+  @BeforeClass
+  public static void stall() { stall_till_cloudsize(1); }
+
+  @Test
+  public void testGBMBernoulliWithWeightsAndOffset() {
+    checkGBM(DistributionFamily.bernoulli, true);
+  }
+
+  @Test
+  public void testGBMMultinomialWithWeights() {
+    checkGBM(DistributionFamily.multinomial, false);
+  }
+
+  @Test
+  public void testGBMGaussianWithWeightsAndOffset() {
+    checkGBM(DistributionFamily.gaussian, true);
+  }
+
+  @Test
+  public void testDRFBinomialWithWeights() {
+    checkDRF(2);
+  }
+
+  @Test
+  public void testDRFMultinomialWithWeights() {
+    checkDRF(3);
+  }
+
+  @Test
+  public void testDRFRegressionWithWeights() {
+    checkDRF(1);
+  }
+
+  private static void checkGBM(DistributionFamily distribution, boolean offset) {
+    final int nclasses = distribution == DistributionFamily.bernoulli ? 2 :
+            distribution == DistributionFamily.multinomial ? 3 : 1;
+    try {
+      Scope.enter();
+      Frame train = makeFrame(1000, nclasses, false, 0xB10C);
+      GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+      parms._train = train._key;
+      parms._response_column = "y";
+      parms._weights_column = "w";
+      if (offset)
+        parms._offset_column = "o";
+      parms._distribution = distribution;
+      parms._ntrees = 20;
+      parms._max_depth = 5;
+      parms._min_rows = 2;
+      parms._seed = 42;
+      GBMModel gbm = new GBM(parms).trainModel().get();
+      Scope.track_generic(gbm);
+
+      assertBlockScoringMatchesRowScoring(gbm, makeFrame(777, nclasses, true, 0x5C0E));
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  private static void checkDRF(int nclasses) {
+    try {
+      Scope.enter();
+      Frame train = makeFrame(1000, nclasses, false, 0xB10C);
+      DRFModel.DRFParameters parms = new DRFModel.DRFParameters();
+      parms._train = train._key;
+      parms._response_column = "y";
+      parms._weights_column = "w";
+      parms._ignored_columns = new String[]{"o"};
+      parms._ntrees = 20;
+      parms._max_depth = 8;
+      parms._seed = 42;
+      DRFModel drf = new DRF(parms).trainModel().get();
+      Scope.track_generic(drf);
+
+      assertBlockScoringMatchesRowScoring(drf, makeFrame(777, nclasses, true, 0x5C0E));
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  private static void assertBlockScoringMatchesRowScoring(SharedTreeModel<?, ?, ?> model, Frame test) {
+    assertEquals(true, model.isBlockScoringSupported());
+    Frame preds = Scope.track(model.score(test));
+    Frame adapted = new Frame(test);
+    model.adaptTestForTrain(adapted, true, true);
+    final int npreds = model._output.nclasses() == 1 ? 1 : model._output.nclasses() + 1;
+    final int weightsIdx = adapted.find(model._output.weightsName());
+    final int offsetIdx = model._output.offsetName() != null ? adapted.find(model._output.offsetName()) : -1;
+    final int predsIdx = adapted.numCols();
+    adapted.add(preds);
+    new RowScoringCheck(model, weightsIdx, offsetIdx, predsIdx, npreds).doAll(adapted);
+  }
+
+  private static class RowScoringCheck extends MRTask<RowScoringCheck> {
+    private final SharedTreeModel<?, ?, ?> _model;
+    private final int _weightsIdx;
+    private final int _offsetIdx;
+    private final int _predsIdx;
+    private final int _npreds;
+
+    RowScoringCheck(SharedTreeModel<?, ?, ?> model, int weightsIdx, int offsetIdx, int predsIdx, int npreds) {
+      _model = model;
+      _weightsIdx = weightsIdx;
+      _offsetIdx = offsetIdx;
+      _predsIdx = predsIdx;
+      _npreds = npreds;
+    }
+
+    @Override
+    public void map(Chunk[] cs) {
+      final double[] tmp = new double[_model._output.nfeatures()];
+      final double[] preds = new double[_model._output.nclasses() + 1];
+      for (int row = 0; row < cs[0]._len; row++) {
+        final double weight = cs[_weightsIdx].atd(row);
+        final double offset = _offsetIdx >= 0 ? cs[_offsetIdx].atd(row) : 0;
+        if (weight == 0)
+          Arrays.fill(preds, 0);
+        else
+          _model.score0(cs, offset, row, tmp, preds);
+        for (int c = 0; c < _npreds; c++)
+          assertEquals("Row " + (cs[0].start() + row) + ", prediction " + c,
+                  preds[c], cs[_predsIdx + c].atd(row), 0);
+      }
+    }
+  }
+
+  /**
+   * Two numeric and one categorical feature with NAs, a weights and an offset column and a response with
+   * the given number of classes (1 = regression). The rows are spread over chunks which do not align with
+   * the blocks of the scorer.
+   */
+  private static Frame makeFrame(int nrows, int nclasses, boolean withUnseenLevels, long seed) {
+    final Random rnd = new Random(seed);
+    final String[] levels = withUnseenLevels ?
+            new String[]{"a", "b", "c", "d", "e", "unseen"} : new String[]{"a", "b", "c", "d", "e"};
+    double[] x1 = new double[nrows];
+    double[] x2 = new double[nrows];
+    String[] c1 = new String[nrows];
+    double[] w = new double[nrows];
+    double[] o = new double[nrows];
+    double[] yNum = new double[nrows];
+    String[] yCat = new String[nrows];
+    for (int i = 0; i < nrows; i++) {
+      x1[i] = rnd.nextInt(20) == 0 ? Double.NaN : rnd.nextGaussian();
+      x2[i] = rnd.nextDouble() * 100;
+      int level = rnd.nextInt(levels.length);
+      c1[i] = rnd.nextInt(20) == 0 ? null : levels[level];
+      w[i] = withUnseenLevels && rnd.nextInt(50) == 0 ? 0 : 0.5 + rnd.nextDouble() * 2;
+      o[i] = rnd.nextDouble() * 0.2 - 0.1;
+      double signal = (Double.isNaN(x1[i]) ? 0 : x1[i]) + x2[i] / 50 + level % 3 + rnd.nextGaussian() * 0.5;
+      yNum[i] = signal;
+      yCat[i] = "class" + Math.min(nclasses - 1, (int) Math.max(0, signal / 1.5));
+    }
+    TestFrameBuilder builder = new TestFrameBuilder()
+            .withColNames("x1", "x2", "c1", "w", "o", "y")
+            .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_CAT, Vec.T_NUM, Vec.T_NUM, nclasses == 1 ? Vec.T_NUM : Vec.T_CAT)
+            .withDataForCol(0, x1)
+            .withDataForCol(1, x2)
+            .withDataForCol(2, c1)
+            .withDataForCol(3, w)
+            .withDataForCol(4, o)
+            .withChunkLayout(nrows / 3, nrows / 2, nrows - nrows / 3 - nrows / 2);
+    if (nclasses == 1)
+      builder.withDataForCol(5, yNum);
+    else
+      builder.withDataForCol(5, yCat);
+    return builder.build();
+  }
+
+}
@@ -0,0 +1,100 @@
+package hex.tree;
+
+import hex.Model;
+import hex.ModelMetricsBinomial;
+import hex.tree.gbm.GBM;
+import hex.tree.gbm.GBMModel;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.DKV;
+import water.Key;
+import water.MRTask;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class SharedSplitPointsTest extends TestUtil {
+
+  @BeforeClass
+  public static void setup() {
+    stall_till_cloudsize(1);
+  }
+
+  @Test
+  public void testFoldModelsUseSplitPointsOfTheMainModel() {
+    try {
+      Scope.enter();
+      Frame fr = Scope.track(parse_test_file("smalldata/logreg/prostate.csv"));
+      Scope.track(fr.replace(fr.find("CAPSULE"), fr.vec("CAPSULE").toCategoricalVec()));
+      DKV.put(fr);
+
+      GBMModel.GBMParameters params = new GBMModel.GBMParameters();
+      params._response_column = "CAPSULE";
+      params._ignored_columns = new String[]{"ID"};
+      params._train = fr._key;
+      params._histogram_type = SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal;
+      params._ntrees = 10;
+      params._seed = 42;
+      params._nfolds = 3;
+      params._fold_assignment = Model.Parameters.FoldAssignmentScheme.Modulo;
+      params._keep_cross_validation_models = true;
+      GBM builder = new GBM(params);
+      GBMModel model = builder.trainModel().get();
+      Scope.track_generic(model);
+      for (Key k : model._output._cross_validation_models)
+        Scope.track_generic((GBMModel) DKV.getGet(k));
+
+      // computed once on the whole training frame (the fold models see their holdout rows with zero weight)
+      Map<String, double[]> shared = ((SharedTree<?, ?, ?>) builder)._globalSplitPoints;
+      assertNotNull(shared);
+
+      for (int fold = 0; fold < params._nfolds; fold++) {
+        final int nfolds = params._nfolds;
+        final int holdout = fold;
+        Vec weights = new MRTask() {
+          @Override
+          public void map(Chunk c, NewChunk nc) {
+            for (int i = 0; i < c._len; i++)
+              nc.addNum((c.start() + i) % nfolds == holdout ? 0 : 1);
+          }
+        }.doAll(Vec.T_NUM, fr.anyVec()).outputFrame().anyVec();
+        Frame weighted = new Frame(Key.<Frame>make(), fr.names(), fr.vecs());
+        weighted.add("w", weights);
+        DKV.put(weighted);
+        Scope.track(weighted);
+
+        GBMModel.GBMParameters foldParams = (GBMModel.GBMParameters) params.clone();
+        foldParams._train = weighted._key;
+        foldParams._weights_column = "w";
+        foldParams._nfolds = 0;
+        foldParams._fold_assignment = Model.Parameters.FoldAssignmentScheme.AUTO;
+        foldParams._keep_cross_validation_models = false;
+        // on its own the model would take the quantiles of the training rows of the fold only (weighted)
+        GBM foldBuilder = new GBM(foldParams);
+        ((SharedTree<?, ?, ?>) foldBuilder)._globalSplitPoints = shared;
+        GBMModel expected = foldBuilder.trainModel().get();
+        Scope.track_generic(expected);
+
+        GBMModel actual = DKV.getGet(model._output._cross_validation_models[fold]);
+        ModelMetricsBinomial expectedMetrics = (ModelMetricsBinomial) expected._output._training_metrics;
+        ModelMetricsBinomial actualMetrics = (ModelMetricsBinomial) actual._output._training_metrics;
+        assertEquals(expectedMetrics.logloss(), actualMetrics.logloss(), 1e-6);
+        assertEquals(expectedMetrics.auc(), actualMetrics.auc(), 1e-6);
+
+        Frame expectedPreds = Scope.track(expected.score(fr));
+        Frame actualPreds = Scope.track(actual.score(fr));
+        assertVecEquals(expectedPreds.vec("p1"), actualPreds.vec("p1"), 1e-6);
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+}
@@ -327,4 +327,51 @@ public class GBMGridTest extends TestUtil {
       if (gbmRebuilt != null) gbmRebuilt.remove();
     }
   }
+
+  @Test
+  public void testWarmStartedGrid() {
+    try {
+      Scope.enter();
+      Frame fr = Scope.track(parse_test_file("smalldata/junit/cars.csv"));
+      fr.remove("name").remove();
+      DKV.put(fr);
+
+      HashMap<String, Object[]> hyperParms = new HashMap<>();
+      hyperParms.put("_ntrees", new Integer[]{5, 10});
+
+      GBMModel.GBMParameters params = new GBMModel.GBMParameters();
+      params._train = fr._key;
+      params._response_column = "economy (mpg)";
+      params._sample_rate = 0.7;
+      params._col_sample_rate_per_tree = 0.8;
+      params._seed = 42;
+
+      Grid<GBMModel.GBMParameters> grid = (Grid<GBMModel.GBMParameters>) GridSearch.startGridSearch(null, params, hyperParms).get();
+      Scope.track_generic(grid);
+      assertEquals(2, grid.getModelCount());
+      GBMModel small = null, big = null;
+      for (Model m : grid.getModels()) {
+        Scope.track_generic(m);
+        if (((GBMModel) m)._parms._ntrees == 5) small = (GBMModel) m;
+        else big = (GBMModel) m;
+      }
+      assertNotNull(small);
+      assertNotNull(big);
+      assertEquals(small._key, big._parms._checkpoint);
+      assertEquals(10, big._output._ntrees);
+
+      GBMModel.GBMParameters expectedParams = (GBMModel.GBMParameters) params.clone();
+      expectedParams._ntrees = 10;
+      assertEquals(big._key, grid.getModelKey(expectedParams)); // still found by the grid parameters
+      GBMModel expected = new GBM(expectedParams).trainModel().get();
+      Scope.track_generic(expected);
+
+      Frame expectedPreds = Scope.track(expected.score(fr));
+      Frame actualPreds = Scope.track(big.score(fr));
+      assertFrameEquals(expectedPreds, actualPreds, 1e-8);
+    } finally {
+      Scope.exit();
+    }
+  }
+
 }
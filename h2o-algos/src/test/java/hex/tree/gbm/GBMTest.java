@@ -4256,4 +4256,127 @@ public class GBMTest extends TestUtil {
       Scope.exit();
     }
   }
+
+  @Test
+  public void testTrainingMetricsComputedInTreePass() {
+    Scope.enter();
+    try {
+      Frame fr = Scope.track(parse_test_file("./smalldata/logreg/prostate.csv"));
+      Scope.track(fr.replace(fr.find("CAPSULE"), fr.vec("CAPSULE").toCategoricalVec()));
+      DKV.put(fr);
+
+      GBMModel.GBMParameters parms = makeGBMParameters();
+      parms._train = fr._key;
+      parms._response_column = "CAPSULE";
+      parms._ignored_columns = new String[]{"ID"};
+      parms._ntrees = 10;
+      parms._score_tree_interval = 2;
+      parms._seed = 42;
+
+      GBM builder = new GBM(parms);
+      GBMModel gbm = builder.trainModel().get();
+      Scope.track_generic(gbm);
+
+      // the models with 2, 4, ..., 10 trees took their training metrics from the tree columns,
+      // only the model without trees was scored by a separate pass
+      assertEquals(5, builder.trainingMetricsInPass());
+      assertEquals(1, builder.trainingScoringPasses());
+
+      // training metrics were computed from the tree columns - they have to match full scoring of the final model
+      ModelMetricsBinomial trainMetrics = (ModelMetricsBinomial) gbm._output._training_metrics;
+      Scope.track(gbm.score(fr));
+      ModelMetricsBinomial scoredMetrics = (ModelMetricsBinomial) ModelMetrics.getFromDKV(gbm, fr);
+      assertEquals(scoredMetrics.mse(), trainMetrics.mse(), 1e-6);
+      assertEquals(scoredMetrics.logloss(), trainMetrics.logloss(), 1e-6);
+      assertEquals(scoredMetrics.auc(), trainMetrics.auc(), 1e-6);
+      assertNotNull(trainMetrics._auc);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testAsyncValidationMatchesSynchronous() {
+    Scope.enter();
+    try {
+      Frame[] trainValid = makeAsyncValidationFrames();
+      GBM syncJob = new GBM(makeAsyncValidationParameters(trainValid, 0, 0));
+      GBMModel sync = syncJob.trainModel().get();
+      Scope.track_generic(sync);
+      GBM asyncJob = new GBM(makeAsyncValidationParameters(trainValid, 0, 3));
+      GBMModel async = asyncJob.trainModel().get();
+      Scope.track_generic(async);
+      assertEquals(0, syncJob.backgroundValidations());
+      assertTrue(asyncJob.backgroundValidations() > 0);
+
+      // same trees, same scoring history and same final validation metrics
+      assertEquals(sync._output._ntrees, async._output._ntrees);
+      assertSameValidationHistory(sync, async, sync._output._ntrees);
+      ModelMetricsBinomial syncValid = (ModelMetricsBinomial) sync._output._validation_metrics;
+      ModelMetricsBinomial asyncValid = (ModelMetricsBinomial) async._output._validation_metrics;
+      assertEquals(syncValid.logloss(), asyncValid.logloss(), 1e-10);
+      assertEquals(syncValid.auc(), asyncValid.auc(), 1e-10);
+      assertEquals(syncValid.mse(), asyncValid.mse(), 1e-10);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testAsyncValidationEarlyStoppingWithLag() {
+    Scope.enter();
+    try {
+      final int lag = 3;
+      Frame[] trainValid = makeAsyncValidationFrames();
+      GBMModel sync = new GBM(makeAsyncValidationParameters(trainValid, 2, 0)).trainModel().get();
+      Scope.track_generic(sync);
+      GBM asyncJob = new GBM(makeAsyncValidationParameters(trainValid, 2, lag));
+      GBMModel async = asyncJob.trainModel().get();
+      Scope.track_generic(async);
+      assertTrue(asyncJob.backgroundValidations() > 0);
+
+      // the same metrics arrive at most lag trees late, early stopping makes the same decision at most lag trees later
+      assertTrue(sync._output._ntrees < 30);
+      assertTrue(async._output._ntrees >= sync._output._ntrees);
+      assertTrue(async._output._ntrees <= sync._output._ntrees + lag);
+      assertSameValidationHistory(sync, async, sync._output._ntrees - 1);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  private static Frame[] makeAsyncValidationFrames() {
+    Frame fr = Scope.track(parse_test_file("./smalldata/logreg/prostate.csv"));
+    Scope.track(fr.replace(fr.find("CAPSULE"), fr.vec("CAPSULE").toCategoricalVec()));
+    DKV.put(fr);
+    SplitFrame sf = new SplitFrame(fr, new double[]{0.7, 0.3}, new Key[]{Key.make(), Key.make()});
+    sf.exec().get();
+    Frame train = Scope.track((Frame) sf._destination_frames[0].get());
+    Frame valid = Scope.track((Frame) sf._destination_frames[1].get());
+    return new Frame[]{train, valid};
+  }
+
+  private GBMModel.GBMParameters makeAsyncValidationParameters(Frame[] trainValid, int stoppingRounds, int lag) {
+    GBMModel.GBMParameters parms = makeGBMParameters();
+    parms._train = trainValid[0]._key;
+    parms._valid = trainValid[1]._key;
+    parms._response_column = "CAPSULE";
+    parms._ignored_columns = new String[]{"ID"};
+    parms._ntrees = 30;
+    parms._learn_rate = 0.3;
+    parms._score_tree_interval = 2;
+    parms._stopping_rounds = stoppingRounds;
+    parms._stopping_tolerance = 0.05;
+    parms._seed = 42;
+    parms._async_validation_max_lag = lag;
+    return parms;
+  }
+
+  private static void assertSameValidationHistory(GBMModel expected, GBMModel actual, int maxTrees) {
+    for (int t = 0; t <= maxTrees; t++) {
+      assertEquals(expected._output._scored_valid[t]._logloss, actual._output._scored_valid[t]._logloss, 1e-10);
+      assertEquals(expected._output._scored_valid[t]._AUC, actual._output._scored_valid[t]._AUC, 1e-10);
+    }
+  }
+
 }
@@ -1,5 +1,6 @@
 package ai.h2o.automl;
 
+import ai.h2o.automl.AutoMLBuildSpec.AutoMLBuildControl;
 import ai.h2o.automl.AutoMLBuildSpec.AutoMLBuildModels;
 import ai.h2o.automl.AutoMLBuildSpec.AutoMLInput;
 import ai.h2o.automl.AutoMLBuildSpec.AutoMLStoppingCriteria;
@@ -23,8 +24,10 @@ import water.util.*;
 
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
 
 import static ai.h2o.automl.AutoMLBuildSpec.AutoMLStoppingCriteria.AUTO_STOPPING_TOLERANCE;
 
@@ -210,7 +213,10 @@ public final class AutoML extends Lockable<AutoML> implements TimedH2ORunnable {
       initLeaderboard();
       initPreprocessing();
       planWork();
-      _modelingStepsExecutor = new ModelingStepsExecutor(_leaderboard, _eventLog, _runCountdown);
+      _modelingStepsExecutor = new ModelingStepsExecutor(_leaderboard, _eventLog, _runCountdown,
+              buildSpec.build_control.parallelism,
+              buildSpec.build_control.step_max_threads,
+              buildSpec.build_control.step_memory_fraction);
     } catch (Exception e) {
       delete(); //cleanup potentially leaked keys
       throw e;
@@ -234,6 +240,7 @@ public final class AutoML extends Lockable<AutoML> implements TimedH2ORunnable {
     validateModelValidation(buildSpec);
     validateModelBuilding(buildSpec.build_models);
     validateEarlyStopping(buildSpec.build_control.stopping_criteria, buildSpec.input_spec);
+    validateConcurrency(buildSpec.build_control);
     validateReproducibility(buildSpec);
   }
 
@@ -331,6 +338,20 @@ public final class AutoML extends Lockable<AutoML> implements TimedH2ORunnable {
   }
 
 
+  private void validateConcurrency(AutoMLBuildControl buildControl) {
+    if (buildControl.parallelism < 1)
+      throw new H2OIllegalArgumentException("`parallelism` must be >= 1.");
+    if (buildControl.step_max_threads < 0)
+      throw new H2OIllegalArgumentException("`step_max_threads` must be >= 0.");
+    if (buildControl.step_memory_fraction < 0 || buildControl.step_memory_fraction > 1)
+      throw new H2OIllegalArgumentException("`step_memory_fraction` must be in [0, 1].");
+    if (buildControl.parallelism > 1) {
+      eventLog().info(Stage.Validation, "Running up to "+buildControl.parallelism+" modeling steps concurrently.");
+      if (!FairShareScheduler.isEnabled())
+        eventLog().warn(Stage.Validation, "Fair-share scheduling is disabled: concurrent modeling steps are not restricted to a number of threads.");
+    }
+  }
+
   private void validateReproducibility(AutoMLBuildSpec buildSpec) {
     eventLog().info(Stage.Validation, "Build control seed: " + buildSpec.build_control.stopping_criteria.seed() +
             (buildSpec.build_control.stopping_criteria.seed() == -1 ? " (random)" : ""));
@@ -487,7 +508,29 @@ public final class AutoML extends Lockable<AutoML> implements TimedH2ORunnable {
   public int remainingModels() {
     if (_buildSpec.build_control.stopping_criteria.max_models() == 0)
       return Integer.MAX_VALUE;
-    return _buildSpec.build_control.stopping_criteria.max_models() - _modelingStepsExecutor.modelCount();
+    return _buildSpec.build_control.stopping_criteria.max_models()
+            - _modelingStepsExecutor.modelCount()
+            - _modelingStepsExecutor.reservedModelCount();
+  }
+
+  /**
+   * @param step a step starting its job.
+   * @param assignedModels computes the number of models assigned to the step from {@link #remainingModels()}.
+   * @return the number of models assigned to the step: with a max_models limit,
+   *  they are reserved for the step if it runs concurrently with other steps.
+   */
+  int assignModels(ModelingStep step, IntSupplier assignedModels) {
+    if (_buildSpec.build_control.stopping_criteria.max_models() == 0)
+      return assignedModels.getAsInt(); // no limit, nothing to reserve
+    return _modelingStepsExecutor.reserveModels(step, assignedModels);
+  }
+
+  /**
+   * @return how many steps may run at the same time as the given one:
+   *  its share of the remaining time can be extended accordingly.
+   */
+  double concurrencyFactor(ModelingStep step) {
+    return _modelingStepsExecutor.canRunConcurrently(step) ? _modelingStepsExecutor._parallelism : 1;
   }
 
   @Override
@@ -613,17 +656,28 @@ public final class AutoML extends Lockable<AutoML> implements TimedH2ORunnable {
   //*****************  Training Jobs  *****************//
 
   private void learn() {
-    List<ModelingStep> executed = new ArrayList<>();
+    final Set<ModelingStep> executedSteps = Collections.newSetFromMap(new ConcurrentHashMap<>());
     if (_preprocessing != null) {
       for (PreprocessingStep preprocessingStep : _preprocessing) preprocessingStep.prepare();
     }
-    for (ModelingStep step : getExecutionPlan()) {
-        if (!exceededSearchLimits(step)) {
-          if (_modelingStepsExecutor.submit(step, job())) {
-            executed.add(step);
+    final ModelingStep[] plan = getExecutionPlan();
+    for (ModelingStep step : plan) {
+        if (_modelingStepsExecutor.canRunConcurrently(step)) {
+          _modelingStepsExecutor.submitConcurrently(step, job(), this::exceededSearchLimits, executedSteps::add);
+        } else {
+          _modelingStepsExecutor.awaitRunning(); // the step may depend on the models built so far
+          if (!exceededSearchLimits(step)) {
+            if (_modelingStepsExecutor.submit(step, job())) {
+              executedSteps.add(step);
+            }
           }
         }
     }
+    _modelingStepsExecutor.awaitRunning();
+    List<ModelingStep> executed = new ArrayList<>();
+    for (ModelingStep step : plan) {
+      if (executedSteps.contains(step)) executed.add(step);
+    }
     if (_preprocessing != null) {
       for (PreprocessingStep preprocessingStep : _preprocessing) preprocessingStep.dispose();
     }
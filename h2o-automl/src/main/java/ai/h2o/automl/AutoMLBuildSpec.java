@@ -50,6 +50,11 @@ public class AutoMLBuildSpec extends Iced {
 
     public String export_checkpoints_dir = null;
 
+    // Concurrent execution of the modeling steps
+    public int parallelism = 1;
+    public int step_max_threads = 0;
+    public double step_memory_fraction = 0;
+
     public AutoMLBuildControl() {
       stopping_criteria = new AutoMLStoppingCriteria();
     }
@@ -363,7 +363,7 @@ public abstract class ModelingStep<M extends Model> extends Iced<ModelingStep> {
             } else {
                 Work work = getAllocatedWork();
 //                double maxAssignedTimeSecs = aml().timeRemainingMs() / 1e3; // legacy
-                double maxAssignedTimeSecs = aml().timeRemainingMs() * getWorkAllocations().remainingWorkRatio(work) / 1e3; //including default models in the distribution of the time budget.
+                double maxAssignedTimeSecs = aml().timeRemainingMs() * Math.min(1, getWorkAllocations().remainingWorkRatio(work) * aml().concurrencyFactor(this)) / 1e3; //including default models in the distribution of the time budget.
 //                double maxAssignedTimeSecs = aml().timeRemainingMs() * getWorkAllocations().remainingWorkRatio(work, isDefaultModel) / 1e3; //PUBDEV-7595
                 parms._max_runtime_secs = parms._max_runtime_secs == 0
                         ? maxAssignedTimeSecs
@@ -439,20 +439,24 @@ public abstract class ModelingStep<M extends Model> extends Iced<ModelingStep> {
             // for time limit, this is allocated in proportion of the entire work budget.
             double maxAssignedTimeSecs = ArrayUtils.contains(_ignoredConstraints, AutoML.Constraint.TIMEOUT)
                     ? 0
-                    : aml().timeRemainingMs() * getWorkAllocations().remainingWorkRatio(work) / 1e3;
+                    : aml().timeRemainingMs() * Math.min(1, getWorkAllocations().remainingWorkRatio(work) * aml().concurrencyFactor(this)) / 1e3;
             // SE predicate can be removed if/when we decide to include SEs in the max_models limit
             // for models limit, this is not assigned in the same proportion as for time,
             // as the exploitation phase is not supposed to "add" models but just to replace some by better ones,
             // instead, allocation is done in proportion of the entire exploration budget.
-            int maxAssignedModels = (int) Math.ceil(aml().remainingModels() * getWorkAllocations().remainingWorkRatio(work, isExplorationWork.and(w -> w._algo != Algo.StackedEnsemble)));
+            // when running concurrently with other steps, these models are reserved until the grid has built them.
+            int maxModels = aml().assignModels(this, () -> {
+                int maxAssignedModels = (int) Math.ceil(aml().remainingModels() * getWorkAllocations().remainingWorkRatio(work, isExplorationWork.and(w -> w._algo != Algo.StackedEnsemble)));
+                return searchCriteria.max_models() == 0
+                        ? maxAssignedModels
+                        : Math.min(searchCriteria.max_models(), maxAssignedModels);
+            });
 
             searchCriteria.set_max_runtime_secs(searchCriteria.max_runtime_secs() == 0
                     ? maxAssignedTimeSecs
                     : Math.min(searchCriteria.max_runtime_secs(), maxAssignedTimeSecs));
 
-            searchCriteria.set_max_models(searchCriteria.max_models() == 0
-                    ? maxAssignedModels
-                    : Math.min(searchCriteria.max_models(), maxAssignedModels));
+            searchCriteria.set_max_models(maxModels);
 
             if (null == key) key = makeKey(_algo.name(), true);
             aml().trackKey(key);
@@ -8,6 +8,9 @@ import ai.h2o.automl.WorkAllocations.Work;
 import ai.h2o.automl.leaderboard.Leaderboard;
 import hex.Model;
 import hex.ModelContainer;
+import water.FairShareScheduler;
+import water.H2O;
+import water.H2ONode;
 import water.Iced;
 import water.Job;
 import water.Key;
@@ -15,15 +18,24 @@ import water.util.ArrayUtils;
 import water.util.Countdown;
 import water.util.Log;
 
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
 
 
 /**
  * Class responsible for starting all the {@link ModelingStep}s and monitoring their associated {@link Job},
  * i.e. polling jobs and adding their result model(s) to the {@link Leaderboard}.
+ * <p>
+ * With a parallelism > 1, independent exploration steps (single models and grids, except Stacked Ensembles)
+ * can be run concurrently, see {@link #submitConcurrently(ModelingStep, Job, Predicate, Consumer)}:
+ * each running step is capped to a number of threads on every node (when the {@link FairShareScheduler} is enabled),
+ * and a new step is only started if enough cluster memory is free.
  */
 class ModelingStepsExecutor extends Iced<ModelingStepsExecutor> {
 
@@ -45,22 +57,58 @@ class ModelingStepsExecutor extends Iced<ModelingStepsExecutor> {
     final Key<Leaderboard> _leaderboardKey;
     final Countdown _runCountdown;
 
+    final int _parallelism;
+    final int _stepMaxThreads;
+    final double _stepMemoryFraction;
+
     private transient List<Job> _jobs; // subjobs
+    private transient ExecutorService _pool;
+    private transient Semaphore _slots;
+    private transient List<Future<?>> _running;
     private final AtomicInteger _modelCount = new AtomicInteger();
+    private final AtomicInteger _reservedModelCount = new AtomicInteger(); // models assigned to concurrent steps, not yet on the leaderboard
+    private transient Map<ModelingStep, Integer> _reservations; // models still reserved by each concurrent step
 
     ModelingStepsExecutor(Leaderboard leaderboard, EventLog eventLog, Countdown runCountdown) {
+        this(leaderboard, eventLog, runCountdown, 1, 0, 0);
+    }
+
+    ModelingStepsExecutor(Leaderboard leaderboard, EventLog eventLog, Countdown runCountdown,
+                          int parallelism, int stepMaxThreads, double stepMemoryFraction) {
         _leaderboardKey = leaderboard._key;
         _eventLogKey = eventLog._key;
         _runCountdown = runCountdown;
+        _parallelism = Math.max(1, parallelism);
+        _stepMaxThreads = stepMaxThreads;
+        _stepMemoryFraction = stepMemoryFraction;
     }
 
     int modelCount() {
         return _modelCount.get();
     }
 
+    /**
+     * @return the number of models assigned to the steps running concurrently, and not yet on the leaderboard.
+     */
+    int reservedModelCount() {
+        return _reservedModelCount.get();
+    }
+
     void start() {
-        _jobs = new ArrayList<>();
+        _jobs = new CopyOnWriteArrayList<>();
         _modelCount.set(0);
+        _reservedModelCount.set(0);
+        if (_parallelism > 1) {
+            AtomicInteger threadCount = new AtomicInteger();
+            _pool = Executors.newFixedThreadPool(_parallelism, r -> {
+                Thread t = new Thread(r, "AutoML-step-" + threadCount.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+            _slots = new Semaphore(_parallelism);
+            _running = new CopyOnWriteArrayList<>();
+            _reservations = new HashMap<>();
+        }
         _runCountdown.start();
     }
 
@@ -69,17 +117,171 @@ class ModelingStepsExecutor extends Iced<ModelingStepsExecutor> {
         if (null == _jobs) return; // already stopped
         for (Job j : _jobs) j.stop();
         for (Job j : _jobs) j.get(); // Hold until they all completely stop.
+        awaitRunning();
+        if (null != _pool) {
+            _pool.shutdownNow();
+            _pool = null;
+        }
         _jobs = null;
     }
 
+    /**
+     * @return true iff the step can be run concurrently with other steps.
+     */
+    boolean canRunConcurrently(ModelingStep step) {
+        if (_parallelism <= 1 || null == _pool) return false;
+        Work work = step.getAllocatedWork();
+        return work != null
+                && (JobType.ModelBuild == work._type || JobType.HyperparamSearch == work._type)
+                && step._algo != Algo.StackedEnsemble;
+    }
+
+    /**
+     * Starts the step in the background as soon as a slot is available and enough memory is free,
+     * waiting for those before returning.
+     *
+     * @param step the step to run, see {@link #canRunConcurrently(ModelingStep)}.
+     * @param parentJob the AutoML job.
+     * @param skip evaluated once the step can be started: if true, the step is not started after all.
+     * @param onExecuted called from the background thread once the step completed, if it could run.
+     * @return true iff the step was started.
+     */
+    boolean submitConcurrently(ModelingStep step, Job parentJob, Predicate<ModelingStep> skip, Consumer<ModelingStep> onExecuted) {
+        assert canRunConcurrently(step);
+        try {
+            _slots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        boolean started = false;
+        try {
+            awaitFreeMemory(step, parentJob);
+            synchronized (this) { // no other step may reserve models between the check and the reservation
+                if (skip.test(step)) return false;
+                if (JobType.ModelBuild == step.getAllocatedWork()._type) reserve(step, 1);
+            }
+            _running.add(_pool.submit(() -> {
+                try {
+                    if (submit(step, parentJob)) onExecuted.accept(step);
+                } catch (Throwable t) {
+                    eventLog().warn(Stage.ModelTraining, step._description + " failed: " + t);
+                    Log.err(t);
+                } finally {
+                    releaseReservation(step, Integer.MAX_VALUE);
+                    _slots.release();
+                }
+            }));
+            started = true;
+            return true;
+        } finally {
+            if (!started) _slots.release();
+        }
+    }
+
+    /**
+     * Reserves models of the max_models budget for a step running concurrently, so that the steps running
+     * at the same time can't build more models than allowed in total.
+     * The reservation is released as the models of the step are added to the leaderboard, and once the step completed.
+     *
+     * @param step the step starting its job.
+     * @param assignedModels computes the number of models assigned to the step from the remaining ones,
+     *                       no other step can reserve models meanwhile.
+     * @return the number of models assigned to the step.
+     */
+    synchronized int reserveModels(ModelingStep step, IntSupplier assignedModels) {
+        int assigned = assignedModels.getAsInt();
+        if (canRunConcurrently(step)) reserve(step, assigned);
+        return assigned;
+    }
+
+    private synchronized void reserve(ModelingStep step, int models) {
+        if (models <= 0) return;
+        _reservations.merge(step, models, Integer::sum);
+        _reservedModelCount.addAndGet(models);
+    }
+
+    private synchronized void releaseReservation(ModelingStep step, int models) {
+        if (null == step || null == _reservations) return;
+        Integer reserved = _reservations.get(step);
+        if (null == reserved) return;
+        int released = Math.min(reserved, models);
+        if (released == reserved) _reservations.remove(step);
+        else _reservations.put(step, reserved - released);
+        _reservedModelCount.addAndGet(-released);
+    }
+
+    /**
+     * Waits until all the steps running in the background are completed.
+     */
+    void awaitRunning() {
+        if (null == _running) return;
+        for (Future<?> f : _running) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException | CancellationException ignored) {
+                // reported by the step itself
+            }
+        }
+        _running.clear();
+    }
+
+    private void awaitFreeMemory(ModelingStep step, Job parentJob) {
+        if (_stepMemoryFraction <= 0) return;
+        boolean logged = false;
+        // the first step always runs: there's nothing to wait for
+        while (_slots.availablePermits() < _parallelism - 1 && freeMemoryFraction() < _stepMemoryFraction) {
+            if (_runCountdown.timedOut() || (null != parentJob && parentJob.stop_requested())) return;
+            if (!logged) {
+                eventLog().debug(Stage.ModelTraining, "Not enough free memory to start " + step._description + ", waiting for a running step to complete");
+                logged = true;
+            }
+            try {
+                Thread.sleep(pollingIntervalInMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static double freeMemoryFraction() {
+        long free = 0, total = 0;
+        for (H2ONode node : H2O.CLOUD.members()) {
+            free += node._heartbeat.get_free_mem();
+            total += node._heartbeat.get_free_mem() + node._heartbeat.get_kv_mem() + node._heartbeat.get_pojo_mem();
+        }
+        return total == 0 ? 1 : (double) free / total;
+    }
+
+    // Caps the threads of the job started by the step on every node, before its first task runs
+    private Job startJob(ModelingStep step) {
+        if (_parallelism <= 1) return step.startJob();
+        if (!FairShareScheduler.isEnabled()) {
+            Log.debug("AutoML: fair-share scheduling is disabled, "+step._description+" is not restricted to a number of threads.");
+            return step.startJob();
+        }
+        int maxThreads = _stepMaxThreads > 0 ? _stepMaxThreads : Math.max(1, H2O.ARGS.nthreads / _parallelism);
+        FairShareScheduler.setStartingPolicy(1, maxThreads);
+        try {
+            return step.startJob();
+        } finally {
+            FairShareScheduler.clearStartingPolicy();
+        }
+    }
+
     boolean submit(ModelingStep step, Job parentJob) {
         if (step.canRun()) {
-            Job job = step.startJob();
+            Job job = startJob(step);
             try {
                 if (job==null) {
                     skip(step._description, step.getAllocatedWork(), parentJob);
                 } else {
                     monitor(job,
+                            step,
                             step.getAllocatedWork(),
                             parentJob,
                             ArrayUtils.contains(step._ignoredConstraints, Constraint.TIMEOUT));
@@ -100,6 +302,10 @@ class ModelingStepsExecutor extends Iced<ModelingStepsExecutor> {
     }
 
     void monitor(Job job, Work work, Job parentJob, boolean ignoreTimeout) {
+        monitor(job, null, work, parentJob, ignoreTimeout);
+    }
+
+    private void monitor(Job job, ModelingStep step, Work work, Job parentJob, boolean ignoreTimeout) {
         EventLog eventLog = eventLog();
         String jobDescription = job._result == null ? job._description : job._result.toString()+" ["+job._description+"]";
         eventLog.debug(Stage.ModelTraining, jobDescription + " started");
@@ -130,7 +336,7 @@ class ModelingStepsExecutor extends Iced<ModelingStepsExecutor> {
                 int totalModelsBuilt = container == null ? 0 : container.getModelCount();
                 if (totalModelsBuilt > lastTotalModelsBuilt) {
                     eventLog.debug(Stage.ModelTraining, "Built: "+totalModelsBuilt+" models for "+work._type+" : "+jobDescription);
-                    this.addModels(container);
+                    this.addModels(container, step);
                     lastTotalModelsBuilt = totalModelsBuilt;
                 }
             }
@@ -156,7 +362,7 @@ class ModelingStepsExecutor extends Iced<ModelingStepsExecutor> {
                 int totalModelsBuilt = container.getModelCount();
                 if (totalModelsBuilt > lastTotalModelsBuilt) {
                     eventLog.debug(Stage.ModelTraining, "Built: "+totalModelsBuilt+" models for "+work._type+" : "+jobDescription);
-                    this.addModels(container);
+                    this.addModels(container, step);
                 }
             }
         } else if (JobType.ModelBuild == work._type) {
@@ -166,7 +372,7 @@ class ModelingStepsExecutor extends Iced<ModelingStepsExecutor> {
                 eventLog.info(Stage.ModelTraining, jobDescription + " cancelled");
             } else {
                 eventLog.debug(Stage.ModelTraining, jobDescription + " complete");
-                this.addModel((Model)job.get());
+                this.addModel((Model)job.get(), step);
             }
         }
 
@@ -178,20 +384,22 @@ class ModelingStepsExecutor extends Iced<ModelingStepsExecutor> {
         _jobs.remove(job);
     }
 
-    private void addModels(final ModelContainer container) {
+    private synchronized void addModels(final ModelContainer container, ModelingStep step) {
         Leaderboard leaderboard = leaderboard();
         int before = leaderboard.getModelCount();
         leaderboard.addModels(container.getModelKeys());
         int after = leaderboard.getModelCount();
         _modelCount.addAndGet(after - before);
+        releaseReservation(step, after - before);
     }
 
-    private void addModel(final Model model) {
+    private synchronized void addModel(final Model model, ModelingStep step) {
         Leaderboard leaderboard = leaderboard();
         int before = leaderboard.getModelCount();
         leaderboard.addModel(model._key);
         int after = leaderboard.getModelCount();
         _modelCount.addAndGet(after - before);
+        releaseReservation(step, after - before);
     }
 
     private EventLog eventLog() {
@@ -67,8 +67,8 @@ public class EventLog extends Keyed<EventLog> {
     return entry;
   }
 
-  /** Add a EventLogEntry, but don't log. */
-  public void addEvent(EventLogEntry event) {
+  /** Add a EventLogEntry, but don't log. Steps running concurrently share the event log. */
+  public synchronized void addEvent(EventLogEntry event) {
     EventLogEntry[] oldEvents = _events;
     EventLogEntry[] newEvents = new EventLogEntry[_events.length + 1];
     System.arraycopy(oldEvents, 0, newEvents, 0, oldEvents.length);
@@ -81,7 +81,9 @@ public class EventLog extends Keyed<EventLog> {
    */
   @Override
   protected Futures remove_impl(Futures fs, boolean cascade) {
-    _events = new EventLogEntry[0];
+    synchronized (this) {
+      _events = new EventLogEntry[0];
+    }
     return super.remove_impl(fs, cascade);
   }
 
@@ -323,6 +323,23 @@ public class Leaderboard extends Lockable<Leaderboard> implements ModelContainer
     return mm;
   }
 
+  /**
+   * Computes the leaderboard metrics of all the given models lacking them in a single pass over the leaderboard frame,
+   * instead of scoring each model separately in {@link #getOrCreateModelMetrics(Key, Map)}.
+   */
+  private void scoreMissingMetrics(Collection<Key<Model>> modelKeys) {
+    final Frame leaderboardFrame = leaderboardFrame();
+    if (leaderboardFrame == null) return;
+    final List<Model> toScore = new ArrayList<>();
+    for (Key<Model> modelKey : modelKeys) {
+      Model model = modelKey.get();
+      if (model != null && ModelMetrics.getFromDKV(model, leaderboardFrame) == null)
+        toScore.add(model);
+    }
+    if (toScore.size() > 1)
+      new MultiModelScorer(toScore.toArray(new Model[0]), leaderboardFrame).scoreMetrics();
+  }
+
   /**
    * Add the given models to the leaderboard.
    * Note that to make this easier to use from Grid, which returns its models in random order,
@@ -356,6 +373,7 @@ public class Leaderboard extends Lockable<Leaderboard> implements ModelContainer
 
     final List<ModelMetrics> modelMetrics = new ArrayList<>();
     final Map<Key<Model>, LeaderboardCell[]> extensions = new HashMap<>();
+    scoreMissingMetrics(newModelKeys);
 
     for (Key<Model> modelKey : allModelKeys) {  // fully rebuilding modelMetrics, so we loop through all keys, not only new ones
       Model model = modelKey.get();
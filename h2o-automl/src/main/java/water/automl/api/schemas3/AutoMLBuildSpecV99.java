@@ -69,6 +69,21 @@ public class AutoMLBuildSpecV99 extends SchemaV3<AutoMLBuildSpec, AutoMLBuildSpe
             level = API.Level.expert)
     public String export_checkpoints_dir;
 
+    @API(help = "Maximum number of independent modeling steps (default models and hyperparameter searches) run concurrently (defaults to 1, ie. one step at a time). "
+            + "Stacked Ensembles and exploitation steps always run alone, once the preceding steps are done.",
+            level = API.Level.expert)
+    public int parallelism;
+
+    @API(help = "Maximum number of threads per node used by each of the concurrently running modeling steps (defaults to 0: the node's threads are split evenly between the steps). "
+            + "Enforced only when the fair-share scheduler is enabled (-Dsys.ai.h2o.sched.fairshare=true).",
+            level = API.Level.expert)
+    public int step_max_threads;
+
+    @API(help = "Fraction of the cluster memory a concurrent modeling step is expected to need (defaults to 0: no memory check). "
+            + "Another step is only started while at least this fraction of the cluster memory is free.",
+            level = API.Level.expert)
+    public double step_memory_fraction;
+
   } // class AutoMLBuildControlV99
 
   /**
@@ -12,7 +12,10 @@ import org.junit.Test;
 import water.*;
 import water.fvec.Frame;
 
+import java.util.Collections;
 import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.junit.Assert.*;
 
@@ -146,4 +149,51 @@ public class ModelingStepsExecutorTest extends TestUtil {
         assertEquals(1, parentJob.progress(), 1e-6); // parent job should be auto-filled with remaining work
         assertEquals(1, aml.leaderboard().getModelCount());
     }
+
+    @Test
+    public void test_submit_training_steps_concurrently() {
+        ModelingStepsExecutor executor = new ModelingStepsExecutor(aml.leaderboard(), aml.eventLog(), aml._runCountdown, 2, 0, 0);
+        executor.start();
+        Job parentJob = makeJob("parent");
+        ModelingStep step1 = makeStep(makeJob("dummy_1"), true);
+        ModelingStep step2 = makeStep(makeJob("dummy_2"), true);
+        ModelingStep skipped = makeStep(makeJob("dummy_3"), true);
+        assertTrue(executor.canRunConcurrently(step1));
+
+        Set<ModelingStep> executed = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        assertTrue(executor.submitConcurrently(step1, parentJob, s -> false, executed::add));
+        assertTrue(executor.submitConcurrently(step2, parentJob, s -> false, executed::add));
+        assertFalse(executor.submitConcurrently(skipped, parentJob, s -> true, executed::add));
+        executor.awaitRunning();
+        executor.stop();
+        assertEquals(2, executed.size());
+        assertTrue(executed.contains(step1) && executed.contains(step2));
+        assertEquals(0, executor.reservedModelCount());
+        assertEquals(2, aml.leaderboard().getModelCount());
+    }
+
+    @Test
+    public void test_models_reserved_until_concurrent_step_completed() {
+        ModelingStepsExecutor executor = new ModelingStepsExecutor(aml.leaderboard(), aml.eventLog(), aml._runCountdown, 2, 0, 0);
+        executor.start();
+        Job parentJob = makeJob("parent");
+        ModelingStep step = makeStep(makeJob("dummy"), true);
+        assertEquals(3, executor.reserveModels(step, () -> 3));
+        assertEquals(3, executor.reservedModelCount());
+
+        assertTrue(executor.submitConcurrently(step, parentJob, s -> false, s -> {}));
+        executor.awaitRunning();
+        executor.stop();
+        assertEquals(0, executor.reservedModelCount()); // released as the model was added, the rest once completed
+        assertEquals(1, aml.leaderboard().getModelCount());
+    }
+
+    @Test
+    public void test_no_models_reserved_for_sequential_step() {
+        ModelingStepsExecutor executor = new ModelingStepsExecutor(aml.leaderboard(), aml.eventLog(), aml._runCountdown);
+        executor.start();
+        assertEquals(3, executor.reserveModels(makeStep(makeJob("dummy"), true), () -> 3));
+        assertEquals(0, executor.reservedModelCount());
+        executor.stop();
+    }
 }
@@ -21,6 +21,7 @@ import java.util.concurrent.TimeUnit;
 
 import water.fvec.Chunk;
 import water.fvec.NewChunk;
+import water.fvec.RowBlock;
 
 /**
  * Chunk access patterns benchmark
@@ -94,6 +95,45 @@ public class ChunkBench {
     return sum;
   }
 
+  @Benchmark
+  public double rowsColsWithRowBlockRead() {
+    double sum = 0;
+    RowBlock blk = new RowBlock(chunks, cols);
+    for (int row = 0; row < rows; ++row) {
+      for (int col = 0; col < cols; ++col) {
+        sum += blk.atd(col, row);
+      }
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public double colsRowsWithSparseBulkRead() {
+    double sum = 0;
+    double [] vals = new double[chunks[0]._len];
+    int [] ids = new int[chunks[0]._len];
+    for (int col = 0; col < cols; ++col) {
+      final Chunk c = chunks[col];
+      if (c.isSparseZero()) {
+        int n = c.getSparseDoubles(vals, ids);
+        for (int i = 0; i < n; ++i)
+          sum += vals[i];
+      } else
+        sum += walkChunkBulk(rows, c, vals);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int colsRowsWithBulkNAs() {
+    int nas = 0;
+    boolean [] mask = new boolean[chunks[0]._len];
+    for (int col = 0; col < cols; ++col) {
+      nas += chunks[col].getNAs(mask, 0, rows);
+    }
+    return nas;
+  }
+
   @Benchmark
   public double colsRowsReadWithFinalChunk() {
     double sum = 0;
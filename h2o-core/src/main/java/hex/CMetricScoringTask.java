@@ -23,6 +23,10 @@ public class CMetricScoringTask<T extends CMetricScoringTask<T>> extends CFuncTa
     super(cFuncRef);
   }
 
+  protected CMetricScoringTask(CFuncRef cFuncRef, byte priority) {
+    super(cFuncRef, priority);
+  }
+
   @Override
   protected final Class<CMetricFunc> getFuncType() {
     return CMetricFunc.class;
@@ -141,7 +141,21 @@ public class DMatrix  {
     public float progress(){ return (float)((double)chunksDone/chunksTotal);}
   }
 
+  /**
+   * Largest right-hand side (rows x cols) materialized on every node by the blocked multiply,
+   * bigger ones are multiplied one output column at a time by {@link MatrixMulTsk}.
+   */
+  static long DENSE_MMUL_MAX_CELLS = Long.parseLong(H2O.getSysProperty("dmatrix.mmul.dense.maxCells", String.valueOf(1 << 24)));
+
+  // Tile sizes of the blocked kernels: a tile of TILE_ROWS x TILE_COLS doubles (256kB) stays in L2
+  public static final int TILE_ROWS = 256;
+  static final int TILE_COLS = 128;
+
   public static Frame mmul(Frame x, Frame y) {
+    if(x.numCols() != y.numRows())
+      throw new IllegalArgumentException("dimensions do not match! x.numcols = " + x.numCols() + ", y.numRows = " + y.numRows());
+    if((long)y.numRows() * y.numCols() <= DENSE_MMUL_MAX_CELLS && y.numRows() > 0 && y.numCols() > 0)
+      return blockedMul(x, y);
     MatrixMulTsk t = new MatrixMulTsk(null,null,x,y);
     if(Thread.currentThread() instanceof FJWThr)
       t.fork().join();
@@ -199,6 +213,220 @@ public class DMatrix  {
   static int cnt = 0;
   // to be invoked from R expression
 
+  /**
+   * Multiplies the distributed frame x by a y small enough to be copied to every node.
+   * Each chunk of x is multiplied tile by tile: blocks of up to TILE_ROWS rows x TILE_COLS columns
+   * are decoded into contiguous arrays (bulk {@link Chunk#getDoubles} instead of an atd per element)
+   * and multiplied by the matching rows of y with {@link #gemm}. A single pass over x computes all
+   * the output columns.
+   */
+  static Frame blockedMul(Frame x, Frame y) {
+    final double[][] ymat = new CollectRowsTsk((int) y.numRows()).doAll(y)._rows;
+    return new BlockedMulTsk(ymat).doAll(y.numCols(), Vec.T_NUM, x).outputFrame();
+  }
+
+  // Copies a (small) frame into a row-major matrix
+  private static class CollectRowsTsk extends MRTask<CollectRowsTsk> {
+    final int _nrows;
+    double[][] _rows;
+    CollectRowsTsk(int nrows) { _nrows = nrows; }
+    @Override public void map(Chunk[] cs) {
+      _rows = new double[_nrows][];
+      final int start = (int) cs[0].start();
+      final double[] col = MemoryManager.malloc8d(cs[0]._len);
+      for (int r = 0; r < cs[0]._len; ++r)
+        _rows[start + r] = MemoryManager.malloc8d(cs.length);
+      for (int c = 0; c < cs.length; ++c) {
+        cs[c].getDoubles(col, 0, cs[c]._len);
+        for (int r = 0; r < cs[c]._len; ++r)
+          _rows[start + r][c] = col[r];
+      }
+    }
+    @Override public void reduce(CollectRowsTsk t) {
+      if (_rows == null) _rows = t._rows;
+      else if (t._rows != null)
+        for (int r = 0; r < _rows.length; ++r)
+          if (_rows[r] == null) _rows[r] = t._rows[r];
+    }
+  }
+
+  private static class BlockedMulTsk extends MRTask<BlockedMulTsk> {
+    final double[][] _y; // row-major right hand side
+    BlockedMulTsk(double[][] y) { _y = y; }
+
+    @Override public void map(Chunk[] cs, NewChunk[] ncs) {
+      final int len = cs[0]._len;
+      final int ncols = ncs.length;
+      final int kmax = Math.min(TILE_COLS, cs.length);
+      final int rmax = Math.min(TILE_ROWS, len);
+      final double[][] a = new double[kmax][rmax]; // column-major tile of x
+      final boolean[] dense = new boolean[kmax];
+      final double[][] c = new double[ncols][rmax]; // column-major tile of the result
+      for (int r0 = 0; r0 < len; r0 += TILE_ROWS) {
+        final int rb = Math.min(TILE_ROWS, len - r0);
+        for (double[] cj : c) Arrays.fill(cj, 0, rb, 0);
+        for (int k0 = 0; k0 < cs.length; k0 += TILE_COLS) {
+          final int kb = Math.min(TILE_COLS, cs.length - k0);
+          for (int k = 0; k < kb; ++k) {
+            final Chunk xc = cs[k0 + k];
+            dense[k] = !xc.isSparseZero();
+            if (dense[k]) {
+              xc.getDoubles(a[k], r0, r0 + rb);
+            } else { // Only the non-zeros of sparse columns, straight into the result
+              final double[] yrow = _y[k0 + k];
+              for (int r = xc.nextNZ(r0 - 1); r < r0 + rb; r = xc.nextNZ(r)) {
+                final double v = xc.atd(r);
+                for (int j = 0; j < ncols; ++j)
+                  if (yrow[j] != 0) c[j][r - r0] += v * yrow[j];
+              }
+            }
+          }
+          gemm(a, dense, kb, rb, _y, k0, c);
+        }
+        for (int j = 0; j < ncols; ++j) {
+          final double[] cj = c[j];
+          final NewChunk nc = ncs[j];
+          for (int r = 0; r < rb; ++r) nc.addNum(cj[r]);
+        }
+      }
+    }
+  }
+
+  /**
+   * c[j][r] += sum_k a[k][r] * b[k0 + k][j] over the tile a of kb columns (column-major, skipping
+   * the columns not flagged dense) and rb rows. Zeros of b are skipped, the same as in the per-column
+   * multiply. Four output columns are updated per pass over a column of the tile, so each value of a
+   * is loaded once for four multiply-adds.
+   */
+  static void gemm(double[][] a, boolean[] dense, int kb, int rb, double[][] b, int k0, double[][] c) {
+    final int ncols = c.length;
+    int j = 0;
+    for (; j + 4 <= ncols; j += 4) {
+      final double[] c0 = c[j], c1 = c[j + 1], c2 = c[j + 2], c3 = c[j + 3];
+      for (int k = 0; k < kb; ++k) {
+        if (dense != null && !dense[k]) continue;
+        final double[] brow = b[k0 + k];
+        final double y0 = brow[j], y1 = brow[j + 1], y2 = brow[j + 2], y3 = brow[j + 3];
+        final double[] ak = a[k];
+        if (y0 != 0 && y1 != 0 && y2 != 0 && y3 != 0) {
+          for (int r = 0; r < rb; ++r) {
+            final double x = ak[r];
+            c0[r] += x * y0;
+            c1[r] += x * y1;
+            c2[r] += x * y2;
+            c3[r] += x * y3;
+          }
+        } else {
+          axpy(y0, ak, c0, rb);
+          axpy(y1, ak, c1, rb);
+          axpy(y2, ak, c2, rb);
+          axpy(y3, ak, c3, rb);
+        }
+      }
+    }
+    for (; j < ncols; ++j) {
+      final double[] cj = c[j];
+      for (int k = 0; k < kb; ++k)
+        if (dense == null || dense[k])
+          axpy(b[k0 + k][j], a[k], cj, rb);
+    }
+  }
+
+  private static void axpy(double y, double[] x, double[] c, int n) {
+    if (y == 0) return;
+    for (int r = 0; r < n; ++r)
+      c[r] += x[r] * y;
+  }
+
+  /**
+   * Lower triangle of the (weighted) cross product of a tile: xx[i][j] += sum_r w[r]*a[i][r]*a[j][r]
+   * for j &lt;= i, where a is column-major (a[column][row]) with nrows valid rows and w may be null.
+   * The columns are processed in panels of TILE_COLS, four dot products at a time, so each value of
+   * column i is loaded once for four multiply-adds and the panel stays in cache.
+   */
+  public static void syrkLower(double[][] a, double[] w, int nrows, double[][] xx) {
+    final int p = a.length;
+    final double[] wa = w == null ? null : MemoryManager.malloc8d(nrows);
+    for (int j0 = 0; j0 < p; j0 += TILE_COLS) {
+      final int j1 = Math.min(p, j0 + TILE_COLS);
+      for (int i = j0; i < p; ++i) {
+        double[] ai = a[i];
+        if (w != null) {
+          for (int r = 0; r < nrows; ++r) wa[r] = w[r] * ai[r];
+          ai = wa;
+        }
+        final double[] row = xx[i];
+        final int jmax = Math.min(j1, i + 1);
+        int j = j0;
+        for (; j + 4 <= jmax; j += 4) {
+          final double[] a0 = a[j], a1 = a[j + 1], a2 = a[j + 2], a3 = a[j + 3];
+          double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+          for (int r = 0; r < nrows; ++r) {
+            final double x = ai[r];
+            s0 += x * a0[r];
+            s1 += x * a1[r];
+            s2 += x * a2[r];
+            s3 += x * a3[r];
+          }
+          row[j] += s0;
+          row[j + 1] += s1;
+          row[j + 2] += s2;
+          row[j + 3] += s3;
+        }
+        for (; j < jmax; ++j) {
+          final double[] aj = a[j];
+          double s = 0;
+          for (int r = 0; r < nrows; ++r)
+            s += ai[r] * aj[r];
+          row[j] += s;
+        }
+      }
+    }
+  }
+
+  /**
+   * X'X of an all-numeric frame, without transposing it. Each chunk adds the cross products of its
+   * row tiles ({@link #syrkLower}) to a lower-triangular partial, the partials are summed per node
+   * and then across the cloud by the MRTask reduce.
+   *
+   * @return the full (symmetric) X'X, numCols x numCols
+   */
+  public static double[][] crossprod(Frame x) {
+    for (Vec v : x.vecs())
+      if (!v.isNumeric())
+        throw new IllegalArgumentException("crossprod can only be applied to all-numeric frames (representing a matrix)");
+    final int p = x.numCols();
+    double[][] xx = new CrossProdTsk(p).doAll(x)._xx;
+    double[][] res = new double[p][p];
+    for (int i = 0; i < p; ++i)
+      for (int j = 0; j <= i; ++j)
+        res[i][j] = res[j][i] = xx == null ? 0 : xx[i][j];
+    return res;
+  }
+
+  private static class CrossProdTsk extends MRTask<CrossProdTsk> {
+    final int _p;
+    double[][] _xx; // lower triangle
+    CrossProdTsk(int p) { _p = p; }
+    @Override public void map(Chunk[] cs) {
+      final int len = cs[0]._len;
+      if (len == 0) return;
+      _xx = new double[_p][];
+      for (int i = 0; i < _p; ++i) _xx[i] = MemoryManager.malloc8d(i + 1);
+      final double[][] a = new double[_p][Math.min(TILE_ROWS, len)];
+      for (int r0 = 0; r0 < len; r0 += TILE_ROWS) {
+        final int rb = Math.min(TILE_ROWS, len - r0);
+        for (int c = 0; c < _p; ++c)
+          cs[c].getDoubles(a[c], r0, r0 + rb);
+        syrkLower(a, null, rb, _xx);
+      }
+    }
+    @Override public void reduce(CrossProdTsk t) {
+      if (_xx == null) _xx = t._xx;
+      else if (t._xx != null) ArrayUtils.add(_xx, t._xx);
+    }
+  }
+
 
 
   private static class GetNonZerosTsk extends MRTask<GetNonZerosTsk>{
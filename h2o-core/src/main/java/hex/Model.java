@@ -1814,6 +1814,28 @@ public abstract class Model<M extends Model<M,P,O>, P extends Model.Parameters,
     return bs._mb;
   }
 
+  /**
+   * Whether the metrics of this model can be computed with the default {@link BigScore}, together with other
+   * models in a single pass over the data (see {@link MultiModelScorer}). Models opt in only if they score
+   * with {@link #score0} and the default {@link #makeMetricBuilder}, ie. they don't override
+   * {@link #predictScoreImpl} or {@link #scoreMetrics}.
+   */
+  public boolean isSharedScoringSupported() {
+    return false;
+  }
+
+  /**
+   * Whether a model with the given parameters can be built by continuing this model from a checkpoint and would then
+   * be the same as the model built from scratch (e.g. a tree model with more trees and otherwise the same parameters).
+   * Used by {@link hex.grid.GridSearch} not to rebuild what the previous models of the grid already built.
+   *
+   * @param parms parameters of the model to build
+   * @return amount of work (e.g. number of trees) saved by continuing this model, 0 if it cannot be continued
+   */
+  public long warmStartWork(Parameters parms) {
+    return 0;
+  }
+
   protected class BigScore extends CMetricScoringTask<BigScore> implements BigScorePredict, BigScoreChunkPredict {
     final protected String[] _domain; // Prediction domain; union of test and train classes
     final protected int _npredcols;  // Number of columns in prediction; nclasses+1 - can be less than the prediction domain
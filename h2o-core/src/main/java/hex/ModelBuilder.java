@@ -494,6 +494,9 @@ abstract public class ModelBuilder<M extends Model<M,P,O>, P extends Model.Param
     try {
       Scope.enter();
 
+      // Step 0: Prepare the data structures shared by the main model and the CV models
+      cv_prepareSharedData();
+
       // Step 1: Assign each row to a fold
       final Vec foldAssignment = cv_AssignFold(N);
 
@@ -545,6 +548,10 @@ abstract public class ModelBuilder<M extends Model<M,P,O>, P extends Model.Param
     }
   }
 
+  // Step 0: Prepare the data structures shared by the main model and the CV models, the CV models are
+  // (shallow) clones of this builder made afterwards. Does nothing by default.
+  protected void cv_prepareSharedData() { }
+
   // Step 1: Assign each row to a fold
   // TODO: Implement better splitting algo (with Strata if response is
   // categorical), e.g. http://www.lexjansen.com/scsug/2009/Liang_Xie2.pdf
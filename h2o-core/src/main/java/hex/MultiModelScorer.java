@@ -0,0 +1,233 @@
+package hex;
+
+import water.Key;
+import water.MRTask;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+import water.udf.CFuncRef;
+import water.util.Log;
+
+import java.util.*;
+
+/**
+ * Computes the metrics of several models on one frame in a single pass over the data.
+ * <p>
+ * The frame is adapted once per distinct column layout of the models (models trained on the same data
+ * typically share it), and a single MRTask feeds every model's score0 and metric builder row by row.
+ * Predictions are only kept for the models whose metrics need them (gains/lift of binomial models) and
+ * are dropped once the metrics are made. The metrics end up in the DKV, just like when scoring with
+ * {@link Model#score(Frame)}.
+ * <p>
+ * Models which can't take part in the shared pass (see {@link Model#isSharedScoringSupported()}, models
+ * with preprocessors or a huber distribution, models without a usable response column in the frame)
+ * are scored one by one.
+ */
+public class MultiModelScorer {
+
+  private final Model[] _models;
+  private final Frame _fr;
+
+  public MultiModelScorer(Model[] models, Frame fr) {
+    _models = models;
+    _fr = fr;
+  }
+
+  /**
+   * @return metrics of the models on the frame, in the order of the models
+   */
+  public ModelMetrics[] scoreMetrics() {
+    final ModelMetrics[] metrics = new ModelMetrics[_models.length];
+    final Map<Layout, List<Integer>> shared = new LinkedHashMap<>();
+    for (int i = 0; i < _models.length; i++) {
+      Model m = _models[i];
+      if (canScoreShared(m))
+        shared.computeIfAbsent(new Layout(m), l -> new ArrayList<>()).add(i);
+      else
+        metrics[i] = scoreSingle(m);
+    }
+    if (shared.isEmpty())
+      return metrics;
+
+    final List<Frame> adaptedFrames = new ArrayList<>(shared.size());
+    try {
+      final Frame union = new Frame(_fr);
+      final Map<Key, Integer> unionIdx = new HashMap<>();
+      for (int c = 0; c < union.numCols(); c++)
+        unionIdx.put(union.vec(c)._key, c);
+
+      final List<Integer> modelIdx = new ArrayList<>();
+      final List<Model.BigScore> tasks = new ArrayList<>();
+      final List<int[]> cols = new ArrayList<>();
+      final List<Integer> predsStart = new ArrayList<>();
+      int npreds = 0;
+      for (List<Integer> group : shared.values()) {
+        Frame adapted = new Frame(_fr);
+        _models[group.get(0)].adaptTestForTrain(adapted, true, true);
+        adaptedFrames.add(adapted);
+        int[] adaptedCols = new int[adapted.numCols()];
+        for (int c = 0; c < adaptedCols.length; c++) {
+          Vec v = adapted.vec(c);
+          Integer idx = unionIdx.get(v._key);
+          if (idx == null) {
+            idx = union.numCols();
+            union.add("__shared_scoring_" + idx, v);
+            unionIdx.put(v._key, idx);
+          }
+          adaptedCols[c] = idx;
+        }
+        for (int i : group) {
+          Model m = _models[i];
+          String[] names = m.makeScoringNames();
+          String[][] domains = m.makeScoringDomains(adapted, true, names);
+          boolean makePreds = needsPredictions(m);
+          Model.BigScore bs = m.makeBigScoreTask(domains, names, adapted, true, makePreds, null, CFuncRef.NOP);
+          bs._fr = adapted;
+          modelIdx.add(i);
+          tasks.add(bs);
+          cols.add(adaptedCols);
+          predsStart.add(npreds);
+          if (makePreds)
+            npreds += names.length;
+        }
+      }
+
+      int[] starts = new int[predsStart.size()];
+      for (int t = 0; t < starts.length; t++)
+        starts[t] = predsStart.get(t);
+      SharedScoringTask sst = new SharedScoringTask(tasks.toArray(new Model.BigScore[0]), cols.toArray(new int[0][]), starts)
+              .doAll(npreds, Vec.T_NUM, union);
+      Frame predictions = npreds > 0 ? sst.outputFrame() : null;
+      try {
+        for (int t = 0; t < sst._tasks.length; t++) {
+          int i = modelIdx.get(t);
+          ModelMetrics.MetricBuilder mb = sst._mbs[t];
+          if (mb == null) { // No rows scored
+            metrics[i] = scoreSingle(_models[i]);
+            continue;
+          }
+          mb.postGlobal();
+          Model.BigScore bs = sst._tasks[t];
+          Frame preds = null;
+          if (bs._makePreds) {
+            preds = new Frame();
+            for (int c = 0; c < bs._npredcols; c++)
+              preds.add(String.valueOf(c), predictions.vec(starts[t] + c));
+          }
+          metrics[i] = mb.makeModelMetrics(_models[i], _fr, bs._fr, preds);
+        }
+      } finally {
+        if (predictions != null)
+          predictions.remove();
+      }
+      Log.info("Scored " + sst._tasks.length + " models in a single pass over frame " + _fr._key +
+              " (" + shared.size() + " distinct column layouts).");
+    } finally {
+      for (Frame adapted : adaptedFrames)
+        Frame.deleteTempFrameAndItsNonSharedVecs(adapted, _fr);
+    }
+    return metrics;
+  }
+
+  private boolean canScoreShared(Model m) {
+    if (!m.isSharedScoringSupported() || m._parms._preprocessors != null)
+      return false;
+    if (m.isDistributionHuber()) // huber delta of the metrics is computed from the predictions
+      return false;
+    if (m._output.hasResponse()) {
+      Vec response = _fr.vec(m._output.responseName());
+      if (response == null || response.isBad())
+        return false;
+    }
+    return !m._output.hasWeights() || _fr.vec(m._output.weightsName()) != null;
+  }
+
+  // Gains/lift of binomial models are computed from the predictions
+  private static boolean needsPredictions(Model m) {
+    return m._output.nclasses() == 2 && m._parms._gainslift_bins != 0;
+  }
+
+  private ModelMetrics scoreSingle(Model m) {
+    m.score(_fr).delete();
+    return ModelMetrics.getFromDKV(m, _fr);
+  }
+
+  /** Everything that decides how a frame is adapted for a model. */
+  private static final class Layout {
+    private final Object[] _parts;
+    private final int _hash;
+
+    Layout(Model m) {
+      Model.Parameters p = m._parms;
+      _parts = new Object[]{
+              m._output._origNames, m._output._origDomains, m._output._names, m._output._domains,
+              p.getNonPredictors(), p._response_column, p._weights_column, p._offset_column, p._fold_column,
+              p._categorical_encoding, p._max_categorical_levels, p.missingColumnsType(),
+              // models with interactions or an eigen encoding are not shared with other models
+              m._output.interactionBuilder() != null || m.getToEigenVec() != null ? m._key : null
+      };
+      _hash = Arrays.deepHashCode(_parts);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Layout && Arrays.deepEquals(_parts, ((Layout) o)._parts);
+    }
+
+    @Override
+    public int hashCode() {
+      return _hash;
+    }
+  }
+
+  private static class SharedScoringTask extends MRTask<SharedScoringTask> {
+    // IN
+    final Model.BigScore[] _tasks;
+    final int[][] _cols;
+    final int[] _predsStart; // first output column of the predictions of each task which makes them
+
+    // OUT
+    ModelMetrics.MetricBuilder[] _mbs;
+
+    SharedScoringTask(Model.BigScore[] tasks, int[][] cols, int[] predsStart) {
+      _tasks = tasks;
+      _cols = cols;
+      _predsStart = predsStart;
+    }
+
+    @Override
+    protected void setupLocal() {
+      for (Model.BigScore bs : _tasks)
+        bs.setupLocal();
+    }
+
+    @Override
+    public void map(Chunk[] cs, NewChunk[] ncs) {
+      _mbs = new ModelMetrics.MetricBuilder[_tasks.length];
+      for (int t = 0; t < _tasks.length; t++) {
+        final int[] cols = _cols[t];
+        Chunk[] chks = new Chunk[cols.length];
+        for (int c = 0; c < chks.length; c++)
+          chks[c] = cs[cols[c]];
+        Model.BigScore bs = (Model.BigScore) _tasks[t].clone(); // map sets the metric builder of the task
+        NewChunk[] preds = bs._makePreds ? Arrays.copyOfRange(ncs, _predsStart[t], _predsStart[t] + bs._npredcols) : null;
+        bs.map(chks, preds);
+        _mbs[t] = bs._mb;
+      }
+    }
+
+    @Override
+    public void reduce(SharedScoringTask mrt) {
+      if (_mbs == null) {
+        _mbs = mrt._mbs;
+      } else if (mrt._mbs != null) {
+        for (int t = 0; t < _mbs.length; t++) {
+          if (_mbs[t] == null) _mbs[t] = mrt._mbs[t];
+          else if (mrt._mbs[t] != null) _mbs[t].reduce(mrt._mbs[t]);
+        }
+      }
+    }
+  }
+
+}
@@ -459,6 +459,8 @@ public final class GridSearch<MP extends Model.Parameters> extends Keyed<GridSea
   }
 
   static final Set<String> IGNORED_FIELDS_PARAM_HASH = Collections.singleton("_export_checkpoints_dir");
+  // a warm-started model is only given the checkpoint on top of the grid parameters
+  private static final Set<String> IGNORED_FIELDS_WARM_START = new HashSet<>(Arrays.asList("_export_checkpoints_dir", "_checkpoint"));
 
   /**
    * Build a model based on specified parameters and save it to resulting Grid object.
@@ -541,13 +543,41 @@ public final class GridSearch<MP extends Model.Parameters> extends Keyed<GridSea
     Key<Model> result = Key.make(protoModelKey + paramsIdx);
     // Build a new model
     assert grid.getModel(params) == null;
+    final Model warmStartModel = params.hasCheckpoint() ? null : findWarmStartModel(params, grid);
+    if (warmStartModel != null) {
+      Log.info("GridSearch.buildModel(): continuing model " + warmStartModel._key + " built with a subset of these parameters; checksum: " + checksum);
+      params._checkpoint = warmStartModel._key;
+    }
     Model m = ModelBuilder.trainModelNested(_job, result, params, null);
-    assert checksum == m._input_parms.checksum(IGNORED_FIELDS_PARAM_HASH) : 
+    assert checksum == m._input_parms.checksum(warmStartModel == null ? IGNORED_FIELDS_PARAM_HASH : IGNORED_FIELDS_WARM_START) :
         "Model checksum different from original params";
     grid.putModel(checksum, result);
     return m;
   }
 
+  /**
+   * Finds the model of the grid which saves the most work when continued into a model with the given parameters
+   * (eg. the model with most trees among the models only differing by a smaller number of trees).
+   *
+   * @param params parameters of the model to build
+   * @param grid   grid object holding created models
+   * @return model to use as a checkpoint or <code>null</code> if there is no such model
+   */
+  private static Model findWarmStartModel(final Model.Parameters params, final Grid<?> grid) {
+    Model best = null;
+    long bestWork = 0;
+    for (Model m : grid.getModels()) {
+      if (m == null)
+        continue;
+      final long work = m.warmStartWork(params);
+      if (work > bestWork) {
+        best = m;
+        bestWork = work;
+      }
+    }
+    return best;
+  }
+
   /**
    * Defines a key for a new Grid object holding results of grid search.
    *
@@ -90,12 +90,18 @@ public class SegmentModelsBuilder {
 
     @Override
     public void compute2() {
+      SegmentPartitions trainPartitions = null;
+      SegmentPartitions validPartitions = null;
+      WorkAllocator allocator = null;
       try {
         _blueprint_parms.read_lock_frames(_job);
         SegmentModels segmentModels = SegmentModels.make(_job._result, _segments);
-        WorkAllocator allocator = new WorkAllocator(_counter_key, _segments.numRows());
+        // Single pass over the data, rows of each segment end up on the node that trains the segment
+        trainPartitions = SegmentPartitions.make(_full_train, _segments);
+        validPartitions = SegmentPartitions.make(_full_valid, _segments);
+        allocator = new WorkAllocator(_counter_key, _segments.numRows());
         LocalSequentialSegmentModelsBuilder localBuilder = new LocalSequentialSegmentModelsBuilder(
-                _job, _blueprint_parms, _segments, _full_train, _full_valid, allocator);
+                _job, _blueprint_parms, _full_train, _full_valid, trainPartitions, validPartitions, allocator);
         SegmentModelsStats stats = new MultiNodeRunner(localBuilder, segmentModels, _parallelism).doAllNodes()._stats;
         Log.info("Finished per-segment model building; summary: ", stats);
       } finally {
@@ -103,7 +109,12 @@ public class SegmentModelsBuilder {
         if (_segments._key == null) { // segments frame was auto-generated 
           _segments.remove();
         }
-        DKV.remove(_counter_key);
+        if (trainPartitions != null)
+          trainPartitions.remove();
+        if (validPartitions != null)
+          validPartitions.remove();
+        if (allocator != null)
+          allocator.remove();
       }
       tryComplete();
     }
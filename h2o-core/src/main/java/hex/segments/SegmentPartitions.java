@@ -0,0 +1,343 @@
+package hex.segments;
+
+import water.*;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+import water.nbhm.NonBlockingHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rows of a Frame split by segment in a single distributed pass.
+ * <p>
+ * Every node sorts the rows of its local Chunks by segment (keeping the original row order within
+ * a segment) and keeps just the sorted row indices. When a segment is about to be trained, every node
+ * ships the rows of the segment, as one piece, to the node which is going to train the segment
+ * (see {@link WorkAllocator}) and the per-segment Frame is put together from the pieces, with its data
+ * Chunk homed on that same node. Only the segments being trained are ever copied.
+ * <p>
+ * The leading columns of the Frame are expected to be the segment columns, in the order of
+ * the columns of the segments Frame.
+ */
+class SegmentPartitions extends Iced<SegmentPartitions> {
+
+  // Segments bigger than this are not kept in a single Chunk (and are not colocated)
+  static final int MAX_CHUNK_ROWS = 1 << 20;
+
+  // Node-local sorted rows of all the partitions in progress
+  private static final NonBlockingHashMap<String, LocalRows> LOCAL_ROWS = new NonBlockingHashMap<>();
+
+  private final String _prefix;
+  private final int _nodes;
+  private final int _num_segments;
+
+  private SegmentPartitions(String prefix, int nodes, int numSegments) {
+    _prefix = prefix;
+    _nodes = nodes;
+    _num_segments = numSegments;
+  }
+
+  static SegmentPartitions make(Frame fr, Frame segments) {
+    if (fr == null)
+      return null;
+    SegmentPartitions partitions = new SegmentPartitions(Key.make().toString(), H2O.CLOUD.size(), (int) segments.numRows());
+    new PartitionTask(partitions, readSegments(segments)).doAll(fr);
+    return partitions;
+  }
+
+  static int homeNode(long segmentIdx, int nodes) {
+    return (int) (segmentIdx % nodes);
+  }
+
+  private Key pieceKey(int segmentIdx, int node) {
+    H2ONode home = H2O.CLOUD._memary[homeNode(segmentIdx, _nodes)];
+    return Key.make(_prefix + "_" + segmentIdx + "_" + node, (byte) 1, Key.HIDDEN_USER_KEY, true, home);
+  }
+
+  /**
+   * Puts together the Frame of a single segment, the pieces of the segment are consumed.
+   *
+   * @param fr full Frame the partitions were made of (provides names, types and domains)
+   * @param segmentIdx index of the segment
+   * @param destKey key of the new Frame
+   * @return Frame of the segment, already in DKV
+   */
+  Frame makeFrame(Frame fr, long segmentIdx, Key<Frame> destKey) {
+    final int segment = (int) segmentIdx;
+    final int ncols = fr.numCols();
+    List<Chunk[]> pieces = new ArrayList<>(_nodes);
+    long rows = 0;
+    new MakePiece(this, segment).doAllNodes();
+    Futures fs = new Futures();
+    for (int node = 0; node < _nodes; node++) {
+      Key k = pieceKey(segment, node);
+      Value v = DKV.get(k);
+      if (v == null)
+        continue;
+      SegmentPiece piece = v.get();
+      pieces.add(piece._chks);
+      rows += piece._chks[0]._len;
+      DKV.remove(k, fs);
+    }
+
+    // Chunks of the new Frame: small segments have a single data Chunk homed on the segment's node
+    // (preceded by empty Chunks), bigger segments are laid out in Chunks of at most MAX_CHUNK_ROWS
+    final int nData = (int) Math.max(1, (rows + MAX_CHUNK_ROWS - 1) / MAX_CHUNK_ROWS);
+    final int nEmpty = nData == 1 ? homeNode(segment, _nodes) : 0;
+    final Chunk[][] chks = new Chunk[nEmpty + nData][];
+    final long[] espc = new long[chks.length + 1];
+    for (int i = 0; i < nEmpty; i++) {
+      chks[i] = new Chunk[ncols];
+      for (int c = 0; c < ncols; c++)
+        chks[i][c] = new NewChunk(null, i).compress();
+    }
+    if (pieces.size() == 1 && nData == 1) {
+      chks[nEmpty] = pieces.get(0); // Nothing to stitch
+    } else {
+      int p = 0, pRow = 0;
+      for (int i = 0; i < nData; i++) {
+        final int len = (int) (rows * (i + 1) / nData - rows * i / nData);
+        NewChunk[] ncs = new NewChunk[ncols];
+        for (int c = 0; c < ncols; c++)
+          ncs[c] = new NewChunk(null, nEmpty + i);
+        for (int filled = 0; filled < len; ) {
+          Chunk[] piece = pieces.get(p);
+          int n = Math.min(len - filled, piece[0]._len - pRow);
+          for (int c = 0; c < ncols; c++)
+            piece[c].extractRows(ncs[c], pRow, pRow + n);
+          filled += n;
+          pRow += n;
+          if (pRow == piece[0]._len) {
+            p++;
+            pRow = 0;
+          }
+        }
+        chks[nEmpty + i] = new Chunk[ncols];
+        for (int c = 0; c < ncols; c++)
+          chks[nEmpty + i][c] = ncs[c].compress();
+      }
+    }
+    for (int i = 0; i < chks.length; i++)
+      espc[i + 1] = espc[i] + chks[i][0]._len;
+
+    Key<Vec>[] keys = new Vec.VectorGroup().addVecs(ncols);
+    int rowLayout = Vec.ESPC.rowLayout(keys[0], espc);
+    Vec[] vecs = new Vec[ncols];
+    for (int c = 0; c < ncols; c++) {
+      Vec src = fr.vec(c);
+      vecs[c] = new Vec(keys[c], rowLayout, src.domain(), src.get_type());
+      for (int i = 0; i < chks.length; i++)
+        DKV.put(vecs[c].chunkKey(i), chks[i][c], fs);
+      DKV.put(vecs[c], fs);
+    }
+    fs.blockForPending();
+    Frame segmentFrame = new Frame(destKey, fr.names(), vecs);
+    DKV.put(segmentFrame);
+    return segmentFrame;
+  }
+
+  /** Forgets the sorted rows and removes the pieces which were not consumed (eg. when the model building was cancelled). */
+  void remove() {
+    new RemovePieces(this).doAllNodes();
+  }
+
+  private static double[][] readSegments(Frame segments) {
+    Vec.Reader[] readers = new Vec.Reader[segments.numCols()];
+    for (int i = 0; i < readers.length; i++)
+      readers[i] = segments.vec(i).new Reader();
+    double[][] rows = new double[(int) segments.numRows()][readers.length];
+    for (int r = 0; r < rows.length; r++)
+      for (int i = 0; i < readers.length; i++)
+        rows[r][i] = readers[i].isNA(r) ? Double.NaN : readers[i].at(r);
+    return rows;
+  }
+
+  private static class SegmentPiece extends Iced<SegmentPiece> {
+    final Chunk[] _chks;
+
+    SegmentPiece(Chunk[] chks) {
+      _chks = chks;
+    }
+  }
+
+  /** Segment values of a row; NA matches NA and -0.0 matches 0.0. */
+  private static final class SegmentValues {
+    final double[] _vals;
+    int _hash;
+
+    SegmentValues(double[] vals) {
+      _vals = vals;
+      for (int i = 0; i < vals.length; i++)
+        vals[i] = normalize(vals[i]);
+      _hash = Arrays.hashCode(vals);
+    }
+
+    // Arrays.equals compares the bits: all NaNs are the same but -0.0 is not 0.0 (it is after adding 0.0)
+    static double normalize(double val) {
+      return val + 0.0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof SegmentValues && Arrays.equals(_vals, ((SegmentValues) o)._vals);
+    }
+
+    @Override
+    public int hashCode() {
+      return _hash;
+    }
+  }
+
+  private static class PartitionTask extends MRTask<PartitionTask> {
+    // IN
+    private final SegmentPartitions _partitions;
+    private final double[][] _segments;
+
+    // Node-local
+    private transient Map<SegmentValues, Integer> _index;
+    private transient int[][] _rowSegments; // segment of each row, per chunk index
+
+    PartitionTask(SegmentPartitions partitions, double[][] segments) {
+      _partitions = partitions;
+      _segments = segments;
+    }
+
+    @Override
+    protected void setupLocal() {
+      _index = new HashMap<>(_segments.length * 2);
+      for (int s = 0; s < _segments.length; s++)
+        _index.put(new SegmentValues(_segments[s]), s);
+      _rowSegments = new int[_fr.anyVec().nChunks()][];
+    }
+
+    @Override
+    public void map(Chunk[] cs) {
+      final int nSegCols = _segments.length == 0 ? 0 : _segments[0].length;
+      int[] rowSegments = new int[cs[0]._len];
+      SegmentValues probe = new SegmentValues(new double[nSegCols]);
+      for (int row = 0; row < rowSegments.length; row++) {
+        for (int i = 0; i < nSegCols; i++)
+          probe._vals[i] = SegmentValues.normalize(cs[i].atd(row));
+        probe._hash = Arrays.hashCode(probe._vals);
+        Integer segment = _index.get(probe);
+        rowSegments[row] = segment != null ? segment : -1;
+      }
+      _rowSegments[cs[0].cidx()] = rowSegments;
+    }
+
+    @Override
+    protected void closeLocal() {
+      // Stable counting sort of the local rows by segment
+      final int nSegments = _segments.length;
+      final int[] start = new int[nSegments + 1];
+      for (int[] rowSegments : _rowSegments) {
+        if (rowSegments == null) continue;
+        for (int s : rowSegments)
+          if (s >= 0) start[s + 1]++;
+      }
+      for (int s = 0; s < nSegments; s++)
+        start[s + 1] += start[s];
+      final int[] chunkOf = new int[start[nSegments]];
+      final int[] rowOf = new int[start[nSegments]];
+      final int[] pos = Arrays.copyOf(start, nSegments);
+      for (int cidx = 0; cidx < _rowSegments.length; cidx++) {
+        int[] rowSegments = _rowSegments[cidx];
+        if (rowSegments == null) continue;
+        for (int row = 0; row < rowSegments.length; row++) {
+          int s = rowSegments[row];
+          if (s < 0) continue;
+          chunkOf[pos[s]] = cidx;
+          rowOf[pos[s]++] = row;
+        }
+      }
+      _rowSegments = null;
+      _index = null;
+      if (chunkOf.length == 0)
+        return;
+      LOCAL_ROWS.put(_partitions._prefix, new LocalRows(_fr.vecs(), start, chunkOf, rowOf));
+    }
+  }
+
+  /** Rows of the local Chunks sorted by segment, the rows of segment s are at indices start[s] to start[s + 1]. */
+  private static final class LocalRows {
+    final Vec[] _vecs;
+    final int[] _start;
+    final int[] _chunkOf;
+    final int[] _rowOf;
+
+    LocalRows(Vec[] vecs, int[] start, int[] chunkOf, int[] rowOf) {
+      _vecs = vecs;
+      _start = start;
+      _chunkOf = chunkOf;
+      _rowOf = rowOf;
+    }
+
+    /** @return rows of the given segment, null if there are none on this node */
+    Chunk[] makePiece(int s) {
+      if (_start[s] == _start[s + 1])
+        return null;
+      NewChunk[] ncs = new NewChunk[_vecs.length];
+      for (int c = 0; c < ncs.length; c++)
+        ncs[c] = new NewChunk(null, 0);
+      // Runs of rows coming from the same Chunk
+      for (int i = _start[s]; i < _start[s + 1]; ) {
+        final int cidx = _chunkOf[i];
+        int end = i;
+        while (end < _start[s + 1] && _chunkOf[end] == cidx) end++;
+        int[] rows = Arrays.copyOfRange(_rowOf, i, end);
+        for (int c = 0; c < ncs.length; c++)
+          _vecs[c].chunkForChunkIdx(cidx).extractRows(ncs[c], rows);
+        i = end;
+      }
+      Chunk[] chks = new Chunk[ncs.length];
+      for (int c = 0; c < ncs.length; c++)
+        chks[c] = ncs[c].compress();
+      return chks;
+    }
+  }
+
+  /** Ships the local rows of a single segment to the node of the segment. */
+  private static class MakePiece extends MRTask<MakePiece> {
+    private final SegmentPartitions _partitions;
+    private final int _segment;
+
+    MakePiece(SegmentPartitions partitions, int segment) {
+      _partitions = partitions;
+      _segment = segment;
+    }
+
+    @Override
+    protected void setupLocal() {
+      LocalRows rows = LOCAL_ROWS.get(_partitions._prefix);
+      Chunk[] chks = rows != null ? rows.makePiece(_segment) : null;
+      if (chks != null)
+        DKV.put(_partitions.pieceKey(_segment, H2O.SELF.index()), new SegmentPiece(chks));
+    }
+  }
+
+  private static class RemovePieces extends MRTask<RemovePieces> {
+    private final SegmentPartitions _partitions;
+
+    RemovePieces(SegmentPartitions partitions) {
+      _partitions = partitions;
+    }
+
+    @Override
+    protected void setupLocal() {
+      final SegmentPartitions p = _partitions;
+      LOCAL_ROWS.remove(p._prefix);
+      Futures fs = new Futures();
+      for (int s = H2O.SELF.index(); s < p._num_segments; s += p._nodes)
+        for (int node = 0; node < p._nodes; node++)
+          DKV.remove(p.pieceKey(s, node), fs);
+      fs.blockForPending();
+    }
+  }
+
+}
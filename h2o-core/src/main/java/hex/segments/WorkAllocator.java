@@ -1,26 +1,48 @@
 package hex.segments;
 
-import water.DKV;
-import water.Iced;
-import water.Key;
+import water.*;
 import water.util.IcedLong;
 
+/**
+ * Hands out segments to the nodes. Each node first works on the segments homed to it
+ * (see {@link SegmentPartitions#homeNode(long, int)}) and only then helps the other nodes.
+ */
 class WorkAllocator extends Iced<WorkAllocator> {
-  private final Key _counter_key;
+  private final Key[] _counter_keys;
   private final long _max_work;
 
   WorkAllocator(Key counterKey, long maxWork) {
-    _counter_key = counterKey;
+    _counter_keys = new Key[H2O.CLOUD.size()];
     _max_work = maxWork;
-    DKV.put(_counter_key, new IcedLong(-1));
+    Futures fs = new Futures();
+    for (int node = 0; node < _counter_keys.length; node++) {
+      _counter_keys[node] = Key.make(counterKey + "_" + node, (byte) 1, Key.HIDDEN_USER_KEY, true, H2O.CLOUD._memary[node]);
+      DKV.put(_counter_keys[node], new IcedLong(-1), fs);
+    }
+    fs.blockForPending();
   }
 
   long getNextWorkItem() {
-    return IcedLong.incrementAndGet(_counter_key);
+    final int nodes = _counter_keys.length;
+    final int self = H2O.SELF.index();
+    for (int i = 0; i < nodes; i++) {
+      final int node = (self + i) % nodes;
+      long item = IcedLong.incrementAndGet(_counter_keys[node]) * nodes + node;
+      if (item < _max_work)
+        return item;
+    }
+    return _max_work;
   }
 
   long getMaxWork() {
     return _max_work;
   }
 
+  void remove() {
+    Futures fs = new Futures();
+    for (Key k : _counter_keys)
+      DKV.remove(k, fs);
+    fs.blockForPending();
+  }
+
 }
@@ -313,6 +313,7 @@ public final class AutoBuffer {
     final int _size;            // Big or small size of ByteBuffers
 
     BBPool( int sz) { _size=sz; }
+    int size() { synchronized(_bbs) { return _bbs.size(); } }
     private ByteBuffer stats( ByteBuffer bb ) {
       if( !DEBUG ) return bb;
       if( ((_made+_cached)&255)!=255 ) return bb; // Filter printing to 1 in 256
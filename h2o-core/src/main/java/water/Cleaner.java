@@ -4,6 +4,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.Arrays;
 import water.fvec.Chunk;
+import water.persist.OffHeapStore;
 import water.util.Log;
 import water.util.PrettyPrint;
 
@@ -152,9 +153,10 @@ class Cleaner extends Thread {
 
         // Should I write this value out to disk?
         // Should I further force it from memory?
-        if( isChunk && !val.isPersisted() && !diskFull && ((Key)ok).home() ) { // && (force || (lazyPersist() && lazy_clean(key)))) {
+        if( isChunk && !val.isPersisted() && (!diskFull || OffHeapStore.ENABLED) && ((Key)ok).home() ) { // && (force || (lazyPersist() && lazy_clean(key)))) {
           long now_ns = System.nanoTime();
-          try { val.storePersist(); } // Write to disk
+          // Write to disk; once the disk is full, only to the off-heap tier
+          try { if( !val.storePersist(diskFull) ) continue; }
           catch( FileNotFoundException fnfe ) { continue; } // Can happen due to racing key delete/remove
           catch( IOException e ) {
             Log.warn( isDiskFull()
@@ -188,6 +190,10 @@ class Cleaner extends Thread {
 
       String s1 = "Cleaner pass took: "+PrettyPrint.msecs(System.currentTimeMillis()-now,true)+
                   ", spilled "+PrettyPrint.bytes(cleaned)+" in "+PrettyPrint.usecs(io_ns>>10);
+      NodeMetrics.CLEANER_PASSES.inc();
+      NodeMetrics.CLEANER_SWAPPED_BYTES.add(cleaned);
+      NodeMetrics.CLEANER_SWAP_NANOS.add(io_ns);
+      NodeMetrics.CLEANER_FREED_BYTES.add(freed);
       h = Histo.current(true); // Force a new histogram
       MemoryManager.set_goals("postclean",false);
       // No logging if under memory pressure: can deadlock the cleaner thread
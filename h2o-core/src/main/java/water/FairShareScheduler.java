@@ -0,0 +1,343 @@
+package water;
+
+import water.metrics.MetricsSource;
+import water.metrics.MetricsWriter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Opt-in, node-local fair sharing of the low-priority F/J threads between the
+ * running {@link Job}s.
+ * <p>
+ * Every task submitted by a Job (and every task forked from it, including the
+ * remote parts of its {@link MRTask}s) is tagged with the key of the Job.  Before
+ * a tagged task runs, the scheduler checks how many threads the Job already
+ * occupies; above its share the task is parked and re-submitted as soon as one
+ * of the Job's threads becomes free.  The share of a Job is proportional to its
+ * weight among all the Jobs with work on this node; untagged MRTasks (Rapids
+ * and other interactive requests) share the pool as one more participant.
+ * <p>
+ * A task blocked waiting on another one does not hold back the task it waits
+ * on: a blocking wait raises the priority of the waited-on task, and the share
+ * is checked only against the tasks of the Job running at the same or a higher
+ * priority.  Jobs thus get their share at every level of nesting and the tasks
+ * at the top level, which never wait on parked ones, always make progress.
+ * High priority work (heartbeats, DKV, GUI) is never touched.
+ * <p>
+ * Turned on with <code>-Dsys.ai.h2o.sched.fairshare=true</code>; the default
+ * weight of interactive work is set with <code>-Dsys.ai.h2o.sched.fairshare.interactive.weight</code>
+ * and a cluster-wide cap of threads per Job with <code>-Dsys.ai.h2o.sched.fairshare.maxThreadsPerJob</code>.
+ * Per-job weights and caps are set with {@link #setPolicy(Key, double, int)}.
+ */
+public final class FairShareScheduler implements MetricsSource {
+
+  public static final FairShareScheduler INSTANCE = new FairShareScheduler();
+
+  static boolean ENABLED = Boolean.getBoolean(H2O.OptArgs.SYSTEM_PROP_PREFIX + "sched.fairshare");
+  private static final double INTERACTIVE_WEIGHT =
+          Double.parseDouble(H2O.getSysProperty("sched.fairshare.interactive.weight", "1"));
+  private static final int MAX_THREADS_PER_JOB =
+          Integer.parseInt(H2O.getSysProperty("sched.fairshare.maxThreadsPerJob", "0"));
+  private static final int MAX_IDLE_SHARES = 256;
+
+  public static boolean isEnabled() { return ENABLED; }
+
+  // Owner of the task running on the current thread, inherited by the tasks it creates
+  private static final ThreadLocal<Key> OWNER = new ThreadLocal<>();
+  // Policy {weight, maxThreads} of the Jobs started from the current thread, see setStartingPolicy
+  private static final ThreadLocal<double[]> STARTING_POLICY = new ThreadLocal<>();
+
+  private static final Object LOCK = new Object();
+  // All guarded by LOCK
+  private static final Map<Key, Share> SHARES = new HashMap<>();
+  private static final Map<Key, double[]> POLICIES = new HashMap<>(); // {weight, maxThreads}
+  private static final Share INTERACTIVE = new Share(null, INTERACTIVE_WEIGHT, 0);
+  private static int _interactiveWaiting;
+
+  private FairShareScheduler() {}
+
+  /** Threads and queueing of a single Job (or of the interactive work) on this node. */
+  private static final class Share {
+    final Key _owner;
+    double _weight;
+    int _maxThreads;  // Explicit cap, 0 if none
+    int _running;     // Threads currently running (or reserved for) tasks of the owner
+    final int[] _runningByPriority = new int[H2O.MAX_PRIORITY + 1];
+    final ArrayDeque<H2O.H2OCountedCompleter>[] _parked = new ArrayDeque[H2O.MAX_PRIORITY + 1];
+    int _nparked;
+    // Statistics
+    long _started, _parks, _waitNanos, _maxWaitNanos;
+
+    Share(Key owner, double weight, int maxThreads) {
+      _owner = owner;
+      _weight = weight;
+      _maxThreads = maxThreads;
+    }
+
+    boolean active() { return _running > 0 || _nparked > 0 || (this == INTERACTIVE && _interactiveWaiting > 0); }
+
+    boolean idle() { return _running == 0 && _nparked == 0; }
+
+    // Tasks running at the given or a higher priority; the lower ones are blocked waiting on these
+    int runningFrom(int priority) {
+      int n = 0;
+      for (int p = priority; p < _runningByPriority.length; p++)
+        n += _runningByPriority[p];
+      return n;
+    }
+
+    void park(H2O.H2OCountedCompleter t) {
+      ArrayDeque<H2O.H2OCountedCompleter> q = _parked[t.priority()];
+      if (q == null) q = _parked[t.priority()] = new ArrayDeque<>();
+      q.add(t);
+      _nparked++;
+      _parks++;
+    }
+
+    // Releases the parked tasks which fit in the given cap, the highest priorities first
+    List<H2O.H2OCountedCompleter> release(int cap, List<H2O.H2OCountedCompleter> released) {
+      for (int p = _parked.length - 1; p >= 0 && _nparked > 0; p--) {
+        ArrayDeque<H2O.H2OCountedCompleter> q = _parked[p];
+        while (q != null && !q.isEmpty() && runningFrom(p) < cap) {
+          H2O.H2OCountedCompleter t = q.poll();
+          _nparked--;
+          run(t);
+          t._fsReserved = true;
+          if (released == null) released = new ArrayList<>();
+          released.add(t);
+        }
+      }
+      return released;
+    }
+
+    void run(H2O.H2OCountedCompleter t) {
+      _running++;
+      _runningByPriority[t.priority()]++;
+    }
+
+    String label() { return _owner == null ? "interactive" : _owner.toString(); }
+  }
+
+  /** @return the owner of the task running on the current thread, null if none */
+  static Key currentOwner() { return OWNER.get(); }
+
+  /** Tag a task submitted by the given Job; tasks submitted from within another Job stay with the outer Job. */
+  static void tag(H2O.H2OCountedCompleter task, Key job) {
+    Key outer = OWNER.get();
+    task._owner = outer != null ? outer : job;
+  }
+
+  /** Tasks managed by the scheduler: low-priority work of Jobs and untagged MRTasks. */
+  static boolean isScheduled(H2O.H2OCountedCompleter t) {
+    return t.priority() < H2O.MIN_HI_PRIORITY && (t._owner != null || t instanceof MRTask);
+  }
+
+  // ---
+  // Hooks, called from H2O.submitTask and H2OCountedCompleter.compute
+
+  static void submitted(H2O.H2OCountedCompleter t) {
+    if (!isScheduled(t)) return;
+    if (t._fsQueuedAt == 0) t._fsQueuedAt = System.nanoTime();
+    if (t._owner == null && !t._fsWaiting) {
+      synchronized (LOCK) {
+        t._fsWaiting = true;
+        _interactiveWaiting++;
+      }
+    }
+  }
+
+  /**
+   * Called before a scheduled task runs.
+   * @return false if the task was parked and must not run now
+   */
+  static boolean beforeCompute(H2O.H2OCountedCompleter t) {
+    final long now = System.nanoTime();
+    synchronized (LOCK) {
+      if (t._fsWaiting) {
+        t._fsWaiting = false;
+        _interactiveWaiting--;
+      }
+      Share s = t._owner == null ? INTERACTIVE : share(t._owner);
+      if (t._fsReserved) {            // Released from the parked queue, the thread is already accounted for
+        t._fsReserved = false;
+      } else if (t._owner != null && s.runningFrom(t.priority()) >= cap(s)) {
+        if (t._fsQueuedAt == 0) t._fsQueuedAt = now;
+        s.park(t);
+        return false;
+      } else {
+        s.run(t);
+      }
+      s._started++;
+      if (t._fsQueuedAt != 0) {
+        long wait = now - t._fsQueuedAt;
+        t._fsQueuedAt = 0;
+        s._waitNanos += wait;
+        s._maxWaitNanos = Math.max(s._maxWaitNanos, wait);
+      }
+    }
+    OWNER.set(t._owner);
+    return true;
+  }
+
+  /** Called once a task admitted by {@link #beforeCompute} is done, re-submits the parked tasks which fit again. */
+  static void afterCompute(H2O.H2OCountedCompleter t, Key prevOwner) {
+    OWNER.set(prevOwner);
+    List<H2O.H2OCountedCompleter> released = null;
+    synchronized (LOCK) {
+      Share s = t._owner == null ? INTERACTIVE : SHARES.get(t._owner);
+      s._running--;
+      s._runningByPriority[t.priority()]--;
+      for (Share x : SHARES.values())
+        if (x._nparked > 0)
+          released = x.release(cap(x), released);
+    }
+    if (released != null)
+      for (H2O.H2OCountedCompleter p : released)
+        H2O.submitTask(p);
+  }
+
+  // Requires LOCK
+  private static Share share(Key owner) {
+    Share s = SHARES.get(owner);
+    if (s == null) {
+      if (SHARES.size() >= MAX_IDLE_SHARES) pruneIdle(null);
+      double[] policy = POLICIES.get(owner);
+      s = policy == null ? new Share(owner, 1, MAX_THREADS_PER_JOB) : new Share(owner, policy[0], (int) policy[1]);
+      SHARES.put(owner, s);
+    }
+    return s;
+  }
+
+  // Requires LOCK; threads the owner may occupy right now
+  private static int cap(Share s) {
+    double total = INTERACTIVE.active() ? INTERACTIVE._weight : 0;
+    for (Share x : SHARES.values())
+      if (x.active()) total += x._weight;
+    if (!s.active()) total += s._weight;
+    int fair = (int) Math.max(1, Math.floor(H2O.ARGS.nthreads * s._weight / total));
+    return s._maxThreads > 0 ? Math.min(fair, s._maxThreads) : fair;
+  }
+
+  // Requires LOCK; drop the statistics of idle owners, all of them or only those of finished Jobs
+  private static void pruneIdle(List<Key> finished) {
+    if (finished == null) {
+      SHARES.values().removeIf(Share::idle);
+    } else {
+      for (Key k : finished) {
+        Share s = SHARES.get(k);
+        if (s != null && s.idle()) SHARES.remove(k);
+        POLICIES.remove(k);
+      }
+    }
+  }
+
+  // ---
+  // Policies
+
+  /**
+   * Set the weight and the cap of threads (0 for no cap) of a Job on all the nodes.
+   * Takes effect for the tasks started afterwards.
+   */
+  public static void setPolicy(Key job, double weight, int maxThreads) {
+    if (weight <= 0) throw new IllegalArgumentException("Weight must be positive, got " + weight);
+    if (maxThreads < 0) throw new IllegalArgumentException("Max threads must not be negative, got " + maxThreads);
+    new SetPolicyTask(job, weight, maxThreads).doAllNodes();
+  }
+
+  /**
+   * Set the weight and the cap of threads of the Jobs started from the current thread, until
+   * {@link #clearStartingPolicy()}.  Unlike {@link #setPolicy(Key, double, int)} on a running Job, the policy is in
+   * place on all the nodes before the first task of the Job runs.
+   */
+  public static void setStartingPolicy(double weight, int maxThreads) {
+    if (weight <= 0) throw new IllegalArgumentException("Weight must be positive, got " + weight);
+    if (maxThreads < 0) throw new IllegalArgumentException("Max threads must not be negative, got " + maxThreads);
+    STARTING_POLICY.set(new double[]{weight, maxThreads});
+  }
+
+  public static void clearStartingPolicy() { STARTING_POLICY.remove(); }
+
+  /** Called by {@link Job#start} before the first task of the Job is submitted. */
+  static void starting(Key job) {
+    double[] policy = STARTING_POLICY.get();
+    // Jobs started from within another Job are accounted to the outer one
+    if (policy != null && OWNER.get() == null) setPolicy(job, policy[0], (int) policy[1]);
+  }
+
+  private static class SetPolicyTask extends MRTask<SetPolicyTask> {
+    final Key _job;
+    final double _weight;
+    final int _maxThreads;
+
+    SetPolicyTask(Key job, double weight, int maxThreads) {
+      super(H2O.GUI_PRIORITY);
+      _job = job;
+      _weight = weight;
+      _maxThreads = maxThreads;
+    }
+
+    @Override public void setupLocal() {
+      synchronized (LOCK) {
+        POLICIES.put(_job, new double[]{_weight, _maxThreads});
+        Share s = SHARES.get(_job);
+        if (s != null) {
+          s._weight = _weight;
+          s._maxThreads = _maxThreads;
+        }
+      }
+    }
+  }
+
+  // ---
+  // Reporting
+
+  /** @return total time tasks of the given Job spent queued or parked on this node, in nanoseconds */
+  public static long queueWaitNanos(Key job) {
+    synchronized (LOCK) {
+      Share s = SHARES.get(job);
+      return s == null ? 0 : s._waitNanos;
+    }
+  }
+
+  @Override
+  public void collect(MetricsWriter w) {
+    List<Key> owners;
+    synchronized (LOCK) {
+      owners = new ArrayList<>(SHARES.keySet());
+    }
+    // Forget the finished Jobs, looked up outside of the lock
+    List<Key> finished = new ArrayList<>();
+    for (Key k : owners) {
+      Value v = DKV.get(k);
+      if (v == null || !v.isJob() || !((Job) v.get()).isRunning()) finished.add(k);
+    }
+    List<Share> shares = new ArrayList<>();
+    List<long[]> values = new ArrayList<>();
+    synchronized (LOCK) {
+      pruneIdle(finished);
+      shares.add(INTERACTIVE);
+      shares.addAll(SHARES.values());
+      for (Share s : shares)
+        values.add(new long[]{s._running, s._nparked, s._started, s._parks, s._waitNanos, s._maxWaitNanos});
+    }
+    String[] labels = new String[shares.size()];
+    for (int i = 0; i < labels.length; i++) labels[i] = shares.get(i).label();
+    w.header("h2o_sched_running_threads", "gauge", "Low-priority F/J threads running tasks of a Job");
+    for (int i = 0; i < labels.length; i++) w.sample("h2o_sched_running_threads", values.get(i)[0], "owner", labels[i]);
+    w.header("h2o_sched_parked_tasks", "gauge", "Tasks of a Job parked above its fair share of threads");
+    for (int i = 0; i < labels.length; i++) w.sample("h2o_sched_parked_tasks", values.get(i)[1], "owner", labels[i]);
+    w.header("h2o_sched_started_tasks_total", "counter", "Tasks of a Job started on this node");
+    for (int i = 0; i < labels.length; i++) w.sample("h2o_sched_started_tasks_total", values.get(i)[2], "owner", labels[i]);
+    w.header("h2o_sched_parks_total", "counter", "Tasks of a Job parked because the Job was above its fair share");
+    for (int i = 0; i < labels.length; i++) w.sample("h2o_sched_parks_total", values.get(i)[3], "owner", labels[i]);
+    w.header("h2o_sched_queue_wait_seconds_total", "counter", "Time tasks of a Job spent submitted or parked before starting");
+    for (int i = 0; i < labels.length; i++) w.sample("h2o_sched_queue_wait_seconds_total", values.get(i)[4] / 1e9, "owner", labels[i]);
+    w.header("h2o_sched_max_queue_wait_seconds", "gauge", "Longest time a single task of a Job waited before starting");
+    for (int i = 0; i < labels.length; i++) w.sample("h2o_sched_max_queue_wait_seconds", values.get(i)[5] / 1e9, "owner", labels[i]);
+  }
+
+}
@@ -12,6 +12,7 @@ import water.api.RequestServer;
 import water.exceptions.H2OFailException;
 import water.exceptions.H2OIllegalArgumentException;
 import water.init.*;
+import water.metrics.MetricsRegistry;
 import water.nbhm.NonBlockingHashMap;
 import water.parser.DecryptionTool;
 import water.parser.ParserService;
@@ -1420,6 +1421,8 @@ final public class H2O {
   // Easy peeks at the FJ queues
   static int getWrkQueueSize  (int i) { return FJPS[i]==null ? -1 : FJPS[i].getQueuedSubmissionCount();}
   static int getWrkThrPoolSize(int i) { return FJPS[i]==null ? -1 : FJPS[i].getPoolSize();             }
+  static int getWrkActiveThreadCount(int i) { return FJPS[i]==null ? -1 : FJPS[i].getActiveThreadCount(); }
+  static long getWrkQueuedTaskCount (int i) { return FJPS[i]==null ? -1 : FJPS[i].getQueuedTaskCount();   }
 
   // For testing purposes (verifying API work exceeds grunt model-build work)
   // capture the class of any submitted job lower than this priority;
@@ -1434,6 +1437,7 @@ final public class H2O {
     assert MIN_PRIORITY <= priority && priority <= MAX_PRIORITY:"priority " + priority + " is out of range, expected range is < " + MIN_PRIORITY + "," + MAX_PRIORITY + ">";
     if( FJPS[priority]==null )
       synchronized( H2O.class ) { if( FJPS[priority] == null ) FJPS[priority] = new PrioritizedForkJoinPool(priority,-1); }
+    if( FairShareScheduler.ENABLED ) FairShareScheduler.submitted(task);
     FJPS[priority].submit(task);
     return task;
   }
@@ -1510,6 +1514,11 @@ final public class H2O {
     public T reloadFromBytes(byte [] ary){ return read(new AutoBuffer(ary));}
 
     private /*final*/ byte _priority;
+    // Job owning this task, for the FairShareScheduler; inherited from the
+    // completer or from the task running on the current thread
+    transient Key _owner;
+    transient boolean _fsWaiting, _fsReserved;
+    transient long _fsQueuedAt;
     // Without a completer, we expect this task will be blocked on - so the
     // blocking thread is not available in the current thread pool, so the
     // launched task needs to run at a higher priority.
@@ -1535,6 +1544,8 @@ final public class H2O {
     protected H2OCountedCompleter(H2OCountedCompleter completer, byte prior) {
       super(completer);
       _priority = prior;
+      if( FairShareScheduler.ENABLED )
+        _owner = completer != null && completer._owner != null ? completer._owner : FairShareScheduler.currentOwner();
     }
 
     /** Used by the F/J framework internally to do work.  Once per F/J task,
@@ -1571,8 +1582,19 @@ final public class H2O {
         if( pp == MIN_PRIORITY && set_t_prior ) t.setPriority(Thread.NORM_PRIORITY-1);
       }
       // Now run the task as planned
-      if( this instanceof DTask ) icer().compute1(this);
-      else compute2();
+      if( FairShareScheduler.ENABLED && FairShareScheduler.isScheduled(this) ) {
+        Key prevOwner = FairShareScheduler.currentOwner();
+        if( !FairShareScheduler.beforeCompute(this) ) return; // Parked, re-submitted once the Job is within its share
+        try {
+          if( this instanceof DTask ) icer().compute1(this);
+          else compute2();
+        } finally {
+          FairShareScheduler.afterCompute(this, prevOwner);
+        }
+      } else {
+        if( this instanceof DTask ) icer().compute1(this);
+        else compute2();
+      }
     }
 
     public void compute1() { compute2(); }
@@ -1824,6 +1846,13 @@ final public class H2O {
     // an initial histogram state.
     Cleaner.THE_CLEANER.start();
 
+    // Node-local counters & gauges served by the /metrics endpoint
+    MetricsRegistry.register(NodeMetrics.INSTANCE);
+    if (FairShareScheduler.ENABLED)
+      MetricsRegistry.register(FairShareScheduler.INSTANCE);
+    if (MRTaskProfiler.ENABLED)
+      MetricsRegistry.register(MRTaskProfiler.INSTANCE);
+
     // Start the TCPReceiverThread, to listen for TCP requests from other Cloud
     // Nodes. There should be only 1 of these, and it never shuts down.
     new TCPReceiverThread(NetworkInit._tcpSocket).start();
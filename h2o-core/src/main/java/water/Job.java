@@ -330,6 +330,11 @@ public final class Job<T extends Keyed> extends Keyed<Job> {
       }
     }.invoke(LIST);
     // 4 - Fire off the FJTASK
+    if( FairShareScheduler.ENABLED ) {
+      FairShareScheduler.starting(_key);
+      FairShareScheduler.tag(fjtask, _key);
+    }
+    NodeMetrics.JOBS_STARTED.inc();
     H2O.submitTask(fjtask);
     return this;
   }
@@ -355,6 +360,7 @@ public final class Job<T extends Keyed> extends Keyed<Job> {
     @Override public void onCompletion(CountedCompleter caller) {
       new Barrier1OnCom().apply(Job.this);
       _barrier = null;          // Free for GC
+      NodeMetrics.JOBS_COMPLETED.inc();
     }
     @Override public boolean onExceptionalCompletion(Throwable ex, CountedCompleter caller) {
       if(Job.isCancelledException(ex)) {
@@ -366,6 +372,7 @@ public final class Job<T extends Keyed> extends Keyed<Job> {
         new Barrier1OnExCom(ex).apply(Job.this);
       }
       _barrier = null;          // Free for GC
+      NodeMetrics.JOBS_COMPLETED.inc();
       return true;
     }
   }
@@ -185,6 +185,9 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
     return this;
   }
 
+  // Job owning this task, carried to the remote nodes for the FairShareScheduler
+  private Key _jobOwner;
+
   public String profString() { return _profile != null ? _profile.toString() : "Profiling turned off"; }
   MRProfile _profile;
 
@@ -413,6 +416,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
     _topGlobal = true;
     _keys = keys;
     _nlo = selfidx(); _nhi = (short)H2O.CLOUD.size(); // Do Whole Cloud
+    if( FairShareScheduler.ENABLED ) _jobOwner = _owner;
     setupLocal0();              // Local setup
     H2O.submitTask(this);       // Begin normal execution on a FJ thread
   }
@@ -461,6 +465,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
     _nlo = selfidx(); _nhi = (short)H2O.CLOUD.size(); // Do Whole Cloud
     _run_local = run_local;     // Run locally by copying data, or run globally?
     assert checkRunLocal() : "MRTask is expected to be running in a local-mode but _run_local = false";
+    if( FairShareScheduler.ENABLED ) _jobOwner = _owner;
     setupLocal0();              // Local setup
     H2O.submitTask(this);       // Begin normal execution on a FJ thread
     return self();
@@ -514,6 +519,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   /** Called once on remote at top level, probably with a subset of the cloud.
    *  Called internal by D/F/J.  Not expected to be user-called.  */
   @Override public final void dinvoke(H2ONode sender) {
+    if( FairShareScheduler.ENABLED ) _owner = _jobOwner;
     setupLocal0();              // Local setup
     H2O.submitTask(this);
   }
@@ -527,6 +533,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   private void setupLocal0() {
     if(_profile != null)
       (_profile = new MRProfile(this))._localstart = System.currentTimeMillis();
+    if(MRTaskProfiler.ENABLED) MRTaskProfiler.recordInvocation(this);
     // Make a blockable Futures for both internal and user work to block on.
     _fs = new Futures();
     if(modifiesVolatileVecs() && _fr != null){
@@ -614,7 +621,13 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
           _hi > _lo && _keys[_lo].home() ) {
         assert(_keys == null || !H2O.ARGS.client) : "Client node should not process any keys in MRTask!";
         if(_profile!=null) _profile._userstart = System.currentTimeMillis();
-        if( _keys != null ) map(_keys[_lo]);
+        if( _keys != null ) {
+          final long start = MRTaskProfiler.ENABLED ? System.nanoTime() : 0;
+          final long cpuStart = MRTaskProfiler.cpuTime();
+          map(_keys[_lo]);
+          if(MRTaskProfiler.ENABLED)
+            MRTaskProfiler.recordMap(this, System.nanoTime() - start, MRTaskProfiler.cpuTime() - cpuStart);
+        }
         _res = self();        // Save results since called map() at least once!
         if (_postMap != null)
           _postMap.call(_keys[_lo]);
@@ -648,6 +661,8 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
         // Call all the various map() calls that apply
         if(_profile!=null)
           _profile._userstart = System.currentTimeMillis();
+        final long start = MRTaskProfiler.ENABLED ? System.nanoTime() : 0;
+        final long cpuStart = MRTaskProfiler.cpuTime();
 
         int num_fr_vecs = _fr.vecs().length;
         int num_outputs = _output_types == null? 0 : _output_types.length;
@@ -673,6 +688,8 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
         }
         if (num_outputs >= 0)
           map(bvs, appendableChunks);
+        if(MRTaskProfiler.ENABLED)
+          MRTaskProfiler.recordMap(this, System.nanoTime() - start, MRTaskProfiler.cpuTime() - cpuStart);
 
         _res = self();          // Save results since called map() at least once!
         // Further D/K/V put any new vec results.
@@ -712,7 +729,11 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
     if(_profile!=null)
       _profile.gather(mrt._profile,0);
     if( _res == null ) _res = mrt._res;
-    else if( mrt._res != null ) _res.reduce4(mrt._res);
+    else if( mrt._res != null ) {
+      final long start = MRTaskProfiler.ENABLED ? System.nanoTime() : 0;
+      _res.reduce4(mrt._res);
+      if(MRTaskProfiler.ENABLED) MRTaskProfiler.recordReduce(this, System.nanoTime() - start);
+    }
     // Futures are shared on local node and transient (so no remote updates)
     assert _fs == mrt._fs;
   }
@@ -750,7 +771,9 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   // Block for RPCs to complete, then reduce global results into self results
   private void reduce3( RPC<T> rpc ) {
     if( rpc == null ) return;
+    final long waitStart = MRTaskProfiler.ENABLED ? System.nanoTime() : 0;
     T mrt = rpc.get();          // This is a blocking remote call
+    if(MRTaskProfiler.ENABLED) MRTaskProfiler.recordRemote(this, System.nanoTime() - waitStart, rpc.size_rez());
     // Note: because _fs is transient it is not set or cleared by the RPC.
     // Because the MRT object is a clone of 'self' it's likely to contain a ptr
     // to the self _fs which will be not-null and still have local pending
@@ -760,7 +783,11 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
     // Unlike reduce2, results are in mrt directly not mrt._res.
     if( mrt._nhi != -1L ) {     // Any results at all?
       if( _res == null ) _res = mrt;
-      else _res.reduce4(mrt);
+      else {
+        final long start = MRTaskProfiler.ENABLED ? System.nanoTime() : 0;
+        _res.reduce4(mrt);
+        if(MRTaskProfiler.ENABLED) MRTaskProfiler.recordReduce(this, System.nanoTime() - start);
+      }
     }
   }
 
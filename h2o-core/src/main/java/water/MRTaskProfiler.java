@@ -0,0 +1,248 @@
+package water;
+
+import water.metrics.MetricsSource;
+import water.metrics.MetricsWriter;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Always-on, node-local profile of {@link MRTask} executions aggregated per
+ * MRTask class.  Unlike {@link MRTask#profile()}, which records the time
+ * stamps of a single execution tree, this only keeps running totals and is
+ * cheap enough to stay enabled: a couple of <code>System.nanoTime()</code>
+ * calls per mapped chunk, per reduce and per RPC.
+ * <p>
+ * Recorded per class: node-local invocations, mapped chunks, map wall and CPU
+ * time, reduce time, time blocked waiting for remote subtrees (stragglers and
+ * network), serialization time and size of the tasks sent over the wire, and
+ * size of the remote results.
+ * <p>
+ * With the {@link FairShareScheduler} enabled, the tasks carry the key of the
+ * Job which owns them and the totals are also split per Job: an entry is kept
+ * per MRTask class and Job, the tasks outside of any Job (and of the Jobs past
+ * the first {@value #MAX_JOBS} ones since the last reset) are reported without one.
+ * <p>
+ * Profiling can be turned off with <code>-Dsys.ai.h2o.mrtask.profile.disabled=true</code>,
+ * CPU time collection alone with <code>-Dsys.ai.h2o.mrtask.profile.cpu.disabled=true</code>.
+ */
+public final class MRTaskProfiler implements MetricsSource {
+
+  public static final MRTaskProfiler INSTANCE = new MRTaskProfiler();
+
+  static final boolean ENABLED = !Boolean.getBoolean(H2O.OptArgs.SYSTEM_PROP_PREFIX + "mrtask.profile.disabled");
+  private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+  static final boolean CPU_TIME = ENABLED &&
+          !Boolean.getBoolean(H2O.OptArgs.SYSTEM_PROP_PREFIX + "mrtask.profile.cpu.disabled") &&
+          THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+
+  static final int MAX_JOBS = 256;
+  private static final Map<Class, LiveStats> STATS = new ConcurrentHashMap<>(); // Tasks without a Job
+  private static final Map<Key, Map<Class, LiveStats>> JOB_STATS = new ConcurrentHashMap<>();
+
+  private MRTaskProfiler() {}
+
+  /** Running totals of a single MRTask class on this node. */
+  private static final class LiveStats {
+    final LongAdder _invocations = new LongAdder(); // Node-local executions (setupLocal calls)
+    final LongAdder _chunks = new LongAdder();      // Map calls over a chunk or a key
+    final LongAdder _mapNanos = new LongAdder();
+    final LongAdder _mapCpuNanos = new LongAdder();
+    final AtomicLong _maxMapNanos = new AtomicLong(); // Slowest single map call
+    final LongAdder _reduceNanos = new LongAdder();
+    final LongAdder _reduces = new LongAdder();
+    final LongAdder _remoteWaitNanos = new LongAdder(); // Blocked on RPCs of the remote subtrees
+    final LongAdder _serNanos = new LongAdder();
+    final LongAdder _serBytes = new LongAdder();
+    final LongAdder _sent = new LongAdder();
+    final LongAdder _resultBytes = new LongAdder();
+
+    TaskStats snapshot(String clz, Key job) {
+      TaskStats s = new TaskStats();
+      s._task = clz;
+      s._job = job == null ? null : job.toString();
+      s._invocations = _invocations.sum();
+      s._chunks = _chunks.sum();
+      s._map_nanos = _mapNanos.sum();
+      s._map_cpu_nanos = _mapCpuNanos.sum();
+      s._max_map_nanos = _maxMapNanos.get();
+      s._reduce_nanos = _reduceNanos.sum();
+      s._reduces = _reduces.sum();
+      s._remote_wait_nanos = _remoteWaitNanos.sum();
+      s._serialization_nanos = _serNanos.sum();
+      s._serialized_bytes = _serBytes.sum();
+      s._sent = _sent.sum();
+      s._result_bytes = _resultBytes.sum();
+      return s;
+    }
+  }
+
+  /** Serializable snapshot of the totals of a single MRTask class. */
+  public static final class TaskStats extends Iced<TaskStats> {
+    public String _task;
+    public String _job; // Key of the Job owning the tasks, null if none
+    public long _invocations, _chunks;
+    public long _map_nanos, _map_cpu_nanos, _max_map_nanos;
+    public long _reduce_nanos, _reduces;
+    public long _remote_wait_nanos;
+    public long _serialization_nanos, _serialized_bytes, _sent;
+    public long _result_bytes;
+
+    /** Accumulate the totals of the same class from another node. */
+    public void add(TaskStats o) {
+      assert _task.equals(o._task);
+      _invocations += o._invocations;
+      _chunks += o._chunks;
+      _map_nanos += o._map_nanos;
+      _map_cpu_nanos += o._map_cpu_nanos;
+      _max_map_nanos = Math.max(_max_map_nanos, o._max_map_nanos);
+      _reduce_nanos += o._reduce_nanos;
+      _reduces += o._reduces;
+      _remote_wait_nanos += o._remote_wait_nanos;
+      _serialization_nanos += o._serialization_nanos;
+      _serialized_bytes += o._serialized_bytes;
+      _sent += o._sent;
+      _result_bytes += o._result_bytes;
+    }
+
+    /** Ratio of the slowest map call to the mean one; high values point at skewed chunks. */
+    public double chunkSkew() {
+      return _chunks == 0 || _map_nanos == 0 ? 0 : (double) _max_map_nanos * _chunks / _map_nanos;
+    }
+  }
+
+  private static LiveStats stats(MRTask mrt) {
+    Map<Class, LiveStats> stats = FairShareScheduler.ENABLED && mrt._owner != null ? jobStats(mrt._owner) : STATS;
+    Class clz = mrt.getClass();
+    LiveStats s = stats.get(clz);
+    if (s == null) {
+      stats.putIfAbsent(clz, new LiveStats());
+      s = stats.get(clz);
+    }
+    return s;
+  }
+
+  private static Map<Class, LiveStats> jobStats(Key job) {
+    Map<Class, LiveStats> stats = JOB_STATS.get(job);
+    if (stats == null) {
+      if (JOB_STATS.size() >= MAX_JOBS) return STATS; // Too many Jobs, report the new ones without one
+      JOB_STATS.putIfAbsent(job, new ConcurrentHashMap<Class, LiveStats>());
+      stats = JOB_STATS.get(job);
+    }
+    return stats;
+  }
+
+  // ---
+  // Recording, called from MRTask & RPC
+
+  static long cpuTime() { return CPU_TIME ? THREADS.getCurrentThreadCpuTime() : 0; }
+
+  static void recordInvocation(MRTask mrt) {
+    stats(mrt)._invocations.increment();
+  }
+
+  static void recordMap(MRTask mrt, long nanos, long cpuNanos) {
+    LiveStats s = stats(mrt);
+    s._chunks.increment();
+    s._mapNanos.add(nanos);
+    s._mapCpuNanos.add(cpuNanos);
+    long max;
+    while (nanos > (max = s._maxMapNanos.get()) && !s._maxMapNanos.compareAndSet(max, nanos)) ;
+  }
+
+  static void recordReduce(MRTask mrt, long nanos) {
+    LiveStats s = stats(mrt);
+    s._reduces.increment();
+    s._reduceNanos.add(nanos);
+  }
+
+  static void recordRemote(MRTask mrt, long waitNanos, int resultBytes) {
+    LiveStats s = stats(mrt);
+    s._remoteWaitNanos.add(waitNanos);
+    s._resultBytes.add(resultBytes);
+  }
+
+  static void recordSerialization(MRTask mrt, long nanos, int bytes) {
+    LiveStats s = stats(mrt);
+    s._sent.increment();
+    s._serNanos.add(nanos);
+    s._serBytes.add(bytes);
+  }
+
+  // ---
+  // Reporting
+
+  /** @return totals of all the MRTask classes executed on this node, per Job */
+  public static TaskStats[] localStats() {
+    List<TaskStats> res = new ArrayList<>(STATS.size());
+    for (Map.Entry<Class, LiveStats> e : STATS.entrySet())
+      res.add(e.getValue().snapshot(e.getKey().getName(), null));
+    for (Map.Entry<Key, Map<Class, LiveStats>> j : JOB_STATS.entrySet())
+      for (Map.Entry<Class, LiveStats> e : j.getValue().entrySet())
+        res.add(e.getValue().snapshot(e.getKey().getName(), j.getKey()));
+    return res.toArray(new TaskStats[0]);
+  }
+
+  /** Drop all the recorded totals on this node. */
+  public static void reset() {
+    STATS.clear();
+    JOB_STATS.clear();
+  }
+
+  private static String[] labels(TaskStats s) {
+    return s._job == null ? new String[]{"task", s._task} : new String[]{"task", s._task, "job", s._job};
+  }
+
+  @Override
+  public void collect(MetricsWriter w) {
+    TaskStats[] stats = localStats();
+    w.header("h2o_mrtask_invocations_total", "counter", "Node-local executions of an MRTask class");
+    for (TaskStats s : stats) w.sample("h2o_mrtask_invocations_total", s._invocations, labels(s));
+    w.header("h2o_mrtask_chunks_total", "counter", "Chunks (or keys) mapped by an MRTask class");
+    for (TaskStats s : stats) w.sample("h2o_mrtask_chunks_total", s._chunks, labels(s));
+    w.header("h2o_mrtask_map_seconds_total", "counter", "Wall time spent in map calls of an MRTask class");
+    for (TaskStats s : stats) w.sample("h2o_mrtask_map_seconds_total", s._map_nanos / 1e9, labels(s));
+    w.header("h2o_mrtask_map_cpu_seconds_total", "counter", "CPU time spent in map calls of an MRTask class");
+    for (TaskStats s : stats) w.sample("h2o_mrtask_map_cpu_seconds_total", s._map_cpu_nanos / 1e9, labels(s));
+    w.header("h2o_mrtask_reduce_seconds_total", "counter", "Time spent in reduce calls of an MRTask class");
+    for (TaskStats s : stats) w.sample("h2o_mrtask_reduce_seconds_total", s._reduce_nanos / 1e9, labels(s));
+    w.header("h2o_mrtask_remote_wait_seconds_total", "counter", "Time blocked waiting for results of remote subtrees of an MRTask class");
+    for (TaskStats s : stats) w.sample("h2o_mrtask_remote_wait_seconds_total", s._remote_wait_nanos / 1e9, labels(s));
+    w.header("h2o_mrtask_serialized_bytes_total", "counter", "Bytes of an MRTask class serialized to remote nodes");
+    for (TaskStats s : stats) w.sample("h2o_mrtask_serialized_bytes_total", s._serialized_bytes, labels(s));
+    w.header("h2o_mrtask_result_bytes_total", "counter", "Bytes of remote results of an MRTask class received by this node");
+    for (TaskStats s : stats) w.sample("h2o_mrtask_result_bytes_total", s._result_bytes, labels(s));
+  }
+
+  /** Gathers the per-class totals from all the nodes of the cloud. */
+  public static class CollectorTask extends MRTask<CollectorTask> {
+    // output
+    public TaskStats[][] _result;
+
+    public CollectorTask() { super(H2O.GUI_PRIORITY); }
+
+    @Override public void setupLocal() {
+      _result = new TaskStats[H2O.CLOUD.size()][];
+      _result[H2O.SELF.index()] = localStats();
+    }
+
+    @Override public void reduce(CollectorTask that) {
+      for (int i = 0; i < _result.length; ++i)
+        if (_result[i] == null)
+          _result[i] = that._result[i];
+    }
+  }
+
+  /** Resets the per-class totals on all the nodes of the cloud. */
+  public static class ResetTask extends MRTask<ResetTask> {
+    public ResetTask() { super(H2O.GUI_PRIORITY); }
+    @Override public void setupLocal() { reset(); }
+  }
+
+}
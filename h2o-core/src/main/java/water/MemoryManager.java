@@ -2,6 +2,7 @@ package water;
 
 import jsr166y.ForkJoinPool;
 import jsr166y.ForkJoinPool.ManagedBlocker;
+import water.persist.OffHeapStore;
 import water.util.Log;
 import water.util.PrettyPrint;
 
@@ -116,6 +117,8 @@ abstract public class MemoryManager {
     age = Math.min(age,10*60*1000 ); // Clip at 10mins
     while( (age-=5000) > 0 ) p = p-(p>>3); // Decay effective POJO by 1/8th every 5sec
     d -= 2*p - bytes; // Allow for the effective POJO, and again to throttle GC rate (and allow for this allocation)
+    if( OffHeapStore.ENABLED ) // Cold data goes off-heap, keep the heap cache small
+      d = Math.min(d,OffHeapStore.heapCacheLimit(MEM_MAX));
     d = Math.max(d,MEM_MAX>>3); // Keep at least 1/8th heap
     if( Cleaner.DESIRED != -1 ) // Set to -1 only for OOM/Cleaner testing.  Never negative normally
       Cleaner.DESIRED = d;      // Desired caching level
@@ -0,0 +1,173 @@
+package water;
+
+import water.metrics.Counter;
+import water.metrics.Histogram;
+import water.metrics.MetricsSource;
+import water.metrics.MetricsWriter;
+import water.persist.OffHeapStore;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Low-overhead, node-local instrumentation of the H2O internals, exposed in
+ * the Prometheus text format by the <code>/metrics</code> endpoint.
+ * <p>
+ * Counters and histograms are bumped on the hot paths (RPC, Cleaner, REST);
+ * everything else (FJ queues, memory, buffer pools) is sampled as a gauge
+ * only when the endpoint is scraped.
+ */
+public final class NodeMetrics implements MetricsSource {
+
+  public static final NodeMetrics INSTANCE = new NodeMetrics();
+
+  // RPC
+  static final Counter RPC_CALLS = new Counter();       // First send of a remote task
+  static final Counter RPC_RESENDS = new Counter();     // Resends after a timeout
+  static final Counter RPC_TCP_RETRIES = new Counter(); // Broken TCP sends, retried
+  static final Counter RPC_LOCAL_CALLS = new Counter(); // RPCs short-circuited to self
+  static final Histogram RPC_LATENCY = new Histogram(); // Send to answer received
+  static final Histogram RPC_RETRY_AGE = new Histogram(); // Age of a task when resent
+
+  // Cleaner
+  static final Counter CLEANER_PASSES = new Counter();
+  static final Counter CLEANER_SWAPPED_BYTES = new Counter();
+  static final Counter CLEANER_SWAP_NANOS = new Counter();
+  static final Counter CLEANER_FREED_BYTES = new Counter();
+
+  // Jobs, counted by the node starting them
+  static final Counter JOBS_STARTED = new Counter();
+  static final Counter JOBS_COMPLETED = new Counter(); // Done, cancelled or failed
+
+  // REST API, keyed by "METHOD /url/{pattern}" of the matched Route
+  private static final Map<String, Histogram> REST_LATENCY = new ConcurrentHashMap<>();
+  private static final Map<String, Counter> REST_ERRORS = new ConcurrentHashMap<>();
+
+  private NodeMetrics() {}
+
+  /** Record the latency of a REST request served by a registered route. */
+  public static void observeRestRequest(String route, long nanos, boolean failed) {
+    Histogram h = REST_LATENCY.get(route);
+    if (h == null) {
+      REST_LATENCY.putIfAbsent(route, new Histogram());
+      h = REST_LATENCY.get(route);
+    }
+    h.observeNanos(nanos);
+    if (failed) {
+      Counter c = REST_ERRORS.get(route);
+      if (c == null) {
+        REST_ERRORS.putIfAbsent(route, new Counter());
+        c = REST_ERRORS.get(route);
+      }
+      c.inc();
+    }
+  }
+
+  @Override
+  public void collect(MetricsWriter w) {
+    collectForkJoin(w);
+    collectMemory(w);
+    collectCleaner(w);
+    collectRpc(w);
+    collectBufferPools(w);
+    collectJobs(w);
+    collectRest(w);
+  }
+
+  private void collectForkJoin(MetricsWriter w) {
+    w.header("h2o_fj_queued_submissions", "gauge", "Tasks submitted to the priority FJ pool and not yet started");
+    for (int p = 0; p <= H2O.MAX_PRIORITY; p++) {
+      int q = H2O.getWrkQueueSize(p);
+      if (q >= 0) w.sample("h2o_fj_queued_submissions", q, "priority", Integer.toString(p));
+    }
+    w.header("h2o_fj_queued_tasks", "gauge", "Tasks forked into the worker queues of the priority FJ pool");
+    for (int p = 0; p <= H2O.MAX_PRIORITY; p++) {
+      long q = H2O.getWrkQueuedTaskCount(p);
+      if (q >= 0) w.sample("h2o_fj_queued_tasks", q, "priority", Integer.toString(p));
+    }
+    w.header("h2o_fj_threads", "gauge", "Worker threads of the priority FJ pool");
+    for (int p = 0; p <= H2O.MAX_PRIORITY; p++) {
+      int t = H2O.getWrkThrPoolSize(p);
+      if (t >= 0) w.sample("h2o_fj_threads", t, "priority", Integer.toString(p));
+    }
+    w.header("h2o_fj_active_threads", "gauge", "Worker threads of the priority FJ pool currently running or stealing tasks");
+    for (int p = 0; p <= H2O.MAX_PRIORITY; p++) {
+      int t = H2O.getWrkActiveThreadCount(p);
+      if (t >= 0) w.sample("h2o_fj_active_threads", t, "priority", Integer.toString(p));
+    }
+  }
+
+  private void collectMemory(MetricsWriter w) {
+    Runtime rt = Runtime.getRuntime();
+    w.gauge("h2o_mem_max_bytes", "Maximum heap size", MemoryManager.MEM_MAX);
+    w.gauge("h2o_mem_heap_used_bytes", "Heap currently in use", rt.totalMemory() - rt.freeMemory());
+    w.gauge("h2o_mem_cached_bytes", "K/V data cached in memory, as of the last Cleaner histogram", Cleaner.Histo.cached());
+    w.gauge("h2o_mem_swapped_bytes", "K/V data persisted to disk, as of the last Cleaner histogram", Cleaner.Histo.swapped());
+    w.gauge("h2o_mem_desired_cache_bytes", "Cache level the MemoryManager asks the Cleaner to maintain", Cleaner.DESIRED);
+    w.gauge("h2o_mem_can_alloc", "1 if the MemoryManager allows allocations, 0 if allocations are blocked", MemoryManager.canAlloc() ? 1 : 0);
+    if (OffHeapStore.ENABLED) {
+      w.gauge("h2o_offheap_max_bytes", "Native memory budget for swapped-out Chunks", OffHeapStore.MAX_BYTES);
+      w.gauge("h2o_offheap_used_bytes", "Native memory held by swapped-out Chunks", OffHeapStore.usedBytes());
+      w.gauge("h2o_offheap_values", "Swapped-out Chunks held in native memory", OffHeapStore.storedValues());
+      w.counter("h2o_offheap_stores_total", "Chunks swapped out to native memory", OffHeapStore.stores());
+      w.counter("h2o_offheap_loads_total", "Chunks loaded back from native memory", OffHeapStore.loads());
+      w.counter("h2o_offheap_rejected_total", "Chunks swapped out to disk because the native memory budget was used up", OffHeapStore.rejected());
+    }
+  }
+
+  private void collectCleaner(MetricsWriter w) {
+    w.counter("h2o_cleaner_passes_total", "Sweeps of the K/V store done by the Cleaner", CLEANER_PASSES.get());
+    w.counter("h2o_cleaner_swapped_bytes_total", "Bytes spilled to disk by the Cleaner", CLEANER_SWAPPED_BYTES.get());
+    w.header("h2o_cleaner_swap_seconds_total", "counter", "Time spent by the Cleaner writing to disk")
+        .sample("h2o_cleaner_swap_seconds_total", CLEANER_SWAP_NANOS.get() / 1e9);
+    w.counter("h2o_cleaner_freed_bytes_total", "Bytes freed from memory by the Cleaner", CLEANER_FREED_BYTES.get());
+  }
+
+  private void collectRpc(MetricsWriter w) {
+    w.counter("h2o_rpc_calls_total", "Remote tasks sent to other nodes", RPC_CALLS.get());
+    w.counter("h2o_rpc_local_calls_total", "RPCs targeting this node, executed locally", RPC_LOCAL_CALLS.get());
+    w.counter("h2o_rpc_resends_total", "Remote tasks re-sent after a timeout", RPC_RESENDS.get());
+    w.counter("h2o_rpc_tcp_retries_total", "Failed TCP sends of remote tasks that were retried", RPC_TCP_RETRIES.get());
+    w.header("h2o_rpc_latency_seconds", "histogram", "Time from sending a remote task until its answer is received");
+    w.histogram("h2o_rpc_latency_seconds", RPC_LATENCY);
+    w.header("h2o_rpc_retry_age_seconds", "histogram", "Age of a remote task at the time it was re-sent");
+    w.histogram("h2o_rpc_retry_age_seconds", RPC_RETRY_AGE);
+  }
+
+  private void collectBufferPools(MetricsWriter w) {
+    AutoBuffer.BBPool[] pools = {AutoBuffer.BBP_SML, AutoBuffer.BBP_BIG};
+    String[] names = {"small", "big"};
+    w.header("h2o_bbpool_allocations_total", "counter", "Direct ByteBuffers allocated because the pool was empty");
+    for (int i = 0; i < pools.length; i++)
+      w.sample("h2o_bbpool_allocations_total", pools[i]._made, "pool", names[i]);
+    w.header("h2o_bbpool_hits_total", "counter", "Direct ByteBuffers served from the pool");
+    for (int i = 0; i < pools.length; i++)
+      w.sample("h2o_bbpool_hits_total", pools[i]._cached, "pool", names[i]);
+    w.header("h2o_bbpool_hit_ratio", "gauge", "Fraction of ByteBuffer requests served from the pool");
+    for (int i = 0; i < pools.length; i++) {
+      long made = pools[i]._made, cached = pools[i]._cached;
+      w.sample("h2o_bbpool_hit_ratio", made + cached == 0 ? Double.NaN : (double) cached / (made + cached), "pool", names[i]);
+    }
+    w.header("h2o_bbpool_size", "gauge", "Direct ByteBuffers currently held by the pool");
+    for (int i = 0; i < pools.length; i++)
+      w.sample("h2o_bbpool_size", pools[i].size(), "pool", names[i]);
+  }
+
+  private void collectJobs(MetricsWriter w) {
+    // A Job is counted by the node which started it, the cluster total is the sum over the nodes
+    long completed = JOBS_COMPLETED.get(); // Read first, not to go below zero with a job completing meanwhile
+    long started = JOBS_STARTED.get();
+    w.counter("h2o_jobs_started_total", "Jobs started on this node", started);
+    w.gauge("h2o_jobs_running", "Running Jobs started on this node", started - completed);
+  }
+
+  private void collectRest(MetricsWriter w) {
+    w.header("h2o_rest_request_duration_seconds", "histogram", "Time spent serving a REST API request, per route");
+    for (Map.Entry<String, Histogram> e : REST_LATENCY.entrySet())
+      w.histogram("h2o_rest_request_duration_seconds", e.getValue(), "route", e.getKey());
+    w.header("h2o_rest_request_errors_total", "counter", "REST API requests which ended with an error, per route");
+    for (Map.Entry<String, Counter> e : REST_ERRORS.entrySet())
+      w.sample("h2o_rest_request_errors_total", e.getValue().get(), "route", e.getKey());
+  }
+
+}
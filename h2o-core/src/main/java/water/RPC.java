@@ -171,7 +171,7 @@ public class RPC<V extends DTask> implements Future<V>, Delayed, ForkJoinPool.Ma
     if( cc != null )  handleCompleter(cc);
 
     // If running on self, just submit to queues & do locally
-    if( _target==H2O.SELF ) return handleLocal();
+    if( _target==H2O.SELF ) { NodeMetrics.RPC_LOCAL_CALLS.inc(); return handleLocal(); }
 
     // Keep a global record, for awhile
     if( _target != null ) _target.taskPut(_tasknum,this);
@@ -182,6 +182,11 @@ public class RPC<V extends DTask> implements Future<V>, Delayed, ForkJoinPool.Ma
         if( _target != null ) _target.taskRemove(_tasknum);
         return this;
       }
+      if( _retry == RETRY_MS ) NodeMetrics.RPC_CALLS.inc(); // First send, retry not yet doubled
+      else {
+        NodeMetrics.RPC_RESENDS.inc();
+        NodeMetrics.RPC_RETRY_AGE.observeMillis(System.currentTimeMillis()-_started);
+      }
       // Default strategy: (re)fire the packet and (re)start the timeout.  We
       // "count" exactly 1 failure: just whether or not we shipped via TCP ever
       // once.  After that we fearlessly (re)send UDP-sized packets until the
@@ -198,14 +203,19 @@ public class RPC<V extends DTask> implements Future<V>, Delayed, ForkJoinPool.Ma
           try {
             final boolean t;
             ab.putTask(UDP.udp.exec, _tasknum).put1(CLIENT_UDP_SEND);
+            final long serStart = System.nanoTime();
             ab.put(_dt);
+            final long serNanos = System.nanoTime() - serStart;
             t = ab.hasTCP();
             assert sz_check(ab) : "Resend of " + _dt.getClass() + " changes size from " + _size + " to " + ab.size() + " for task#" + _tasknum;
             ab.close();        // Then close; send final byte
+            if( MRTaskProfiler.ENABLED && _dt instanceof MRTask )
+              MRTaskProfiler.recordSerialization((MRTask)_dt, serNanos, ab.size());
             _sentTcp = t;  // Set after close (and any other possible fail)
             break;             // Break out of retry loop
           } catch( AutoBuffer.AutoBufferException e ) {
             Log.info("IOException during RPC call: " + e._ioe.getMessage() + ",  AB=" + ab + ", for task#" + _tasknum + ", waiting and retrying...");
+            NodeMetrics.RPC_TCP_RETRIES.inc();
             ab.drainClose();
             try { Thread.sleep(500); } catch (InterruptedException ignore) {}
           }
@@ -598,6 +608,7 @@ public class RPC<V extends DTask> implements Future<V>, Delayed, ForkJoinPool.Ma
           if (!isCancelled())       // Can be canceled already (locally by MRTask while recieving remote answer)
             _dt.onAck();            // One time only execute (before sending ACKACK)
           _done = true;             // Only read one (of many) response packets
+          NodeMetrics.RPC_LATENCY.observeMillis(System.currentTimeMillis()-_started);
           ab._h2o.taskRemove(_tasknum); // Flag as task-completed, even if the result is null
           notifyAll();              // And notify in any case
         }
@@ -196,15 +196,17 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
   public final void setDel() { _deleted=1; } // note: not atomic, but only monotonically set bit
 
 
-  /** Best-effort store complete Values to disk.  */
-  void storePersist() throws java.io.IOException {
+  /** Best-effort store complete Values to disk.
+   *  @param offHeapOnly store the Value only in the off-heap tier, the disk is full
+   *  @return false if the Value was not stored */
+  boolean storePersist(boolean offHeapOnly) throws java.io.IOException {
     // 00       then start writing
     // 01       delete requested; do not write
     // 10       already written; do nothing
     // 11       already written & deleted; do nothing
-    if( isDeleted() ) return;   // 01 and 11 cases
-    if( isPersisted() ) return; // 10 case
-    H2O.getPM().store(backend(), this); // Write to disk
+    if( isDeleted() ) return false;  // 01 and 11 cases
+    if( isPersisted() ) return true; // 10 case
+    if( !H2O.getPM().store(backend(), this, offHeapOnly) ) return false; // Write to disk
 
     // 00 -> 10 expected, set write bit
     // 10       assert; only Cleaner writes
@@ -214,6 +216,7 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
     setDsk(); // Not locked, not atomic, so can only called by one thread: Cleaner
     if( isDeleted() ) // Check del bit AFTER setting persist bit; close race with deleting user thread
       H2O.getPM().delete(backend(), this); // Possibly nothing to delete (race with writer)
+    return true;
   }
 
   /** Remove dead Values from disk */
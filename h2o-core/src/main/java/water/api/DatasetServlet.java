@@ -1,16 +1,19 @@
 package water.api;
 
 import water.DKV;
+import water.fvec.BinaryFormatStreamer;
 import water.fvec.Frame;
+import water.fvec.ParallelCSVWriter;
+import water.fvec.ParallelFrameWriter;
 import water.server.ServletUtils;
-import water.util.FileUtils;
+import water.util.CompressionFactory;
 import water.util.Log;
 
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ServiceLoader;
 
 /**
  */
@@ -23,14 +26,45 @@ public class DatasetServlet extends HttpServlet {
       String f_name = request.getParameter("frame_id");
       String hex_string = request.getParameter("hex_string");
       String escape_quotes_string = request.getParameter("escape_quotes");
+      String compression = request.getParameter("compression");
+      String format = request.getParameter("format");
       if (f_name == null) {
         throw new RuntimeException("Cannot find value for parameter 'frame_id'");
       }
+      if (uri.endsWith(".arrow")) {
+        format = "arrow";
+      }
+      BinaryFormatStreamer streamer = null;
+      if (format != null && !format.isEmpty() && !"csv".equalsIgnoreCase(format)) {
+        for (BinaryFormatStreamer s : ServiceLoader.load(BinaryFormatStreamer.class)) {
+          if (s.supports(format)) {
+            streamer = s;
+            break;
+          }
+        }
+        if (streamer == null) {
+          throw new IllegalArgumentException("Download as " + format + " is not available, " +
+              "the format is unknown or the module implementing it is not on the classpath.");
+        }
+      }
       Frame dataset = DKV.getGet(f_name);
-      Frame.CSVStreamParams parms = new Frame.CSVStreamParams()
-          .setHexString(Boolean.parseBoolean(hex_string))
-          .setEscapeQuotes(Boolean.parseBoolean(escape_quotes_string));
-      InputStream is = dataset.toCSV(parms);
+      CompressionFactory compressor = compression != null && !compression.isEmpty() ?
+          CompressionFactory.make(compression) : null;
+      final ParallelFrameWriter writer;
+      final String extension;
+      if (streamer != null) {
+        if (compressor != null) {
+          throw new IllegalArgumentException("Compression is not supported by the " + format + " format.");
+        }
+        writer = streamer.writer(dataset);
+        extension = streamer.extension();
+      } else {
+        Frame.CSVStreamParams parms = new Frame.CSVStreamParams()
+            .setHexString(Boolean.parseBoolean(hex_string))
+            .setEscapeQuotes(Boolean.parseBoolean(escape_quotes_string));
+        writer = new ParallelCSVWriter(dataset, parms, compressor);
+        extension = ".csv";
+      }
       response.setContentType("application/octet-stream");
       // Clean up the file name
       int x = f_name.length() - 1;
@@ -39,16 +73,18 @@ public class DatasetServlet extends HttpServlet {
         if (!Character.isLetterOrDigit(f_name.charAt(x)) && f_name.charAt(x) != '_')
           if (f_name.charAt(x) == '.' && !dot) dot = true;
           else break;
-      String suggested_fname = f_name.substring(x + 1).replace(".hex", ".csv");
-      if (!suggested_fname.endsWith(".csv"))
-        suggested_fname = suggested_fname + ".csv";
+      String suggested_fname = f_name.substring(x + 1).replace(".hex", extension);
+      if (!suggested_fname.endsWith(extension))
+        suggested_fname = suggested_fname + extension;
+      if (compressor != null)
+        suggested_fname = suggested_fname + compressor.concatenableExtension();
       f_name = suggested_fname;
       response.addHeader("Content-Disposition", "attachment; filename=" + f_name);
       ServletUtils.setResponseStatus(response, HttpServletResponse.SC_OK);
       OutputStream os = null;
       try {
         os = response.getOutputStream();
-        FileUtils.copyStream(is, os, 2048);
+        writer.writeTo(os);
       } finally {
         if (os != null) {
           try {
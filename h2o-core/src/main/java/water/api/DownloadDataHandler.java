@@ -13,4 +13,9 @@ public class DownloadDataHandler extends Handler {
     throw new RuntimeException("Function fetch should never be called.");
     // This should never happen, since DownloadDataset is handled in JettyHTTPD.
   }
+
+  public DownloadDataV3 fetchArrow(int version, DownloadDataV3 server) {
+    throw new RuntimeException("Function fetchArrow should never be called.");
+    // This should never happen, since DownloadDataset is handled in JettyHTTPD.
+  }
 }
@@ -0,0 +1,64 @@
+package water.api;
+
+import water.H2O;
+import water.MRTaskProfiler;
+import water.MRTaskProfiler.TaskStats;
+import water.api.schemas3.MRTaskProfileV3;
+import water.api.schemas3.MRTaskProfileV3.MRTaskProfileNodeV3;
+import water.api.schemas3.MRTaskProfileV3.MRTaskStatsV3;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MRTaskProfileHandler extends Handler {
+
+  @SuppressWarnings("unused") // called through reflection by RequestServer
+  public MRTaskProfileV3 fetch(int version, MRTaskProfileV3 p) {
+    TaskStats[][] perNode = new MRTaskProfiler.CollectorTask().doAllNodes()._result;
+    Map<List<String>, TaskStats> totals = new LinkedHashMap<>();
+    p.nodes = new MRTaskProfileNodeV3[perNode.length];
+    for (int i = 0; i < perNode.length; i++) {
+      TaskStats[] stats = filter(perNode[i], p.task);
+      MRTaskProfileNodeV3 n = new MRTaskProfileNodeV3();
+      n.node_name = H2O.CLOUD._memary[i].toString();
+      n.entries = new MRTaskStatsV3[stats.length];
+      for (int j = 0; j < stats.length; j++) {
+        n.entries[j] = new MRTaskStatsV3().fillFromImpl(stats[j]);
+        List<String> id = Arrays.asList(stats[j]._task, stats[j]._job);
+        TaskStats total = totals.get(id);
+        if (total == null) totals.put(id, stats[j].clone());
+        else total.add(stats[j]);
+      }
+      p.nodes[i] = n;
+    }
+    TaskStats[] sortedTotals = totals.values().toArray(new TaskStats[0]);
+    Arrays.sort(sortedTotals, BY_MAP_TIME);
+    p.totals = new MRTaskStatsV3[sortedTotals.length];
+    for (int i = 0; i < sortedTotals.length; i++)
+      p.totals[i] = new MRTaskStatsV3().fillFromImpl(sortedTotals[i]);
+    return p;
+  }
+
+  @SuppressWarnings("unused") // called through reflection by RequestServer
+  public MRTaskProfileV3 reset(int version, MRTaskProfileV3 p) {
+    new MRTaskProfiler.ResetTask().doAllNodes();
+    return p;
+  }
+
+  private static final Comparator<TaskStats> BY_MAP_TIME = new Comparator<TaskStats>() {
+    @Override public int compare(TaskStats o1, TaskStats o2) { return Long.compare(o2._map_nanos, o1._map_nanos); }
+  };
+
+  private static TaskStats[] filter(TaskStats[] stats, String task) {
+    if (stats == null) return new TaskStats[0];
+    if (task == null || task.isEmpty()) return stats;
+    int n = 0;
+    TaskStats[] res = new TaskStats[stats.length];
+    for (TaskStats s : stats)
+      if (s._task.contains(task)) res[n++] = s;
+    return Arrays.copyOf(res, n);
+  }
+}
@@ -0,0 +1,37 @@
+package water.api;
+
+import water.metrics.MetricsRegistry;
+import water.metrics.MetricsWriter;
+import water.server.ServletUtils;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serves the metrics of this node in the Prometheus text exposition format.
+ * Every node answers for itself only, scrapers are expected to target each
+ * node of the cluster.
+ */
+public class MetricsServlet extends HttpServlet {
+
+  @Override
+  protected void doGet(HttpServletRequest request, HttpServletResponse response) {
+    String uri = ServletUtils.getDecodedUri(request);
+    try {
+      byte[] body = MetricsRegistry.render().getBytes(StandardCharsets.UTF_8);
+      response.setContentType(MetricsWriter.CONTENT_TYPE);
+      response.setContentLength(body.length);
+      ServletUtils.setResponseStatus(response, HttpServletResponse.SC_OK);
+      try (OutputStream os = response.getOutputStream()) {
+        os.write(body);
+      }
+    } catch (Exception e) {
+      ServletUtils.sendErrorResponse(response, e, uri);
+    }
+    // Not logged: scrapers hit this endpoint every few seconds
+  }
+
+}
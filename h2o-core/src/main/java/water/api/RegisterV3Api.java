@@ -103,6 +103,14 @@ public class RegisterV3Api extends AbstractRegister {
             "GET /3/Profiler", ProfilerHandler.class, "fetch",
             "Report real-time profiling information for all nodes (sorted, aggregated stack traces).");
 
+    context.registerEndpoint("mrtaskProfile",
+            "GET /3/MRTaskProfile", MRTaskProfileHandler.class, "fetch",
+            "Report always-on MRTask profiling information aggregated per MRTask class, for all nodes.");
+
+    context.registerEndpoint("mrtaskProfileReset",
+            "DELETE /3/MRTaskProfile", MRTaskProfileHandler.class, "reset",
+            "Reset the MRTask profiling information on all nodes.");
+
     context.registerEndpoint("stacktraces",
             "GET /3/JStack", JStackHandler.class, "fetch",
             "Report stack traces for all threads on all nodes.");
@@ -451,6 +459,10 @@ public class RegisterV3Api extends AbstractRegister {
             "GET /3/DownloadDataset.bin", DownloadDataHandler.class, "fetchStreaming",
             "Download dataset as a CSV.");
 
+    context.registerEndpoint("_downloadDataset_fetchArrow",
+            "GET /3/DownloadDataset.arrow", DownloadDataHandler.class, "fetchArrow",
+            "Download dataset as an Arrow IPC stream.");
+
     context.registerEndpoint("deleteKey",
             "DELETE /3/DKV/{key}", RemoveHandler.class, "remove",
             "Remove an arbitrary key from the H2O distributed K/V store.");
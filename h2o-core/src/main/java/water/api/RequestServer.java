@@ -467,9 +467,17 @@ public class RequestServer extends HttpServlet {
           return response404(method + " " + url);
 
       } else {
-        Schema response = route._handler.handle(uri.getVersion(), route, parms, post_body);
-        PojoUtils.filterFields(response, (String)parms.get("_include_fields"), (String)parms.get("_exclude_fields"));
-        return serveSchema(response, type);
+        final long start = System.nanoTime();
+        boolean failed = true;
+        try {
+          Schema response = route._handler.handle(uri.getVersion(), route, parms, post_body);
+          PojoUtils.filterFields(response, (String)parms.get("_include_fields"), (String)parms.get("_exclude_fields"));
+          NanoResponse resp = serveSchema(response, type);
+          failed = false;
+          return resp;
+        } finally {
+          NodeMetrics.observeRestRequest(route._http_method + " " + route._url, System.nanoTime() - start, failed);
+        }
       }
 
     }
@@ -13,6 +13,14 @@ public class DownloadDataV3 extends RequestSchemaV3<Iced, DownloadDataV3> {
   @API(help="Emit double values in a machine readable lossless format with Double.toHexString().")
   public boolean hex_string;
 
+  @API(help="Compress the CSV stream with the given method (gzip or bzip2); the chunks of the frame are " +
+          "formatted and compressed in parallel by the nodes holding them.")
+  public String compression;
+
+  @API(help="Format of the downloaded data: csv (default) or arrow (Arrow IPC stream, one record batch per chunk).",
+          values={"csv", "arrow"})
+  public String format;
+
   // Output
   @API(help="CSV Stream", direction=API.Direction.OUTPUT)
   public String csv;
@@ -3,6 +3,7 @@ package water.api.schemas3;
 import water.api.API;
 import water.api.FramesHandler.Frames;
 import water.fvec.Frame;
+import water.util.ExportFileFormat;
 
 public class FramesV3 extends RequestSchemaV3<Frames, FramesV3> {
 
@@ -40,9 +41,14 @@ public class FramesV3 extends RequestSchemaV3<Frames, FramesV3> {
   @API(help="Number of part files to use (1=single file,-1=automatic)",json=false)
   public int num_parts = 1;
 
-  @API(help="Compression method (default none; gzip, bzip2 and snappy available depending on runtime environment)")
+  @API(help="Compression method (default none; gzip, bzip2 and snappy available depending on runtime environment; " +
+          "for parquet: snappy, gzip or uncompressed)")
   public String compression;
 
+  @API(help="Output file format (default csv). Parquet files are always written as part files, one per chunk, " +
+          "in parallel by the nodes holding the chunks.", values = {"csv", "parquet"})
+  public ExportFileFormat format = ExportFileFormat.csv;
+
   @API(help="Field separator (default ',')")
   public byte separator = Frame.CSVStreamParams.DEFAULT_SEPARATOR;
 
@@ -0,0 +1,84 @@
+package water.api.schemas3;
+
+import water.Iced;
+import water.MRTaskProfiler.TaskStats;
+import water.api.API;
+
+public class MRTaskProfileV3 extends RequestSchemaV3<Iced, MRTaskProfileV3> {
+
+  public static class MRTaskStatsV3 extends SchemaV3<TaskStats, MRTaskStatsV3> {
+    @API(help="MRTask class", direction=API.Direction.OUTPUT)
+    public String task;
+
+    @API(help="Job owning the tasks, reported with the fair-share scheduler enabled", direction=API.Direction.OUTPUT)
+    public String job;
+
+    @API(help="Node-local executions", direction=API.Direction.OUTPUT)
+    public long invocations;
+
+    @API(help="Mapped chunks (or keys)", direction=API.Direction.OUTPUT)
+    public long chunks;
+
+    @API(help="Wall time spent in map calls (ms)", direction=API.Direction.OUTPUT)
+    public double map_ms;
+
+    @API(help="CPU time spent in map calls (ms)", direction=API.Direction.OUTPUT)
+    public double map_cpu_ms;
+
+    @API(help="Slowest single map call (ms)", direction=API.Direction.OUTPUT)
+    public double max_map_ms;
+
+    @API(help="Slowest map call relative to the mean one, high values indicate skewed chunks", direction=API.Direction.OUTPUT)
+    public double chunk_skew;
+
+    @API(help="Time spent in reduce calls (ms)", direction=API.Direction.OUTPUT)
+    public double reduce_ms;
+
+    @API(help="Time blocked waiting for the results of remote nodes (ms), stragglers and network", direction=API.Direction.OUTPUT)
+    public double remote_wait_ms;
+
+    @API(help="Time spent serializing the task for remote nodes (ms)", direction=API.Direction.OUTPUT)
+    public double serialization_ms;
+
+    @API(help="Bytes of the task sent to remote nodes", direction=API.Direction.OUTPUT)
+    public long serialized_bytes;
+
+    @API(help="Bytes of remote results received", direction=API.Direction.OUTPUT)
+    public long result_bytes;
+
+    @Override
+    public MRTaskStatsV3 fillFromImpl(TaskStats s) {
+      task = s._task;
+      job = s._job;
+      invocations = s._invocations;
+      chunks = s._chunks;
+      map_ms = s._map_nanos / 1e6;
+      map_cpu_ms = s._map_cpu_nanos / 1e6;
+      max_map_ms = s._max_map_nanos / 1e6;
+      chunk_skew = s.chunkSkew();
+      reduce_ms = s._reduce_nanos / 1e6;
+      remote_wait_ms = s._remote_wait_nanos / 1e6;
+      serialization_ms = s._serialization_nanos / 1e6;
+      serialized_bytes = s._serialized_bytes;
+      result_bytes = s._result_bytes;
+      return this;
+    }
+  }
+
+  public static class MRTaskProfileNodeV3 extends SchemaV3<Iced, MRTaskProfileNodeV3> {
+    @API(help="Node name", direction=API.Direction.OUTPUT)
+    public String node_name;
+
+    @API(help="Per-class (and per-Job) totals on this node", direction=API.Direction.OUTPUT)
+    public MRTaskStatsV3[] entries;
+  }
+
+  @API(help="Only report MRTask classes whose name contains this string", direction=API.Direction.INPUT)
+  public String task;
+
+  @API(help="Per-node totals", direction=API.Direction.OUTPUT)
+  public MRTaskProfileNodeV3[] nodes;
+
+  @API(help="Cluster-wide totals, sorted by map time", direction=API.Direction.OUTPUT)
+  public MRTaskStatsV3[] totals;
+}
@@ -0,0 +1,25 @@
+package water.fvec;
+
+import water.H2O;
+import water.Job;
+import water.util.ExportFileFormat;
+
+/**
+ * Exports a Frame to a binary file format implemented outside of h2o-core (eg. in a parser module).
+ * Implementations are discovered with {@link java.util.ServiceLoader}.
+ */
+public interface BinaryFormatExporter {
+
+  /**
+   * @param frame frame to export
+   * @param path directory to write the part files to (empty or not existing)
+   * @param force overwrite existing files
+   * @param compression compression method supported by the format, null for the default one
+   * @param job job of the export, to be updated by one unit of work per chunk of the frame
+   * @return task doing the export
+   */
+  H2O.H2OCountedCompleter export(Frame frame, String path, boolean force, String compression, Job job);
+
+  boolean supports(ExportFileFormat format);
+
+}
@@ -0,0 +1,20 @@
+package water.fvec;
+
+/**
+ * Streams a Frame to the clients downloading it in a binary format implemented outside of h2o-core
+ * (eg. in a parser module). Implementations are discovered with {@link java.util.ServiceLoader}.
+ */
+public interface BinaryFormatStreamer {
+
+  /**
+   * @param format name of the format requested by the client (eg. arrow)
+   */
+  boolean supports(String format);
+
+  /** @return extension of the downloaded file, including the dot */
+  String extension();
+
+  /** @return writer of the frame, the chunks are encoded by the nodes holding them */
+  ParallelFrameWriter writer(Frame frame);
+
+}
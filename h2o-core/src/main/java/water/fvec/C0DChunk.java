@@ -4,6 +4,7 @@ import water.parser.BufferedString;
 import water.util.UnsafeUtils;
 
 import java.util.UUID;
+import java.util.Arrays;
 
 /**
  * The constant 'double' column (also used to represent constant NA chunks).
@@ -94,4 +95,14 @@ public class C0DChunk extends Chunk {
     return v;
   }
 
+  @Override public double [] getDoubles(double [] vals, int from, int to, double NA){
+    Arrays.fill(vals, 0, to-from, Double.isNaN(_con)?NA:_con);
+    return vals;
+  }
+
+  @Override public int getNAs(boolean [] nas, int from, int to){
+    boolean na = Double.isNaN(_con);
+    Arrays.fill(nas, 0, to-from, na);
+    return na?to-from:0;
+  }
 }
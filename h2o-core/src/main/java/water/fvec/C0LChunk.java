@@ -1,6 +1,7 @@
 package water.fvec;
 
 import water.util.UnsafeUtils;
+import java.util.Arrays;
 
 /**
  * The constant 'long' column.
@@ -57,4 +58,14 @@ public class C0LChunk extends Chunk {
         v.addValue(_con);
     return v;
   }
+
+  @Override public int getNAs(boolean [] nas, int from, int to){
+    Arrays.fill(nas, 0, to-from, false);
+    return 0;
+  }
+
+  @Override public double [] getDoubles(double [] vals, int from, int to, double NA){
+    Arrays.fill(vals, 0, to-from, _con);
+    return vals;
+  }
 }
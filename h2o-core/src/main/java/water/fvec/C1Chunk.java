@@ -81,4 +81,10 @@ public class C1Chunk extends Chunk {
   @Override
   public boolean hasFloat() {return false;}
 
+  @Override public int getNAs(boolean [] nas, int from, int to){
+    int n = 0;
+    for(int i = from; i < to; i++)
+      if(nas[i-from] = (0xFF&_mem[i+_OFF]) == _NA) n++;
+    return n;
+  }
 }
@@ -1,5 +1,7 @@
 package water.fvec;
 
+import java.util.Arrays;
+
 /**
  * The empty-compression function, if all elements fit directly on UNSIGNED bytes.
  * [In particular, this is the compression style for data read in from files.]
@@ -49,4 +51,8 @@ public class C1NChunk extends Chunk {
     return v;
   }
 
+  @Override public int getNAs(boolean [] nas, int from, int to){
+    Arrays.fill(nas, 0, to-from, false);
+    return 0;
+  }
 }
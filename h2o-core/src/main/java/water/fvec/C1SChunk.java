@@ -107,5 +107,10 @@ public final class C1SChunk extends CSChunk {
     return v;
   }
 
-
+  @Override public int getNAs(boolean [] nas, int from, int to){
+    int n = 0;
+    for(int i = from; i < to; i++)
+      if(nas[i-from] = (0xFF&_mem[i+_OFF]) == C1Chunk._NA) n++;
+    return n;
+  }
 }
@@ -86,4 +86,10 @@ public class C2Chunk extends Chunk {
   @Override
   public boolean hasFloat() {return false;}
 
+  @Override public int getNAs(boolean [] nas, int from, int to){
+    int n = 0;
+    for(int i = from; i < to; i++)
+      if(nas[i-from] = UnsafeUtils.get2(_mem,(i<<1)+_OFF) == _NA) n++;
+    return n;
+  }
 }
@@ -95,4 +95,11 @@ public class C2SChunk extends CSChunk {
       v.addValue(getD(getMantissa(i),C2Chunk._NA));
     return v;
   }
+
+  @Override public int getNAs(boolean [] nas, int from, int to){
+    int n = 0;
+    for(int i = from; i < to; i++)
+      if(nas[i-from] = getMantissa(i) == C2Chunk._NA) n++;
+    return n;
+  }
 }
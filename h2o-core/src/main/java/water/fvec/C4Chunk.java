@@ -77,4 +77,10 @@ public class C4Chunk extends Chunk {
     return vals;
   }
 
+  @Override public int getNAs(boolean [] nas, int from, int to){
+    int n = 0;
+    for(int i = from; i < to; i++)
+      if(nas[i-from] = UnsafeUtils.get4(_mem,i<<2) == _NA) n++;
+    return n;
+  }
 }
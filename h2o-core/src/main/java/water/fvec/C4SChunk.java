@@ -89,4 +89,11 @@ public class C4SChunk extends CSChunk {
       v.addValue(getD(getMantissa(i),C4Chunk._NA));
     return v;
   }
+
+  @Override public int getNAs(boolean [] nas, int from, int to){
+    int n = 0;
+    for(int i = from; i < to; i++)
+      if(nas[i-from] = getMantissa(i) == C4Chunk._NA) n++;
+    return n;
+  }
 }
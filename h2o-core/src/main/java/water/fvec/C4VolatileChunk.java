@@ -87,5 +87,18 @@ public class C4VolatileChunk extends Chunk {
 //    return fs;
 //  }
 
+  @Override public int getNAs(boolean [] nas, int from, int to){
+    int n = 0;
+    for(int i = from; i < to; i++)
+      if(nas[i-from] = _is[i] == _NA) n++;
+    return n;
+  }
 
+  @Override public double [] getDoubles(double [] vals, int from, int to, double NA){
+    for(int i = from; i < to; i++) {
+      int x = _is[i];
+      vals[i-from] = x == _NA?NA:x;
+    }
+    return vals;
+  }
 }
@@ -64,4 +64,11 @@ public class C8Chunk extends Chunk {
     }
     return vals;
   }
+
+  @Override public int getNAs(boolean [] nas, int from, int to){
+    int n = 0;
+    for(int i = from; i < to; i++)
+      if(nas[i-from] = UnsafeUtils.get8(_mem,i<<3) == _NA) n++;
+    return n;
+  }
 }
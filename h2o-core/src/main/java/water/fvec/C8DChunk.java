@@ -71,4 +71,10 @@ public class C8DChunk extends Chunk {
     return vals;
   }
 
+  @Override public int getNAs(boolean [] nas, int from, int to){
+    int n = 0;
+    for(int i = from; i < to; i++)
+      if(nas[i-from] = Double.isNaN(UnsafeUtils.get8d(_mem,i<<3))) n++;
+    return n;
+  }
 }
@@ -77,4 +77,18 @@ public final class C8DVolatileChunk extends Chunk {
     return v;
   }
 
+  @Override public int getNAs(boolean [] nas, int from, int to){
+    int n = 0;
+    for(int i = from; i < to; i++)
+      if(nas[i-from] = Double.isNaN(_ds[i])) n++;
+    return n;
+  }
+
+  @Override public double [] getDoubles(double [] vals, int from, int to, double NA){
+    for(int i = from; i < to; i++) {
+      double d = _ds[i];
+      vals[i-from] = Double.isNaN(d)?NA:d;
+    }
+    return vals;
+  }
 }
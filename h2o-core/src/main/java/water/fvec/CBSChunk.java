@@ -1,6 +1,7 @@
 package water.fvec;
 
 import water.MemoryManager;
+import java.util.Arrays;
 
 /** A simple chunk for boolean values. In fact simple bit vector.
  *  Each boolean is represented by 2bits since we need to represent NA.
@@ -162,4 +163,23 @@ public class CBSChunk extends Chunk {
   @Override
   public boolean hasFloat() {return false;}
 
+  @Override public double [] getDoubles(double [] vals, int from, int to, double NA){
+    final int bpv = _bpv, mask = 1 | bpv;
+    for(int i = from; i < to; i++) {
+      int b = (_mem[_OFF + ((i*bpv)>>3)] >> (bpv*i & 7)) & mask;
+      vals[i-from] = b == _NA?NA:b;
+    }
+    return vals;
+  }
+
+  @Override public int getNAs(boolean [] nas, int from, int to){
+    if(_bpv == 1) { // Binary chunks can't have NAs
+      Arrays.fill(nas, 0, to-from, false);
+      return 0;
+    }
+    int n = 0;
+    for(int i = from; i < to; i++)
+      if(nas[i-from] = ((_mem[_OFF + (i>>2)] >> (2*i & 7)) & 3) == _NA) n++;
+    return n;
+  }
 }
@@ -6,7 +6,9 @@ import water.util.StringUtils;
 import water.util.UnsafeUtils;
 import water.parser.BufferedString;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Locale;
 
 /**
  * The empty-compression function, where data is in 'string's.
@@ -311,5 +313,296 @@ public class CStrChunk extends Chunk {
     }
     return nc;
   }
+
+  // ---
+  // Byte-level kernels for chunks which are not all ASCII, or for operations
+  // with literal (not regex) patterns.  They work on the UTF-8 bytes in _mem
+  // and write the result straight into the _ss buffer of the NewChunk; only
+  // rows which really need it are decoded into a java String.
+
+  /**
+   * @param literal string to look for in the chunk
+   * @return true if matching the UTF-8 bytes of the literal gives the same results as matching
+   * it on the decoded strings; it must not contain the replacement character (the decoded form
+   * of malformed UTF-8) nor unpaired surrogates (which have no UTF-8 form)
+   */
+  public static boolean isByteMatchable(String literal) {
+    for (int i = 0; i < literal.length(); i++) {
+      char c = literal.charAt(i);
+      if (c == '\uFFFD') return false;
+      if (Character.isHighSurrogate(c) && i + 1 < literal.length() && Character.isLowSurrogate(literal.charAt(i + 1))) i++;
+      else if (Character.isSurrogate(c)) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Byte-level replace of a literal (not a regex) pattern.  UTF-8 is self-synchronizing,
+   * so a byte match of a well-formed pattern is always a match of whole characters, and
+   * the strings need no decoding.  Strings which are not well-formed UTF-8 are decoded and
+   * replaced as a <code>String</code>: removing a pattern could otherwise join malformed
+   * bytes into a valid character.
+   *
+   * @param nc NewChunk to be filled with the replaced strings
+   * @param pattern UTF-8 bytes of the literal to look for, not empty
+   * @param replacement UTF-8 bytes of the literal replacement
+   * @param all replace all the occurrences, or only the first one
+   * @param asciiLower lower the strings before matching, only for all-ASCII chunks
+   * @return Filled NewChunk
+   */
+  public NewChunk literalReplace(NewChunk nc, byte[] pattern, byte[] replacement, boolean all, boolean asciiLower) {
+    assert pattern.length > 0;
+    assert !asciiLower || _isAllASCII;
+    byte[] src = _mem;
+    if (asciiLower) {
+      src = Arrays.copyOf(_mem, _mem.length);
+      for (int i = _valstart; i < src.length; i++) src[i] = asciiToLower(src[i]);
+    }
+    BufferedString bs = null;
+    String patternStr = null, replacementStr = null;
+    for (int i = 0; i < _len; i++) {
+      int off = intAt(i);
+      if (off == NA) { nc.addNA(); continue; }
+      int from = _valstart + off;
+      final int end = from + lengthAtOffset(off);
+      if (!_isAllASCII && utf16Length(from, end) < 0) {
+        if (bs == null) {
+          bs = new BufferedString();
+          patternStr = new String(pattern, StandardCharsets.UTF_8);
+          replacementStr = new String(replacement, StandardCharsets.UTF_8);
+        }
+        String str = atStr(bs, i).toString();
+        if (all) {
+          nc.addStr(str.replace(patternStr, replacementStr));
+        } else {
+          int pos = str.indexOf(patternStr);
+          nc.addStr(pos < 0 ? str : str.substring(0, pos) + replacementStr + str.substring(pos + patternStr.length()));
+        }
+        continue;
+      }
+      nc.startStr();
+      int pos;
+      while ((pos = indexOf(src, from, end, pattern, false)) >= 0) {
+        nc.appendStr(src, from, pos - from);
+        nc.appendStr(replacement, 0, replacement.length);
+        from = pos + pattern.length;
+        if (!all) break;
+      }
+      nc.appendStr(src, from, end - from);
+      nc.endStr();
+    }
+    return nc;
+  }
+
+  /**
+   * Byte-level count of the non-overlapping occurrences of literal patterns, summed
+   * over all the patterns.  Same as <code>StringUtils.countMatches</code>, empty
+   * patterns are never counted.
+   *
+   * @param nc NewChunk to be filled with the counts
+   * @param patterns UTF-8 bytes of the literals to look for
+   * @return Filled NewChunk
+   */
+  public NewChunk literalCountMatches(NewChunk nc, byte[][] patterns) {
+    for (int i = 0; i < _len; i++) {
+      int off = intAt(i);
+      if (off == NA) { nc.addNA(); continue; }
+      final int start = _valstart + off;
+      final int end = start + lengthAtOffset(off);
+      int cnt = 0;
+      for (byte[] pattern : patterns) {
+        if (pattern.length == 0) continue;
+        for (int pos = indexOf(_mem, start, end, pattern, false); pos >= 0; pos = indexOf(_mem, pos + pattern.length, end, pattern, false))
+          cnt++;
+      }
+      nc.addNum(cnt, 0);
+    }
+    return nc;
+  }
+
+  /**
+   * Byte-level search of a literal (not a regex) pattern in a single string.
+   *
+   * @param i row, must not be NA
+   * @param pattern UTF-8 bytes of the literal to look for
+   * @param ignoreAsciiCase match ASCII letters regardless of their case, only for
+   *                        all-ASCII chunks and patterns
+   * @return true if the string contains the pattern
+   */
+  public boolean containsLiteral(int i, byte[] pattern, boolean ignoreAsciiCase) {
+    assert !ignoreAsciiCase || _isAllASCII;
+    int off = intAt(i);
+    assert off != NA;
+    if (pattern.length == 0) return true;
+    final int start = _valstart + off;
+    return indexOf(_mem, start, start + lengthAtOffset(off), pattern, ignoreAsciiCase) >= 0;
+  }
+
+  /**
+   * Length of the strings in UTF-16 code units, same as <code>String.length()</code>,
+   * counted on the UTF-8 bytes.  Strings which are not well-formed UTF-8 are decoded,
+   * so that they get the same replacement characters as in a <code>String</code>.
+   *
+   * @param nc NewChunk to be filled with lengths of strings in this chunk
+   * @return Filled NewChunk
+   */
+  public NewChunk utf8Length(NewChunk nc) {
+    BufferedString bs = null;
+    for (int i = 0; i < _len; i++) {
+      int off = intAt(i);
+      if (off == NA) { nc.addNA(); continue; }
+      final int start = _valstart + off;
+      final int end = start + lengthAtOffset(off);
+      int len = utf16Length(start, end);
+      if (len < 0) {
+        if (bs == null) bs = new BufferedString();
+        len = atStr(bs, i).toString().length();
+      }
+      nc.addNum(len, 0);
+    }
+    return nc;
+  }
+
+  /**
+   * Substrings in UTF-16 code units, same as <code>String.substring()</code> clipped to
+   * the length of the string.  The code unit indices are mapped onto the UTF-8 bytes;
+   * only strings which are not well-formed UTF-8, or where an index splits a surrogate
+   * pair, are decoded.
+   *
+   * @param nc NewChunk to be filled with substrings in this chunk
+   * @param startIndex The beginning index of the substring, inclusive, non-negative
+   * @param endIndex The ending index of the substring, exclusive, greater than startIndex
+   * @return Filled NewChunk
+   */
+  public NewChunk utf8Substring(NewChunk nc, int startIndex, int endIndex) {
+    assert 0 <= startIndex && startIndex < endIndex;
+    BufferedString bs = null;
+    for (int i = 0; i < _len; i++) {
+      int off = intAt(i);
+      if (off == NA) { nc.addNA(); continue; }
+      final int start = _valstart + off;
+      final int end = start + lengthAtOffset(off);
+      int from = utf16Offset(start, end, startIndex);
+      int to = from < 0 ? -1 : utf16Offset(from, end, endIndex - startIndex);
+      if (to < 0) {
+        if (bs == null) bs = new BufferedString();
+        String str = atStr(bs, i).toString();
+        nc.addStr(str.substring(Math.min(startIndex, str.length()), Math.min(endIndex, str.length())));
+        continue;
+      }
+      nc.startStr();
+      nc.appendStr(_mem, from, to - from);
+      nc.endStr();
+    }
+    return nc;
+  }
+
+  /**
+   * Changes the case of the strings as <code>String.toLowerCase(Locale.ENGLISH)</code> or
+   * <code>toUpperCase()</code>, for chunks which are not all ASCII.  The ASCII strings of the
+   * chunk are still converted byte by byte, only the others are decoded.
+   *
+   * @param nc NewChunk to be filled with the converted strings
+   * @param lower convert to lower or to upper case
+   * @return Filled NewChunk
+   */
+  public NewChunk utf8ChangeCase(NewChunk nc, boolean lower) {
+    BufferedString bs = null;
+    for (int i = 0; i < _len; i++) {
+      int off = intAt(i);
+      if (off == NA) { nc.addNA(); continue; }
+      final int start = _valstart + off;
+      final int end = start + lengthAtOffset(off);
+      if (isAscii(_mem, start, end)) {
+        nc.startStr();
+        final int to = nc._sslen;
+        nc.appendStr(_mem, start, end - start);
+        for (int j = to; j < nc._sslen; j++)
+          nc._ss[j] = lower ? asciiToLower(nc._ss[j]) : asciiToUpper(nc._ss[j]);
+        nc.endStr();
+      } else {
+        if (bs == null) bs = new BufferedString();
+        String str = atStr(bs, i).toString();
+        nc.addStr(lower ? str.toLowerCase(Locale.ENGLISH) : str.toUpperCase(Locale.ENGLISH));
+      }
+    }
+    return nc;
+  }
+
+  private static byte asciiToLower(byte b) { return b > 0x40 && b < 0x5B ? (byte) (b + 0x20) : b; }
+  private static byte asciiToUpper(byte b) { return b > 0x60 && b < 0x7B ? (byte) (b - 0x20) : b; }
+
+  private static boolean isAscii(byte[] b, int from, int to) {
+    for (int i = from; i < to; i++)
+      if (b[i] < 0) return false;
+    return true;
+  }
+
+  // First position of pattern in b[from, to), or -1
+  private static int indexOf(byte[] b, int from, int to, byte[] pattern, boolean ignoreAsciiCase) {
+    final int last = to - pattern.length;
+    if (ignoreAsciiCase) {
+      final byte first = asciiToLower(pattern[0]);
+      for (int i = from; i <= last; i++) {
+        if (asciiToLower(b[i]) != first) continue;
+        int j = 1;
+        while (j < pattern.length && asciiToLower(b[i + j]) == asciiToLower(pattern[j])) j++;
+        if (j == pattern.length) return i;
+      }
+    } else {
+      final byte first = pattern[0];
+      for (int i = from; i <= last; i++) {
+        if (b[i] != first) continue;
+        int j = 1;
+        while (j < pattern.length && b[i + j] == pattern[j]) j++;
+        if (j == pattern.length) return i;
+      }
+    }
+    return -1;
+  }
+
+  // Length in UTF-16 code units of the UTF-8 string in _mem[from, to), -1 if it is not well-formed
+  private int utf16Length(int from, int to) {
+    int len = 0;
+    for (int pos = from; pos < to; ) {
+      int n = utf8CharLength(_mem, pos, to);
+      if (n < 0) return -1;
+      pos += n;
+      len += n == 4 ? 2 : 1; // 4-byte characters are surrogate pairs
+    }
+    return len;
+  }
+
+  // Position in _mem[from, to) of the UTF-16 code unit "units" of the string, or
+  // "to" if the string is shorter.  -1 if the string is not well-formed UTF-8 up
+  // to that point, or if the code unit is the low half of a surrogate pair.
+  private int utf16Offset(int from, int to, int units) {
+    int pos = from, u = 0;
+    while (pos < to && u < units) {
+      int n = utf8CharLength(_mem, pos, to);
+      if (n < 0) return -1;
+      pos += n;
+      u += n == 4 ? 2 : 1;
+    }
+    return u > units ? -1 : pos;
+  }
+
+  // Bytes of the well-formed UTF-8 character at b[pos], -1 if malformed
+  private static int utf8CharLength(byte[] b, int pos, int to) {
+    int b0 = b[pos] & 0xFF;
+    if (b0 < 0x80) return 1;
+    int n, lo = 0x80, hi = 0xBF; // Range of the second byte
+    if (b0 < 0xC2) return -1;
+    else if (b0 < 0xE0) n = 2;
+    else if (b0 < 0xF0) { n = 3; if (b0 == 0xE0) lo = 0xA0; else if (b0 == 0xED) hi = 0x9F; }
+    else if (b0 < 0xF5) { n = 4; if (b0 == 0xF0) lo = 0x90; else if (b0 == 0xF4) hi = 0x8F; }
+    else return -1;
+    if (pos + n > to) return -1;
+    int b1 = b[pos + 1] & 0xFF;
+    if (b1 < lo || b1 > hi) return -1;
+    for (int k = 2; k < n; k++)
+      if ((b[pos + k] & 0xC0) != 0x80) return -1;
+    return n;
+  }
 }
 
@@ -2,6 +2,7 @@ package water.fvec;
 
 import water.H2O;
 import water.util.UnsafeUtils;
+import java.util.Arrays;
 
 // Sparse chunk.
 public class CXFChunk extends CXIChunk {
@@ -90,4 +91,40 @@ public class CXFChunk extends CXIChunk {
   }
   @Override
   public boolean hasFloat(){return true;}
+
+  @Override public double [] getDoubles(double [] vals, int from, int to, double NA){
+    Arrays.fill(vals, 0, to-from, _isNA?NA:0);
+    for(int x = firstOffset(from); x < _mem.length; x += _elem_sz) {
+      int id = getId(x);
+      if(id >= to) break;
+      double val = getVal(x);
+      vals[id-from] = Double.isNaN(val)?NA:val;
+    }
+    return vals;
+  }
+
+  @Override public int getSparseDoubles(double [] vals, int [] ids, double NA){
+    int k = 0;
+    for(int x = _OFF; x < _mem.length; x += _elem_sz, k++) {
+      ids[k] = getId(x);
+      double val = getVal(x);
+      vals[k] = Double.isNaN(val)?NA:val;
+    }
+    return k;
+  }
+
+  @Override public int getNAs(boolean [] nas, int from, int to){
+    Arrays.fill(nas, 0, to-from, _isNA);
+    int n = _isNA?to-from:0;
+    for(int x = firstOffset(from); x < _mem.length; x += _elem_sz) {
+      int id = getId(x);
+      if(id >= to) break;
+      boolean isNA = Double.isNaN(getVal(x));
+      if(isNA != _isNA) {
+        nas[id-from] = isNA;
+        n += isNA?1:-1;
+      }
+    }
+    return n;
+  }
 }
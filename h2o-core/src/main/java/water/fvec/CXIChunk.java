@@ -2,6 +2,7 @@ package water.fvec;
 
 import water.H2O;
 import water.util.UnsafeUtils;
+import java.util.Arrays;
 
 // Sparse chunk.
 public class CXIChunk extends Chunk {
@@ -217,4 +218,49 @@ public class CXIChunk extends Chunk {
 
   @Override
   public boolean hasFloat(){return false;}
+
+  @Override public double [] getDoubles(double [] vals, int from, int to, double NA){
+    Arrays.fill(vals, 0, to-from, _isNA?NA:0);
+    final long na = _NAS[_val_sz];
+    for(int x = firstOffset(from); x < _mem.length; x += _elem_sz) {
+      int id = getId(x);
+      if(id >= to) break;
+      long val = getVal(x);
+      vals[id-from] = val == na?NA:val;
+    }
+    return vals;
+  }
+
+  @Override public int getSparseDoubles(double [] vals, int [] ids, double NA){
+    final long na = _NAS[_val_sz];
+    int k = 0;
+    for(int x = _OFF; x < _mem.length; x += _elem_sz, k++) {
+      ids[k] = getId(x);
+      long val = getVal(x);
+      vals[k] = val == na?NA:val;
+    }
+    return k;
+  }
+
+  @Override public int getNAs(boolean [] nas, int from, int to){
+    Arrays.fill(nas, 0, to-from, _isNA);
+    int n = _isNA?to-from:0;
+    final long na = _NAS[_val_sz];
+    for(int x = firstOffset(from); x < _mem.length; x += _elem_sz) {
+      int id = getId(x);
+      if(id >= to) break;
+      boolean isNA = getVal(x) == na;
+      if(isNA != _isNA) {
+        nas[id-from] = isNA;
+        n += isNA?1:-1;
+      }
+    }
+    return n;
+  }
+
+  // Offset of the first stored element with an id >= from
+  protected final int firstOffset(int from){
+    int x = from == 0?_OFF:findOffset(from);
+    return x < 0?-x-1:x;
+  }
 }
@@ -807,4 +807,17 @@ public abstract class Chunk extends Iced<Chunk> implements Vec.Holder {
   public int getSparseDoubles(double [] vals, int [] ids, double NA) {
     return processRows(new ChunkVisitor.SparseDoubleAryVisitor(vals,ids,isSparseNA(),NA),0,_len).sparseLen();
   }
+  /**
+   * Bulk NA mask, flags the missing values in the given range
+   * @param nas holds the flags, nas[i-from] for row i
+   * @param from
+   * @param to
+   * @return number of missing values in the range
+   */
+  public int getNAs(boolean [] nas, int from, int to){
+    int n = 0;
+    for(int i = from; i < to; i++)
+      if(nas[i-from] = isNA_impl(i)) n++;
+    return n;
+  }
 }
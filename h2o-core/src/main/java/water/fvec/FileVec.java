@@ -35,6 +35,8 @@ public abstract class FileVec extends ByteVec {
    *  "bite-sized" chunks.  Bigger increases batch sizes, lowers overhead
    *  costs, lower increases fine-grained parallelism. */
   public static final int DFLT_CHUNK_SIZE = 1 << DFLT_LOG2_CHUNK_SIZE;
+  /** Largest chunk the parser reads in one map() call (it needs to fit into a Value object) */
+  public static final int MAX_PARSE_CHUNK_SIZE = (1<<28)-1;
   public int _chunkSize = DFLT_CHUNK_SIZE;
   public int _nChunks = -1;
 
@@ -208,7 +210,7 @@ public abstract class FileVec extends ByteVec {
       int minNumberRows = 10; // need at least 10 rows (lines) per chunk (core)
       int perNodeChunkCountLimit = 1<<21; // don't create more than 2M Chunk POJOs per node
       int minParseChunkSize = 1<<12; // don't read less than this many bytes
-      int maxParseChunkSize = (1<<28)-1; // don't read more than this many bytes per map() thread (needs to fit into a Value object)
+      int maxParseChunkSize = MAX_PARSE_CHUNK_SIZE; // don't read more than this many bytes per map() thread
       long chunkSize = Math.max((localParseSize / (4*cores))+1, minParseChunkSize); //lower hard limit
       if(chunkSize > 1024*1024)
         chunkSize = (chunkSize & 0xFFFFFE00) + 512; // align chunk size to 512B
@@ -1529,6 +1529,13 @@ public class Frame extends Lockable<Frame> {
 
   public static Job export(Frame fr, String path, String frameName, boolean overwrite, int nParts, 
                            String compression, CSVStreamParams csvParms) {
+    return export(fr, path, frameName, overwrite, nParts, ExportFileFormat.csv, compression, csvParms);
+  }
+
+  public static Job export(Frame fr, String path, String frameName, boolean overwrite, int nParts,
+                           ExportFileFormat format, String compression, CSVStreamParams csvParms) {
+    if (format != null && format != ExportFileFormat.csv)
+      return exportBinary(fr, path, overwrite, format, compression);
     boolean forceSingle = nParts == 1;
     // Validate input
     if (forceSingle) {
@@ -1551,6 +1558,27 @@ public class Frame extends Lockable<Frame> {
     return job.start(t, fr.anyVec().nChunks());
   }
 
+  private static Job exportBinary(Frame fr, String path, boolean overwrite, ExportFileFormat format, String compression) {
+    // binary formats are always written as part files, in parallel by the nodes holding the chunks
+    if (!overwrite && !H2O.getPM().isEmptyDirectoryAllNodes(path)) {
+      throw new H2OIllegalArgumentException(path, "exportFrame", "Cannot use path " + path +
+              " to store part files! The target needs to be either an existing empty directory or not exist yet.");
+    }
+    BinaryFormatExporter exporter = null;
+    for (BinaryFormatExporter e : ServiceLoader.load(BinaryFormatExporter.class)) {
+      if (e.supports(format)) {
+        exporter = e;
+        break;
+      }
+    }
+    if (exporter == null) {
+      throw new H2OIllegalArgumentException("format", "exportFrame", "Export to " + format +
+              " is not available, the module implementing it is not on the classpath.");
+    }
+    Job job = new Job<>(fr._key, "water.fvec.Frame", "Export dataset");
+    return job.start(exporter.export(fr, path, overwrite, compression, job), fr.anyVec().nChunks());
+  }
+
   /** Convert this Frame to a CSV (in an {@link InputStream}), that optionally
    *  is compatible with R 3.1's recent change to read.csv()'s behavior.
    *
@@ -684,8 +684,16 @@ public class NewChunk extends Chunk {
     int off = str.getOffset();
     byte b[] = str.getBuffer();
 
+    ensure_ss(strlen + 1);
+    for (int i = off; i < off+strlen; i++)
+      _ss[_sslen++] = b[i];
+    _ss[_sslen++] = (byte)0; // for trailing 0;
+  }
+
+  // Make room for the next nbytes bytes in _ss
+  private void ensure_ss(int nbytes) {
     if (_ss == null) {
-      int size = (strlen + 1) * 4;
+      int size = nbytes * 4;
 
       if(size < 0 || size > MAX_STR_LEN){
         size = MAX_STR_LEN;
@@ -693,21 +701,39 @@ public class NewChunk extends Chunk {
        _ss = MemoryManager.malloc1(size);
     }
 
-    long spaceRequired = _sslen + strlen + 1;
+    long spaceRequired = (long) _sslen + nbytes;
     if( spaceRequired > MAX_STR_LEN ){
       throw new IllegalStateException("Parsed string is too big.");
     }
 
-    while (_ss.length < (_sslen + strlen + 1)) {
-      long doubleSize = _ss.length << 1;
+    while (_ss.length < spaceRequired) {
+      long doubleSize = (long) _ss.length << 1;
       if(doubleSize > Integer.MAX_VALUE){
         doubleSize = MAX_STR_LEN;
       }
       _ss = MemoryManager.arrayCopyOf(_ss, (int) doubleSize);
     }
-    for (int i = off; i < off+strlen; i++)
-      _ss[_sslen++] = b[i];
+  }
+
+  // Append a string assembled from byte slices straight into _ss, without a
+  // String or BufferedString in between: startStr(), then any number of
+  // appendStr(), then endStr().  Used by the byte-level kernels of CStrChunk.
+  void startStr() {
+    if (_is == null || _sparseLen >= _is.length) append2slowstr();
+    if (_id != null) _id[_sparseLen] = _len;
+    _is[_sparseLen++] = _sslen;
+  }
+
+  void appendStr(byte[] b, int off, int len) {
+    ensure_ss(len + 1); // keep room for the trailing 0
+    System.arraycopy(b, off, _ss, _sslen, len);
+    _sslen += len;
+  }
+
+  void endStr() {
+    ensure_ss(1);
     _ss[_sslen++] = (byte)0; // for trailing 0;
+    set_len(_len + 1);
   }
 
   // Append a string, store in _ss & _is
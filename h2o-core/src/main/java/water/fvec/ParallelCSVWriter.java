@@ -0,0 +1,71 @@
+package water.fvec;
+
+import water.util.CompressionFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes a Frame as CSV to an output stream. Unlike reading a {@link Frame.CSVStream}, which fetches the chunks
+ * one by one to the node doing the writing and formats them there, the chunks are formatted (and optionally
+ * compressed) in parallel by the nodes holding them, a bounded number of chunks ahead of the writer. The output
+ * is written in the chunk order and is the same as the content of the {@link Frame.CSVStream}.
+ * <p>
+ * Every chunk is compressed separately, only compression methods producing a valid stream when concatenated
+ * (see {@link CompressionFactory#concatenableExtension()}) can be used.
+ */
+public class ParallelCSVWriter extends ParallelFrameWriter {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final Frame.CSVStreamParams _parms;
+  private final CompressionFactory _compressor;
+
+  public ParallelCSVWriter(Frame frame, Frame.CSVStreamParams parms, CompressionFactory compressor) {
+    super(frame);
+    if (compressor != null && compressor.concatenableExtension() == null)
+      throw new IllegalArgumentException("Compression method " + compressor.getName() +
+              " cannot be used to stream a frame, supported methods are gzip and bzip2.");
+    _parms = parms;
+    _compressor = compressor;
+  }
+
+  @Override
+  protected byte[] header() throws IOException {
+    return _parms._headers ? format(new Frame.CSVStream(null, _frame.names(), 0, _parms), _compressor) : new byte[0];
+  }
+
+  @Override
+  protected ChunkEncoder chunkEncoder() {
+    return new CSVChunkEncoder(_parms, _compressor);
+  }
+
+  private static byte[] format(Frame.CSVStream is, CompressionFactory compressor) throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    try (Frame.CSVStream csv = is;
+         OutputStream os = compressor != null ? compressor.wrapOutputStream(baos) : baos) {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      int count;
+      while ((count = csv.read(buffer, 0, BUFFER_SIZE)) > 0) // CSVStream denotes the end by 0
+        os.write(buffer, 0, count);
+    }
+    return baos.toByteArray();
+  }
+
+  private static class CSVChunkEncoder extends ChunkEncoder {
+    private final Frame.CSVStreamParams _parms;
+    private final CompressionFactory _compressor;
+
+    CSVChunkEncoder(Frame.CSVStreamParams parms, CompressionFactory compressor) {
+      _parms = parms;
+      _compressor = compressor;
+    }
+
+    @Override
+    public byte[] encode(Chunk[] chks) throws IOException {
+      return format(new Frame.CSVStream(chks, null, 1, _parms), _compressor);
+    }
+  }
+
+}
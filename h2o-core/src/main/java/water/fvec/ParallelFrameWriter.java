@@ -0,0 +1,111 @@
+package water.fvec;
+
+import water.DTask;
+import water.H2O;
+import water.Iced;
+import water.RPC;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+
+/**
+ * Writes a Frame to an output stream in a format where the chunks can be encoded independently of each other.
+ * The chunks are encoded in parallel by the nodes holding them, a bounded number of chunks ahead of the writer,
+ * and written in the chunk order between a header and a footer. Empty chunks are skipped.
+ */
+public abstract class ParallelFrameWriter {
+
+  // number of chunks being formatted ahead of the writer, per node of the cloud
+  private static final int CHUNKS_IN_FLIGHT_PER_NODE = 4;
+
+  protected final Frame _frame;
+
+  protected ParallelFrameWriter(Frame frame) {
+    _frame = frame;
+  }
+
+  /** @return bytes written before the chunks */
+  protected abstract byte[] header() throws IOException;
+
+  /** @return bytes written after the chunks */
+  protected byte[] footer() throws IOException {
+    return new byte[0];
+  }
+
+  /** @return encoder of the chunks, it is sent to the nodes holding the chunks */
+  protected abstract ChunkEncoder chunkEncoder();
+
+  /**
+   * @param os output stream, not closed by this method
+   * @return number of bytes written
+   */
+  public long writeTo(OutputStream os) throws IOException {
+    byte[] header = header();
+    os.write(header);
+    long len = header.length;
+    final Vec anyVec = _frame.anyVec();
+    if (anyVec != null) {
+      final ChunkEncoder encoder = chunkEncoder();
+      final int nChunks = anyVec.nChunks();
+      final int inFlight = Math.max(1, H2O.CLOUD.size() * CHUNKS_IN_FLIGHT_PER_NODE);
+      final ArrayDeque<RPC<EncodeChunkTask>> pending = new ArrayDeque<>(inFlight);
+      int next = 0;
+      try {
+        while (true) {
+          for (; next < nChunks && pending.size() < inFlight; next++) {
+            if (anyVec.chunkLen(next) == 0)
+              continue;
+            pending.add(RPC.call(anyVec.chunkKey(next).home_node(), new EncodeChunkTask(_frame, next, encoder)));
+          }
+          if (pending.isEmpty())
+            break;
+          byte[] bytes = pending.poll().get()._bytes;
+          os.write(bytes);
+          len += bytes.length;
+        }
+      } finally {
+        for (RPC<EncodeChunkTask> rpc : pending)
+          rpc.cancel(true);
+      }
+    }
+    byte[] footer = footer();
+    os.write(footer);
+    return len + footer.length;
+  }
+
+  public static abstract class ChunkEncoder extends Iced<ChunkEncoder> {
+    /** @return encoding of a row-aligned set of chunks (one per column of the frame) */
+    public abstract byte[] encode(Chunk[] chks) throws IOException;
+  }
+
+  private static class EncodeChunkTask extends DTask<EncodeChunkTask> {
+    // IN
+    private final Frame _frame;
+    private final int _cidx;
+    private final ChunkEncoder _encoder;
+    // OUT
+    byte[] _bytes;
+
+    EncodeChunkTask(Frame frame, int cidx, ChunkEncoder encoder) {
+      _frame = frame;
+      _cidx = cidx;
+      _encoder = encoder;
+    }
+
+    @Override
+    public void compute2() {
+      Vec[] vecs = _frame.vecs();
+      Chunk[] chks = new Chunk[vecs.length];
+      for (int i = 0; i < vecs.length; i++)
+        chks[i] = vecs[i].chunkForChunkIdx(_cidx);
+      try {
+        _bytes = _encoder.encode(chks);
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+      tryComplete();
+    }
+  }
+
+}
@@ -0,0 +1,53 @@
+package water.fvec;
+
+/**
+ * Row-major view over a block of rows of several chunks, for loops which need
+ * all the columns of a row at once.  The block is decoded one column at a time
+ * with the bulk {@link Chunk#getDoubles(double[], int, int)}, instead of a
+ * virtual <code>atd</code> call (and decompression) per value.
+ * <p>
+ * Rows are expected to be visited in (mostly) increasing order; a row outside
+ * of the current block loads the block holding it.  Values are read as doubles,
+ * with NaN for missing values, from the chunks as they were when the block was
+ * loaded.
+ */
+public final class RowBlock {
+
+  public static final int DEFAULT_ROWS = 1024;
+
+  private final Chunk[] _chks;
+  private final int _rows;
+  private final double[][] _vals; // [col][row - _from]
+  private int _from, _to;         // Rows of the current block
+
+  /** Block over the first <code>ncols</code> chunks. */
+  public RowBlock(Chunk[] chks, int ncols) { this(chks, ncols, DEFAULT_ROWS); }
+
+  public RowBlock(Chunk[] chks, int ncols, int rows) {
+    _chks = chks;
+    _rows = Math.max(1, Math.min(rows, chks.length == 0 ? 0 : chks[0]._len));
+    _vals = new double[ncols][_rows];
+  }
+
+  private void load(int row) {
+    _from = row - row % _rows;
+    _to = Math.min(_from + _rows, _chks[0]._len);
+    for (int c = 0; c < _vals.length; c++)
+      _chks[c].getDoubles(_vals[c], _from, _to);
+  }
+
+  public double atd(int col, int row) {
+    if (row < _from || row >= _to) load(row);
+    return _vals[col][row - _from];
+  }
+
+  /** Copies the given row into <code>res</code>, one value per column. */
+  public double[] row(int row, double[] res) {
+    if (row < _from || row >= _to) load(row);
+    final int r = row - _from;
+    for (int c = 0; c < _vals.length; c++)
+      res[c] = _vals[c][r];
+    return res;
+  }
+
+}
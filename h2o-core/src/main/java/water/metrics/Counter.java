@@ -0,0 +1,16 @@
+package water.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonically increasing counter.  Backed by a {@link LongAdder} so that
+ * hot paths (RPC, Cleaner, REST) can bump it from many threads without
+ * contending on a single cache line.
+ */
+public final class Counter {
+  private final LongAdder _cnt = new LongAdder();
+
+  public void inc() { _cnt.increment(); }
+  public void add(long x) { _cnt.add(x); }
+  public long get() { return _cnt.sum(); }
+}
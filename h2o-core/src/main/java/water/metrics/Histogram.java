@@ -0,0 +1,61 @@
+package water.metrics;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket latency histogram.  Observations are bucketed on the write
+ * path (a short linear scan plus one {@link LongAdder} bump), cumulative
+ * counts are only computed when the histogram is rendered.
+ */
+public final class Histogram {
+  /** Default latency buckets, in seconds: 1ms .. 5min */
+  public static final double[] LATENCY_BUCKETS = new double[]{
+      0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60, 300
+  };
+
+  private final double[] _bounds;      // Upper bounds, ascending; +Inf is implicit
+  private final LongAdder[] _buckets;  // Non-cumulative counts; last one is +Inf
+  private final DoubleAdder _sum = new DoubleAdder();
+
+  public Histogram() { this(LATENCY_BUCKETS); }
+
+  public Histogram(double[] bounds) {
+    for (int i = 1; i < bounds.length; i++)
+      if (bounds[i] <= bounds[i - 1])
+        throw new IllegalArgumentException("Histogram bucket bounds have to be strictly increasing.");
+    _bounds = bounds.clone();
+    _buckets = new LongAdder[bounds.length + 1];
+    for (int i = 0; i < _buckets.length; i++)
+      _buckets[i] = new LongAdder();
+  }
+
+  public void observe(double x) {
+    int i = 0;
+    while (i < _bounds.length && x > _bounds[i]) i++;
+    _buckets[i].increment();
+    _sum.add(x);
+  }
+
+  public void observeNanos(long nanos) { observe(nanos / 1e9); }
+  public void observeMillis(long millis) { observe(millis / 1e3); }
+
+  public double[] bounds() { return _bounds.clone(); }
+
+  /** @return cumulative bucket counts, the last element is the total count (le="+Inf") */
+  public long[] cumulativeCounts() {
+    long[] res = new long[_buckets.length];
+    long acc = 0;
+    for (int i = 0; i < _buckets.length; i++)
+      res[i] = acc += _buckets[i].sum();
+    return res;
+  }
+
+  public long count() {
+    long cnt = 0;
+    for (LongAdder b : _buckets) cnt += b.sum();
+    return cnt;
+  }
+
+  public double sum() { return _sum.sum(); }
+}
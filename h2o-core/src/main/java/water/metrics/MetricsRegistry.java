@@ -0,0 +1,39 @@
+package water.metrics;
+
+import water.util.Log;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Node-local registry of {@link MetricsSource}s rendered by the
+ * <code>/metrics</code> endpoint.  Extensions can register additional sources
+ * at startup.
+ */
+public final class MetricsRegistry {
+  private static final List<MetricsSource> SOURCES = new CopyOnWriteArrayList<>();
+
+  private MetricsRegistry() {}
+
+  public static void register(MetricsSource source) {
+    if (!SOURCES.contains(source))
+      SOURCES.add(source);
+  }
+
+  public static void unregister(MetricsSource source) {
+    SOURCES.remove(source);
+  }
+
+  /** Renders all registered sources in the Prometheus text exposition format (v0.0.4). */
+  public static String render() {
+    MetricsWriter w = new MetricsWriter();
+    for (MetricsSource source : SOURCES) {
+      try {
+        source.collect(w);
+      } catch (Exception e) { // a single broken source should not take down the endpoint
+        Log.warn("Failed to collect metrics from " + source.getClass().getName() + ": " + e.getMessage());
+      }
+    }
+    return w.toString();
+  }
+}
@@ -0,0 +1,10 @@
+package water.metrics;
+
+/**
+ * Anything that can contribute samples to the node's metrics endpoint.
+ * Sources are polled on every scrape, so {@link #collect(MetricsWriter)} has
+ * to be cheap and must not do any distributed work.
+ */
+public interface MetricsSource {
+  void collect(MetricsWriter w);
+}
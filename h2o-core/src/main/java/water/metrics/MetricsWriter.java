@@ -0,0 +1,77 @@
+package water.metrics;
+
+/**
+ * Minimal writer for the Prometheus/OpenMetrics text exposition format.
+ * Labels are passed as a flat list of name/value pairs.
+ */
+public final class MetricsWriter {
+  public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private final StringBuilder _sb = new StringBuilder(16 * 1024);
+
+  public MetricsWriter counter(String name, String help, long value, String... labels) {
+    return header(name, "counter", help).sample(name, value, labels);
+  }
+
+  public MetricsWriter gauge(String name, String help, double value, String... labels) {
+    return header(name, "gauge", help).sample(name, value, labels);
+  }
+
+  /** Emits HELP and TYPE lines; call once per metric family, followed by any number of samples. */
+  public MetricsWriter header(String name, String type, String help) {
+    _sb.append("# HELP ").append(name).append(' ').append(escapeHelp(help)).append('\n');
+    _sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    return this;
+  }
+
+  public MetricsWriter sample(String name, double value, String... labels) {
+    assert labels.length % 2 == 0 : "labels have to come in name/value pairs";
+    _sb.append(name);
+    if (labels.length > 0) {
+      _sb.append('{');
+      for (int i = 0; i < labels.length; i += 2) {
+        if (i > 0) _sb.append(',');
+        _sb.append(labels[i]).append("=\"").append(escapeLabel(labels[i + 1])).append('"');
+      }
+      _sb.append('}');
+    }
+    _sb.append(' ').append(format(value)).append('\n');
+    return this;
+  }
+
+  /** Emits the samples of a histogram, the family header has to be written by the caller. */
+  public MetricsWriter histogram(String name, Histogram h, String... labels) {
+    double[] bounds = h.bounds();
+    long[] counts = h.cumulativeCounts();
+    String[] bucketLabels = new String[labels.length + 2];
+    System.arraycopy(labels, 0, bucketLabels, 0, labels.length);
+    bucketLabels[labels.length] = "le";
+    for (int i = 0; i < counts.length; i++) {
+      bucketLabels[labels.length + 1] = i < bounds.length ? format(bounds[i]) : "+Inf";
+      sample(name + "_bucket", counts[i], bucketLabels);
+    }
+    sample(name + "_sum", h.sum(), labels);
+    sample(name + "_count", counts[counts.length - 1], labels);
+    return this;
+  }
+
+  static String format(double d) {
+    if (Double.isNaN(d)) return "NaN";
+    if (Double.isInfinite(d)) return d > 0 ? "+Inf" : "-Inf";
+    if (d == Math.rint(d) && Math.abs(d) < 1e15) return Long.toString((long) d);
+    return Double.toString(d);
+  }
+
+  private static String escapeHelp(String s) {
+    return s.replace("\\", "\\\\").replace("\n", "\\n");
+  }
+
+  private static String escapeLabel(String s) {
+    return s.replace("\\", "\\\\").replace("\n", "\\n").replace("\"", "\\\"");
+  }
+
+  @Override
+  public String toString() {
+    return _sb.toString();
+  }
+}
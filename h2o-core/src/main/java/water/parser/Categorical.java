@@ -18,6 +18,10 @@ import water.util.PrettyPrint;
  *  
  *  Categorical objects are shared among threads on the local nodes!
  *
+ *  The map is only allocated when the first key is added - a parse keeps
+ *  a Categorical for every column (wide files have 100k of them) and most
+ *  of the columns are typically numeric.
+ *
  * @author tomasnykodym
  *
  */
@@ -29,13 +33,21 @@ public final class Categorical extends Iced {
   volatile IcedHashMap<BufferedString, Integer> _map;
   boolean maxDomainExceeded = false;
 
-  Categorical() { _map = new IcedHashMap<>(); }
+  Categorical() {}
+
+  private IcedHashMap<BufferedString, Integer> map() {
+    IcedHashMap<BufferedString, Integer> m = _map;
+    if( m == null ) {
+      synchronized (this) {
+        if( (m = _map) == null ) _map = m = new IcedHashMap<>();
+      }
+    }
+    return m;
+  }
 
   /** Add key to this map (treated as hash set in this case). */
   int addKey(BufferedString str) {
-    // _map is shared and be cast to null (if categorical is killed) -> grab local copy
-    IcedHashMap<BufferedString, Integer> m = _map;
-    if( m == null ) return Integer.MAX_VALUE;     // Nuked already
+    IcedHashMap<BufferedString, Integer> m = map();
     Integer res = m.get(str);
     if( res != null ) return res; // Recorded already
     assert str.length() < 65535; // Length limit so 65535 can be used as a sentinel
@@ -45,18 +57,19 @@ public final class Categorical extends Iced {
     if( m.size() > MAX_CATEGORICAL_COUNT) maxDomainExceeded = true;
     return newVal;
   }
-  final boolean containsKey(BufferedString key){ return _map.containsKey(key); }
+  final boolean containsKey(BufferedString key){ return _map != null && _map.containsKey(key); }
   @Override public String toString() {
-    return "{"+_map+" }";
+    return "{"+(_map == null ? "" : _map)+" }";
   }
 
   int getTokenId( BufferedString str ) { return _map.get(str); }
   
   int maxId() { return _maxId == -1 ? _id.get() : _maxId; }
-  int size() { return _map.size(); }
+  int size() { return _map == null ? 0 : _map.size(); }
   boolean isMapFull() { return maxDomainExceeded; }
 
   BufferedString[] getColumnDomain() {
+    if( _map == null ) return new BufferedString[0];
     return  _map.keySet().toArray(new BufferedString[_map.size()]);
   }
 
@@ -66,6 +79,7 @@ public final class Categorical extends Iced {
    * @param col user-facing index of the column to which the categoricals belong (only for logging/debugging)
    */
   void convertToUTF8(int col) {
+    if (_map == null) return;
     int hexConvLeft = 10;
     BufferedString[] bStrs = _map.keySet().toArray(new BufferedString[_map.size()]);
     StringBuilder hexSB = new StringBuilder();
@@ -1,5 +1,6 @@
 package water.parser;
 
+import jsr166y.ForkJoinTask;
 import water.*;
 import water.fvec.AppendableVec;
 import water.fvec.NewChunk;
@@ -13,6 +14,9 @@ import java.util.UUID;
  * @author tomasnykodym
  */
 public class FVecParseWriter extends Iced implements StreamParseWriter {
+  /** Chunks of wide files are closed (compressed and stored) in parallel groups of this many columns */
+  static final int CLOSE_COLUMN_GROUP_SIZE = 1024;
+
   protected AppendableVec[] _vecs;
   protected transient NewChunk[] _nvs;
   protected transient final Categorical [] _categoricals;
@@ -116,15 +120,40 @@ public class FVecParseWriter extends Iced implements StreamParseWriter {
   }
   @Override public FVecParseWriter close(Futures fs){
     if( _nvs == null ) return this; // Might call close twice
+    long mem = _nvs.length >= ParseSetup.WIDE_FILE_MIN_COLUMNS ? closeColumnGroups(fs) : closeColumns(0, _nvs.length, fs);
+    FrameSizeMonitor.closed(_jobKey, this, mem);
+    _nvs = null;  // Free for GC
+    return this;
+  }
+
+  private long closeColumns(int from, int to, Futures fs) {
     long mem = 0;
-    for(int i=0; i < _nvs.length; i++) {
+    for(int i=from; i < to; i++) {
       _nvs[i].close(_cidx, fs);
       mem += _nvs[i].chk2().byteSize();
       _nvs[i] = null; // free immediately, don't wait for all columns to close
     }
-    FrameSizeMonitor.closed(_jobKey, this, mem);
-    _nvs = null;  // Free for GC
-    return this;
+    return mem;
+  }
+
+  // Compressing 100k chunks is too much work for the thread that parsed the rows
+  private long closeColumnGroups(final Futures fs) {
+    final int nGroups = (_nvs.length + CLOSE_COLUMN_GROUP_SIZE - 1) / CLOSE_COLUMN_GROUP_SIZE;
+    final long[] mem = new long[nGroups];
+    H2O.H2OCountedCompleter[] tasks = new H2O.H2OCountedCompleter[nGroups];
+    for (int g = 0; g < nGroups; g++) {
+      final int group = g;
+      tasks[g] = new H2O.H2OCountedCompleter() {
+        @Override
+        public void compute2() {
+          int from = group * CLOSE_COLUMN_GROUP_SIZE;
+          mem[group] = closeColumns(from, Math.min(from + CLOSE_COLUMN_GROUP_SIZE, _nvs.length), fs);
+          tryComplete();
+        }
+      };
+    }
+    ForkJoinTask.invokeAll(tasks);
+    return ArrayUtils.sum(mem);
   }
   @Override public FVecParseWriter nextChunk(){
     return new FVecParseWriter(_vg, _cidx+1, _categoricals, _ctypes, _chunkSize, _vecs, _parse_columns_indices, _jobKey);
@@ -438,32 +438,43 @@ public final class ParseDataset {
         return;
       }
         final Categorical[] parseCatMaps = MultiFileParseTask._categoricals.get(_parseCatMapsKey); // include skipped columns
-        int[][] _nodeOrdMaps = new int[_ecol.length][];
+        final int[][] _nodeOrdMaps = new int[_ecol.length][];
 
-        // create old_ordinal->new_ordinal map for each cat column
+        // create old_ordinal->new_ordinal map for each cat column, columns are independent
+        H2OCountedCompleter[] maptasks = new H2OCountedCompleter[_ecol.length];
         for (int eColIdx = 0; eColIdx < _ecol.length; eColIdx++) {
-          int colIdx = _parseColumns[_ecol[eColIdx]];
-          if (parseCatMaps[colIdx].size() != 0) {
-            _nodeOrdMaps[eColIdx] = MemoryManager.malloc4(parseCatMaps[colIdx].maxId() + 1);
-            Arrays.fill(_nodeOrdMaps[eColIdx], -1);
-            //Bulk String->BufferedString conversion is slightly faster, but consumes memory
-            final BufferedString[] unifiedDomain = _fr.vec(_ecol[eColIdx]).isCategorical()?
-                    BufferedString.toBufferedString(_fr.vec(_ecol[eColIdx]).domain()):new BufferedString[0];
-            //final String[] unifiedDomain = _fr.vec(colIdx).domain();
-            for (int i = 0; i < unifiedDomain.length; i++) {
-              //final BufferedString cat = new BufferedString(unifiedDomain[i]);
-              if (parseCatMaps[colIdx].containsKey(unifiedDomain[i])) {
-                _nodeOrdMaps[eColIdx][parseCatMaps[colIdx].getTokenId(unifiedDomain[i])] = i;
-              }
+          final int fi = eColIdx;
+          maptasks[eColIdx] = new H2OCountedCompleter(currThrPriority()) {
+            @Override
+            public void compute2() {
+              _nodeOrdMaps[fi] = nodeOrdMap(_fr.vec(_ecol[fi]), parseCatMaps[_parseColumns[_ecol[fi]]], _parseColumns[_ecol[fi]]);
+              tryComplete();
             }
-          } else {
-            Log.debug("Column " + colIdx + " was marked as categorical but categorical map is empty!");
-          }
+          };
         }
+        ForkJoinTask.invokeAll(maptasks);
         // Store the local->global ordinal maps in DKV by node parse categorical key and node index
         DKV.put(Key.make(_parseCatMapsKey.toString() + "parseCatMapNode" + H2O.SELF.index()), new CategoricalUpdateMap(_nodeOrdMaps));
       tryComplete();
     }
+
+    private static int[] nodeOrdMap(Vec vec, Categorical parseCatMap, int colIdx) {
+      if (parseCatMap.size() == 0) {
+        Log.debug("Column " + colIdx + " was marked as categorical but categorical map is empty!");
+        return null;
+      }
+      int[] nodeOrdMap = MemoryManager.malloc4(parseCatMap.maxId() + 1);
+      Arrays.fill(nodeOrdMap, -1);
+      //Bulk String->BufferedString conversion is slightly faster, but consumes memory
+      final BufferedString[] unifiedDomain = vec.isCategorical() ?
+              BufferedString.toBufferedString(vec.domain()) : new BufferedString[0];
+      for (int i = 0; i < unifiedDomain.length; i++) {
+        if (parseCatMap.containsKey(unifiedDomain[i])) {
+          nodeOrdMap[parseCatMap.getTokenId(unifiedDomain[i])] = i;
+        }
+      }
+      return nodeOrdMap;
+    }
   }
 
   // --------------------------------------------------------------------------
@@ -491,6 +502,8 @@ public final class ParseDataset {
       final int cidx = chks[0].cidx();
       for(int i = 0; i < chks.length; ++i) {
         Chunk chk = chks[i];
+        if (_parse2GlobalCatMaps[i] == null) // nothing was collected by this node, the chunk holds only NAs
+          continue;
         if (!(chk instanceof CStrChunk)) {
           for( int j = 0; j < chk._len; ++j){
             if( chk.isNA(j) )continue;
@@ -531,16 +544,24 @@ public final class ParseDataset {
     public void setupLocal() {
       if (!MultiFileParseTask._categoricals.containsKey(_k)) return;
       _packedDomains = new byte[_catColIdxs.length][];
-      final BufferedString[][] _perColDomains = new BufferedString[_catColIdxs.length][];
       final Categorical[] _colCats = MultiFileParseTask._categoricals.get(_k); // still refer to all columns
-      int i = 0;
-      for (int col : _catColIdxs) {
-        _colCats[_parseColumns[col]].convertToUTF8(_parseColumns[col] + 1);
-        _perColDomains[i] = _colCats[_parseColumns[col]].getColumnDomain();
-        Arrays.sort(_perColDomains[i]);
-        _packedDomains[i] = PackedDomains.pack(_perColDomains[i]);
-        i++;
+      // columns are independent - sort and pack them in parallel (wide files have many of them)
+      H2OCountedCompleter[] domtasks = new H2OCountedCompleter[_catColIdxs.length];
+      for (int i = 0; i < _catColIdxs.length; i++) {
+        final int fi = i;
+        final int col = _parseColumns[_catColIdxs[i]];
+        domtasks[i] = new H2OCountedCompleter(currThrPriority()) {
+          @Override
+          public void compute2() {
+            _colCats[col].convertToUTF8(col + 1);
+            BufferedString[] domain = _colCats[col].getColumnDomain();
+            Arrays.sort(domain);
+            _packedDomains[fi] = PackedDomains.pack(domain);
+            tryComplete();
+          }
+        };
       }
+      ForkJoinTask.invokeAll(domtasks);
       Log.trace("Done locally collecting domains on each node.");
     }
     
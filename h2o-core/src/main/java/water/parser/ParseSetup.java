@@ -27,6 +27,12 @@ public class ParseSetup extends Iced {
   public static final int HAS_HEADER = 1;
   public static final int GUESS_COL_CNT = -1;
 
+  /** Files with at least this many columns are parsed in the wide-file mode: larger row blocks per chunk,
+   *  chunks closed in column groups and categorical domains collected column-parallel. */
+  public static final int WIDE_FILE_MIN_COLUMNS = Integer.parseInt(H2O.getSysProperty("parse.wide.minColumns", "10000"));
+  /** Number of rows a chunk of a wide file should hold (as long as every core still gets a chunk) */
+  static final int WIDE_FILE_CHUNK_ROWS = Integer.parseInt(H2O.getSysProperty("parse.wide.chunkRows", "1000"));
+
   ParserInfo _parse_type;     // CSV, XLS, XSLX, SVMLight, Auto, ARFF, ORC
   byte _separator;            // Field separator, usually comma ',' or TAB or space ' '
   // Whether or not single-quotes quote a field.  E.g. how do we parse:
@@ -368,12 +374,41 @@ public class ParseSetup extends Iced {
     if (ice instanceof Frame && ((Frame) ice).vec(0) instanceof UploadFileVec) {
       t._gblSetup._chunk_size = FileVec.DFLT_CHUNK_SIZE;
     } else {
+      final int cores = Runtime.getRuntime().availableProcessors();
       t._gblSetup._chunk_size = FileVec.calcOptimalChunkSize(t._totalParseSize, t._gblSetup._number_columns, t._maxLineLength,
-              Runtime.getRuntime().availableProcessors(), H2O.getCloudSize(), false /*use new heuristic*/, true);
+              cores, H2O.getCloudSize(), false /*use new heuristic*/, true);
+      if (t._gblSetup.isWideFile())
+        t._gblSetup._chunk_size = calcWideFileChunkSize(t._gblSetup._chunk_size, t._totalParseSize, t._maxLineLength,
+                cores, H2O.getCloudSize());
     }
     return t._gblSetup;
   }
 
+  /**
+   * Wide files pay a per-column cost (a NewChunk, categorical bookkeeping, chunk POJOs) for every chunk, the chunks
+   * of a wide file should thus hold blocks of {@link #WIDE_FILE_CHUNK_ROWS} rows - but not so large that some
+   * of the cores would be left without a chunk to parse.
+   *
+   * @param chunkSize chunk size given by the general heuristic
+   * @return chunk size to use for a wide file, never smaller than the given chunk size
+   */
+  static int calcWideFileChunkSize(int chunkSize, long totalSize, long maxLineLength, int cores, int cloudSize) {
+    long blockSize = WIDE_FILE_CHUNK_ROWS * maxLineLength;
+    long perCoreSize = totalSize / ((long) cores * cloudSize);
+    long wideChunkSize = Math.min(Math.min(blockSize, perCoreSize), FileVec.MAX_PARSE_CHUNK_SIZE);
+    if (wideChunkSize <= chunkSize)
+      return chunkSize;
+    Log.info("ParseSetup wide-file heuristic: chunkSize: " + chunkSize + " -> " + wideChunkSize);
+    return (int) wideChunkSize;
+  }
+
+  /**
+   * @return true if the data should be parsed in the wide-file mode
+   */
+  public boolean isWideFile() {
+    return _number_columns >= WIDE_FILE_MIN_COLUMNS;
+  }
+
   /**
    * Try to determine the ParseSetup on a file by file basis
    * and merge results.
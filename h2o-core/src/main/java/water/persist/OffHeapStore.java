@@ -0,0 +1,142 @@
+package water.persist;
+
+import sun.misc.Unsafe;
+import water.H2O;
+import water.Key;
+import water.MemoryManager;
+import water.Value;
+import water.nbhm.UtilUnsafe;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in off-heap tier of the user-mode swap.  Chunks the Cleaner swaps
+ * out go into native memory first, and only spill to the ice root once
+ * the off-heap budget is used up.  Loading a swapped Chunk back is then a
+ * memory copy instead of a disk read.
+ * <p>
+ * With the off-heap tier on, the Cleaner also keeps the Java heap cache small
+ * (a fraction of the heap, see {@link #heapCacheLimit(long)}): the cold bulk of
+ * the data lives outside of the heap, so full GCs have far less to trace and
+ * copy on very large heaps.
+ * <p>
+ * Turned on by giving the budget, e.g. <code>-Dsys.ai.h2o.offheap.maxBytes=64g</code>;
+ * the heap cache goal is set with <code>-Dsys.ai.h2o.offheap.heapCacheFraction</code>
+ * (default 0.25).  Native memory is allocated per Chunk and freed explicitly when
+ * the Chunk is removed from the store, it is never left to the GC.
+ */
+public final class OffHeapStore {
+
+  public static final long MAX_BYTES = parseBytes(H2O.getSysProperty("offheap.maxBytes", "0"));
+  public static final boolean ENABLED = MAX_BYTES > 0;
+  private static final double HEAP_CACHE_FRACTION =
+          Double.parseDouble(H2O.getSysProperty("offheap.heapCacheFraction", "0.25"));
+
+  private static final Unsafe U = UtilUnsafe.getUnsafe();
+  private static final long BYTE_BASE = U.arrayBaseOffset(byte[].class);
+
+  private static final ConcurrentHashMap<Key, Block> BLOCKS = new ConcurrentHashMap<>();
+  private static final AtomicLong USED = new AtomicLong();
+  private static final LongAdder STORES = new LongAdder();
+  private static final LongAdder LOADS = new LongAdder();
+  private static final LongAdder REJECTED = new LongAdder();
+
+  private OffHeapStore() {}
+
+  /** Serialized bytes of a single Value in native memory. */
+  private static final class Block {
+    private long _addr;
+    private final int _len;
+
+    Block(long addr, int len) { _addr = addr; _len = len; }
+
+    synchronized byte[] read() {
+      if (_addr == 0) return null; // Freed by a racing delete
+      byte[] res = MemoryManager.malloc1(_len);
+      U.copyMemory(null, _addr, res, BYTE_BASE, _len);
+      return res;
+    }
+
+    synchronized void free() {
+      if (_addr == 0) return;
+      U.freeMemory(_addr);
+      _addr = 0;
+      USED.addAndGet(-_len);
+    }
+  }
+
+  /** @return the Cleaner's goal for the Java heap cache, given the max heap */
+  public static long heapCacheLimit(long memMax) {
+    return (long) (memMax * HEAP_CACHE_FRACTION);
+  }
+
+  /** @return true if the Value was stored off-heap, false if it must go to disk */
+  static boolean store(Value v) {
+    final byte[] mem = v.memOrLoad();
+    final int len = mem.length;
+    long used;
+    do {
+      used = USED.get();
+      if (used + len > MAX_BYTES) {
+        REJECTED.increment();
+        return false;
+      }
+    } while (!USED.compareAndSet(used, used + len));
+    final long addr;
+    try {
+      addr = U.allocateMemory(Math.max(len, 1));
+    } catch (OutOfMemoryError oom) {
+      USED.addAndGet(-len);
+      REJECTED.increment();
+      return false;
+    }
+    U.copyMemory(mem, BYTE_BASE, null, addr, len);
+    Block old = BLOCKS.put(v._key, new Block(addr, len));
+    if (old != null) old.free(); // Stale bytes of an overwritten Value
+    STORES.increment();
+    return true;
+  }
+
+  /** @return bytes of the Value, or null if it was not stored off-heap */
+  static byte[] load(Value v) {
+    Block b = BLOCKS.get(v._key);
+    if (b == null || b._len != v._max) return null;
+    byte[] res = b.read();
+    if (res != null) LOADS.increment();
+    return res;
+  }
+
+  /** @return true if the Value was stored off-heap and is now freed */
+  static boolean delete(Value v) {
+    Block b = BLOCKS.remove(v._key);
+    if (b == null) return false;
+    b.free();
+    return true;
+  }
+
+  public static long usedBytes() { return USED.get(); }
+  public static long storedValues() { return BLOCKS.size(); }
+  public static long stores() { return STORES.sum(); }
+  public static long loads() { return LOADS.sum(); }
+  public static long rejected() { return REJECTED.sum(); }
+
+  // Plain number of bytes, or with a k/m/g/t suffix
+  static long parseBytes(String s) {
+    s = s.trim().toLowerCase(Locale.ENGLISH);
+    if (s.endsWith("b")) s = s.substring(0, s.length() - 1);
+    if (s.isEmpty()) return 0;
+    int shift = 0;
+    switch (s.charAt(s.length() - 1)) {
+      case 'k': shift = 10; break;
+      case 'm': shift = 20; break;
+      case 'g': shift = 30; break;
+      case 't': shift = 40; break;
+    }
+    if (shift != 0) s = s.substring(0, s.length() - 1);
+    return Long.parseLong(s.trim()) << shift;
+  }
+
+}
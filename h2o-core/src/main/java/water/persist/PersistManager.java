@@ -179,18 +179,35 @@ public class PersistManager {
   }
 
   public void store(int backend, Value v) throws IOException {
+    store(backend, v, false);
+  }
+
+  /**
+   * @param offHeapOnly store the value only if the off-heap tier has room for it, do not fall back to the backend
+   *                    (the disk of the ice root is full)
+   * @return false if the value was not stored
+   */
+  public boolean store(int backend, Value v, boolean offHeapOnly) throws IOException {
+    if( backend == Value.ICE && OffHeapStore.ENABLED && OffHeapStore.store(v) ) { // Swapped to native memory
+      stats[backend].store_count.incrementAndGet();
+      return true;
+    }
+    if( offHeapOnly ) return false;
     stats[backend].store_count.incrementAndGet();
     I[backend].store(v);
+    return true;
   }
 
   public void delete(int backend, Value v) {
     stats[backend].delete_count.incrementAndGet();
+    if( backend == Value.ICE && OffHeapStore.ENABLED && OffHeapStore.delete(v) ) return;
     I[backend].delete(v);
   }
 
   public byte[] load(int backend, Value v) throws IOException {
     stats[backend].load_count.incrementAndGet();
-    byte[] arr = I[backend].load(v);
+    byte[] arr = backend == Value.ICE && OffHeapStore.ENABLED ? OffHeapStore.load(v) : null;
+    if( arr == null ) arr = I[backend].load(v);
     stats[backend].load_bytes.addAndGet(arr.length);
     return arr;
   }
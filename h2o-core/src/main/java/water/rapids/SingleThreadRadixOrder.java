@@ -12,9 +12,11 @@ package water.rapids;
 // efficiency in MoveByFirstByte().  10 bits (1024 threads) would be 4MB which
 // still < L2
 
-// Since o[] and x[] are arrays here (not Vecs) it's harder to see how to
-// parallelize inside this function. Therefore avoid that issue by using more
-// threads in calling split.
+// Since o[] and x[] are arrays here (not Vecs) the parallelism comes mostly
+// from the many MSBs sorted at once.  With skewed keys one MSB can hold most
+// of the rows though, so a large MSB is split further on its next bytes and
+// the sub-buckets are sorted by all the local FJ threads (see BucketSort).
+// The output (sorted o and x batches) is the same either way.
 
 import water.*;
 import water.fvec.Frame;
@@ -33,12 +35,12 @@ class SingleThreadRadixOrder extends DTask<SingleThreadRadixOrder> {
   private transient byte _x[/*batch*/][];
   private transient long _otmp[][];
   private transient byte _xtmp[][];
-
-  // TEMPs
-  private transient long counts[][];
-  private transient byte keytmp[];
   //public long _groupSizes[][];
 
+  // MSBs (and sub-buckets) with at least this many rows are sorted by all the
+  // local FJ threads.  Not final, so tests can lower it.
+  static long PARALLEL_MIN_ROWS = Long.parseLong(H2O.getSysProperty("rapids.sort.parallel.minRows", "1000000"));
+
 
   // outputs ...
   // o and x are changed in-place always
@@ -54,8 +56,6 @@ class SingleThreadRadixOrder extends DTask<SingleThreadRadixOrder> {
 
   @Override
   public void compute2() {
-    keytmp = MemoryManager.malloc1(_keySize);
-    counts = new long[_keySize][256];
     Key k;
 
     SplitByMSBLocal.MSBNodeHeader[] MSBnodeHeader = new SplitByMSBLocal.MSBNodeHeader[H2O.CLOUD.size()];
@@ -176,7 +176,11 @@ class SingleThreadRadixOrder extends DTask<SingleThreadRadixOrder> {
     assert(numRows > 0);
 
     // The main work. Radix sort this batch ...
-    run(0, numRows, _keySize-1);  // if keySize is 6 bytes, first byte is byte 5
+    // if keySize is 6 bytes, first byte is byte 5
+    if (numRows < PARALLEL_MIN_ROWS || H2O.ARGS.nthreads <= 1)
+      new Sorter(false).run(0, numRows, _keySize-1);
+    else
+      H2O.submitTask(new BucketSort(null, 0, numRows, _keySize-1)).join();
 
     // don't need to clear these now using private transient
     // _counts = null;
@@ -220,158 +224,226 @@ class SingleThreadRadixOrder extends DTask<SingleThreadRadixOrder> {
     return ((x[xi] & 0xFF) - (y[yi] & 0xFF)); // 0xFF for getting back from -1 to 255
   }
 
-  // orders both x and o by reference in-place.  Fast for small vectors, low
-  // overhead.  don't be tempted to binsearch backwards here because have to
-  // shift anyway
-  public void insert(long start, /*only for small len so len can be type int*/int len) {
-    int batch0 = (int) (start / _batchSize);
-    int batch1 = (int) ((start+len-1) / _batchSize);
-    long origstart = start;   // just for when straddle batch boundaries
-    int len0 = 0;             // same
-    byte _xbatch[];
-    long _obatch[];
-    if (batch1 != batch0) {
-      // small len straddles a batch boundary. Unlikely very often since len<=200
-      assert batch0 == batch1-1;
-      len0 = _batchSize - (int)(start % _batchSize);
-      // copy two halves to contiguous temp memory, do the below, then split it back to the two halves afterwards.
-      // Straddles batches very rarely (at most once per batch) so no speed impact at all.
-      _xbatch = new byte[len * _keySize];
-      System.arraycopy(_x[batch0], (int)((start % _batchSize)*_keySize),_xbatch, 0,  len0*_keySize);
-      System.arraycopy( _x[batch1], 0,_xbatch, len0*_keySize, (len-len0)*_keySize);
-      _obatch = new long[len];
-      System.arraycopy(_o[batch0], (int)(start % _batchSize), _obatch, 0, len0);
-      System.arraycopy(_o[batch1], 0, _obatch, len0, len-len0);
-      start = 0;
-    } else {
-      _xbatch = _x[batch0];  // taking this outside the loop does indeed make quite a big different (hotspot isn't catching this, then)
-      _obatch = _o[batch0];
+  // Sorts the bucket [start, start+len) with all the local FJ threads.  The
+  // bucket is split on its next significant byte and the sub-buckets are forked
+  // off, recursively while they are still large; the small ones are finished
+  // by a single thread each.  Sub-buckets cover disjoint ranges of _o and _x,
+  // and each one scatters into the same range of _otmp and _xtmp.
+  private class BucketSort extends H2O.H2OCountedCompleter<BucketSort> {
+    private final long _start, _len;
+    private final int _byte;
+
+    BucketSort(H2O.H2OCountedCompleter cc, long start, long len, int Byte) {
+      super(cc);
+      _start = start;
+      _len = len;
+      _byte = Byte;
     }
-    int offset = (int) (start % _batchSize);
-    for (int i=1; i<len; i++) { // like bubble sort
-      int cmp = keycmp(_xbatch, offset+i, _xbatch, offset+i-1);  // TO DO: we don't need to compare the whole key here.  Set cmpLen < keySize
-      if (cmp < 0) {
-        System.arraycopy(_xbatch, (offset+i)*_keySize, keytmp, 0, _keySize);
-        int j = i-1;
-        long otmp = _obatch[offset+i];
-        do {
-          System.arraycopy(_xbatch, (offset+j)*_keySize, _xbatch, (offset+j+1)*_keySize, _keySize);
-          _obatch[offset+j+1] = _obatch[offset+j];
-          j--;
-        } while (j >= 0 && keycmp(keytmp, 0, _xbatch, offset+j)<0);
-        System.arraycopy(keytmp, 0, _xbatch, (offset+j+1)*_keySize, _keySize);
-        _obatch[offset + j + 1] = otmp;
+
+    @Override
+    public void compute2() {
+      final Sorter sorter = new Sorter(true);
+      int Byte = _byte;
+      if (_len < PARALLEL_MIN_ROWS) {
+        sorter.run(_start, _len, Byte);
+        tryComplete();
+        return;
       }
-    }
-    if (batch1 != batch0) {
-      // Put the sorted data back into original two places straddling the boundary
-      System.arraycopy(_xbatch, 0,_x[batch0], (int)(origstart % _batchSize) *_keySize,  len0*_keySize);
-      System.arraycopy(_xbatch, len0*_keySize,_x[batch1], 0,  (len-len0)*_keySize);
-      System.arraycopy( _obatch, 0,_o[batch0], (int)(origstart % _batchSize), len0);
-      System.arraycopy(_obatch, len0,_o[batch1], 0,  len-len0);
+      while (!sorter.partition(_start, _len, Byte)) {
+        if (Byte == 0) { tryComplete(); return; }  // all keys equal
+        Byte--;                                      // skewed: one bin has it all, split on the next byte
+      }
+      final long thisHist[] = sorter.counts[Byte];
+      long itmp = 0;
+      for (int i=0; i<256; i++) {
+        if (thisHist[i]==0) continue;
+        final long thisgrpn = thisHist[i] - itmp;
+        if( !(thisgrpn == 1 || Byte == 0) ) {
+          addToPendingCount(1);
+          new BucketSort(this, _start+itmp, thisgrpn, Byte-1).fork();
+        }
+        itmp = thisHist[i];
+      }
+      tryComplete();
     }
   }
 
-  public void run(final long start, final long len, final int Byte) {
-    if (len < 200) { // N_SMALL=200 is guess based on limited testing. Needs calibrate().
-      // Was 50 based on sum(1:50)=1275 worst -vs- 256 cummulate + 256 memset +
-      // allowance since reverse order is unlikely.
-      insert(start, (int)len);   // when nalast==0, iinsert will be called only from within iradix.
-      // TO DO: inside insert it doesn't need to compare the bytes so far as
-      // they're known equal, so pass Byte (NB: not Byte-1) through to insert()
-
-      // TO DO: Maybe transposing keys to be a set of _keySize byte columns
-      // might in fact be quicker - no harm trying. What about long and varying
-      // length string keys?
-      return;
-    }
-    final int batch0 = (int) (start / _batchSize);
-    final int batch1 = (int) ((start+len-1) / _batchSize);
-    // could well span more than one boundary when very large number of rows.
-    final long thisHist[] = counts[Byte];
-    // thisHist reused and carefully set back to 0 below so we don't need to clear it now
-    int idx = (int)(start%_batchSize)*_keySize + _keySize-Byte-1;
-    int bin=-1;  // the last bin incremented. Just to see if there is only one bin with a count.
-    int thisLen = (int)Math.min(len, _batchSize - start%_batchSize);
-    final int nbatch = batch1-batch0+1;  // number of batches this span of len covers.  Usually 1.  Minimum 1.
-    for (int b=0; b<nbatch; b++) {
-      // taking this outside the loop below does indeed make quite a big different (hotspot isn't catching this, then)
-      byte _xbatch[] = _x[batch0+b];
-      for (int i = 0; i < thisLen; i++) {
-        bin = 0xff & _xbatch[idx];
-        thisHist[bin]++;
-        idx += _keySize;
-        // maybe TO DO: shorten key by 1 byte on each iteration, so we only
-        // need to thisx && 0xFF.  No, because we need for construction of
-        // final table key columns.
+  // Single-threaded MSD radix sort of a range of _o and _x.  Holds its own
+  // histograms, so several Sorters can work on disjoint ranges at once.
+  private final class Sorter {
+    final long counts[][] = new long[_keySize][256];
+    final byte keytmp[] = MemoryManager.malloc1(_keySize);
+    // Scatter into the same range of _otmp and _xtmp as the one being sorted
+    // (needed when sorting in parallel), or else always into the start of
+    // _otmp and _xtmp, just to reuse the first hot pages.
+    final boolean _inPlaceTmp;
+
+    Sorter(boolean inPlaceTmp) { _inPlaceTmp = inPlaceTmp; }
+
+    // orders both x and o by reference in-place.  Fast for small vectors, low
+    // overhead.  don't be tempted to binsearch backwards here because have to
+    // shift anyway
+    void insert(long start, /*only for small len so len can be type int*/int len) {
+      int batch0 = (int) (start / _batchSize);
+      int batch1 = (int) ((start+len-1) / _batchSize);
+      long origstart = start;   // just for when straddle batch boundaries
+      int len0 = 0;             // same
+      byte _xbatch[];
+      long _obatch[];
+      if (batch1 != batch0) {
+        // small len straddles a batch boundary. Unlikely very often since len<=200
+        assert batch0 == batch1-1;
+        len0 = _batchSize - (int)(start % _batchSize);
+        // copy two halves to contiguous temp memory, do the below, then split it back to the two halves afterwards.
+        // Straddles batches very rarely (at most once per batch) so no speed impact at all.
+        _xbatch = new byte[len * _keySize];
+        System.arraycopy(_x[batch0], (int)((start % _batchSize)*_keySize),_xbatch, 0,  len0*_keySize);
+        System.arraycopy( _x[batch1], 0,_xbatch, len0*_keySize, (len-len0)*_keySize);
+        _obatch = new long[len];
+        System.arraycopy(_o[batch0], (int)(start % _batchSize), _obatch, 0, len0);
+        System.arraycopy(_o[batch1], 0, _obatch, len0, len-len0);
+        start = 0;
+      } else {
+        _xbatch = _x[batch0];  // taking this outside the loop does indeed make quite a big different (hotspot isn't catching this, then)
+        _obatch = _o[batch0];
+      }
+      int offset = (int) (start % _batchSize);
+      for (int i=1; i<len; i++) { // like bubble sort
+        int cmp = keycmp(_xbatch, offset+i, _xbatch, offset+i-1);  // TO DO: we don't need to compare the whole key here.  Set cmpLen < keySize
+        if (cmp < 0) {
+          System.arraycopy(_xbatch, (offset+i)*_keySize, keytmp, 0, _keySize);
+          int j = i-1;
+          long otmp = _obatch[offset+i];
+          do {
+            System.arraycopy(_xbatch, (offset+j)*_keySize, _xbatch, (offset+j+1)*_keySize, _keySize);
+            _obatch[offset+j+1] = _obatch[offset+j];
+            j--;
+          } while (j >= 0 && keycmp(keytmp, 0, _xbatch, offset+j)<0);
+          System.arraycopy(keytmp, 0, _xbatch, (offset+j+1)*_keySize, _keySize);
+          _obatch[offset + j + 1] = otmp;
+        }
+      }
+      if (batch1 != batch0) {
+        // Put the sorted data back into original two places straddling the boundary
+        System.arraycopy(_xbatch, 0,_x[batch0], (int)(origstart % _batchSize) *_keySize,  len0*_keySize);
+        System.arraycopy(_xbatch, len0*_keySize,_x[batch1], 0,  (len-len0)*_keySize);
+        System.arraycopy( _obatch, 0,_o[batch0], (int)(origstart % _batchSize), len0);
+        System.arraycopy(_obatch, len0,_o[batch1], 0,  len-len0);
       }
-      idx = _keySize-Byte-1;
-      thisLen = (b==nbatch-2/*next iteration will be last batch*/ ? (int)((start+len)%_batchSize) : _batchSize);
-      // thisLen will be set to _batchSize for the middle batches when nbatch>=3
-    }
-    if (thisHist[bin] == len) {
-      // one bin has count len and the rest zero => next byte quick
-      thisHist[bin] = 0;  // important, clear for reuse
-      if (Byte != 0)
-        run(start, len, Byte-1);
-      return;
-    }
-    long rollSum = 0;
-    for (int c = 0; c < 256; c++) {
-      if (rollSum == len) break;  // done, all other bins are zero, no need to loop through them all
-      final long tmp = thisHist[c];
-      // important to skip zeros for logic below to undo cumulate.  Worth the
-      // branch to save a deeply iterative memset back to zero
-      if (tmp == 0) continue;  
-      thisHist[c] = rollSum;
-      rollSum += tmp;
     }
 
-    // Sigh. Now deal with batches here as well because Java doesn't have 64bit indexing.
-    int oidx = (int)(start%_batchSize);
-    int xidx = oidx*_keySize + _keySize-Byte-1;
-    thisLen = (int)Math.min(len, _batchSize - start%_batchSize);
-    for (int b=0; b<nbatch; b++) {
-      // taking these outside the loop below does indeed make quite a big
-      // different (hotspot isn't catching this, then)
-      final long _obatch[] = _o[batch0+b];
-      final byte _xbatch[] = _x[batch0+b];
-      for (int i = 0; i < thisLen; i++) {
-        long target = thisHist[0xff & _xbatch[xidx]]++;
-        // now always write to the beginning of _otmp and _xtmp just to reuse the first hot pages
-        _otmp[(int)(target/_batchSize)][(int)(target%_batchSize)] = _obatch[oidx+i];   // this must be kept in 8 bytes longs
-        System.arraycopy(_xbatch, (oidx+i)*_keySize, _xtmp[(int)(target/_batchSize)], (int)(target%_batchSize)*_keySize, _keySize );
-        xidx += _keySize;
-        // Maybe TO DO: this can be variable byte width and smaller widths as
-        // descend through bytes (TO DO: reverse byte order so always doing &0xFF)
+    void run(final long start, final long len, final int Byte) {
+      if (len < 200) { // N_SMALL=200 is guess based on limited testing. Needs calibrate().
+        // Was 50 based on sum(1:50)=1275 worst -vs- 256 cummulate + 256 memset +
+        // allowance since reverse order is unlikely.
+        insert(start, (int)len);   // when nalast==0, iinsert will be called only from within iradix.
+        // TO DO: inside insert it doesn't need to compare the bytes so far as
+        // they're known equal, so pass Byte (NB: not Byte-1) through to insert()
+
+        // TO DO: Maybe transposing keys to be a set of _keySize byte columns
+        // might in fact be quicker - no harm trying. What about long and varying
+        // length string keys?
+        return;
+      }
+      if (!partition(start, len, Byte)) {
+        // one bin has count len and the rest zero => next byte quick
+        if (Byte != 0)
+          run(start, len, Byte-1);
+        return;
+      }
+      final long thisHist[] = counts[Byte];
+      long itmp = 0;
+      for (int i=0; i<256; i++) {
+        if (thisHist[i]==0) continue;
+        final long thisgrpn = thisHist[i] - itmp;
+        if( !(thisgrpn == 1 || Byte == 0) )
+          run(start+itmp, thisgrpn, Byte-1);
+        itmp = thisHist[i];
+        thisHist[i] = 0;  // important, to save clearing counts on next iteration
       }
-      xidx = _keySize-Byte-1;
-      oidx = 0;
-      thisLen = (b==nbatch-2/*next iteration will be last batch*/ ? (int)((start+len)%_batchSize) : _batchSize);
     }
 
-    // now copy _otmp and _xtmp back over _o and _x from the start position, allowing for boundaries
-    // _o, _x, _otmp and _xtmp all have the same _batchsize
-    runCopy(start,len,_keySize,_batchSize,_otmp,_xtmp,_o,_x);
-
-    long itmp = 0;
-    for (int i=0; i<256; i++) {
-      if (thisHist[i]==0) continue;
-      final long thisgrpn = thisHist[i] - itmp;
-      if( !(thisgrpn == 1 || Byte == 0) )
-        run(start+itmp, thisgrpn, Byte-1);
-      itmp = thisHist[i];
-      thisHist[i] = 0;  // important, to save clearing counts on next iteration
+    // Moves the rows of [start, start+len) by their byte Byte.  Returns false
+    // (and leaves the rows as they are) if they all have the same byte.
+    // Otherwise counts[Byte] is left holding the cumulated end of each
+    // non-empty bin, and the caller must set it back to 0.
+    boolean partition(final long start, final long len, final int Byte) {
+      final int batch0 = (int) (start / _batchSize);
+      final int batch1 = (int) ((start+len-1) / _batchSize);
+      // could well span more than one boundary when very large number of rows.
+      final long thisHist[] = counts[Byte];
+      // thisHist reused and carefully set back to 0 below so we don't need to clear it now
+      int idx = (int)(start%_batchSize)*_keySize + _keySize-Byte-1;
+      int bin=-1;  // the last bin incremented. Just to see if there is only one bin with a count.
+      int thisLen = (int)Math.min(len, _batchSize - start%_batchSize);
+      final int nbatch = batch1-batch0+1;  // number of batches this span of len covers.  Usually 1.  Minimum 1.
+      for (int b=0; b<nbatch; b++) {
+        // taking this outside the loop below does indeed make quite a big different (hotspot isn't catching this, then)
+        byte _xbatch[] = _x[batch0+b];
+        for (int i = 0; i < thisLen; i++) {
+          bin = 0xff & _xbatch[idx];
+          thisHist[bin]++;
+          idx += _keySize;
+          // maybe TO DO: shorten key by 1 byte on each iteration, so we only
+          // need to thisx && 0xFF.  No, because we need for construction of
+          // final table key columns.
+        }
+        idx = _keySize-Byte-1;
+        thisLen = (b==nbatch-2/*next iteration will be last batch*/ ? (int)((start+len)%_batchSize) : _batchSize);
+        // thisLen will be set to _batchSize for the middle batches when nbatch>=3
+      }
+      if (thisHist[bin] == len) {
+        thisHist[bin] = 0;  // important, clear for reuse
+        return false;
+      }
+      long rollSum = 0;
+      for (int c = 0; c < 256; c++) {
+        if (rollSum == len) break;  // done, all other bins are zero, no need to loop through them all
+        final long tmp = thisHist[c];
+        // important to skip zeros for logic below to undo cumulate.  Worth the
+        // branch to save a deeply iterative memset back to zero
+        if (tmp == 0) continue;
+        thisHist[c] = rollSum;
+        rollSum += tmp;
+      }
+
+      // Sigh. Now deal with batches here as well because Java doesn't have 64bit indexing.
+      final long tmpStart = _inPlaceTmp ? start : 0;
+      int oidx = (int)(start%_batchSize);
+      int xidx = oidx*_keySize + _keySize-Byte-1;
+      thisLen = (int)Math.min(len, _batchSize - start%_batchSize);
+      for (int b=0; b<nbatch; b++) {
+        // taking these outside the loop below does indeed make quite a big
+        // different (hotspot isn't catching this, then)
+        final long _obatch[] = _o[batch0+b];
+        final byte _xbatch[] = _x[batch0+b];
+        for (int i = 0; i < thisLen; i++) {
+          long target = tmpStart + thisHist[0xff & _xbatch[xidx]]++;
+          _otmp[(int)(target/_batchSize)][(int)(target%_batchSize)] = _obatch[oidx+i];   // this must be kept in 8 bytes longs
+          System.arraycopy(_xbatch, (oidx+i)*_keySize, _xtmp[(int)(target/_batchSize)], (int)(target%_batchSize)*_keySize, _keySize );
+          xidx += _keySize;
+          // Maybe TO DO: this can be variable byte width and smaller widths as
+          // descend through bytes (TO DO: reverse byte order so always doing &0xFF)
+        }
+        xidx = _keySize-Byte-1;
+        oidx = 0;
+        thisLen = (b==nbatch-2/*next iteration will be last batch*/ ? (int)((start+len)%_batchSize) : _batchSize);
+      }
+
+      // now copy _otmp and _xtmp back over _o and _x from the start position, allowing for boundaries
+      // _o, _x, _otmp and _xtmp all have the same _batchsize
+      runCopy(tmpStart,start,len,_keySize,_batchSize,_otmp,_xtmp,_o,_x);
+      return true;
     }
   }
 
   // Hot loop, pulled out from the main run code
-  private static void runCopy(final long start, final long len, final int keySize, final int batchSize, final long otmp[][], final byte xtmp[][], final long o[][], final byte x[][]) {
+  private static void runCopy(final long from, final long start, final long len, final int keySize, final int batchSize, final long otmp[][], final byte xtmp[][], final long o[][], final byte x[][]) {
     // now copy _otmp and _xtmp back over _o and _x from the start position, allowing for boundaries
     // _o, _x, _otmp and _xtmp all have the same _batchsize
     // Would be really nice if Java had 64bit indexing to save programmer time.
     long numRowsToCopy = len;
-    int sourceBatch = 0, sourceOffset = 0;
+    int sourceBatch = (int)(from / batchSize), sourceOffset = (int)(from % batchSize);
     int targetBatch = (int)(start / batchSize), targetOffset = (int)(start % batchSize);
     int targetBatchRemaining = batchSize - targetOffset;  // 'remaining' means of the the full batch, not of the numRowsToCopy
     int sourceBatchRemaining = batchSize - sourceOffset;  // at most batchSize remaining.  No need to actually put the number of rows left in here
@@ -38,14 +38,25 @@ import java.util.Arrays;
  */
 public class AstGroup extends AstPrimitive {
 
+  // Groupings on numeric/categorical columns use the columnar engine unless disabled
+  private static final boolean COLUMNAR = H2O.getSysBoolProperty("rapids.groupby.columnar", true);
+  // Groupings which can produce at least this many groups shuffle them across the cluster
+  private static final long SHUFFLE_MIN_GROUPS = Long.parseLong(H2O.getSysProperty("rapids.groupby.shuffle.minGroups", "10000000"));
+
   private final boolean _per_node_aggregates;
+  private final boolean _columnar;
 
   public AstGroup() {
     this(true);
   }
 
   public AstGroup(boolean perNodeAggregates) {
+    this(perNodeAggregates, COLUMNAR);
+  }
+
+  public AstGroup(boolean perNodeAggregates, boolean columnar) {
     _per_node_aggregates = perNodeAggregates;
+    _columnar = columnar;
   }
 
   public enum NAHandling {ALL, RM, IGNORE}
@@ -301,6 +312,13 @@ public class AstGroup extends AstPrimitive {
    * @return  grouped data with aggregations results.
    */
   public ValFrame performGroupingWithAggregations(Frame fr, int[] gbCols, AGG[] aggs) {
+    if (_columnar && ColumnarGroupBy.isSupported(fr, gbCols, aggs)) {
+      String[] fcNames = prepareFCNames(fr, aggs);
+      if (useShuffle(fr, gbCols))
+        return new ValFrame(ShuffleGroupBy.groupBy(fr, gbCols, aggs, fcNames));
+      return new ValFrame(ColumnarGroupBy.groupBy(fr, gbCols, aggs, fcNames));
+    }
+
     final boolean hasMedian = hasMedian(aggs);
     final byte[] gbColsTypes = ArrayUtils.select(fr.types(), gbCols);
     
@@ -319,6 +337,14 @@ public class AstGroup extends AstPrimitive {
     return new ValFrame(f);
   }
 
+  /**
+   * Decides whether the groups should be hash-partitioned across the nodes instead of
+   * being reduced onto a single node, only used by the columnar engine.
+   */
+  protected boolean useShuffle(Frame fr, int[] gbCols) {
+    return ShuffleGroupBy.isWorthIt(fr, gbCols, SHUFFLE_MIN_GROUPS);
+  }
+
   private static boolean hasMedian(AGG[] aggs) {
     for (AGG agg : aggs) 
       if (FCN.median.equals(agg._fcn))
@@ -510,6 +536,15 @@ public class AstGroup extends AstPrimitive {
   
   // Build output frame from the multi-column results
   public static Frame buildOutput(int[] gbCols, int noutCols, Frame fr, String[] fcnames, int ngrps, MRTask mrfill) {
+    Vec v = Vec.makeZero(ngrps); // dummy layout vec
+    try {
+      return buildOutput(gbCols, noutCols, fr, fcnames, v, mrfill);
+    } finally {
+      v.remove();
+    }
+  }
+
+  static Frame buildOutput(int[] gbCols, int noutCols, Frame fr, String[] fcnames, Vec layout, MRTask mrfill) {
     // Build the output!
     // the names of columns
     final int nCols = gbCols.length + noutCols;
@@ -530,11 +565,8 @@ public class AstGroup extends AstPrimitive {
       types[i + gbCols.length] = Vec.T_NUM;
     }
 
-    Vec v = Vec.makeZero(ngrps); // dummy layout vec
     // Convert the output arrays into a Frame, also doing the post-pass work
-    Frame f =  mrfill.doAll(types, new Frame(v)).outputFrame(names, domains);
-    v.remove();
-    return f;
+    return mrfill.doAll(types, new Frame(layout)).outputFrame(names, domains);
   }
 
   // Description of a single aggregate, including the reduction function, the
@@ -13,6 +13,7 @@ import water.rapids.ast.AstRoot;
 import water.rapids.ast.params.AstNum;
 import water.rapids.ast.params.AstNumList;
 import water.rapids.vals.ValFrame;
+import water.util.ArrayUtils;
 import water.util.IcedHashMap;
 
 import java.util.ArrayList;
@@ -38,13 +39,20 @@ import java.util.Arrays;
  * there is no matching row in the rightFrame, and vice-versa for
  * allRightFlag.  Missing data will appear as NAs.  Both flags can be true.
  * </p>
- * We support merge method hash, radix and auto.  If a user chooses auto, the
- * algorithm will default to method radix which is the better algorithm.  It
- * gives accurate merge results even if there are duplicated rows in the rightFrame.
- * In addition, the radix method will allow the presences of string columns in
- * the frames.  The Hash method will not give correct merge results if there
- * are duplicated rows in the rightFrame.  The hash method cannot work with String columns,
- * they need to be casted to enums/integer columns before calling merge.
+ * We support merge method hash, radix, broadcast and auto.  If a user chooses
+ * auto, the algorithm will use the broadcast method when the frame to be
+ * hashed (the right one, or the left one when allRiteFlag is set) is small
+ * enough to be copied to every node, and method radix otherwise.  Auto sorts
+ * the result by the join columns either way, except for a broadcast join on
+ * string or UUID keys, which radix sort does not handle: those rows keep the
+ * order of the broadcast join.  The radix method gives accurate
+ * merge results even if there are duplicated rows in the rightFrame, and
+ * allows the presence of string columns in the frames.  The broadcast method
+ * handles duplicates and string columns as well; it keeps the row order of
+ * the walked frame and does not sort or move it at all.  The Hash method will
+ * not give correct merge results if there are duplicated rows in the
+ * rightFrame.  The hash method cannot work with String columns, they need to
+ * be casted to enums/integer columns before calling merge.
  */
 public class AstMerge extends AstPrimitive {
   @Override
@@ -129,6 +137,22 @@ public class AstMerge extends AstPrimitive {
       }
     }.doAllNodes();
 
+    boolean broadcast = method.equals("broadcast") ||
+            (method.equals("auto") && !(allLeft && allRite) && BroadcastJoin.fits(allRite ? l : r));
+    if (broadcast) {
+      if (allLeft && allRite)
+        throw new IllegalArgumentException("all.x=TRUE and all.y=TRUE is not supported.  Choose one only.");
+      Frame res = allRite ? reorderRightJoin(BroadcastJoin.join(r, l, ncols, true), l, r, ncols)
+              : BroadcastJoin.join(l, r, ncols, allLeft);
+      if (method.equals("broadcast") || !radixSortable(res, ncols))
+        return new ValFrame(res);
+      // Auto returns the rows ordered by the join columns, as the sorting merge does
+      Frame sorted = Merge.sort(res, ArrayUtils.seq(0, ncols));
+      for (Vec v : res.vecs())
+        if (l.find(v) == -1 && r.find(v) == -1) v.remove(); // Only the vecs made by the join
+      return new ValFrame(sorted);
+    }
+
     if (method.equals("radix") || method.equals("auto")) {  // default to radix as default merge metho
       // Build categorical mappings, to rapidly convert categoricals from the left to the right
       // With the sortingMerge approach there is no variance here: always map left to right
@@ -151,22 +175,7 @@ public class AstMerge extends AstPrimitive {
         return sortingMerge(l, r, allLeft, ncols, id_maps);
       } else {  // implement allRite here by switching leftframe and riteframe.  However, column order is wrong, re-order before return
         ValFrame tempFrame = sortingMerge(r, l, allRite, ncols, id_maps);
-        Frame mergedFrame = tempFrame.getFrame();  // need to switch order of merged frame
-        int allColNum = mergedFrame.numCols();
-        int[] colMapping = new int[allColNum];  // index into combined frame but with correct order
-        for (int index = 0; index < ncols; index++) {
-          colMapping[index] = index;    // no change to column order in the key columns
-        }
-        int offset = r.numCols() - ncols;
-        for (int index = ncols; index < l.numCols(); index++) { // set the order for right frame
-          colMapping[index] = offset + index;        // move the left columns to the front
-        }
-        offset = l.numCols() - ncols;
-        for (int index = l.numCols(); index < allColNum; index++) {
-          colMapping[index] = index - offset;
-        }
-
-        mergedFrame.reOrder(colMapping);  // reorder the frame columns for allrite = true
+        reorderRightJoin(tempFrame.getFrame(), l, r, ncols);  // need to switch order of merged frame
         return tempFrame;
       }
     }
@@ -250,6 +259,30 @@ public class AstMerge extends AstPrimitive {
     throw H2O.unimpl();
   }
 
+  /**
+   * A right join is done as a left join with the frames switched, this puts the
+   * columns of the result back in the order of a left join: key columns, left
+   * columns, right columns.
+   */
+  private static Frame reorderRightJoin(Frame mergedFrame, Frame l, Frame r, int ncols) {
+    int allColNum = mergedFrame.numCols();
+    int[] colMapping = new int[allColNum];  // index into combined frame but with correct order
+    for (int index = 0; index < ncols; index++) {
+      colMapping[index] = index;    // no change to column order in the key columns
+    }
+    int offset = r.numCols() - ncols;
+    for (int index = ncols; index < l.numCols(); index++) { // set the order for right frame
+      colMapping[index] = offset + index;        // move the left columns to the front
+    }
+    offset = l.numCols() - ncols;
+    for (int index = l.numCols(); index < allColNum; index++) {
+      colMapping[index] = index - offset;
+    }
+
+    mergedFrame.reOrder(colMapping);  // reorder the frame columns for allrite = true
+    return mergedFrame;
+  }
+
   /**
    * Use a sorting merge/join, probably because the hash table size exceeded
    * MAX_HASH_SIZE; i.e. the number of unique keys in the hashed Frame exceeds
@@ -267,6 +300,14 @@ public class AstMerge extends AstPrimitive {
    *                categorical column to another; the width is ncols
    */
 
+  // Radix sort only handles numeric, time and categorical columns; string and UUID keys keep the broadcast order
+  private static boolean radixSortable(Frame fr, int ncols) {
+    for (int i = 0; i < ncols; i++)
+      if (fr.vec(i).isString() || fr.vec(i).isUUID())
+        return false;
+    return true;
+  }
+
   private ValFrame sortingMerge(Frame left, Frame right, boolean allLeft, int ncols, int[][] id_maps) {
     int cols[] = new int[ncols];
     for (int i = 0; i < ncols; i++) cols[i] = i;
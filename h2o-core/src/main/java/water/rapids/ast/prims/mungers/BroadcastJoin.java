@@ -0,0 +1,415 @@
+package water.rapids.ast.prims.mungers;
+
+import water.H2O;
+import water.Iced;
+import water.MRTask;
+import water.fvec.*;
+import water.parser.BufferedString;
+import water.util.Log;
+
+import java.util.Arrays;
+
+/**
+ * Hash join which copies the small ("hashed") frame to every node and streams
+ * the big ("walked") frame past it, so that the big frame is never sorted or
+ * shuffled.  Typical use is joining a large fact frame with a dimension table.
+ * <p>
+ * The join columns are the first <code>ncols</code> columns of both frames,
+ * with matching types; numeric, time, categorical, string and UUID keys are
+ * supported.  Duplicated keys in the hashed frame produce one output row per
+ * match.  NAs in the join columns never match.  The output has all the walked
+ * columns followed by the non-key columns of the hashed frame, in the row
+ * order of the walked frame.
+ */
+final class BroadcastJoin {
+
+  // Largest (estimated, uncompressed) size of a frame which gets copied to every node
+  static final long MAX_BYTES = Long.parseLong(H2O.getSysProperty("rapids.merge.broadcast.maxBytes", String.valueOf(128L << 20)));
+
+  private BroadcastJoin() {}
+
+  /** @return true if the frame is small enough to be copied to every node */
+  static boolean fits(Frame hashed) {
+    return hashed.numRows() < Integer.MAX_VALUE && estimateBytes(hashed) <= MAX_BYTES;
+  }
+
+  static long estimateBytes(Frame fr) {
+    long bytes = 0;
+    for (Vec v : fr.vecs())
+      bytes += v.isString() ? v.byteSize() : v.length() * (v.isUUID() ? 16 : 8);
+    return bytes;
+  }
+
+  /**
+   * @param walked     frame streamed through the join, may be large
+   * @param hashed     frame copied to every node
+   * @param ncols      number of leading join columns in both frames
+   * @param allWalked  keep the walked rows without a match (left join), otherwise they are dropped (inner join)
+   * @return joined frame
+   */
+  static Frame join(Frame walked, Frame hashed, int ncols, boolean allWalked) {
+    long start = System.currentTimeMillis();
+    LookupTable table = LookupTable.collect(hashed, ncols);
+    table.buildIndex();
+    Log.info("Broadcast join: lookup table of " + table._nrows + " rows built in " + (System.currentTimeMillis() - start) / 1000. + " (s)");
+
+    // Map the categorical levels of the walked keys onto the hashed ones, unknown levels map past the hashed domain
+    int[][] catMaps = new int[ncols][];
+    for (int i = 0; i < ncols; i++)
+      if (walked.vec(i).isCategorical())
+        catMaps[i] = CategoricalWrappedVec.computeMap(walked.vec(i).domain(), hashed.vec(i).domain());
+
+    final int npayload = hashed.numCols() - ncols;
+    String[] names = Arrays.copyOfRange(hashed.names(), ncols, hashed.numCols());
+    String[][] domains = Arrays.copyOfRange(hashed.domains(), ncols, hashed.numCols());
+    byte[] types = Arrays.copyOfRange(hashed.types(), ncols, hashed.numCols());
+
+    if (allWalked && !table._dups) {
+      // Exactly one output row per walked row: keep the walked columns, compute just the hashed ones
+      Frame payload = new JoinTask(table, catMaps, true, true).doAll(types, walked).outputFrame(names, domains);
+      Frame res = new Frame(walked.names(), walked.vecs());
+      res.add(payload);
+      return res;
+    }
+    String[] allNames = Arrays.copyOf(walked.names(), walked.numCols() + npayload);
+    System.arraycopy(names, 0, allNames, walked.numCols(), npayload);
+    String[][] allDomains = Arrays.copyOf(walked.domains(), walked.numCols() + npayload);
+    System.arraycopy(domains, 0, allDomains, walked.numCols(), npayload);
+    byte[] allTypes = Arrays.copyOf(walked.types(), walked.numCols() + npayload);
+    System.arraycopy(types, 0, allTypes, walked.numCols(), npayload);
+    return new JoinTask(table, catMaps, allWalked, false).doAll(allTypes, walked).outputFrame(allNames, allDomains);
+  }
+
+  /** Values of a single column of the hashed frame, in a flat primitive array of its type. */
+  static final class Column extends Iced<Column> {
+    byte _type;
+    double[] _d;      // Numeric, time and categorical values
+    byte[][] _s;      // Strings, NA is null
+    long[] _lo, _hi;  // UUIDs
+
+    static Column of(Chunk c) {
+      final int len = c._len;
+      Column col = new Column();
+      col._type = c.vec().get_type();
+      switch (col._type) {
+        case Vec.T_STR:
+          col._s = new byte[len][];
+          BufferedString tmp = new BufferedString();
+          for (int r = 0; r < len; r++)
+            if (!c.isNA(r)) {
+              BufferedString bs = c.atStr(tmp, r);
+              col._s[r] = Arrays.copyOfRange(bs.getBuffer(), bs.getOffset(), bs.getOffset() + bs.length());
+            }
+          break;
+        case Vec.T_UUID:
+          col._lo = new long[len];
+          col._hi = new long[len];
+          for (int r = 0; r < len; r++) {
+            col._lo[r] = c.at16l(r);
+            col._hi[r] = c.at16h(r);
+          }
+          break;
+        default:
+          col._d = c.getDoubles(new double[len], 0, len);
+      }
+      return col;
+    }
+
+    static Column concat(Column[] parts, int nrows) {
+      Column col = new Column();
+      col._type = parts.length == 0 ? Vec.T_NUM : parts[0]._type;
+      int off = 0;
+      switch (col._type) {
+        case Vec.T_STR:
+          col._s = new byte[nrows][];
+          for (Column p : parts) { System.arraycopy(p._s, 0, col._s, off, p._s.length); off += p._s.length; }
+          break;
+        case Vec.T_UUID:
+          col._lo = new long[nrows];
+          col._hi = new long[nrows];
+          for (Column p : parts) {
+            System.arraycopy(p._lo, 0, col._lo, off, p._lo.length);
+            System.arraycopy(p._hi, 0, col._hi, off, p._hi.length);
+            off += p._lo.length;
+          }
+          break;
+        default:
+          col._d = new double[nrows];
+          for (Column p : parts) { System.arraycopy(p._d, 0, col._d, off, p._d.length); off += p._d.length; }
+      }
+      return col;
+    }
+
+    boolean isNA(int r) {
+      switch (_type) {
+        case Vec.T_STR: return _s[r] == null;
+        case Vec.T_UUID: return C16Chunk.isNA(_lo[r], _hi[r]);
+        default: return Double.isNaN(_d[r]);
+      }
+    }
+
+    int hash(int r) {
+      switch (_type) {
+        case Vec.T_STR: return hash(_s[r], 0, _s[r].length);
+        case Vec.T_UUID: return 31 * Long.hashCode(_lo[r]) + Long.hashCode(_hi[r]);
+        default: return hash(_d[r]);
+      }
+    }
+
+    boolean equals(int r1, int r2) {
+      switch (_type) {
+        case Vec.T_STR: return Arrays.equals(_s[r1], _s[r2]);
+        case Vec.T_UUID: return _lo[r1] == _lo[r2] && _hi[r1] == _hi[r2];
+        default: return _d[r1] == _d[r2];
+      }
+    }
+
+    // Same hash as hash(int) for the value of a walked row
+    int hash(Chunk c, int row, int[] catMap, BufferedString tmp) {
+      switch (_type) {
+        case Vec.T_STR:
+          BufferedString bs = c.atStr(tmp, row);
+          return hash(bs.getBuffer(), bs.getOffset(), bs.length());
+        case Vec.T_UUID: return 31 * Long.hashCode(c.at16l(row)) + Long.hashCode(c.at16h(row));
+        default: return hash(walkedValue(c, row, catMap));
+      }
+    }
+
+    // Does the value of a walked row match hashed row r, called after hash(Chunk, ...) so tmp is filled
+    boolean matches(int r, Chunk c, int row, int[] catMap, BufferedString tmp) {
+      switch (_type) {
+        case Vec.T_STR:
+          byte[] s = _s[r];
+          if (s == null || s.length != tmp.length()) return false;
+          byte[] buf = tmp.getBuffer();
+          for (int i = 0, off = tmp.getOffset(); i < s.length; i++)
+            if (s[i] != buf[off + i]) return false;
+          return true;
+        case Vec.T_UUID: return _lo[r] == c.at16l(row) && _hi[r] == c.at16h(row);
+        default: return _d[r] == walkedValue(c, row, catMap);
+      }
+    }
+
+    private static double walkedValue(Chunk c, int row, int[] catMap) {
+      return catMap == null ? c.atd(row) : catMap[(int) c.at8(row)];
+    }
+
+    private static int hash(double d) {
+      return Long.hashCode(Double.doubleToLongBits(d == 0 ? 0 : d)); // -0.0 == 0.0
+    }
+
+    private static int hash(byte[] buf, int off, int len) {
+      int h = 0;
+      for (int i = off; i < off + len; i++)
+        h = 31 * h + buf[i];
+      return h;
+    }
+
+    void addTo(NewChunk nc, int r) {
+      switch (_type) {
+        case Vec.T_STR:
+          if (_s[r] == null) nc.addNA();
+          else nc.addStr(new BufferedString(_s[r], 0, _s[r].length));
+          break;
+        case Vec.T_UUID: nc.addUUID(_lo[r], _hi[r]); break;
+        default:
+          if (Double.isNaN(_d[r])) nc.addNA();
+          else nc.addNum(_d[r]);
+      }
+    }
+  }
+
+  /**
+   * The hashed frame gathered into a single Iced object, small enough to travel with the
+   * join task to every node.  The hash index is rebuilt on each node.
+   */
+  static final class LookupTable extends Iced<LookupTable> {
+    int _nrows;
+    int _ncols;       // Leading join columns
+    Column[] _cols;   // All the columns of the hashed frame
+
+    // Index: open-addressing slots holding the first row of each distinct key,
+    // the other rows with the same key are chained in _next in the frame order
+    private transient int[] _slots;
+    private transient int[] _next;
+    transient boolean _dups;
+
+    static LookupTable collect(Frame hashed, int ncols) {
+      Column[][] chunks = new CollectTask(hashed.anyVec().nChunks()).doAll(hashed)._chunks;
+      LookupTable table = new LookupTable();
+      table._nrows = (int) hashed.numRows();
+      table._ncols = ncols;
+      table._cols = new Column[hashed.numCols()];
+      for (int c = 0; c < table._cols.length; c++) {
+        Column[] parts = new Column[chunks.length];
+        for (int i = 0; i < chunks.length; i++)
+          parts[i] = chunks[i][c];
+        table._cols[c] = Column.concat(parts, table._nrows);
+      }
+      return table;
+    }
+
+    private int hashRow(int r) {
+      int h = 0;
+      for (int c = 0; c < _ncols; c++)
+        h = 31 * h + _cols[c].hash(r);
+      return h ^ (h >>> 16);
+    }
+
+    private boolean keysEqual(int r1, int r2) {
+      for (int c = 0; c < _ncols; c++)
+        if (!_cols[c].equals(r1, r2)) return false;
+      return true;
+    }
+
+    private boolean hasNAKey(int r) {
+      for (int c = 0; c < _ncols; c++)
+        if (_cols[c].isNA(r)) return true;
+      return false;
+    }
+
+    void buildIndex() {
+      if (_slots != null) return;
+      int cap = 4;
+      while (cap < 2L * _nrows) cap <<= 1;
+      final int mask = cap - 1;
+      final int[] slots = new int[cap];
+      Arrays.fill(slots, -1);
+      final int[] next = new int[_nrows];
+      Arrays.fill(next, -1);
+      final int[] tail = new int[_nrows];
+      boolean dups = false;
+      rows:
+      for (int r = 0; r < _nrows; r++) {
+        if (hasNAKey(r)) continue;
+        int s = hashRow(r) & mask;
+        int head;
+        while ((head = slots[s]) != -1) {
+          if (keysEqual(head, r)) {
+            next[tail[head]] = r;
+            tail[head] = r;
+            dups = true;
+            continue rows;
+          }
+          s = (s + 1) & mask;
+        }
+        slots[s] = r;
+        tail[r] = r;
+      }
+      _next = next;
+      _dups = dups;
+      _slots = slots;
+    }
+
+    /** @return first hashed row matching the key of a walked row, or -1 */
+    int find(Chunk[] chks, int row, int[][] catMaps, BufferedString[] tmps) {
+      int h = 0;
+      for (int c = 0; c < _ncols; c++) {
+        if (chks[c].isNA(row)) return -1;
+        h = 31 * h + _cols[c].hash(chks[c], row, catMaps[c], tmps[c]);
+      }
+      h ^= h >>> 16;
+      final int mask = _slots.length - 1;
+      int s = h & mask;
+      int head;
+      probe:
+      while ((head = _slots[s]) != -1) {
+        s = (s + 1) & mask;
+        for (int c = 0; c < _ncols; c++)
+          if (!_cols[c].matches(head, chks[c], row, catMaps[c], tmps[c]))
+            continue probe;
+        return head;
+      }
+      return -1;
+    }
+
+    int next(int r) {
+      return _next[r];
+    }
+  }
+
+  // Gathers the hashed frame chunk by chunk
+  private static class CollectTask extends MRTask<CollectTask> {
+    Column[][] _chunks;
+
+    CollectTask(int nchunks) {
+      _chunks = new Column[nchunks][];
+    }
+
+    @Override
+    public void map(Chunk[] cs) {
+      Column[] cols = new Column[cs.length];
+      for (int c = 0; c < cs.length; c++)
+        cols[c] = Column.of(cs[c]);
+      _chunks[cs[0].cidx()] = cols;
+    }
+
+    @Override
+    public void reduce(CollectTask mrt) {
+      // Local map calls share the array (shallow clones), remote results come in their own copies
+      if (_chunks != mrt._chunks)
+        for (int i = 0; i < _chunks.length; i++)
+          if (_chunks[i] == null)
+            _chunks[i] = mrt._chunks[i];
+    }
+  }
+
+  // Streams the walked frame past the lookup table
+  private static class JoinTask extends MRTask<JoinTask> {
+    final LookupTable _table;
+    final int[][] _catMaps;
+    final boolean _allWalked;
+    final boolean _payloadOnly; // Output just the hashed columns, one row per walked row
+
+    JoinTask(LookupTable table, int[][] catMaps, boolean allWalked, boolean payloadOnly) {
+      _table = table;
+      _catMaps = catMaps;
+      _allWalked = allWalked;
+      _payloadOnly = payloadOnly;
+    }
+
+    @Override
+    protected void setupLocal() {
+      _table.buildIndex();
+    }
+
+    @Override
+    public void map(Chunk[] chks, NewChunk[] ncs) {
+      final LookupTable table = _table;
+      final int ncols = table._ncols;
+      final int nwalked = _payloadOnly ? 0 : chks.length;
+      final BufferedString[] tmps = new BufferedString[ncols];
+      for (int c = 0; c < ncols; c++) tmps[c] = new BufferedString();
+      final int len = chks[0]._len;
+      int runStart = 0; // Walked rows [runStart, row) are output once each and not copied yet
+      for (int row = 0; row < len; row++) {
+        int r = table.find(chks, row, _catMaps, tmps);
+        if (r == -1) {
+          if (!_allWalked) { // Inner join, row dropped
+            copyWalked(chks, ncs, nwalked, runStart, row);
+            runStart = row + 1;
+            continue;
+          }
+          for (int c = nwalked; c < ncs.length; c++) ncs[c].addNA();
+          continue;
+        }
+        for (int c = nwalked; c < ncs.length; c++) table._cols[ncols + c - nwalked].addTo(ncs[c], r);
+        if ((r = table.next(r)) == -1) continue;
+        // Duplicated key: the walked row is repeated once per further match
+        copyWalked(chks, ncs, nwalked, runStart, row + 1);
+        runStart = row + 1;
+        for (; r != -1; r = table.next(r)) {
+          copyWalked(chks, ncs, nwalked, row, row + 1);
+          for (int c = nwalked; c < ncs.length; c++) table._cols[ncols + c - nwalked].addTo(ncs[c], r);
+        }
+      }
+      copyWalked(chks, ncs, nwalked, runStart, len);
+    }
+
+    private static void copyWalked(Chunk[] chks, NewChunk[] ncs, int nwalked, int from, int to) {
+      if (from < to)
+        for (int c = 0; c < nwalked; c++) chks[c].extractRows(ncs[c], from, to);
+    }
+  }
+
+}
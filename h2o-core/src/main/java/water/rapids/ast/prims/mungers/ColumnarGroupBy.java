@@ -0,0 +1,485 @@
+package water.rapids.ast.prims.mungers;
+
+import water.AutoBuffer;
+import water.Iced;
+import water.MRTask;
+import water.MemoryManager;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+import water.rapids.ast.prims.mungers.AstGroup.AGG;
+import water.rapids.ast.prims.mungers.AstGroup.FCN;
+import water.rapids.ast.prims.mungers.AstGroup.NAHandling;
+import water.util.Log;
+
+import java.util.Arrays;
+
+/**
+ * Group-by engine keeping the groups in flat primitive arrays instead of one
+ * {@link AstGroup.G} object per group: group keys, aggregate accumulators and
+ * counts are stored column-like in <code>double[]</code>/<code>long[]</code>
+ * arrays indexed by a group id, groups are found through an open-addressing
+ * table of int slots.  A single categorical key doesn't need hashing at all,
+ * the slots are indexed directly by the level.
+ * <p>
+ * Handles numeric, time and categorical group-by columns and all the
+ * aggregates except median and mode, the other cases are left to
+ * {@link AstGroup}'s row-wise engine.  The output (group ordering, NA
+ * handling) is the same.
+ */
+final class ColumnarGroupBy {
+
+  private ColumnarGroupBy() {}
+
+  static boolean isSupported(Frame fr, int[] gbCols, AGG[] aggs) {
+    if (gbCols.length == 0)
+      return false;
+    for (int c : gbCols) {
+      Vec v = fr.vec(c);
+      if (!(v.isNumeric() || v.isCategorical() || v.isTime()))
+        return false;
+    }
+    for (AGG agg : aggs)
+      if (agg._fcn == FCN.median || agg._fcn == FCN.mode)
+        return false;
+    return true;
+  }
+
+  /** @return cardinality of the only group-by column if it is categorical, -1 otherwise */
+  static int singleCategoricalCardinality(Frame fr, int[] gbCols) {
+    return gbCols.length == 1 && fr.vec(gbCols[0]).isCategorical() ? fr.vec(gbCols[0]).cardinality() : -1;
+  }
+
+  static Frame groupBy(Frame fr, int[] gbCols, AGG[] aggs, String[] fcNames) {
+    long start = System.currentTimeMillis();
+    int catCardinality = singleCategoricalCardinality(fr, gbCols);
+    GroupTable groups = new GBTaskColumnar(gbCols, aggs, catCardinality).doAll(fr)._groups;
+    if (groups == null) // No chunks at all
+      groups = new GroupTable(gbCols.length, aggs, catCardinality, 0);
+    Log.info("Columnar Group By Task done in " + (System.currentTimeMillis() - start) / 1000. + " (s)");
+    int[] order = groups.sortedGroups();
+    return AstGroup.buildOutput(gbCols, aggs.length, fr, fcNames, order.length, new FillTask(groups, order));
+  }
+
+  /**
+   * Groups and their aggregates stored in flat arrays, group <code>g</code> has its key
+   * at <code>_keys[g*_nkeys ...]</code>, its accumulators at <code>_acc[g*_width ...]</code>
+   * and its per-aggregate counts at <code>_ns[g*_naggs ...]</code>.
+   */
+  static final class GroupTable extends Iced<GroupTable> {
+    private static final int EMPTY = -1;
+
+    AGG[] _aggs;
+    int _nkeys;
+    int _catCardinality;          // >= 0 for a single categorical key: direct-indexed slots, NA in the last one
+    int _size;
+    double[] _keys;
+    double[] _acc;
+    long[] _ns;
+
+    // Derived from the aggregates, not sent over the wire
+    private transient int _naggs;
+    private transient int _width;         // Number of accumulators of a group
+    private transient int[] _accOffsets;  // Offset of each aggregate in the accumulators of a group
+    private transient double[] _init;     // Initial accumulator values of a new group
+    // Rebuilt from the keys when needed
+    private transient int[] _slots;
+
+    GroupTable(int nkeys, AGG[] aggs, int catCardinality, int expectedSize) {
+      _aggs = aggs;
+      _nkeys = nkeys;
+      _catCardinality = catCardinality;
+      initLayout();
+      int cap = catCardinality >= 0 ? Math.min(catCardinality + 1, Math.max(expectedSize, 4)) : Math.max(expectedSize, 4);
+      _keys = MemoryManager.malloc8d(cap * nkeys);
+      _acc = MemoryManager.malloc8d(cap * _width);
+      _ns = MemoryManager.malloc8(cap * _naggs);
+      initSlots(cap);
+    }
+
+    // Copy of the groups [from, to) of a table, the slots are only rebuilt when needed
+    private GroupTable(GroupTable src, int from, int to) {
+      _aggs = src._aggs;
+      _nkeys = src._nkeys;
+      _catCardinality = src._catCardinality;
+      initLayout();
+      _size = to - from;
+      _keys = Arrays.copyOfRange(src._keys, from * _nkeys, to * _nkeys);
+      _acc = Arrays.copyOfRange(src._acc, from * _width, to * _width);
+      _ns = Arrays.copyOfRange(src._ns, from * _naggs, to * _naggs);
+    }
+
+    private void initLayout() {
+      _naggs = _aggs.length;
+      _accOffsets = new int[_naggs];
+      int width = 0;
+      for (int i = 0; i < _naggs; i++) {
+        _accOffsets[i] = width;
+        width += _aggs[i].initVal().length;
+      }
+      _width = width;
+      _init = new double[width];
+      for (int i = 0; i < _naggs; i++) {
+        double[] init = _aggs[i].initVal();
+        System.arraycopy(init, 0, _init, _accOffsets[i], init.length);
+      }
+    }
+
+    // Only the used part of the arrays goes over the wire
+    public final AutoBuffer write_impl(AutoBuffer ab) {
+      ab.putA(_aggs).put4(_nkeys).put4(_catCardinality).put4(_size);
+      ab.putA8d(Arrays.copyOf(_keys, _size * _nkeys));
+      ab.putA8d(Arrays.copyOf(_acc, _size * _width));
+      return ab.putA8(Arrays.copyOf(_ns, _size * _naggs));
+    }
+
+    public final GroupTable read_impl(AutoBuffer ab) {
+      _aggs = ab.getA(AGG.class);
+      _nkeys = ab.get4();
+      _catCardinality = ab.get4();
+      _size = ab.get4();
+      _keys = ab.getA8d();
+      _acc = ab.getA8d();
+      _ns = ab.getA8();
+      initLayout();
+      return this;
+    }
+
+    private void initSlots(int expectedSize) {
+      if (_catCardinality >= 0) {
+        _slots = MemoryManager.malloc4(_catCardinality + 1);
+      } else {
+        int cap = 4;
+        while (cap < expectedSize * 2) cap <<= 1;
+        _slots = MemoryManager.malloc4(cap);
+      }
+      Arrays.fill(_slots, EMPTY);
+      for (int g = 0; g < _size; g++)
+        _slots[slot(g)] = g;
+    }
+
+    private static long bits(double d) {
+      return Double.doubleToLongBits(d); // All NaNs are the same group
+    }
+
+    private static int mix(long h) {
+      h *= 0x9E3779B97F4A7C15L;
+      return (int) (h ^ (h >>> 32));
+    }
+
+    private int hash(double[] key, int off) {
+      long h = 0;
+      for (int k = 0; k < _nkeys; k++)
+        h = 31 * h + bits(key[off + k]);
+      return mix(h);
+    }
+
+    // Free slot for an existing group, used to rebuild the slots
+    private int slot(int g) {
+      if (_catCardinality >= 0)
+        return catSlot(_keys[g]);
+      int mask = _slots.length - 1;
+      int s = hash(_keys, g * _nkeys) & mask;
+      while (_slots[s] != EMPTY)
+        s = (s + 1) & mask;
+      return s;
+    }
+
+    private int catSlot(double d) {
+      return Double.isNaN(d) ? _catCardinality : (int) d;
+    }
+
+    private boolean keyEquals(int g, double[] key, int off) {
+      final int base = g * _nkeys;
+      for (int k = 0; k < _nkeys; k++)
+        if (bits(_keys[base + k]) != bits(key[off + k]))
+          return false;
+      return true;
+    }
+
+    private int newGroup(double[] key, int off) {
+      final int g = newGroup();
+      System.arraycopy(key, off, _keys, g * _nkeys, _nkeys);
+      return g;
+    }
+
+    private int newGroup() {
+      if (_size * _nkeys == _keys.length) {
+        int cap = Math.max(4, _size * 2);
+        if (_catCardinality >= 0) cap = Math.min(cap, _catCardinality + 1);
+        _keys = Arrays.copyOf(_keys, cap * _nkeys);
+        _acc = Arrays.copyOf(_acc, cap * _width);
+        _ns = Arrays.copyOf(_ns, cap * _naggs);
+      }
+      final int g = _size++;
+      System.arraycopy(_init, 0, _acc, g * _width, _width);
+      return g;
+    }
+
+    /** @return id of the group with a single-column key, the group is created if needed */
+    int findOrAdd(double d) {
+      assert _nkeys == 1;
+      if (_slots == null) initSlots(_size);
+      if (_catCardinality >= 0) {
+        final int s = catSlot(d);
+        int g = _slots[s];
+        if (g == EMPTY) {
+          _slots[s] = g = newGroup();
+          _keys[g] = d;
+        }
+        return g;
+      }
+      final long b = bits(d);
+      final int mask = _slots.length - 1;
+      int s = mix(b) & mask;
+      int g;
+      while ((g = _slots[s]) != EMPTY) {
+        if (bits(_keys[g]) == b)
+          return g;
+        s = (s + 1) & mask;
+      }
+      g = newGroup();
+      _keys[g] = d;
+      return inserted(s, g);
+    }
+
+    /** @return id of the group with the given key, the group is created if needed */
+    int findOrAdd(double[] key, int off) {
+      if (_slots == null) initSlots(_size);
+      if (_nkeys == 1)
+        return findOrAdd(key[off]);
+      final int mask = _slots.length - 1;
+      int s = hash(key, off) & mask;
+      int g;
+      while ((g = _slots[s]) != EMPTY) {
+        if (keyEquals(g, key, off))
+          return g;
+        s = (s + 1) & mask;
+      }
+      return inserted(s, newGroup(key, off));
+    }
+
+    private int inserted(int s, int g) {
+      _slots[s] = g;
+      if (_size * 2 > _slots.length) // Keep the load factor under 1/2
+        initSlots(_size);
+      return g;
+    }
+
+    /** Accumulates the values of an aggregated column for the rows of a chunk. */
+    void accumulate(int a, int[] gids, double[] vals, int len) {
+      final AGG agg = _aggs[a];
+      final boolean opNA = agg._na == NAHandling.ALL;
+      final boolean countNA = agg._na == NAHandling.IGNORE;
+      final int off = _accOffsets[a];
+      final double[] acc = _acc;
+      final long[] ns = _ns;
+      for (int r = 0; r < len; r++) {
+        final double d = vals[r];
+        final boolean na = Double.isNaN(d);
+        final int g = gids[r];
+        if (!na || countNA) ns[g * _naggs + a]++;
+        if (na && !opNA) continue;
+        final int i = g * _width + off;
+        switch (agg._fcn) {
+          case nrow: acc[i]++; break;
+          case mean:
+          case sum: acc[i] += d; break;
+          case sumSquares: acc[i] += d * d; break;
+          case var:
+          case sdev: acc[i] += d * d; acc[i + 1] += d; break;
+          case min: acc[i] = Math.min(acc[i], d); break;
+          case max: acc[i] = Math.max(acc[i], d); break;
+          default: throw new IllegalStateException("Unsupported aggregate " + agg._fcn);
+        }
+      }
+    }
+
+    /** Merges the groups of another table into this one. */
+    void merge(GroupTable that) {
+      merge(that, null, -1);
+    }
+
+    /** Merges the groups of another table which belong to the given partition into this one. */
+    void merge(GroupTable that, int[] partitions, int part) {
+      for (int h = 0; h < that._size; h++) {
+        if (partitions != null && partitions[h] != part) continue;
+        final int g = findOrAdd(that._keys, h * _nkeys);
+        for (int a = 0; a < _naggs; a++) {
+          _ns[g * _naggs + a] += that._ns[h * _naggs + a];
+          final int i = g * _width + _accOffsets[a], j = h * _width + _accOffsets[a];
+          switch (_aggs[a]._fcn) {
+            case min: _acc[i] = Math.min(_acc[i], that._acc[j]); break;
+            case max: _acc[i] = Math.max(_acc[i], that._acc[j]); break;
+            case var:
+            case sdev: _acc[i + 1] += that._acc[j + 1]; // fall through
+            default: _acc[i] += that._acc[j];
+          }
+        }
+      }
+    }
+
+    /**
+     * @return partition of each group, the same key always lands in the same partition.
+     * Uses the high bits of the hash, the low ones index the slots of the partition's table.
+     */
+    int[] partitions(int nparts) {
+      final int[] parts = new int[_size];
+      for (int g = 0; g < _size; g++)
+        parts[g] = Math.floorMod(Integer.reverse(hash(_keys, g * _nkeys)), nparts);
+      return parts;
+    }
+
+    /** @return the groups [from, to) of this table, numbered from 0 */
+    GroupTable slice(int from, int to) {
+      return new GroupTable(this, from, to);
+    }
+
+    /** Appends the key and the aggregate results of a group as a new output row. */
+    void writeGroup(int g, NewChunk[] ncs, double[] tmp) {
+      int j = 0;
+      for (int k = 0; k < _nkeys; k++)
+        ncs[j++].addNum(_keys[g * _nkeys + k]);
+      for (int a = 0; a < _naggs; a++)
+        ncs[j++].addNum(result(g, a, tmp));
+    }
+
+    double result(int g, int a, double[] tmp) {
+      System.arraycopy(_acc, g * _width + _accOffsets[a], tmp, 0, _aggs[a].initVal().length);
+      return _aggs[a]._fcn.postPass(tmp, _ns[g * _naggs + a]);
+    }
+
+    private int compareGroups(int g1, int g2) {
+      for (int k = 0; k < _nkeys; k++) {
+        final double d1 = _keys[g1 * _nkeys + k], d2 = _keys[g2 * _nkeys + k];
+        // NaN is treated as least
+        if (Double.isNaN(d1) && !Double.isNaN(d2)) return -1;
+        if (!Double.isNaN(d1) && Double.isNaN(d2)) return 1;
+        if (d1 != d2) return d1 < d2 ? -1 : 1;
+      }
+      return 0;
+    }
+
+    /** @return group ids ordered by their keys, the same ordering as {@link AstGroup} */
+    int[] sortedGroups() {
+      final int[] order = new int[_size];
+      for (int g = 0; g < _size; g++) order[g] = g;
+      sort(order, 0, _size - 1);
+      return order;
+    }
+
+    // Quicksort of the group ids, no boxing (there can be many millions of groups)
+    private void sort(int[] a, int lo, int hi) {
+      while (hi - lo > 16) {
+        final int mid = (lo + hi) >>> 1;
+        if (compareGroups(a[mid], a[lo]) < 0) swap(a, lo, mid);
+        if (compareGroups(a[hi], a[lo]) < 0) swap(a, lo, hi);
+        if (compareGroups(a[hi], a[mid]) < 0) swap(a, mid, hi);
+        final int pivot = a[mid];
+        int i = lo, j = hi;
+        while (i <= j) {
+          while (compareGroups(a[i], pivot) < 0) i++;
+          while (compareGroups(a[j], pivot) > 0) j--;
+          if (i <= j) swap(a, i++, j--);
+        }
+        // Recurse into the smaller part, loop on the larger one
+        if (j - lo < hi - i) {
+          sort(a, lo, j);
+          lo = i;
+        } else {
+          sort(a, i, hi);
+          hi = j;
+        }
+      }
+      for (int i = lo + 1; i <= hi; i++)
+        for (int j = i; j > lo && compareGroups(a[j], a[j - 1]) < 0; j--)
+          swap(a, j, j - 1);
+    }
+
+    private static void swap(int[] a, int i, int j) {
+      int t = a[i]; a[i] = a[j]; a[j] = t;
+    }
+  }
+
+  /** @return groups of the rows of a single chunk */
+  static GroupTable aggregateChunk(Chunk[] cs, int[] gbCols, AGG[] aggs, int catCardinality) {
+    final int len = cs[0]._len;
+    final int nkeys = gbCols.length;
+    final GroupTable groups = new GroupTable(nkeys, aggs, catCardinality, Math.min(len, 1024));
+    final int[] gids = new int[len];
+    final double[] vals = new double[len];
+    if (nkeys == 1) {
+      cs[gbCols[0]].getDoubles(vals, 0, len);
+      for (int r = 0; r < len; r++)
+        gids[r] = groups.findOrAdd(vals[r]);
+    } else {
+      // Row-major keys, decoded column by column
+      final double[] keys = new double[len * nkeys];
+      for (int k = 0; k < nkeys; k++) {
+        cs[gbCols[k]].getDoubles(vals, 0, len);
+        for (int r = 0; r < len; r++)
+          keys[r * nkeys + k] = vals[r];
+      }
+      for (int r = 0; r < len; r++)
+        gids[r] = groups.findOrAdd(keys, r * nkeys);
+    }
+    for (int a = 0; a < aggs.length; a++) {
+      cs[aggs[a]._col].getDoubles(vals, 0, len);
+      groups.accumulate(a, gids, vals, len);
+    }
+    return groups;
+  }
+
+  // One pass over the data, each map call builds its own table of groups and the tables are merged in reduce
+  private static class GBTaskColumnar extends MRTask<GBTaskColumnar> {
+    final int[] _gbCols;
+    final AGG[] _aggs;
+    final int _catCardinality;
+    GroupTable _groups;
+
+    GBTaskColumnar(int[] gbCols, AGG[] aggs, int catCardinality) {
+      _gbCols = gbCols;
+      _aggs = aggs;
+      _catCardinality = catCardinality;
+    }
+
+    @Override
+    public void map(Chunk[] cs) {
+      _groups = aggregateChunk(cs, _gbCols, _aggs, _catCardinality);
+    }
+
+    @Override
+    public void reduce(GBTaskColumnar t) {
+      if (_groups == null) {
+        _groups = t._groups;
+      } else if (t._groups != null) {
+        // Merge the smaller table into the larger one
+        if (_groups._size < t._groups._size) {
+          GroupTable tmp = _groups; _groups = t._groups; t._groups = tmp;
+        }
+        _groups.merge(t._groups);
+      }
+    }
+  }
+
+  // Writes out one row per group, in the given order
+  private static class FillTask extends MRTask<FillTask> {
+    final GroupTable _groups;
+    final int[] _order;
+
+    FillTask(GroupTable groups, int[] order) {
+      _groups = groups;
+      _order = order;
+    }
+
+    @Override
+    public void map(Chunk[] c, NewChunk[] ncs) {
+      final int start = (int) c[0].start();
+      final double[] tmp = new double[2];
+      for (int i = 0; i < c[0]._len; ++i)
+        _groups.writeGroup(_order[i + start], ncs, tmp);
+    }
+  }
+
+}
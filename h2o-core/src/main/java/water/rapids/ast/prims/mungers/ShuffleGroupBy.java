@@ -0,0 +1,329 @@
+package water.rapids.ast.prims.mungers;
+
+import water.*;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+import water.rapids.Merge;
+import water.rapids.ast.prims.mungers.AstGroup.AGG;
+import water.rapids.ast.prims.mungers.ColumnarGroupBy.GroupTable;
+import water.util.ArrayUtils;
+import water.util.Log;
+
+import java.util.Arrays;
+
+/**
+ * Group-by for keys of high cardinality, where collecting all the groups on a
+ * single node up the MRTask reduce tree is both the bottleneck and the OOM point.
+ * <p>
+ * The groups are shuffled instead:
+ * <ol>
+ *   <li>each node aggregates its own chunks and hash-partitions the partial groups
+ *   by key, one partition per node; the partitions are pushed to their owner nodes
+ *   through the DKV (the same way {@link water.rapids.SplitByMSBLocal} sends its
+ *   MSB batches)</li>
+ *   <li>every owner merges the partial groups of its partition</li>
+ *   <li>the output is written in parallel, each node fills the chunks homed on it
+ *   from its own partition; when the partitions are skewed, the chunks homed on
+ *   nodes with nothing left to write get slices of the larger partitions</li>
+ *   <li>the result is radix-sorted by the group-by columns, so the groups come
+ *   out in the same order as from the other engines</li>
+ * </ol>
+ * Same scope as {@link ColumnarGroupBy}, whose flat group tables are reused here.
+ */
+final class ShuffleGroupBy {
+
+  private ShuffleGroupBy() {}
+
+  /**
+   * @return true if the grouping can produce at least <code>minGroups</code> groups,
+   * and there are multiple nodes to share them
+   */
+  static boolean isWorthIt(Frame fr, int[] gbCols, long minGroups) {
+    if (H2O.CLOUD.size() < 2)
+      return false;
+    long maxGroups = 1; // Upper bound, only known for categorical keys
+    for (int c : gbCols) {
+      Vec v = fr.vec(c);
+      if (!v.isCategorical()) return fr.numRows() >= minGroups;
+      maxGroups *= v.cardinality() + 1;
+      if (maxGroups >= minGroups) break;
+    }
+    return Math.min(maxGroups, fr.numRows()) >= minGroups;
+  }
+
+  static Frame groupBy(Frame fr, int[] gbCols, AGG[] aggs, String[] fcNames) {
+    final int nparts = H2O.CLOUD.size();
+    final int catCardinality = ColumnarGroupBy.singleCategoricalCardinality(fr, gbCols);
+    final String id = Key.make().toString();
+    try {
+      long start = System.currentTimeMillis();
+      new PartitionTask(id, gbCols, aggs, catCardinality, nparts).doAll(fr);
+      Log.info("Shuffle Group By: partial groups partitioned in " + (System.currentTimeMillis() - start) / 1000. + " (s)");
+      start = System.currentTimeMillis();
+      final long[] sizes = new MergePartitionsTask(id, nparts).doAllNodes()._sizes;
+      Log.info("Shuffle Group By: " + ArrayUtils.sum(sizes) + " groups merged in " + (System.currentTimeMillis() - start) / 1000. + " (s)");
+
+      Frame res = writeOutput(id, gbCols, aggs.length, fr, fcNames, sizes);
+      if (res.numRows() == 0)
+        return res;
+      try {
+        return Merge.sort(res, ArrayUtils.seq(0, gbCols.length));
+      } finally {
+        res.delete();
+      }
+    } finally {
+      new CleanupTask(id, nparts).doAllNodes();
+    }
+  }
+
+  // Partial groups of partition "part" from node "node", homed on the owner of the partition
+  private static Key partialKey(String id, int part, int node) {
+    return Key.make("__groupby_shuffle_" + id + "_part" + part + "_node" + node,
+            (byte) 1, Key.HIDDEN_USER_KEY, false, H2O.CLOUD._memary[part]);
+  }
+
+  // Merged groups of partition "part", homed on its owner
+  private static Key partitionKey(String id, int part) {
+    return Key.make("__groupby_shuffle_" + id + "_part" + part,
+            (byte) 1, Key.HIDDEN_USER_KEY, false, H2O.CLOUD._memary[part]);
+  }
+
+  // Groups of output chunk "cidx" which is not homed on the owner of its partition, homed on the node of the chunk
+  private static Key sliceKey(String id, int cidx, int node) {
+    return Key.make("__groupby_shuffle_" + id + "_chunk" + cidx,
+            (byte) 1, Key.HIDDEN_USER_KEY, false, H2O.CLOUD._memary[node]);
+  }
+
+  // Partition p is owned by node p, lay the chunks out so that they are homed on the owners of their rows.
+  // Once a node has written its partition, the chunks homed on it take rows of the largest partition left,
+  // so that skewed partitions neither leave empty chunks behind nor get written by a single node.
+  private static Frame writeOutput(String id, int[] gbCols, int noutCols, Frame fr, String[] fcNames, long[] sizes) {
+    final long total = ArrayUtils.sum(sizes);
+    if (total == 0)
+      return AstGroup.buildOutput(gbCols, noutCols, fr, fcNames, 0, new FillTask(id, new int[0], new long[0], new boolean[0]));
+
+    // Several chunks per node, so that each node writes its part with all of its threads
+    final long chunkRows = Math.max(1 << 10, total / (4L * H2O.ARGS.nthreads * sizes.length) + 1);
+    final Vec.VectorGroup vg = new Vec.VectorGroup();
+    final Key<Vec> probe = vg.vecKey(0);
+    final long[] remaining = sizes.clone();
+    long[] espc = new long[16];
+    int[] chunkPart = new int[16];
+    long[] chunkStart = new long[16];
+    boolean[] chunkSliced = new boolean[16];
+    int nchunks = 0;
+    long rows = 0, left = total;
+    while (left > 0) {
+      if (nchunks + 1 == espc.length) {
+        espc = Arrays.copyOf(espc, espc.length * 2);
+        chunkPart = Arrays.copyOf(chunkPart, chunkPart.length * 2);
+        chunkStart = Arrays.copyOf(chunkStart, chunkStart.length * 2);
+        chunkSliced = Arrays.copyOf(chunkSliced, chunkSliced.length * 2);
+      }
+      int home = Vec.chunkKey(probe, nchunks).home_node().index();
+      int part = remaining[home] > 0 ? home : ArrayUtils.maxIndex(remaining);
+      long len = Math.min(chunkRows, remaining[part]);
+      chunkPart[nchunks] = part;
+      chunkStart[nchunks] = sizes[part] - remaining[part];
+      chunkSliced[nchunks] = part != home;
+      remaining[part] -= len;
+      left -= len;
+      rows += len;
+      espc[++nchunks] = rows;
+    }
+    espc = Arrays.copyOf(espc, nchunks + 1);
+    chunkPart = Arrays.copyOf(chunkPart, nchunks);
+    chunkStart = Arrays.copyOf(chunkStart, nchunks);
+    chunkSliced = Arrays.copyOf(chunkSliced, nchunks);
+    Vec layout = Vec.makeCon(0, null, vg, Vec.ESPC.rowLayout(probe, espc));
+    try {
+      new SliceTask(id, chunkPart, chunkStart, chunkSliced, espc, probe).doAllNodes();
+      FillTask fill = new FillTask(id, chunkPart, chunkStart, chunkSliced);
+      return AstGroup.buildOutput(gbCols, noutCols, fr, fcNames, layout, fill);
+    } finally {
+      Futures fs = new Futures();
+      for (int cidx = 0; cidx < nchunks; cidx++)
+        if (chunkSliced[cidx])
+          DKV.remove(sliceKey(id, cidx, Vec.chunkKey(probe, cidx).home_node().index()), fs);
+      fs.blockForPending();
+      layout.remove();
+    }
+  }
+
+  // Aggregates the chunks of each node and sends the partial groups to the owners of their partitions
+  private static class PartitionTask extends MRTask<PartitionTask> {
+    final String _id;
+    final int[] _gbCols;
+    final AGG[] _aggs;
+    final int _catCardinality;
+    final int _nparts;
+    // Node-local partial groups, shared by all the map calls on the node, one table per partition
+    private transient GroupTable[] _parts;
+
+    PartitionTask(String id, int[] gbCols, AGG[] aggs, int catCardinality, int nparts) {
+      _id = id;
+      _gbCols = gbCols;
+      _aggs = aggs;
+      _catCardinality = catCardinality;
+      _nparts = nparts;
+    }
+
+    @Override
+    protected void setupLocal() {
+      _parts = new GroupTable[_nparts];
+      for (int p = 0; p < _nparts; p++)
+        _parts[p] = new GroupTable(_gbCols.length, _aggs, _catCardinality, 0);
+    }
+
+    @Override
+    public void map(Chunk[] cs) {
+      GroupTable groups = ColumnarGroupBy.aggregateChunk(cs, _gbCols, _aggs, _catCardinality);
+      int[] partitions = groups.partitions(_nparts);
+      for (int p = 0; p < _nparts; p++) {
+        GroupTable part = _parts[p];
+        synchronized (part) {
+          part.merge(groups, partitions, p);
+        }
+      }
+    }
+
+    @Override
+    protected void closeLocal() {
+      // Need dontCache==true, so the partial groups do not remain both locally and on the owner
+      for (int p = 0; p < _nparts; p++)
+        if (_parts[p]._size > 0)
+          DKV.put(partialKey(_id, p, H2O.SELF.index()), _parts[p], _fs, true);
+      _parts = null;
+    }
+  }
+
+  // Each owner merges the partial groups of its partition, the merged groups stay on the owner
+  private static class MergePartitionsTask extends MRTask<MergePartitionsTask> {
+    final String _id;
+    final int _nparts;
+    // output
+    long[] _sizes;
+
+    MergePartitionsTask(String id, int nparts) {
+      _id = id;
+      _nparts = nparts;
+    }
+
+    @Override
+    protected void setupLocal() {
+      final int p = H2O.SELF.index();
+      _sizes = new long[_nparts];
+      if (p >= _nparts)
+        return;
+      GroupTable merged = null;
+      for (int node = 0; node < _nparts; node++) {
+        Key k = partialKey(_id, p, node);
+        GroupTable groups = DKV.getGet(k);
+        if (groups == null) continue;
+        DKV.remove(k, _fs);
+        if (merged == null) {
+          merged = groups;
+        } else if (merged._size < groups._size) {
+          groups.merge(merged);
+          merged = groups;
+        } else {
+          merged.merge(groups);
+        }
+      }
+      if (merged != null) {
+        DKV.put(partitionKey(_id, p), merged, _fs);
+        _sizes[p] = merged._size;
+      }
+    }
+
+    @Override
+    public void reduce(MergePartitionsTask mrt) {
+      ArrayUtils.add(_sizes, mrt._sizes);
+    }
+  }
+
+  // Each owner sends the groups of the chunks not homed on it to the nodes of those chunks
+  private static class SliceTask extends MRTask<SliceTask> {
+    final String _id;
+    final int[] _chunkPart;
+    final long[] _chunkStart;
+    final boolean[] _chunkSliced;
+    final long[] _espc;
+    final Key<Vec> _probe;
+
+    SliceTask(String id, int[] chunkPart, long[] chunkStart, boolean[] chunkSliced, long[] espc, Key<Vec> probe) {
+      _id = id;
+      _chunkPart = chunkPart;
+      _chunkStart = chunkStart;
+      _chunkSliced = chunkSliced;
+      _espc = espc;
+      _probe = probe;
+    }
+
+    @Override
+    protected void setupLocal() {
+      final int p = H2O.SELF.index();
+      GroupTable groups = null;
+      for (int cidx = 0; cidx < _chunkPart.length; cidx++) {
+        if (!_chunkSliced[cidx] || _chunkPart[cidx] != p) continue;
+        if (groups == null) groups = DKV.getGet(partitionKey(_id, p));
+        int from = (int) _chunkStart[cidx];
+        int to = from + (int) (_espc[cidx + 1] - _espc[cidx]);
+        int node = Vec.chunkKey(_probe, cidx).home_node().index();
+        DKV.put(sliceKey(_id, cidx, node), groups.slice(from, to), _fs, true);
+      }
+    }
+  }
+
+  // Writes the groups of each partition into the output chunks homed on its owner, or from their slices
+  private static class FillTask extends MRTask<FillTask> {
+    final String _id;
+    final int[] _chunkPart;      // Partition written by each chunk
+    final long[] _chunkStart;    // First group of the partition written by each chunk
+    final boolean[] _chunkSliced; // Chunk not homed on the owner of its partition, written from its own slice
+
+    FillTask(String id, int[] chunkPart, long[] chunkStart, boolean[] chunkSliced) {
+      _id = id;
+      _chunkPart = chunkPart;
+      _chunkStart = chunkStart;
+      _chunkSliced = chunkSliced;
+    }
+
+    @Override
+    public void map(Chunk[] c, NewChunk[] ncs) {
+      final int cidx = c[0].cidx();
+      final int len = c[0]._len;
+      if (len == 0) return;
+      final GroupTable groups = DKV.getGet(_chunkSliced[cidx] ? sliceKey(_id, cidx, H2O.SELF.index())
+              : partitionKey(_id, _chunkPart[cidx]));
+      final int start = _chunkSliced[cidx] ? 0 : (int) _chunkStart[cidx];
+      final double[] tmp = new double[2];
+      for (int i = 0; i < len; i++)
+        groups.writeGroup(start + i, ncs, tmp);
+    }
+  }
+
+  // Drops whatever is left in the DKV, also after a failure
+  private static class CleanupTask extends MRTask<CleanupTask> {
+    final String _id;
+    final int _nparts;
+
+    CleanupTask(String id, int nparts) {
+      _id = id;
+      _nparts = nparts;
+    }
+
+    @Override
+    protected void setupLocal() {
+      final int p = H2O.SELF.index();
+      if (p >= _nparts)
+        return;
+      DKV.remove(partitionKey(_id, p), _fs);
+      for (int node = 0; node < _nparts; node++)
+        DKV.remove(partialKey(_id, p, node), _fs);
+    }
+  }
+
+}
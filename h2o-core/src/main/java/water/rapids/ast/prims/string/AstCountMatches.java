@@ -10,6 +10,8 @@ import water.rapids.ast.AstPrimitive;
 import water.rapids.ast.AstRoot;
 import water.rapids.ast.params.AstStrList;
 
+import java.nio.charset.StandardCharsets;
+
 /**
  * Accepts a frame with a single string column, and a substring to look for in the target.
  * Returns a new integer column containing the countMatches result for each string in the
@@ -88,12 +90,21 @@ public class AstCountMatches extends AstPrimitive {
 
   private Vec countMatchesStringCol(Vec vec, String[] pat) {
     final String[] pattern = pat;
+    boolean byteMatchable = true;
+    final byte[][] patternBytes = new byte[pattern.length][];
+    for (int i = 0; i < pattern.length; i++) {
+      byteMatchable &= CStrChunk.isByteMatchable(pattern[i]);
+      patternBytes[i] = pattern[i].getBytes(StandardCharsets.UTF_8);
+    }
+    final boolean literal = byteMatchable;
     return new MRTask() {
       @Override
       public void map(Chunk chk, NewChunk newChk) {
         if (chk instanceof C0DChunk) // all NAs
           for (int i = 0; i < chk.len(); i++)
             newChk.addNA();
+        else if (literal) // fast-path operations
+          ((CStrChunk) chk).literalCountMatches(newChk, patternBytes);
         else {
           BufferedString tmpStr = new BufferedString();
           for (int i = 0; i < chk._len; ++i) {
@@ -2,6 +2,7 @@ package water.rapids.ast.prims.string;
 
 import water.Iced;
 import water.MRTask;
+import water.fvec.CStrChunk;
 import water.fvec.Chunk;
 import water.fvec.Frame;
 import water.fvec.NewChunk;
@@ -10,6 +11,7 @@ import water.parser.BufferedString;
 import water.rapids.Val;
 import water.rapids.ast.AstBuiltin;
 import water.rapids.vals.ValFrame;
+import water.util.StringUtils;
 
 import java.util.Arrays;
 import java.util.regex.Matcher;
@@ -118,6 +120,15 @@ public class AstGrep extends AstBuiltin<AstGrep> {
     @Override
     public void map(Chunk c, NewChunk n) {
       OutputWriter w = OutputWriter.makeWriter(_gh, n, c.start());
+      byte[] literal = c instanceof CStrChunk ? _gh.literalBytes((CStrChunk) c) : null;
+      if (literal != null) { // fast-path, match on the bytes
+        CStrChunk cs = (CStrChunk) c;
+        for (int r = 0; r < c._len; r++) {
+          if (c.isNA(r)) w.addNA(r);
+          else w.addRow(r, cs.containsLiteral(r, literal, _gh._ignoreCase));
+        }
+        return;
+      }
       Pattern p = _gh.compilePattern();
       Matcher m = p.matcher("");
       BufferedString bs = new BufferedString();
@@ -153,6 +164,15 @@ public class AstGrep extends AstBuiltin<AstGrep> {
       return Pattern.compile(_regex, flags);
     }
 
+    // The regex as UTF-8 bytes, if it can be matched directly on the bytes of the chunk; otherwise null
+    byte[] literalBytes(CStrChunk c) {
+      if (!StringUtils.isLiteralRegex(_regex) || !CStrChunk.isByteMatchable(_regex))
+        return null;
+      byte[] bytes = StringUtils.bytesOf(_regex);
+      boolean asciiRegex = bytes.length == _regex.length();
+      return !_ignoreCase || (asciiRegex && c._isAllASCII) ? bytes : null;
+    }
+
   }
 
   private static abstract class OutputWriter {
@@ -8,6 +8,7 @@ import water.rapids.Val;
 import water.rapids.vals.ValFrame;
 import water.rapids.ast.AstPrimitive;
 import water.rapids.ast.AstRoot;
+import water.util.StringUtils;
 import water.util.VecUtils;
 
 import java.util.HashSet;
@@ -94,16 +95,20 @@ public class AstReplaceFirst extends AstPrimitive {
     final String pattern = pat;
     final String replacement = rep;
     final boolean ignoreCase = ic;
+    // Literal patterns and replacements are handled on the UTF-8 bytes directly
+    final boolean literal = !pattern.isEmpty() && StringUtils.isLiteralRegex(pattern) && CStrChunk.isByteMatchable(pattern)
+        && replacement.indexOf('$') < 0 && replacement.indexOf('\\') < 0;
+    final byte[] patternBytes = StringUtils.bytesOf(pattern);
+    final byte[] replacementBytes = StringUtils.bytesOf(replacement);
     return new MRTask() {
       @Override
       public void map(Chunk chk, NewChunk newChk) {
         if (chk instanceof C0DChunk) // all NAs
           for (int i = 0; i < chk.len(); i++)
             newChk.addNA();
-        else {
-//        if (((CStrChunk)chk)._isAllASCII) { // fast-path operations
-//          ((CStrChunk) chk).asciiReplaceFirst(newChk);
-//        } else { //UTF requires Java string methods for accuracy
+        else if (literal && (!ignoreCase || ((CStrChunk) chk)._isAllASCII)) { // fast-path operations
+          ((CStrChunk) chk).literalReplace(newChk, patternBytes, replacementBytes, false, ignoreCase);
+        } else { // regex requires Java string methods
           BufferedString tmpStr = new BufferedString();
           final Pattern compiledPattern = Pattern.compile(pattern);
           for (int i = 0; i < chk._len; i++) {
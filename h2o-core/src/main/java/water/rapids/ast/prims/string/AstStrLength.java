@@ -2,7 +2,6 @@ package water.rapids.ast.prims.string;
 
 import water.MRTask;
 import water.fvec.*;
-import water.parser.BufferedString;
 import water.rapids.Env;
 import water.rapids.Val;
 import water.rapids.vals.ValFrame;
@@ -91,12 +90,8 @@ public class AstStrLength extends AstPrimitive {
             newChk.addNA();
         } else if (((CStrChunk) chk)._isAllASCII) { // fast-path operations
           ((CStrChunk) chk).asciiLength(newChk);
-        } else { //UTF requires Java string methods for accuracy
-          BufferedString tmpStr = new BufferedString();
-          for (int i = 0; i < chk._len; i++) {
-            if (chk.isNA(i)) newChk.addNA();
-            else newChk.addNum(chk.atStr(tmpStr, i).toString().length(), 0);
-          }
+        } else { // UTF-8 code points counted on the bytes
+          ((CStrChunk) chk).utf8Length(newChk);
         }
       }
     }.doAll(new byte[]{Vec.T_NUM}, vec).outputFrame().anyVec();
@@ -13,6 +13,11 @@ abstract public class CFuncTask<T extends CFunc, S extends CFuncTask<T,S>> exten
   public CFuncTask(CFuncRef cFuncRef) {
     this.cFuncRef = cFuncRef;
   }
+
+  protected CFuncTask(CFuncRef cFuncRef, byte priority) {
+    super(priority);
+    this.cFuncRef = cFuncRef;
+  }
   
   @Override
   protected void setupLocal() {
@@ -16,7 +16,7 @@ public class CompressionFactory extends Iced<CompressionFactory> {
     _name = name;
   }
 
-  OutputStream wrapOutputStream(OutputStream os) throws IOException {
+  public OutputStream wrapOutputStream(OutputStream os) throws IOException {
     final String n = _name.toLowerCase();
     switch (n) {
       case "gzip":
@@ -30,6 +30,27 @@ public class CompressionFactory extends Iced<CompressionFactory> {
     }
   }
 
+  /**
+   * Compressed streams of consecutive parts of the data can be concatenated into a valid (multi-member) compressed
+   * stream of the whole data only for some compression methods.
+   *
+   * @return file extension of the compression method if it supports concatenation, null otherwise
+   */
+  public String concatenableExtension() {
+    switch (_name.toLowerCase()) {
+      case "gzip":
+        return ".gz";
+      case "bzip2":
+        return ".bz2";
+      default:
+        return null;
+    }
+  }
+
+  public String getName() {
+    return _name;
+  }
+
   private OutputStream wrapDynamic(String className, OutputStream os) {
     try {
       Class<?> cls = Class.forName(className);
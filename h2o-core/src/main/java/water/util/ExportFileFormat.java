@@ -0,0 +1,9 @@
+package water.util;
+
+/**
+ * File formats a Frame can be exported to, see {@link water.fvec.Frame#export}.
+ */
+public enum ExportFileFormat {
+  csv,
+  parquet
+}
@@ -190,6 +190,18 @@ public class StringUtils {
     return res;
   }
 
+  /**
+   * Test whether a regular expression has no special characters, ie. it only matches itself.
+   * @param regex regular expression
+   * @return True if the regex can be matched as a literal string
+   */
+  public static boolean isLiteralRegex(String regex) {
+    for (int i = 0; i < regex.length(); i++)
+      if ("\\^$.|?*+()[]{}".indexOf(regex.charAt(i)) >= 0)
+        return false;
+    return true;
+  }
+
   public static byte[] bytesOf(CharSequence str) {
     return str.toString().getBytes(Charset.forName("UTF-8"));
   }
@@ -14,8 +14,11 @@ public class CoreServletProvider implements ServletProvider {
     new ServletMeta("/3/PostFile", PostFileServlet.class),
     new ServletMeta("/3/DownloadDataset", DatasetServlet.class),
     new ServletMeta("/3/DownloadDataset.bin", DatasetServlet.class),
+    new ServletMeta("/3/DownloadDataset.arrow", DatasetServlet.class),
     new ServletMeta("/3/PutKey.bin", PutKeyServlet.class),
     new ServletMeta("/3/PutKey", PutKeyServlet.class),
+    new ServletMeta("/3/Metrics", MetricsServlet.class),
+    new ServletMeta("/metrics", MetricsServlet.class),
     new ServletMeta("/", RequestServer.class)
   ));
 
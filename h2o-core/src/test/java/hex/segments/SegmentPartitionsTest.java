@@ -0,0 +1,83 @@
+package hex.segments;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.Key;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+
+import static org.junit.Assert.*;
+
+public class SegmentPartitionsTest extends TestUtil {
+
+  @BeforeClass
+  public static void setup() {
+    stall_till_cloudsize(1);
+  }
+
+  @Test
+  public void testPartitionsKeepRowOrderAndMatchNAs() {
+    try {
+      Scope.enter();
+      Frame fr = new TestFrameBuilder()
+              .withColNames("segment", "x")
+              .withVecTypes(Vec.T_NUM, Vec.T_NUM)
+              .withDataForCol(0, ard(1, 2, Double.NaN, 1, 2, 1, 3))
+              .withDataForCol(1, ard(0, 1, 2, 3, 4, 5, 6))
+              .withChunkLayout(2, 3, 2)
+              .build();
+      Frame segments = new TestFrameBuilder()
+              .withColNames("segment")
+              .withVecTypes(Vec.T_NUM)
+              .withDataForCol(0, ard(1, 2, Double.NaN, 4))
+              .build();
+
+      SegmentPartitions partitions = SegmentPartitions.make(fr, segments);
+      try {
+        double[][] expected = {{0, 3, 5}, {1, 4}, {2}, {}};
+        for (int s = 0; s < expected.length; s++) {
+          Frame segment = Scope.track(partitions.makeFrame(fr, s, Key.make()));
+          assertEquals(expected[s].length, segment.numRows());
+          for (int i = 0; i < expected[s].length; i++)
+            assertEquals(expected[s][i], segment.vec("x").at(i), 0);
+        }
+      } finally {
+        partitions.remove();
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testNegativeZeroMatchesZero() {
+    try {
+      Scope.enter();
+      Frame fr = new TestFrameBuilder()
+              .withColNames("segment", "x")
+              .withVecTypes(Vec.T_NUM, Vec.T_NUM)
+              .withDataForCol(0, ard(-0.0, 1, 0, -0.0))
+              .withDataForCol(1, ard(0, 1, 2, 3))
+              .build();
+      Frame segments = new TestFrameBuilder()
+              .withColNames("segment")
+              .withVecTypes(Vec.T_NUM)
+              .withDataForCol(0, ard(0, 1))
+              .build();
+
+      SegmentPartitions partitions = SegmentPartitions.make(fr, segments);
+      try {
+        Frame segment = Scope.track(partitions.makeFrame(fr, 0, Key.make()));
+        assertEquals(3, segment.numRows());
+      } finally {
+        partitions.remove();
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+}
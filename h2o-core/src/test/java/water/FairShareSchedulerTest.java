@@ -0,0 +1,123 @@
+package water;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.fvec.Chunk;
+import water.fvec.Vec;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class FairShareSchedulerTest extends TestUtil {
+  @BeforeClass static public void setup() { stall_till_cloudsize(1); }
+
+  private boolean _wasEnabled;
+
+  @Before public void enable() {
+    _wasEnabled = FairShareScheduler.ENABLED;
+    FairShareScheduler.ENABLED = true;
+  }
+
+  @After public void restore() {
+    FairShareScheduler.ENABLED = _wasEnabled;
+  }
+
+  private static final AtomicInteger RUNNING = new AtomicInteger();
+  private static final AtomicInteger MAX_RUNNING = new AtomicInteger();
+
+  private static class ConcurrencyTask extends MRTask<ConcurrencyTask> {
+    long _nested;
+    @Override public void map(Chunk c) {
+      int n = RUNNING.incrementAndGet();
+      int max;
+      while (n > (max = MAX_RUNNING.get()) && !MAX_RUNNING.compareAndSet(max, n)) ;
+      try {
+        // Blocking on nested work of the same Job must not dead-lock on the cap
+        Vec small = Vec.makeConN(100, 4);
+        try {
+          _nested = new CountTask().doAll(small)._n;
+        } finally {
+          small.remove();
+        }
+        Thread.sleep(1);
+      } catch (InterruptedException ignore) {
+      } finally {
+        RUNNING.decrementAndGet();
+      }
+    }
+    @Override public void reduce(ConcurrencyTask mrt) { _nested += mrt._nested; }
+  }
+
+  private static class CountTask extends MRTask<CountTask> {
+    long _n;
+    @Override public void map(Chunk c) { _n += c._len; }
+    @Override public void reduce(CountTask mrt) { _n += mrt._n; }
+  }
+
+  // Every map waits until all the maps of the task run at the same time
+  private static class BarrierTask extends MRTask<BarrierTask> {
+    private static CountDownLatch BARRIER;
+    int _met;
+    @Override public void map(Chunk c) {
+      int n = RUNNING.incrementAndGet();
+      int max;
+      while (n > (max = MAX_RUNNING.get()) && !MAX_RUNNING.compareAndSet(max, n)) ;
+      try {
+        BARRIER.countDown();
+        if (BARRIER.await(30, TimeUnit.SECONDS)) _met++;
+      } catch (InterruptedException ignore) {
+      } finally {
+        RUNNING.decrementAndGet();
+      }
+    }
+    @Override public void reduce(BarrierTask mrt) { _met += mrt._met; }
+  }
+
+  @Test public void testCapLimitsThreadsOfJob() {
+    Key job = Key.make();
+    Vec v = null;
+    try {
+      FairShareScheduler.setPolicy(job, 1, 1);
+      v = Vec.makeConN(10_000, 32);
+      RUNNING.set(0);
+      MAX_RUNNING.set(0);
+      ConcurrencyTask task = new ConcurrencyTask();
+      FairShareScheduler.tag(task, job);
+      task.doAll(v);
+
+      assertEquals(32 * 100, task._nested);
+      assertEquals(1, MAX_RUNNING.get());
+      assertTrue(FairShareScheduler.queueWaitNanos(job) > 0);
+    } finally {
+      if (v != null) v.remove();
+    }
+  }
+
+  @Test public void testUntaggedTasksAreNotCapped() {
+    final int parallelism = Math.min(4, H2O.ARGS.nthreads);
+    assumeTrue(parallelism > 1);
+    Key job = Key.make();
+    Vec v = null;
+    try {
+      FairShareScheduler.setPolicy(job, 1, 1);
+      v = Vec.makeConN(parallelism * 100, parallelism);
+      RUNNING.set(0);
+      MAX_RUNNING.set(0);
+      BarrierTask.BARRIER = new CountDownLatch(parallelism);
+      // More maps than the cap of the Job, all of them have to run at once to get past the barrier
+      BarrierTask task = new BarrierTask().doAll(v);
+
+      assertEquals(parallelism, task._met);
+      assertEquals(parallelism, MAX_RUNNING.get());
+    } finally {
+      if (v != null) v.remove();
+    }
+  }
+
+}
@@ -0,0 +1,90 @@
+package water;
+
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.fvec.Chunk;
+import water.fvec.Vec;
+
+import static org.junit.Assert.*;
+
+public class MRTaskProfilerTest extends TestUtil {
+  @BeforeClass static public void setup() { stall_till_cloudsize(3); }
+
+  private static class SumTask extends MRTask<SumTask> {
+    double _sum;
+    @Override public void map(Chunk c) {
+      for (int i = 0; i < c._len; i++) _sum += c.atd(i);
+    }
+    @Override public void reduce(SumTask mrt) { _sum += mrt._sum; }
+  }
+
+  @Test public void testStatsAggregatedPerClass() {
+    Assume.assumeTrue(MRTaskProfiler.ENABLED);
+    new MRTaskProfiler.ResetTask().doAllNodes();
+    Vec v = null;
+    try {
+      v = Vec.makeSeq(100_000, true);
+      new SumTask().doAll(v);
+      new SumTask().doAll(v);
+
+      MRTaskProfiler.TaskStats[][] perNode = new MRTaskProfiler.CollectorTask().doAllNodes()._result;
+      assertEquals(H2O.CLOUD.size(), perNode.length);
+      MRTaskProfiler.TaskStats total = null;
+      for (MRTaskProfiler.TaskStats[] stats : perNode) {
+        assertNotNull(stats);
+        for (MRTaskProfiler.TaskStats s : stats) {
+          if (!s._task.equals(SumTask.class.getName())) continue;
+          if (total == null) total = s;
+          else total.add(s);
+        }
+      }
+      assertNotNull(total);
+      assertEquals(2 * v.nChunks(), total._chunks);
+      assertEquals(2 * H2O.CLOUD.size(), total._invocations);
+      assertTrue(total._map_nanos > 0);
+      assertTrue(total._max_map_nanos <= total._map_nanos);
+      assertTrue(total.chunkSkew() >= 1);
+      if (H2O.CLOUD.size() > 1) {
+        assertTrue(total._sent > 0);
+        assertTrue(total._serialized_bytes > 0);
+        assertTrue(total._result_bytes > 0);
+      }
+    } finally {
+      if (v != null) v.remove();
+    }
+  }
+
+  @Test public void testStatsTaggedWithJob() {
+    Assume.assumeTrue(MRTaskProfiler.ENABLED);
+    boolean wasEnabled = FairShareScheduler.ENABLED;
+    FairShareScheduler.ENABLED = true;
+    new MRTaskProfiler.ResetTask().doAllNodes();
+    Key job = Key.make();
+    Vec v = null;
+    try {
+      v = Vec.makeSeq(100_000, true);
+      SumTask task = new SumTask();
+      FairShareScheduler.tag(task, job);
+      task.doAll(v);
+      new SumTask().doAll(v);
+
+      long tagged = 0, untagged = 0;
+      for (MRTaskProfiler.TaskStats[] stats : new MRTaskProfiler.CollectorTask().doAllNodes()._result) {
+        for (MRTaskProfiler.TaskStats s : stats) {
+          if (!s._task.equals(SumTask.class.getName())) continue;
+          if (s._job == null) untagged += s._chunks;
+          else {
+            assertEquals(job.toString(), s._job);
+            tagged += s._chunks;
+          }
+        }
+      }
+      assertEquals(v.nChunks(), tagged);
+      assertEquals(v.nChunks(), untagged);
+    } finally {
+      FairShareScheduler.ENABLED = wasEnabled;
+      if (v != null) v.remove();
+    }
+  }
+}
@@ -6,8 +6,11 @@ import water.IcedUtils;
 import water.TestUtil;
 import water.parser.BufferedString;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
 
 import static org.junit.Assert.*;
 
@@ -154,6 +157,132 @@ public class CStrChunkTest extends TestUtil {
     assertEquals("", sut.at(0));
   }
 
+  private static final String[] UTF8_CONTENT = {
+      "plain ascii", null, "", "Ünïcödé Äb", "xx😀xx😀", "😀", "a.b.a.b", "ẞtraße", "x", "İstanbul", "ﬁ x ﬁ"
+  };
+
+  private static CStrChunk strChunk(String... content) {
+    NewChunk nc = new NewChunk(null, 0);
+    for (String s : content) nc.addStr(s);
+    nc.addStr(new BufferedString(new byte[]{'x', (byte) 0xC3, 'x', (byte) 0xF0, (byte) 0x9F}, 0, 5)); // malformed UTF-8
+    return (CStrChunk) nc.compress();
+  }
+
+  private static String[] strings(Chunk c) {
+    String[] res = new String[c._len];
+    BufferedString bs = new BufferedString();
+    for (int i = 0; i < c._len; i++)
+      res[i] = c.isNA(i) ? null : c.atStr(bs, i).toString();
+    return res;
+  }
+
+  @Test
+  public void test_literalReplace() {
+    CStrChunk cc = strChunk(UTF8_CONTENT);
+    String[] expected = strings(cc);
+    for (String pattern : new String[]{"x", "xx", "😀", "ö", ".", "not there"}) {
+      byte[] p = pattern.getBytes(StandardCharsets.UTF_8);
+      byte[] r = "[é]".getBytes(StandardCharsets.UTF_8);
+      String[] all = strings(cc.literalReplace(new NewChunk(null, 0), p, r, true, false).compress());
+      String[] first = strings(cc.literalReplace(new NewChunk(null, 0), p, r, false, false).compress());
+      for (int i = 0; i < expected.length; i++) {
+        assertEquals(expected[i] == null ? null : expected[i].replace(pattern, "[é]"), all[i]);
+        assertEquals(expected[i] == null ? null : expected[i].replaceFirst(Pattern.quote(pattern), "[é]"), first[i]);
+      }
+    }
+    CStrChunk ascii = strChunk("Foo BAR foo", null, "FOOFOO", "");
+    assertTrue(ascii._isAllASCII);
+    String[] lowered = strings(ascii.literalReplace(new NewChunk(null, 0), "foo".getBytes(), "_".getBytes(), true, true).compress());
+    String[] expected2 = strings(ascii);
+    for (int i = 0; i < expected2.length; i++)
+      assertEquals(expected2[i] == null ? null : expected2[i].toLowerCase(Locale.ENGLISH).replace("foo", "_"), lowered[i]);
+  }
+
+  @Test
+  public void test_literalReplaceMalformed() {
+    NewChunk nc = new NewChunk(null, 0);
+    nc.addStr(new BufferedString(new byte[]{(byte) 0xE2, 'x', (byte) 0x82, (byte) 0xAC}, 0, 4)); // "€" split by an 'x'
+    Chunk cc = nc.compress();
+    String decoded = strings(cc)[0];
+    assertEquals("\uFFFDx\uFFFD\uFFFD", decoded);
+    for (boolean all : new boolean[]{true, false}) {
+      Chunk replaced = ((CStrChunk) cc).literalReplace(new NewChunk(null, 0), "x".getBytes(), new byte[0], all, false).compress();
+      assertEquals("\uFFFD\uFFFD\uFFFD", strings(replaced)[0]);
+    }
+  }
+
+  @Test
+  public void test_literalCountMatches() {
+    CStrChunk cc = strChunk(UTF8_CONTENT);
+    String[] expected = strings(cc);
+    String[] patterns = {"x", "xx", "😀", "", "a"};
+    byte[][] bytes = new byte[patterns.length][];
+    for (int i = 0; i < patterns.length; i++) bytes[i] = patterns[i].getBytes(StandardCharsets.UTF_8);
+    Chunk counts = cc.literalCountMatches(new NewChunk(null, 0), bytes).compress();
+    for (int i = 0; i < expected.length; i++) {
+      if (expected[i] == null) { assertTrue(counts.isNA(i)); continue; }
+      int cnt = 0;
+      for (String p : patterns) cnt += org.apache.commons.lang.StringUtils.countMatches(expected[i], p);
+      assertEquals(cnt, counts.at8(i));
+    }
+  }
+
+  @Test
+  public void test_containsLiteral() {
+    CStrChunk cc = strChunk(UTF8_CONTENT);
+    String[] expected = strings(cc);
+    for (String pattern : new String[]{"x", "😀x", "Äb", "", "ab"})
+      for (int i = 0; i < expected.length; i++)
+        if (expected[i] != null)
+          assertEquals(expected[i].contains(pattern), cc.containsLiteral(i, pattern.getBytes(StandardCharsets.UTF_8), false));
+    CStrChunk ascii = strChunk("Foo BAR", "bar", "BA", "");
+    assertTrue(ascii.containsLiteral(0, "bar".getBytes(), true));
+    assertTrue(ascii.containsLiteral(1, "BaR".getBytes(), true));
+    assertFalse(ascii.containsLiteral(2, "bar".getBytes(), true));
+    assertFalse(ascii.containsLiteral(0, "bar".getBytes(), false));
+  }
+
+  @Test
+  public void test_utf8LengthAndSubstring() {
+    CStrChunk cc = strChunk(UTF8_CONTENT);
+    String[] expected = strings(cc);
+    Chunk lengths = cc.utf8Length(new NewChunk(null, 0)).compress();
+    for (int i = 0; i < expected.length; i++) {
+      if (expected[i] == null) assertTrue(lengths.isNA(i));
+      else assertEquals(expected[i].length(), lengths.at8(i));
+    }
+    for (int start = 0; start < 12; start++)
+      for (int end = start + 1; end < 14; end++) {
+        String[] substrings = strings(cc.utf8Substring(new NewChunk(null, 0), start, end).compress());
+        for (int i = 0; i < expected.length; i++) {
+          String str = expected[i];
+          assertEquals(str == null ? null : str.substring(Math.min(start, str.length()), Math.min(end, str.length())), substrings[i]);
+        }
+      }
+  }
+
+  @Test
+  public void test_utf8ChangeCase() {
+    CStrChunk cc = strChunk(UTF8_CONTENT);
+    assertFalse(cc._isAllASCII);
+    String[] expected = strings(cc);
+    String[] lower = strings(cc.utf8ChangeCase(new NewChunk(null, 0), true).compress());
+    String[] upper = strings(cc.utf8ChangeCase(new NewChunk(null, 0), false).compress());
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(expected[i] == null ? null : expected[i].toLowerCase(Locale.ENGLISH), lower[i]);
+      assertEquals(expected[i] == null ? null : expected[i].toUpperCase(Locale.ENGLISH), upper[i]);
+    }
+  }
+
+  @Test
+  public void test_isByteMatchable() {
+    assertTrue(CStrChunk.isByteMatchable("abc"));
+    assertTrue(CStrChunk.isByteMatchable("x😀"));
+    assertFalse(CStrChunk.isByteMatchable("a\uFFFD"));
+    assertFalse(CStrChunk.isByteMatchable("a\uD83D"));
+    assertFalse(CStrChunk.isByteMatchable("\uDE00a"));
+  }
+
   class TextChunk {
     CStrChunk cc;
 
@@ -0,0 +1,84 @@
+package water.fvec;
+
+import hex.genmodel.utils.IOUtils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import water.Scope;
+import water.runner.CloudSize;
+import water.runner.H2ORunner;
+import water.util.CompressionFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static water.TestUtil.ar;
+import static water.TestUtil.ard;
+
+@RunWith(H2ORunner.class)
+@CloudSize(1)
+public class ParallelCSVWriterTest {
+
+    private static Frame makeFrame() {
+        return new TestFrameBuilder()
+            .withName("testFrame")
+            .withColNames("Str", "Cat", "Num")
+            .withVecTypes(Vec.T_STR, Vec.T_CAT, Vec.T_NUM)
+            .withDataForCol(0, ar("a", "b\"", "c", "d", "e", "f"))
+            .withDataForCol(1, ar("X", "Y", "X", "Y", null, "X"))
+            .withDataForCol(2, ard(1.5, 2, Double.NaN, 4, 5.25, 6))
+            .withChunkLayout(2, 0, 3, 1)
+            .build();
+    }
+
+    private static byte[] toCSV(Frame fr, Frame.CSVStreamParams parms) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        IOUtils.copyStream(fr.toCSV(parms), bos);
+        return bos.toByteArray();
+    }
+
+    @Test
+    public void testSameAsCSVStream() throws IOException {
+        Scope.enter();
+        try {
+            Frame fr = makeFrame();
+            for (boolean headers : new boolean[]{true, false}) {
+                Frame.CSVStreamParams parms = new Frame.CSVStreamParams()
+                    .setHeaders(headers)
+                    .setEscapeQuotes(true);
+                ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                long len = new ParallelCSVWriter(fr, parms, null).writeTo(bos);
+                assertEquals(bos.size(), len);
+                assertArrayEquals(toCSV(fr, parms), bos.toByteArray());
+            }
+        } finally {
+            Scope.exit();
+        }
+    }
+
+    @Test
+    public void testGzipCompressedChunksFormValidStream() throws IOException {
+        Scope.enter();
+        try {
+            Frame fr = makeFrame();
+            Frame.CSVStreamParams parms = new Frame.CSVStreamParams();
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            new ParallelCSVWriter(fr, parms, CompressionFactory.make("gzip")).writeTo(bos);
+
+            ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+            IOUtils.copyStream(new GZIPInputStream(new ByteArrayInputStream(bos.toByteArray())), decompressed);
+            assertArrayEquals(toCSV(fr, parms), decompressed.toByteArray());
+        } finally {
+            Scope.exit();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonConcatenableCompressionIsRejected() {
+        new ParallelCSVWriter(null, new Frame.CSVStreamParams(), CompressionFactory.make("snappy"));
+    }
+
+}
@@ -0,0 +1,69 @@
+package water.fvec;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.TestUtil;
+
+import static org.junit.Assert.*;
+
+public class RowBlockTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  private static double[][] columns(int len) {
+    double[][] cols = new double[8][len];
+    for (int i = 0; i < len; i++) {
+      cols[0][i] = i % 200;                        // C1N
+      cols[1][i] = i % 7 == 0 ? Double.NaN : i % 500; // C2
+      cols[2][i] = 42;                             // C0L
+      cols[3][i] = Double.NaN;                     // C0D
+      cols[4][i] = i % 3 == 0 ? Double.NaN : i % 2; // CBS, 2 bits
+      cols[5][i] = i % 2;                          // CBS, 1 bit
+      cols[6][i] = i % 5 == 0 ? Double.NaN : i * 0.5; // Scaled
+      cols[7][i] = i % 11 == 0 ? Double.NaN : i * Math.PI; // C8D
+    }
+    return cols;
+  }
+
+  private static Chunk[] chunks(double[][] cols) {
+    Chunk[] chks = new Chunk[cols.length];
+    for (int c = 0; c < cols.length; c++)
+      chks[c] = new NewChunk(cols[c]).compress();
+    return chks;
+  }
+
+  @Test public void testBulkAccessMatchesPerValueAccess() {
+    final int len = 3000, from = 123, to = 2345;
+    Chunk[] chks = chunks(columns(len));
+    for (Chunk c : chks) {
+      double[] vals = c.getDoubles(new double[to - from], from, to, -1);
+      boolean[] nas = new boolean[to - from];
+      int nNAs = c.getNAs(nas, from, to);
+      int expectedNAs = 0;
+      for (int i = from; i < to; i++) {
+        String msg = c.getClass().getSimpleName() + " row " + i;
+        assertEquals(msg, c.isNA(i), nas[i - from]);
+        assertEquals(msg, c.isNA(i) ? -1 : c.atd(i), vals[i - from], 0);
+        if (c.isNA(i)) expectedNAs++;
+      }
+      assertEquals(c.getClass().getSimpleName(), expectedNAs, nNAs);
+    }
+  }
+
+  @Test public void testRowBlock() {
+    final int len = 3000;
+    double[][] cols = columns(len);
+    Chunk[] chks = chunks(cols);
+    RowBlock blk = new RowBlock(chks, cols.length, 256);
+    double[] row = new double[cols.length];
+    for (int r = 0; r < len; r += 3) {
+      blk.row(r, row);
+      for (int c = 0; c < cols.length; c++) {
+        assertEquals(cols[c][r], row[c], 0);
+        assertEquals(cols[c][r], blk.atd(c, r), 0);
+      }
+    }
+    // Going back loads the block again
+    assertEquals(cols[1][1], blk.atd(1, 1), 0);
+  }
+
+}
@@ -75,6 +75,18 @@ public class SparseTest extends TestUtil {
       if(Double.isNaN(vals[i])){
           Assert.assertEquals(NA,x[i],0);
       } else Assert.assertEquals(vals[i],x[i],0);
+    // test sub-range and NA mask
+    int from = vals.length/3, to = 2*vals.length/3;
+    double [] y = c.getDoubles(new double[to-from],from,to);
+    boolean [] nas = new boolean[to-from];
+    int nNAs = c.getNAs(nas,from,to);
+    int expectedNAs = 0;
+    for(int i = from; i < to; ++i) {
+      Assert.assertEquals(vals[i],y[i-from],0);
+      Assert.assertEquals(Double.isNaN(vals[i]),nas[i-from]);
+      if(Double.isNaN(vals[i])) expectedNAs++;
+    }
+    Assert.assertEquals(expectedNAs,nNAs);
     // test sparse doubles
     if(isSparse) {
       int[] ids = new int[x.length];
@@ -0,0 +1,50 @@
+package water.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MetricsWriterTest {
+
+  @Test
+  public void testCounterAndGauge() {
+    MetricsWriter w = new MetricsWriter()
+        .counter("h2o_test_total", "Test counter", 42, "node", "a\"b")
+        .gauge("h2o_test_ratio", "Test gauge", 0.25);
+    assertEquals(
+        "# HELP h2o_test_total Test counter\n" +
+        "# TYPE h2o_test_total counter\n" +
+        "h2o_test_total{node=\"a\\\"b\"} 42\n" +
+        "# HELP h2o_test_ratio Test gauge\n" +
+        "# TYPE h2o_test_ratio gauge\n" +
+        "h2o_test_ratio 0.25\n",
+        w.toString());
+  }
+
+  @Test
+  public void testHistogram() {
+    Histogram h = new Histogram(new double[]{0.1, 1});
+    h.observe(0.05);
+    h.observe(0.5);
+    h.observe(0.5);
+    h.observe(7);
+    assertArrayEquals(new long[]{1, 3, 4}, h.cumulativeCounts());
+    assertEquals(4, h.count());
+    assertEquals(8.05, h.sum(), 1e-9);
+
+    String out = new MetricsWriter().histogram("h2o_lat_seconds", h, "route", "GET /3/Ping").toString();
+    assertEquals(
+        "h2o_lat_seconds_bucket{route=\"GET /3/Ping\",le=\"0.1\"} 1\n" +
+        "h2o_lat_seconds_bucket{route=\"GET /3/Ping\",le=\"1\"} 3\n" +
+        "h2o_lat_seconds_bucket{route=\"GET /3/Ping\",le=\"+Inf\"} 4\n" +
+        "h2o_lat_seconds_sum{route=\"GET /3/Ping\"} 8.05\n" +
+        "h2o_lat_seconds_count{route=\"GET /3/Ping\"} 4\n",
+        out);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testHistogramRejectsUnsortedBounds() {
+    new Histogram(new double[]{1, 0.5});
+  }
+
+}
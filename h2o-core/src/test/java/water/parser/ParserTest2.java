@@ -75,6 +75,88 @@ public class ParserTest2 extends TestUtil {
     fr.delete();
   }
 
+  @Test public void testCategoricalsAcrossChunks() {
+    // every chunk sees the levels in a different order and the second column only gets its levels later
+    String[] data = new String[]{
+      "num,cat,late\n" +
+      "1,c,\n" +
+      "2,b,\n",
+      "3,a,\n" +
+      "4,,z\n",
+      "5,b,y\n" +
+      "6,d,z\n",
+    };
+    Key rkey = FVecFactory.makeByteVec(data);
+    ParseSetup ps = new ParseSetup(CSV_INFO, (byte)',', false, ParseSetup.HAS_HEADER, 3,
+            new String[]{"num", "cat", "late"},
+            ParseSetup.strToColumnTypes(new String[]{"Numeric", "Enum", "Enum"}), null, null, null, null, null);
+    Frame fr = ParseDataset.parse(Key.make("cat_chunks_test.hex"), new Key[]{rkey}, true, ps);
+    try {
+      Assert.assertEquals(6, fr.numRows());
+      Assert.assertArrayEquals(new String[]{"a", "b", "c", "d"}, fr.vec(1).domain());
+      Assert.assertArrayEquals(new String[]{"y", "z"}, fr.vec(2).domain());
+      String[][] expected = new String[][]{
+        {"c", null}, {"b", null}, {"a", null}, {null, "z"}, {"b", "y"}, {"d", "z"}
+      };
+      for (int i = 0; i < expected.length; ++i) {
+        Assert.assertEquals(i + 1, fr.vec(0).at8(i));
+        for (int j = 0; j < 2; ++j) {
+          Vec v = fr.vec(j + 1);
+          if (expected[i][j] == null)
+            Assert.assertTrue(i + " -- " + j, v.isNA(i));
+          else
+            Assert.assertEquals(i + " -- " + j, expected[i][j], v.domain()[(int) v.at8(i)]);
+        }
+      }
+    } finally {
+      fr.delete();
+    }
+  }
+
+  @Test public void testDeclaredAndGuessedCategoricals() {
+    // "cat" columns are categorical up front, the "guess" columns only turn categorical during the parse
+    String[] data = new String[]{
+      "cat1,guess1,cat2,guess2\n" +
+      "c,r,x,k\n" +
+      "b,q,y,j\n" +
+      "a,p,x,i\n",
+      "a,p,y,i\n" +
+      "b,,,j\n" +
+      "c,s,x,h\n",
+      "d,q,z,k\n" +
+      ",r,y,h\n" +
+      "b,p,x,\n",
+    };
+    Key rkey = FVecFactory.makeByteVec(data);
+    ParseSetup ps = new ParseSetup(CSV_INFO, (byte)',', false, ParseSetup.HAS_HEADER, 4,
+            new String[]{"cat1", "guess1", "cat2", "guess2"},
+            ParseSetup.strToColumnTypes(new String[]{"Enum", "Unknown", "Enum", "Unknown"}), null, null, null, null, null);
+    Frame fr = ParseDataset.parse(Key.make("declared_and_guessed_cat_test.hex"), new Key[]{rkey}, true, ps);
+    try {
+      Assert.assertEquals(9, fr.numRows());
+      Assert.assertArrayEquals(new String[]{"a", "b", "c", "d"}, fr.vec(0).domain());
+      Assert.assertArrayEquals(new String[]{"p", "q", "r", "s"}, fr.vec(1).domain());
+      Assert.assertArrayEquals(new String[]{"x", "y", "z"}, fr.vec(2).domain());
+      Assert.assertArrayEquals(new String[]{"h", "i", "j", "k"}, fr.vec(3).domain());
+      String[][] expected = new String[][]{
+        {"c", "r", "x", "k"}, {"b", "q", "y", "j"}, {"a", "p", "x", "i"},
+        {"a", "p", "y", "i"}, {"b", null, null, "j"}, {"c", "s", "x", "h"},
+        {"d", "q", "z", "k"}, {null, "r", "y", "h"}, {"b", "p", "x", null}
+      };
+      for (int i = 0; i < expected.length; ++i) {
+        for (int j = 0; j < 4; ++j) {
+          Vec v = fr.vec(j);
+          if (expected[i][j] == null)
+            Assert.assertTrue(i + " -- " + j, v.isNA(i));
+          else
+            Assert.assertEquals(i + " -- " + j, expected[i][j], v.domain()[(int) v.at8(i)]);
+        }
+      }
+    } finally {
+      fr.delete();
+    }
+  }
+
   /**
    * there's no official grammar for CSV, and especially no directive on how to handle blank lines.
    * but common parsers (e.g. Python CSV parser) ignores them.
@@ -0,0 +1,102 @@
+package water.parser;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import water.Key;
+import water.Scope;
+import water.fvec.FVecFactory;
+import water.fvec.FileVec;
+import water.fvec.Frame;
+import water.fvec.Vec;
+import water.runner.CloudSize;
+import water.runner.H2ORunner;
+
+import static org.junit.Assert.*;
+
+@RunWith(H2ORunner.class)
+@CloudSize(1)
+public class WideFileParseTest {
+
+  private static final int N_COLS = ParseSetup.WIDE_FILE_MIN_COLUMNS;
+  private static final int CAT_EVERY = 1000;
+
+  private static String value(int row, int col) {
+    if (col % CAT_EVERY == 0)
+      return "L" + ((row + col) % 3);
+    return String.valueOf((row + col) % 100);
+  }
+
+  private static String rows(int from, int to) {
+    StringBuilder sb = new StringBuilder();
+    for (int row = from; row < to; row++) {
+      for (int col = 0; col < N_COLS; col++) {
+        if (col > 0) sb.append(',');
+        if (row != 7 || col % CAT_EVERY != 0) // a missing categorical value
+          sb.append(value(row, col));
+      }
+      sb.append('\n');
+    }
+    return sb.toString();
+  }
+
+  @Test
+  public void testParseWideFile() {
+    try {
+      Scope.enter();
+      StringBuilder header = new StringBuilder();
+      for (int col = 0; col < N_COLS; col++)
+        header.append(col > 0 ? "," : "").append("C").append(col + 1);
+      Key<?> key = FVecFactory.makeByteVec(header.append('\n').toString() + rows(0, 10), rows(10, 20), rows(20, 30));
+      ParseSetup ps = ParseSetup.guessSetup(new Key[]{key}, false, ParseSetup.HAS_HEADER);
+      assertTrue(ps.isWideFile());
+      Frame fr = Scope.track(ParseDataset.parse(Key.make(), new Key[]{key}, true, ps));
+
+      assertEquals(N_COLS, fr.numCols());
+      assertEquals(30, fr.numRows());
+      for (int col = 0; col < N_COLS; col += 97) {
+        Vec v = fr.vec(col);
+        assertEquals(col % CAT_EVERY == 0, v.isCategorical());
+        for (int row = 0; row < 30; row++) {
+          if (v.isCategorical()) {
+            if (row == 7)
+              assertTrue(v.isNA(row));
+            else
+              assertEquals(value(row, col), v.domain()[(int) v.at8(row)]);
+          } else
+            assertEquals(Double.parseDouble(value(row, col)), v.at(row), 0);
+        }
+      }
+      assertArrayEquals(new String[]{"L0", "L1", "L2"}, fr.vec(CAT_EVERY).domain());
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testCalcWideFileChunkSize() {
+    final int rows = ParseSetup.WIDE_FILE_CHUNK_ROWS;
+    // chunks grow to hold the row blocks
+    assertEquals(rows * 100_000, ParseSetup.calcWideFileChunkSize(1 << 20, 1L << 40, 100_000, 8, 1));
+    // but every core still gets a chunk
+    assertEquals((1L << 30) / 16, ParseSetup.calcWideFileChunkSize(1 << 20, 1L << 30, 100_000, 8, 2));
+    // and they never shrink or exceed the parse limit
+    assertEquals(1 << 27, ParseSetup.calcWideFileChunkSize(1 << 27, 1L << 30, 100, 8, 1));
+    assertEquals(FileVec.MAX_PARSE_CHUNK_SIZE, ParseSetup.calcWideFileChunkSize(1 << 20, 1L << 45, 1 << 20, 8, 1));
+  }
+
+  @Test
+  public void testCategoricalAllocatesMapLazily() {
+    Categorical cat = new Categorical();
+    assertEquals(0, cat.size());
+    assertEquals(0, cat.getColumnDomain().length);
+    assertFalse(cat.containsKey(new BufferedString("a")));
+    cat.convertToUTF8(1);
+
+    assertEquals(1, cat.addKey(new BufferedString("a")));
+    assertEquals(1, cat.addKey(new BufferedString("a")));
+    assertEquals(2, cat.addKey(new BufferedString("b")));
+    assertEquals(2, cat.size());
+    assertTrue(cat.containsKey(new BufferedString("b")));
+  }
+
+}
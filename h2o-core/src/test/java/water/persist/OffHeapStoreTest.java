@@ -0,0 +1,60 @@
+package water.persist;
+
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.H2O;
+import water.Key;
+import water.TestUtil;
+import water.Value;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class OffHeapStoreTest extends TestUtil {
+  @BeforeClass static public void setup() { stall_till_cloudsize(1); }
+
+  @Test public void testParseBytes() {
+    assertEquals(0, OffHeapStore.parseBytes(""));
+    assertEquals(1234, OffHeapStore.parseBytes("1234"));
+    assertEquals(2L << 10, OffHeapStore.parseBytes("2k"));
+    assertEquals(3L << 20, OffHeapStore.parseBytes("3MB"));
+    assertEquals(64L << 30, OffHeapStore.parseBytes(" 64G "));
+    assertEquals(1L << 40, OffHeapStore.parseBytes("1t"));
+  }
+
+  @Test public void testStoreLoadDelete() {
+    Assume.assumeTrue(OffHeapStore.ENABLED);
+    byte[] bytes = new byte[1000];
+    for (int i = 0; i < bytes.length; i++) bytes[i] = (byte) i;
+    Value v = new Value(Key.make(), bytes);
+    long used = OffHeapStore.usedBytes();
+
+    assertTrue(OffHeapStore.store(v));
+    assertEquals(used + bytes.length, OffHeapStore.usedBytes());
+    assertArrayEquals(bytes, OffHeapStore.load(v));
+
+    assertTrue(OffHeapStore.delete(v));
+    assertEquals(used, OffHeapStore.usedBytes());
+    assertNull(OffHeapStore.load(v));
+    assertFalse(OffHeapStore.delete(v));
+  }
+
+  @Test public void testOffHeapOnlyStoreSkipsDisk() throws IOException {
+    Value v = new Value(Key.make(), new byte[1000]);
+    boolean stored = H2O.getPM().store(Value.ICE, v, true);
+    assertEquals(OffHeapStore.ENABLED, stored);
+    if (stored) {
+      assertTrue(OffHeapStore.delete(v));
+      return;
+    }
+    try {
+      H2O.getPM().load(Value.ICE, v);
+      fail("Nothing should be written to the ice root");
+    } catch (IOException e) {
+      // expected, the disk was not used
+    }
+  }
+
+}
@@ -347,6 +347,42 @@ public class SortTest extends TestUtil {
     }
   }
 
+  // Most of the keys fall into the same MSB, which then gets split on its next
+  // bytes and sorted by all the threads; the result must be the same as from
+  // the single threaded sort of each MSB.
+  @Test public void testSortSkewedKeysInParallel() {
+    Scope.enter();
+    long minRows = SingleThreadRadixOrder.PARALLEL_MIN_ROWS;
+    try {
+      Vec key = Vec.makeZero(200000);
+      Frame fr = new Frame(Key.<Frame>make(), new String[]{"key", "row"}, new Vec[]{key, key.makeZero()});
+      new MRTask() {
+        @Override public void map(Chunk[] cs) {
+          Random rnd = new Random(42 + cs[0].cidx());
+          for (int i = 0; i < cs[0]._len; i++) {
+            cs[0].set(i, rnd.nextInt(10) == 0 ? rnd.nextInt(1000000000) : 500000000 + rnd.nextInt(5000));
+            cs[1].set(i, cs[0].start() + i);
+          }
+        }
+      }.doAll(fr);
+      DKV.put(fr);
+      Scope.track(fr);
+
+      SingleThreadRadixOrder.PARALLEL_MIN_ROWS = Long.MAX_VALUE;
+      Frame serial = Scope.track(Merge.sort(fr, new int[]{0}));
+      SingleThreadRadixOrder.PARALLEL_MIN_ROWS = 1000;
+      Frame parallel = Scope.track(Merge.sort(fr, new int[]{0}));
+
+      assertBitIdentical(serial, parallel);
+      Vec k = parallel.vec(0), r = parallel.vec(1);
+      for (long i = 1; i < parallel.numRows(); i++)
+        assertTrue(k.at8(i - 1) < k.at8(i) || (k.at8(i - 1) == k.at8(i) && r.at8(i - 1) < r.at8(i)));
+    } finally {
+      SingleThreadRadixOrder.PARALLEL_MIN_ROWS = minRows;
+      Scope.exit();
+    }
+  }
+
   /***
    * This simple test just want to test and make sure that processing the final frames by a batch does
    * not leak memories.  The accuracy of the sort is tested elsewhere.
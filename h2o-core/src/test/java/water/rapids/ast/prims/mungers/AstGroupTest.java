@@ -18,7 +18,9 @@ public class AstGroupTest extends TestUtil {
   public static Object[] data() {
     return new Object[]{
             "GB",
-            "GBSafe" // available in tests only - testing workaround for TE
+            "GBSafe", // available in tests only - testing workaround for TE
+            "GBRowwise", // available in tests only - row-wise engine
+            "GBShuffle" // available in tests only - groups shuffled across the nodes
     };
   }
 
@@ -55,6 +57,65 @@ public class AstGroupTest extends TestUtil {
     }
   }
 
+  @Test
+  public void testGroupByMatchesRowwiseEngine() {
+    Scope.enter();
+    try {
+      final int n = 5000;
+      java.util.Random rnd = new java.util.Random(42);
+      String[] cats = new String[n];
+      double[] nums = new double[n];
+      double[] vals = new double[n];
+      for (int i = 0; i < n; i++) {
+        cats[i] = rnd.nextInt(20) == 0 ? null : "L" + rnd.nextInt(7);
+        nums[i] = rnd.nextInt(20) == 0 ? Double.NaN : rnd.nextInt(50) - 25;
+        vals[i] = rnd.nextInt(10) == 0 ? Double.NaN : rnd.nextGaussian() * 100;
+      }
+      Frame fr = new TestFrameBuilder()
+              .withName("testFrame")
+              .withColNames("Cat", "Num", "Val")
+              .withVecTypes(Vec.T_CAT, Vec.T_NUM, Vec.T_NUM)
+              .withDataForCol(0, cats)
+              .withDataForCol(1, nums)
+              .withDataForCol(2, vals)
+              .withChunkLayout(1000, 1500, 500, 2000)
+              .build();
+
+      String aggs = " \"nrow\" 2 \"all\" \"mean\" 2 \"rm\" \"sum\" 2 \"all\" \"sumSquares\" 2 \"ignore\"" +
+              " \"var\" 2 \"rm\" \"sdev\" 2 \"ignore\" \"min\" 2 \"rm\" \"max\" 2 \"rm\")";
+      for (String gbCols : new String[]{"[0]", "[1]", "[0, 1]", "[1, 0]"}) {
+        Frame expected = Scope.track(Rapids.exec("(GBRowwise " + fr._key + " " + gbCols + aggs).getFrame());
+        Frame actual = Scope.track(Rapids.exec("(" + groupByOp + " " + fr._key + " " + gbCols + aggs).getFrame());
+        assertFrameEquals(expected, actual, 1e-8);
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  public static class AstGroupRowwise extends AstGroup {
+    public AstGroupRowwise() {
+      super(true, false);
+    }
+
+    @Override
+    public String str() {
+      return "GBRowwise";
+    }
+  }
+
+  public static class AstGroupShuffle extends AstGroup {
+    @Override
+    protected boolean useShuffle(Frame fr, int[] gbCols) {
+      return true;
+    }
+
+    @Override
+    public String str() {
+      return "GBShuffle";
+    }
+  }
+
   public static class AstGroupSafe extends AstGroup {
     public AstGroupSafe() {
       super(false);
@@ -11,6 +11,8 @@ import water.fvec.Vec;
 import water.rapids.Rapids;
 import water.rapids.Val;
 
+import static org.junit.Assert.*;
+
 /***
  * This test is written by Andrey Spiridonov in JIRA PUBDEV-5924.
  */
@@ -50,6 +52,92 @@ public class AstMergeTest extends TestUtil {
     fr.delete();
   }
 
+  @Test
+  public void broadcastMergeMatchesRadixMergeTest() {
+    Scope.enter();
+    try {
+      Scope.track(buildBroadcastMergeFrame("leftFrame", Vec.T_CAT));
+      Scope.track(buildBroadcastMergeFrame("rightFrame", Vec.T_CAT));
+      for (String flags : new String[]{"0 0", "1 0", "0 1"}) {
+        Frame radix = Scope.track(Rapids.exec("(merge leftFrame rightFrame " + flags + " [0] [0] 'radix')").getFrame());
+        Frame broadcast = Scope.track(Rapids.exec("(merge leftFrame rightFrame " + flags + " [0] [0] 'broadcast')").getFrame());
+        Frame auto = Scope.track(Rapids.exec("(merge leftFrame rightFrame " + flags + " [0] [0] 'auto')").getFrame());
+        assertArrayEquals(radix.names(), broadcast.names());
+        assertBitIdentical(radix, auto);
+        // Broadcast keeps the order of the walked frame
+        Frame radixSorted = Scope.track(radix.sort(new int[]{1, 3}));
+        assertBitIdentical(radixSorted, Scope.track(broadcast.sort(new int[]{1, 3})));
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void broadcastMergeWithStringKeysAndDuplicatesTest() {
+    Scope.enter();
+    try {
+      Scope.track(buildBroadcastMergeFrame("leftFrame", Vec.T_STR));
+      Scope.track(buildBroadcastMergeFrame("rightFrame", Vec.T_STR));
+
+      // Left join keeps the order of the left rows, one row per match of a duplicated key
+      Frame res = Scope.track(Rapids.exec("(merge leftFrame rightFrame 1 0 [0] [0] 'broadcast')").getFrame());
+      assertArrayEquals(new String[]{"Key", "Num", "ColA", "ColB", "ColC"}, res.names());
+      assertVecEquals(Scope.track(dvec(1, 1, 2, 3, 4, 5, 6, 7, 7)), res.vec("Num"), 0);
+      assertVecEquals(Scope.track(dvec(10, 30, 20, Double.NaN, Double.NaN, 20, Double.NaN, 10, 30)), res.vec("ColB"), 0);
+      assertEquals("z", res.vec("ColC").stringAt(1));
+      assertTrue(res.vec("ColC").isNA(3));
+
+      // Inner join drops the rows without a match
+      res = Scope.track(Rapids.exec("(merge leftFrame rightFrame 0 0 [0] [0] 'broadcast')").getFrame());
+      assertVecEquals(Scope.track(dvec(1, 1, 2, 3, 5, 7, 7)), res.vec("Num"), 0);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void autoMergeWithStringKeysTest() {
+    Scope.enter();
+    try {
+      Scope.track(buildBroadcastMergeFrame("leftFrame", Vec.T_STR));
+      Scope.track(buildBroadcastMergeFrame("rightFrame", Vec.T_STR));
+      // String keys cannot be radix sorted, auto returns the rows of the broadcast join as they are
+      for (String flags : new String[]{"0 0", "1 0", "0 1"}) {
+        Frame broadcast = Scope.track(Rapids.exec("(merge leftFrame rightFrame " + flags + " [0] [0] 'broadcast')").getFrame());
+        Frame auto = Scope.track(Rapids.exec("(merge leftFrame rightFrame " + flags + " [0] [0] 'auto')").getFrame());
+        assertArrayEquals(broadcast.names(), auto.names());
+        assertBitIdentical(broadcast, auto);
+      }
+      Frame res = Scope.track(Rapids.exec("(merge leftFrame rightFrame 1 0 [0] [0] 'auto')").getFrame());
+      assertVecEquals(Scope.track(dvec(1, 1, 2, 3, 4, 5, 6, 7, 7)), res.vec("Num"), 0);
+      assertEquals("z", res.vec("ColC").stringAt(1));
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  private static Frame buildBroadcastMergeFrame(String name, byte keyType) {
+    if (name.equals("leftFrame"))
+      return new TestFrameBuilder()
+              .withName(name)
+              .withColNames("Key", "Num", "ColA")
+              .withVecTypes(keyType, Vec.T_NUM, Vec.T_CAT)
+              .withDataForCol(0, ar("k1", "k2", "k3", null, "k2", "k5", "k1"))
+              .withDataForCol(1, ard(1, 2, 3, 4, 5, 6, 7))
+              .withDataForCol(2, ar("a", "b", "a", "c", "b", "a", null))
+              .withChunkLayout(3, 4)
+              .build();
+    return new TestFrameBuilder()
+            .withName(name)
+            .withColNames("Key", "ColB", "ColC")
+            .withVecTypes(keyType, Vec.T_NUM, Vec.T_STR)
+            .withDataForCol(0, ar("k1", "k2", "k1", "k4", null, "k3"))
+            .withDataForCol(1, ard(10, 20, 30, 40, 50, Double.NaN))
+            .withDataForCol(2, ar("x", "y", "z", "w", "v", null))
+            .build();
+  }
+
   @Test
   public void mergeWithNaOnTheRightMapsToEverythingTest4() {
     Scope.enter();
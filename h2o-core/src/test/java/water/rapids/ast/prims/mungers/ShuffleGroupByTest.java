@@ -0,0 +1,94 @@
+package water.rapids.ast.prims.mungers;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import water.H2O;
+import water.Scope;
+import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+import water.rapids.Rapids;
+import water.rapids.ast.prims.mungers.ColumnarGroupBy.GroupTable;
+import water.runner.CloudSize;
+import water.runner.H2ORunner;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static water.TestUtil.*;
+
+@RunWith(H2ORunner.class)
+@CloudSize(2)
+public class ShuffleGroupByTest {
+
+  private static final String AGGS = " \"nrow\" 1 \"all\" \"mean\" 1 \"rm\" \"sum\" 1 \"all\" \"var\" 1 \"rm\" \"min\" 1 \"rm\" \"max\" 1 \"rm\")";
+
+  @Test
+  public void testGroupByAcrossNodes() {
+    assertTrue(H2O.CLOUD.size() >= 2);
+    Scope.enter();
+    try {
+      final int n = 20000;
+      Random rnd = new Random(42);
+      double[] keys = new double[n];
+      double[] vals = new double[n];
+      for (int i = 0; i < n; i++) {
+        keys[i] = rnd.nextInt(50) == 0 ? Double.NaN : rnd.nextInt(n / 3);
+        vals[i] = rnd.nextInt(10) == 0 ? Double.NaN : rnd.nextGaussian() * 100;
+      }
+      Frame fr = Scope.track(new TestFrameBuilder()
+              .withColNames("Key", "Val")
+              .withVecTypes(Vec.T_NUM, Vec.T_NUM)
+              .withDataForCol(0, keys)
+              .withDataForCol(1, vals)
+              .withChunkLayout(3000, 5000, 2000, 4000, 6000)
+              .build());
+      assertGroupByMatchesRowwise(fr);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testGroupBySkewedPartitions() {
+    assertTrue(H2O.CLOUD.size() >= 2);
+    Scope.enter();
+    try {
+      // Keys which all land in the partition of the first node, the other nodes have no groups of their own
+      final int nparts = H2O.CLOUD.size();
+      final int ngroups = 5000;
+      GroupTable table = new GroupTable(1, new AstGroup.AGG[0], -1, 4 * ngroups * nparts);
+      for (int k = 0; k < 4 * ngroups * nparts; k++)
+        table.findOrAdd(k);
+      int[] partitions = table.partitions(nparts);
+      double[] keys = new double[2 * ngroups];
+      double[] vals = new double[2 * ngroups];
+      for (int g = 0, i = 0; i < ngroups; g++) {
+        if (partitions[g] != 0) continue;
+        keys[i] = keys[ngroups + i] = g;
+        vals[i] = g;
+        vals[ngroups + i] = -2 * g;
+        i++;
+      }
+      Frame fr = Scope.track(new TestFrameBuilder()
+              .withColNames("Key", "Val")
+              .withVecTypes(Vec.T_NUM, Vec.T_NUM)
+              .withDataForCol(0, keys)
+              .withDataForCol(1, vals)
+              .withChunkLayout(2500, 2500, 2500, 2500)
+              .build());
+      Frame res = assertGroupByMatchesRowwise(fr);
+      assertEquals(ngroups, res.numRows());
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  private static Frame assertGroupByMatchesRowwise(Frame fr) {
+    Frame expected = Scope.track(Rapids.exec("(GBRowwise " + fr._key + " [0]" + AGGS).getFrame());
+    Frame actual = Scope.track(Rapids.exec("(GBShuffle " + fr._key + " [0]" + AGGS).getFrame());
+    assertFrameEquals(expected, actual, 1e-8);
+    return actual;
+  }
+
+}
@@ -607,6 +607,11 @@ public class XGBoostModel extends Model<XGBoostModel, XGBoostModel.XGBoostParame
     return PlattScalingHelper.postProcessPredictions(predictFr, j, _output);
   }
 
+  @Override
+  public boolean isSharedScoringSupported() {
+    return true;
+  }
+
   @Override
   protected double[] score0(double[] data, double[] preds) {
     return score0(data, preds, 0.0);
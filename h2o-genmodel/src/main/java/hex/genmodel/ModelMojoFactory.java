@@ -9,6 +9,7 @@ import hex.genmodel.algos.glm.GlmMojoReader;
 import hex.genmodel.algos.glrm.GlrmMojoReader;
 import hex.genmodel.algos.isofor.IsolationForestMojoReader;
 import hex.genmodel.algos.kmeans.KMeansMojoReader;
+import hex.genmodel.algos.knn.KNNMojoReader;
 import hex.genmodel.algos.pca.PCAMojoReader;
 import hex.genmodel.algos.pipeline.MojoPipelineReader;
 import hex.genmodel.algos.svm.SvmMojoReader;
@@ -82,6 +83,9 @@ public class ModelMojoFactory {
       case "K-means":
         return new KMeansMojoReader();
 
+      case "k-Nearest Neighbors":
+        return new KNNMojoReader();
+
       case "Deep Learning":
       case "deep learning":
         return new DeeplearningMojoReader();
@@ -0,0 +1,27 @@
+package hex.genmodel.algos.knn;
+
+/**
+ * Distance measures supported by the k-nearest-neighbour search.
+ * <p>
+ * The {@link VPTree} only works with metrics; cosine distance is not one, so the vectors are
+ * normalized to unit length and searched by their Euclidean distance instead, which orders the
+ * neighbours the same way (|a - b|^2 = 2 - 2cos(a, b) for unit vectors).
+ */
+public enum DistanceMeasure {
+  Euclidean, Manhattan, Cosine;
+
+  /** @return true if the tree is searched by the L1 metric, false for L2 */
+  public boolean manhattan() {
+    return this == Manhattan;
+  }
+
+  /** @return true if the rows are normalized to unit length before searching */
+  public boolean normalize() {
+    return this == Cosine;
+  }
+
+  /** Converts a distance found in the tree to the distance reported to the user. */
+  public double fromTreeDistance(double d) {
+    return this == Cosine ? d * d / 2 : d;
+  }
+}
@@ -0,0 +1,95 @@
+package hex.genmodel.algos.knn;
+
+import hex.genmodel.MojoModel;
+
+/**
+ * k-nearest-neighbour search over the reference rows captured in the MOJO.
+ * <p>
+ * The prediction holds the ids of the k nearest reference rows, nearest first, followed by their
+ * distances; missing neighbours (fewer than k reference rows) are reported as NaN.
+ */
+public class KNNMojoModel extends MojoModel {
+
+  int _k;
+  DistanceMeasure _distance;
+  double _epsilon;
+  boolean _standardize;
+  double[] _means; // Used to impute NAs, also when not standardizing
+  double[] _mults;
+  VPTree[] _trees; // One per index partition
+
+  KNNMojoModel(String[] columns, String[][] domains, String responseColumn) {
+    super(columns, domains, responseColumn);
+  }
+
+  @Override
+  public double[] score0(double[] row, double[] preds) {
+    long[] ids = new long[_k];
+    double[] dists = new double[_k];
+    neighbours(row, ids, dists);
+    for (int i = 0; i < _k; i++) {
+      boolean found = ids[i] != Neighbours.NO_ID;
+      preds[i] = found ? ids[i] : Double.NaN;
+      preds[_k + i] = found ? dists[i] : Double.NaN;
+    }
+    return preds;
+  }
+
+  /**
+   * Finds the k nearest neighbours of a row.
+   * @return number of neighbours found, the rest of <code>ids</code> is padded with {@link Neighbours#NO_ID}
+   */
+  public int neighbours(double[] row, long[] ids, double[] dists) {
+    double[] q = prepare(row, _means, _mults, _standardize, _distance, new double[_means.length]);
+    Neighbours res = new Neighbours(_k);
+    for (VPTree t : _trees)
+      t.search(q, res, _distance.manhattan(), _epsilon);
+    final int found = res.size();
+    res.drainSorted(ids, dists, 0);
+    for (int i = 0; i < found; i++)
+      dists[i] = _distance.fromTreeDistance(dists[i]);
+    return found;
+  }
+
+  /**
+   * Transforms a row to the space the trees are built in: NAs are imputed with the means, the
+   * values are optionally standardized and, for cosine distance, normalized to unit length.
+   * Shared by training and scoring so both see exactly the same points.
+   */
+  public static double[] prepare(double[] row, double[] means, double[] mults, boolean standardize,
+                                 DistanceMeasure distance, double[] out) {
+    for (int c = 0; c < out.length; c++) {
+      double x = Double.isNaN(row[c]) ? means[c] : row[c];
+      out[c] = standardize ? (x - means[c]) * mults[c] : x;
+    }
+    if (distance.normalize()) {
+      double norm = 0;
+      for (double x : out) norm += x * x;
+      if (norm > 0) {
+        norm = Math.sqrt(norm);
+        for (int c = 0; c < out.length; c++) out[c] /= norm;
+      }
+    }
+    return out;
+  }
+
+  @Override
+  public int getPredsSize() {
+    return 2 * _k;
+  }
+
+  @Override
+  public String[] getOutputNames() {
+    return outputNames(_k);
+  }
+
+  public static String[] outputNames(int k) {
+    String[] names = new String[2 * k];
+    for (int i = 0; i < k; i++) {
+      names[i] = "nbr_" + (i + 1);
+      names[k + i] = "dist_" + (i + 1);
+    }
+    return names;
+  }
+
+}
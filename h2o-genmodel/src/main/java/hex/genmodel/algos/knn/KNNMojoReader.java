@@ -0,0 +1,41 @@
+package hex.genmodel.algos.knn;
+
+import hex.genmodel.ModelMojoReader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public class KNNMojoReader extends ModelMojoReader<KNNMojoModel> {
+
+  @Override
+  public String getModelName() {
+    return "k-Nearest Neighbors";
+  }
+
+  @Override
+  protected void readModelData() throws IOException {
+    _model._k = readkv("k");
+    _model._distance = DistanceMeasure.valueOf((String) readkv("distance"));
+    _model._epsilon = readkv("epsilon", 0.0);
+    _model._standardize = readkv("standardize");
+    // Means & multipliers as a blob, a text array of whole numbers would be read back as int[]
+    final int nfeatures = readkv("n_features");
+    ByteBuffer bb = ByteBuffer.wrap(readblob("standardization.bin"));
+    _model._means = new double[nfeatures];
+    _model._mults = new double[nfeatures];
+    for (int i = 0; i < nfeatures; i++) _model._means[i] = bb.getDouble();
+    for (int i = 0; i < nfeatures; i++) _model._mults[i] = bb.getDouble();
+    final int treeNum = readkv("tree_num");
+    _model._trees = new VPTree[treeNum];
+    for (int i = 0; i < treeNum; i++)
+      _model._trees[i] = VPTree.fromBytes(readblob("trees/t" + i + ".bin"));
+  }
+
+  @Override
+  protected KNNMojoModel makeModel(String[] columns, String[][] domains, String responseColumn) {
+    return new KNNMojoModel(columns, domains, responseColumn);
+  }
+
+  @Override public String mojoVersion() { return "1.00"; }
+
+}
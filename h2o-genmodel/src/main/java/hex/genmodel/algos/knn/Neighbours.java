@@ -0,0 +1,135 @@
+package hex.genmodel.algos.knn;
+
+/**
+ * Bounded max-heap keeping the k nearest neighbours seen so far.
+ * <p>
+ * Neighbours are ordered by distance and, for equal distances, by id, so the result does not
+ * depend on the order in which the candidates are offered.
+ */
+public final class Neighbours {
+
+  /** Id padding the result when fewer than k neighbours exist. */
+  public static final long NO_ID = Long.MAX_VALUE;
+
+  private final int _k;
+  private final long[] _ids;
+  private final double[] _dists;
+  private int _size;
+
+  public Neighbours(int k) {
+    _k = k;
+    _ids = new long[k];
+    _dists = new double[k];
+  }
+
+  public int k() {
+    return _k;
+  }
+
+  public int size() {
+    return _size;
+  }
+
+  public void clear() {
+    _size = 0;
+  }
+
+  /** @return distance of the farthest kept neighbour, or +Inf until k neighbours were kept */
+  public double bound() {
+    return _size < _k ? Double.POSITIVE_INFINITY : _dists[0];
+  }
+
+  static boolean less(double d1, long id1, double d2, long id2) {
+    return d1 < d2 || (d1 == d2 && id1 < id2);
+  }
+
+  /**
+   * Offers a candidate.
+   * @return true if the candidate was kept
+   */
+  public boolean offer(long id, double dist) {
+    if (_size < _k) {
+      int i = _size++;
+      // Sift up
+      while (i > 0) {
+        int parent = (i - 1) >>> 1;
+        if (!less(_dists[parent], _ids[parent], dist, id)) break;
+        _dists[i] = _dists[parent];
+        _ids[i] = _ids[parent];
+        i = parent;
+      }
+      _dists[i] = dist;
+      _ids[i] = id;
+      return true;
+    }
+    if (_k == 0 || !less(dist, id, _dists[0], _ids[0]))
+      return false;
+    // Replace the root and sift down
+    int i = 0;
+    while (true) {
+      int child = 2 * i + 1;
+      if (child >= _size) break;
+      if (child + 1 < _size && less(_dists[child], _ids[child], _dists[child + 1], _ids[child + 1]))
+        child++;
+      if (!less(dist, id, _dists[child], _ids[child])) break;
+      _dists[i] = _dists[child];
+      _ids[i] = _ids[child];
+      i = child;
+    }
+    _dists[i] = dist;
+    _ids[i] = id;
+    return true;
+  }
+
+  /**
+   * Writes the neighbours, nearest first, to <code>ids[off..off+k)</code> and <code>dists[off..off+k)</code>.
+   * Missing neighbours are padded with {@link #NO_ID} and +Inf. Empties the heap.
+   */
+  public void drainSorted(long[] ids, double[] dists, int off) {
+    for (int i = _size; i < _k; i++) {
+      ids[off + i] = NO_ID;
+      dists[off + i] = Double.POSITIVE_INFINITY;
+    }
+    while (_size > 0) {
+      int last = --_size;
+      ids[off + last] = _ids[0];
+      dists[off + last] = _dists[0];
+      // Move the last element to the root and sift down
+      long id = _ids[last];
+      double dist = _dists[last];
+      int i = 0;
+      while (true) {
+        int child = 2 * i + 1;
+        if (child >= _size) break;
+        if (child + 1 < _size && less(_dists[child], _ids[child], _dists[child + 1], _ids[child + 1]))
+          child++;
+        if (!less(dist, id, _dists[child], _ids[child])) break;
+        _dists[i] = _dists[child];
+        _ids[i] = _ids[child];
+        i = child;
+      }
+      _dists[i] = dist;
+      _ids[i] = id;
+    }
+  }
+
+  /**
+   * Merges two sorted neighbour lists of length k (as written by {@link #drainSorted}),
+   * keeping the k nearest in <code>ids1/dists1</code>.
+   */
+  public static void mergeSorted(int k, long[] ids1, double[] dists1, long[] ids2, double[] dists2, int off,
+                                 long[] tmpIds, double[] tmpDists) {
+    int i = 0, j = 0;
+    for (int n = 0; n < k; n++) {
+      if (less(dists2[off + j], ids2[off + j], dists1[off + i], ids1[off + i])) {
+        tmpIds[n] = ids2[off + j];
+        tmpDists[n] = dists2[off + j++];
+      } else {
+        tmpIds[n] = ids1[off + i];
+        tmpDists[n] = dists1[off + i++];
+      }
+    }
+    System.arraycopy(tmpIds, 0, ids1, off, k);
+    System.arraycopy(tmpDists, 0, dists1, off, k);
+  }
+}
@@ -0,0 +1,178 @@
+package hex.genmodel.algos.knn;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Vantage-point tree over a set of points, laid out implicitly in flat arrays.
+ * <p>
+ * The node covering <code>[lo, hi)</code> has its vantage point at <code>lo</code>; the points of
+ * <code>(lo, mid)</code> are not farther from it than <code>_mu[lo]</code>, the points of
+ * <code>[mid, hi)</code> are not closer, where <code>mid = (lo + 1 + hi) / 2</code>. Ranges of at most
+ * {@link #LEAF_SIZE} points are scanned linearly. Building takes O(n log n) distance computations
+ * and no memory besides the points themselves.
+ * <p>
+ * The search is exact for <code>epsilon == 0</code>. A positive epsilon prunes the subtrees which
+ * cannot contain a neighbour closer than <code>bound / (1 + epsilon)</code>, so every reported
+ * distance is at most <code>1 + epsilon</code> times the exact one.
+ */
+public final class VPTree {
+
+  static final int LEAF_SIZE = 8;
+
+  final int _p;           // Dimension
+  final int _n;           // Number of points
+  final double[] _coords; // Row-major points, n * p
+  final long[] _ids;
+  final double[] _mu;     // Radius of each inner node, indexed by its vantage point
+
+  /** Wraps the arrays of an already built tree, see {@link #coords()}, {@link #ids()} and {@link #mu()}. */
+  public VPTree(int p, double[] coords, long[] ids, double[] mu) {
+    _p = p;
+    _n = ids.length;
+    _coords = coords;
+    _ids = ids;
+    _mu = mu;
+  }
+
+  public int size() {
+    return _n;
+  }
+
+  public double[] coords() { return _coords; }
+  public long[] ids() { return _ids; }
+  public double[] mu() { return _mu; }
+
+  /**
+   * Builds the tree, the given arrays are reordered in place and owned by the tree afterwards.
+   * @param p dimension of the points
+   * @param coords row-major points
+   * @param ids ids of the points
+   * @param manhattan L1 metric if true, L2 otherwise
+   */
+  public static VPTree build(int p, double[] coords, long[] ids, boolean manhattan) {
+    assert coords.length == (long) p * ids.length;
+    VPTree t = new VPTree(p, coords, ids, new double[ids.length]);
+    t.build(0, t._n, new double[t._n], manhattan);
+    return t;
+  }
+
+  private void build(int lo, int hi, double[] dist, boolean manhattan) {
+    while (hi - lo > LEAF_SIZE) {
+      for (int i = lo + 1; i < hi; i++)
+        dist[i] = distance(_coords, lo * _p, _coords, i * _p, _p, manhattan);
+      final int mid = (lo + 1 + hi) >>> 1;
+      select(dist, lo + 1, hi, mid);
+      _mu[lo] = dist[mid];
+      build(lo + 1, mid, dist, manhattan);
+      lo = mid;
+    }
+  }
+
+  // Quickselect, moves the k-th smallest distance (with its point) to position k
+  private void select(double[] dist, int lo, int hi, int k) {
+    hi--;
+    while (hi > lo) {
+      int m = (lo + hi) >>> 1;
+      // Median of three as the pivot, keeps presorted inputs linear
+      if (dist[m] < dist[lo]) swap(dist, m, lo);
+      if (dist[hi] < dist[lo]) swap(dist, hi, lo);
+      if (dist[hi] < dist[m]) swap(dist, hi, m);
+      final double pivot = dist[m];
+      int i = lo, j = hi;
+      while (i <= j) {
+        while (dist[i] < pivot) i++;
+        while (dist[j] > pivot) j--;
+        if (i <= j) swap(dist, i++, j--);
+      }
+      if (k <= j) hi = j;
+      else if (k >= i) lo = i;
+      else return;
+    }
+  }
+
+  private void swap(double[] dist, int a, int b) {
+    if (a == b) return;
+    double d = dist[a]; dist[a] = dist[b]; dist[b] = d;
+    long id = _ids[a]; _ids[a] = _ids[b]; _ids[b] = id;
+    final int oa = a * _p, ob = b * _p;
+    for (int c = 0; c < _p; c++) {
+      double x = _coords[oa + c]; _coords[oa + c] = _coords[ob + c]; _coords[ob + c] = x;
+    }
+  }
+
+  static double distance(double[] a, int aoff, double[] b, int boff, int p, boolean manhattan) {
+    double sum = 0;
+    if (manhattan) {
+      for (int c = 0; c < p; c++)
+        sum += Math.abs(a[aoff + c] - b[boff + c]);
+      return sum;
+    }
+    for (int c = 0; c < p; c++) {
+      double d = a[aoff + c] - b[boff + c];
+      sum += d * d;
+    }
+    return Math.sqrt(sum);
+  }
+
+  /**
+   * Offers the points of this tree which may be among the k nearest neighbours of <code>q</code>.
+   * @param q query point, already transformed the same way as the points of the tree
+   * @param res collected neighbours, possibly already holding neighbours from other trees
+   * @param manhattan metric the tree was built with
+   * @param epsilon approximation factor, 0 for the exact search
+   */
+  public void search(double[] q, Neighbours res, boolean manhattan, double epsilon) {
+    if (_n > 0)
+      search(q, 0, _n, res, manhattan, 1 / (1 + epsilon));
+  }
+
+  private void search(double[] q, int lo, int hi, Neighbours res, boolean manhattan, double shrink) {
+    if (hi - lo <= LEAF_SIZE) {
+      for (int i = lo; i < hi; i++)
+        res.offer(_ids[i], distance(q, 0, _coords, i * _p, _p, manhattan));
+      return;
+    }
+    final double d = distance(q, 0, _coords, lo * _p, _p, manhattan);
+    res.offer(_ids[lo], d);
+    final int mid = (lo + 1 + hi) >>> 1;
+    final double mu = _mu[lo];
+    // Ties are kept by both tests, a neighbour at exactly the bound can still win on its id
+    if (d < mu) {
+      search(q, lo + 1, mid, res, manhattan, shrink);
+      if (d + res.bound() * shrink >= mu)
+        search(q, mid, hi, res, manhattan, shrink);
+    } else {
+      search(q, mid, hi, res, manhattan, shrink);
+      if (d - res.bound() * shrink <= mu)
+        search(q, lo + 1, mid, res, manhattan, shrink);
+    }
+  }
+
+  // ---
+  // Serialization, used by the MOJO
+
+  public byte[] toBytes() {
+    final long size = 8 + (long) _n * (8L * _p + 16);
+    if (size > Integer.MAX_VALUE - 8)
+      throw new IllegalStateException("Tree of " + _n + " points of dimension " + _p + " takes " + size +
+              " bytes, too many to be serialized into a single array.");
+    ByteBuffer bb = ByteBuffer.wrap(new byte[(int) size]);
+    bb.putInt(_p).putInt(_n);
+    for (double x : _coords) bb.putDouble(x);
+    for (long id : _ids) bb.putLong(id);
+    for (double mu : _mu) bb.putDouble(mu);
+    return bb.array();
+  }
+
+  public static VPTree fromBytes(byte[] bytes) {
+    ByteBuffer bb = ByteBuffer.wrap(bytes);
+    final int p = bb.getInt(), n = bb.getInt();
+    double[] coords = new double[n * p];
+    long[] ids = new long[n];
+    double[] mu = new double[n];
+    for (int i = 0; i < coords.length; i++) coords[i] = bb.getDouble();
+    for (int i = 0; i < n; i++) ids[i] = bb.getLong();
+    for (int i = 0; i < n; i++) mu[i] = bb.getDouble();
+    return new VPTree(p, coords, ids, mu);
+  }
+}
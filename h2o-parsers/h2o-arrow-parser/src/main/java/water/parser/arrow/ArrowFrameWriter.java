@@ -0,0 +1,239 @@
+package water.parser.arrow;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.*;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.ipc.WriteChannel;
+import org.apache.arrow.vector.ipc.message.ArrowDictionaryBatch;
+import org.apache.arrow.vector.ipc.message.ArrowRecordBatch;
+import org.apache.arrow.vector.ipc.message.IpcOption;
+import org.apache.arrow.vector.ipc.message.MessageSerializer;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.*;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.ParallelFrameWriter;
+import water.fvec.Vec;
+import water.parser.BufferedString;
+import water.util.PrettyPrint;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes a Frame as an Arrow IPC stream: every (non-empty) chunk becomes a record batch encoded by the node holding
+ * the chunk. Categorical columns are dictionary-encoded (int32 indices, the dictionary is the domain of the column),
+ * string and UUID columns are UTF-8, time columns are timestamps in milliseconds, integer columns are int64 and
+ * the other numeric columns are float64. Missing values are nulls.
+ */
+public class ArrowFrameWriter extends ParallelFrameWriter {
+
+  private static final byte KIND_CATEGORICAL = 0;
+  private static final byte KIND_STRING = 1;
+  private static final byte KIND_UUID = 2;
+  private static final byte KIND_TIME = 3;
+  private static final byte KIND_INT = 4;
+  private static final byte KIND_DOUBLE = 5;
+
+  private static final ArrowType.Int INDEX_TYPE = new ArrowType.Int(32, true);
+
+  private final byte[] _kinds;
+
+  public ArrowFrameWriter(Frame frame) {
+    super(frame);
+    _kinds = new byte[frame.numCols()];
+    for (int i = 0; i < _kinds.length; i++)
+      _kinds[i] = kind(frame.vec(i));
+  }
+
+  private static byte kind(Vec v) {
+    if (v.isCategorical())
+      return KIND_CATEGORICAL;
+    if (v.isString())
+      return KIND_STRING;
+    if (v.isUUID())
+      return KIND_UUID;
+    if (v.isTime())
+      return KIND_TIME;
+    return v.isInt() ? KIND_INT : KIND_DOUBLE;
+  }
+
+  private static ArrowType valueType(byte kind) {
+    switch (kind) {
+      case KIND_CATEGORICAL:
+      case KIND_STRING:
+      case KIND_UUID:
+        return ArrowType.Utf8.INSTANCE;
+      case KIND_TIME:
+        return new ArrowType.Timestamp(TimeUnit.MILLISECOND, null);
+      case KIND_INT:
+        return new ArrowType.Int(64, true);
+      default:
+        return new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+    }
+  }
+
+  /**
+   * Schema as written in the stream: the fields of the categorical columns have the type of the dictionary values.
+   */
+  private Schema messageSchema() {
+    List<Field> fields = new ArrayList<>(_kinds.length);
+    for (int i = 0; i < _kinds.length; i++) {
+      DictionaryEncoding encoding = _kinds[i] == KIND_CATEGORICAL ? new DictionaryEncoding(i, false, INDEX_TYPE) : null;
+      fields.add(new Field(_frame.name(i), new FieldType(true, valueType(_kinds[i]), encoding), null));
+    }
+    return new Schema(fields);
+  }
+
+  @Override
+  protected byte[] header() throws IOException {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    WriteChannel out = new WriteChannel(Channels.newChannel(bos));
+    MessageSerializer.serialize(out, messageSchema(), IpcOption.DEFAULT);
+    for (int i = 0; i < _kinds.length; i++) {
+      if (_kinds[i] != KIND_CATEGORICAL)
+        continue;
+      String[] domain = _frame.vec(i).domain();
+      try (BufferAllocator allocator = ArrowParser.newAllocator();
+           VarCharVector levels = new VarCharVector("levels", allocator)) {
+        for (int j = 0; j < domain.length; j++)
+          levels.setSafe(j, domain[j].getBytes(StandardCharsets.UTF_8));
+        levels.setValueCount(domain.length);
+        VectorSchemaRoot root = new VectorSchemaRoot(Collections.<FieldVector>singletonList(levels));
+        try (ArrowDictionaryBatch batch = new ArrowDictionaryBatch(i, new VectorUnloader(root).getRecordBatch())) {
+          MessageSerializer.serialize(out, batch, IpcOption.DEFAULT);
+        }
+      }
+    }
+    return bos.toByteArray();
+  }
+
+  @Override
+  protected byte[] footer() throws IOException {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    ArrowStreamWriter.writeEndOfStream(new WriteChannel(Channels.newChannel(bos)), IpcOption.DEFAULT);
+    return bos.toByteArray();
+  }
+
+  @Override
+  protected ChunkEncoder chunkEncoder() {
+    return new ArrowChunkEncoder(_kinds);
+  }
+
+  private static class ArrowChunkEncoder extends ChunkEncoder {
+    private final byte[] _kinds;
+
+    ArrowChunkEncoder(byte[] kinds) {
+      _kinds = kinds;
+    }
+
+    @Override
+    public byte[] encode(Chunk[] chks) throws IOException {
+      final int len = chks[0]._len;
+      try (BufferAllocator allocator = ArrowParser.newAllocator()) {
+        List<FieldVector> vectors = new ArrayList<>(chks.length);
+        try {
+          for (int i = 0; i < chks.length; i++)
+            vectors.add(encodeColumn("c" + i, chks[i], _kinds[i], len, allocator));
+          VectorSchemaRoot root = new VectorSchemaRoot(vectors);
+          root.setRowCount(len);
+          ByteArrayOutputStream bos = new ByteArrayOutputStream();
+          try (ArrowRecordBatch batch = new VectorUnloader(root).getRecordBatch()) {
+            MessageSerializer.serialize(new WriteChannel(Channels.newChannel(bos)), batch, IpcOption.DEFAULT);
+          }
+          return bos.toByteArray();
+        } finally {
+          for (FieldVector v : vectors)
+            v.close();
+        }
+      }
+    }
+
+    private static FieldVector encodeColumn(String name, Chunk c, byte kind, int len, BufferAllocator allocator) {
+      switch (kind) {
+        case KIND_CATEGORICAL: {
+          IntVector v = new IntVector(name, allocator);
+          v.allocateNew(len);
+          for (int row = 0; row < len; row++) {
+            if (c.isNA(row))
+              v.setNull(row);
+            else
+              v.set(row, (int) c.at8(row));
+          }
+          v.setValueCount(len);
+          return v;
+        }
+        case KIND_STRING: {
+          VarCharVector v = new VarCharVector(name, allocator);
+          v.allocateNew(len);
+          BufferedString tmpStr = new BufferedString();
+          for (int row = 0; row < len; row++) {
+            if (c.isNA(row))
+              v.setNull(row);
+            else {
+              BufferedString s = c.atStr(tmpStr, row);
+              v.setSafe(row, s.getBuffer(), s.getOffset(), s.length());
+            }
+          }
+          v.setValueCount(len);
+          return v;
+        }
+        case KIND_UUID: {
+          VarCharVector v = new VarCharVector(name, allocator);
+          v.allocateNew(len);
+          for (int row = 0; row < len; row++) {
+            if (c.isNA(row))
+              v.setNull(row);
+            else
+              v.setSafe(row, PrettyPrint.UUID(c.at16l(row), c.at16h(row)).getBytes(StandardCharsets.UTF_8));
+          }
+          v.setValueCount(len);
+          return v;
+        }
+        case KIND_TIME: {
+          TimeStampMilliVector v = new TimeStampMilliVector(name, allocator);
+          v.allocateNew(len);
+          for (int row = 0; row < len; row++) {
+            if (c.isNA(row))
+              v.setNull(row);
+            else
+              v.set(row, c.at8(row));
+          }
+          v.setValueCount(len);
+          return v;
+        }
+        case KIND_INT: {
+          BigIntVector v = new BigIntVector(name, allocator);
+          v.allocateNew(len);
+          for (int row = 0; row < len; row++) {
+            if (c.isNA(row))
+              v.setNull(row);
+            else
+              v.set(row, c.at8(row));
+          }
+          v.setValueCount(len);
+          return v;
+        }
+        default: {
+          Float8Vector v = new Float8Vector(name, allocator);
+          v.allocateNew(len);
+          for (int row = 0; row < len; row++) {
+            if (c.isNA(row))
+              v.setNull(row);
+            else
+              v.set(row, c.atd(row));
+          }
+          v.setValueCount(len);
+          return v;
+        }
+      }
+    }
+  }
+
+}
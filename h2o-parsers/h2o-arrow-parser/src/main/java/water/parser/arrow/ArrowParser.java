@@ -0,0 +1,433 @@
+package water.parser.arrow;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.*;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.apache.arrow.vector.ipc.ArrowReader;
+import org.apache.arrow.vector.ipc.message.ArrowBlock;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import water.Iced;
+import water.Job;
+import water.Key;
+import water.exceptions.H2OUnsupportedDataFileException;
+import water.fvec.ByteVec;
+import water.fvec.Chunk;
+import water.fvec.Vec;
+import water.parser.*;
+import water.util.Log;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Parser of Arrow IPC files. The footer of the file locates the record batches: every chunk of the file parses
+ * the batches starting in it, the chunks are parsed in parallel. The columns of the batches are appended value
+ * by value to the chunks of the frame without any text formatting, dictionary-encoded columns become categoricals.
+ */
+class ArrowParser extends Parser {
+
+  private static final int PREVIEW_ROWS = 1000;
+
+  static final byte[] MAGIC = "ARROW1".getBytes(StandardCharsets.US_ASCII);
+
+  private static final BufferAllocator ROOT_ALLOCATOR = new RootAllocator();
+
+  private static final BufferedString TRUE = new BufferedString("true");
+  private static final BufferedString FALSE = new BufferedString("false");
+
+  private static final byte KIND_DICTIONARY = 0;
+  private static final byte KIND_INT = 1;
+  private static final byte KIND_FLOAT = 2;
+  private static final byte KIND_BOOL = 3;
+  private static final byte KIND_DATE_DAY = 4;
+  private static final byte KIND_DATE_MILLI = 5;
+  private static final byte KIND_TIMESTAMP = 6;
+  private static final byte KIND_DECIMAL = 7;
+  private static final byte KIND_UTF8 = 8;
+  private static final byte KIND_LARGE_UTF8 = 9;
+
+  ArrowParser(ParseSetup setup, Key<Job> jobKey) {
+    super(setup, jobKey);
+  }
+
+  static BufferAllocator newAllocator() {
+    return ROOT_ALLOCATOR.newChildAllocator("h2o-arrow-parser", 0, Long.MAX_VALUE);
+  }
+
+  @Override
+  protected ParseWriter parseChunk(int cidx, ParseReader din, ParseWriter dout) {
+    if (! (din instanceof FVecParseReader)) {
+      throw new IllegalStateException("We only accept parser readers backed by a Vec (no streaming support!).");
+    }
+    Chunk chunk = ((FVecParseReader) din).getChunk();
+    final long start = chunk.start();
+    final long end = start + chunk.len();
+    try (BufferAllocator allocator = newAllocator();
+         ArrowFileReader reader = new ArrowFileReader(new VecSeekableByteChannel(chunk.vec()), allocator)) {
+      VectorSchemaRoot root = reader.getVectorSchemaRoot();
+      checkColumns(root, _keepColumns);
+      int nBlocks = 0;
+      for (ArrowBlock block : reader.getRecordBlocks()) {
+        if (block.getOffset() < start || block.getOffset() >= end)
+          continue;
+        reader.loadRecordBatch(block);
+        parseBatch(root, reader, _setup.getColumnTypes(), _keepColumns, dout, Integer.MAX_VALUE);
+        nBlocks++;
+      }
+      if (nBlocks == 0)
+        Log.trace("Chunk #", cidx, " doesn't contain the start of any Arrow record batch.");
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to parse Arrow record batches", e);
+    }
+    return dout;
+  }
+
+  @Override
+  protected StreamParseWriter sequentialParse(Vec vec, final StreamParseWriter dout) {
+    StreamParseWriter nextChunk = dout;
+    try (BufferAllocator allocator = newAllocator();
+         ArrowFileReader reader = new ArrowFileReader(new VecSeekableByteChannel(vec), allocator)) {
+      VectorSchemaRoot root = reader.getVectorSchemaRoot();
+      checkColumns(root, _keepColumns);
+      int zidx = 0;
+      for (ArrowBlock block : reader.getRecordBlocks()) {
+        int xidx = vec.elem2ChunkIdx(block.getOffset());
+        if (xidx > zidx) { // Match output chunks to input chunks
+          zidx = xidx;
+          nextChunk.close();
+          if (dout != nextChunk)
+            dout.reduce(nextChunk);
+          if (_jobKey != null && _jobKey.get().stop_requested())
+            break;
+          nextChunk = nextChunk.nextChunk();
+        }
+        reader.loadRecordBatch(block);
+        parseBatch(root, reader, _setup.getColumnTypes(), _keepColumns, nextChunk, Integer.MAX_VALUE);
+        if (_jobKey != null)
+          Job.update(block.getMetadataLength() + block.getBodyLength(), _jobKey);
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to parse Arrow record batches", e);
+    }
+    nextChunk.close();
+    if (dout != nextChunk)
+      dout.reduce(nextChunk);
+    return dout;
+  }
+
+  static void checkColumns(VectorSchemaRoot root, boolean[] keepColumns) {
+    final int nCols = root.getSchema().getFields().size();
+    if (nCols != keepColumns.length)
+      throw new ParseDataset.H2OParseException("Arrow schema has " + nCols + " columns, expected " +
+              keepColumns.length + ".");
+  }
+
+  /**
+   * Appends the rows of the record batch loaded in the root to the writer.
+   * @return number of rows written
+   */
+  static int parseBatch(VectorSchemaRoot root, DictionaryProvider dictionaries, byte[] types, boolean[] keepColumns,
+                        ParseWriter dout, int maxRows) {
+    final List<FieldVector> vectors = root.getFieldVectors();
+    final int nCols = vectors.size();
+    final byte[] kinds = new byte[nCols];
+    final BufferedString[][] levels = new BufferedString[nCols][];
+    final TimeUnit[] units = new TimeUnit[nCols];
+    for (int c = 0; c < nCols; c++) {
+      if (keepColumns != null && !keepColumns[c])
+        continue;
+      FieldVector v = vectors.get(c);
+      kinds[c] = kind(v);
+      if (kinds[c] == KIND_DICTIONARY)
+        levels[c] = levels(v.getField(), dictionaries);
+      else if (kinds[c] == KIND_TIMESTAMP)
+        units[c] = ((ArrowType.Timestamp) v.getField().getType()).getUnit();
+    }
+    final int nRows = Math.min(root.getRowCount(), maxRows);
+    final BufferedString str = new BufferedString();
+    byte[] bytes = new byte[0];
+    for (int row = 0; row < nRows; row++) {
+      int colIdx = 0;
+      for (int c = 0; c < nCols; c++) {
+        if (keepColumns != null && !keepColumns[c])
+          continue;
+        final FieldVector v = vectors.get(c);
+        final boolean toString = types != null && (types[c] == Vec.T_CAT || types[c] == Vec.T_STR);
+        if (v.isNull(row)) {
+          dout.addInvalidCol(colIdx++);
+          continue;
+        }
+        switch (kinds[c]) {
+          case KIND_DICTIONARY: {
+            long index = ((BaseIntVector) v).getValueAsLong(row);
+            if (index < 0 || index >= levels[c].length || levels[c][(int) index] == null)
+              dout.addInvalidCol(colIdx);
+            else
+              dout.addStrCol(colIdx, levels[c][(int) index]);
+            break;
+          }
+          case KIND_INT: {
+            long value = ((BaseIntVector) v).getValueAsLong(row);
+            if (toString)
+              dout.addStrCol(colIdx, str.set(Long.toString(value)));
+            else
+              dout.addNumCol(colIdx, value, 0);
+            break;
+          }
+          case KIND_FLOAT: {
+            double value = ((FloatingPointVector) v).getValueAsDouble(row);
+            if (toString)
+              dout.addStrCol(colIdx, str.set(Double.toString(value)));
+            else
+              dout.addNumCol(colIdx, value);
+            break;
+          }
+          case KIND_BOOL: {
+            int value = ((BitVector) v).get(row);
+            if (toString)
+              dout.addStrCol(colIdx, value == 1 ? TRUE : FALSE);
+            else
+              dout.addNumCol(colIdx, value, 0);
+            break;
+          }
+          case KIND_DECIMAL: {
+            double value = ((BigDecimal) v.getObject(row)).doubleValue();
+            if (toString)
+              dout.addStrCol(colIdx, str.set(Double.toString(value)));
+            else
+              dout.addNumCol(colIdx, value);
+            break;
+          }
+          case KIND_DATE_DAY:
+            dout.addNumCol(colIdx, ((DateDayVector) v).get(row) * 86400000L, 0);
+            break;
+          case KIND_DATE_MILLI:
+            dout.addNumCol(colIdx, ((DateMilliVector) v).get(row), 0);
+            break;
+          case KIND_TIMESTAMP:
+            dout.addNumCol(colIdx, toMillis(((TimeStampVector) v).get(row), units[c]), 0);
+            break;
+          case KIND_UTF8: {
+            BaseVariableWidthVector strings = (BaseVariableWidthVector) v;
+            int len = strings.getValueLength(row);
+            if (bytes.length < len)
+              bytes = new byte[len];
+            strings.getDataBuffer().getBytes(strings.getStartOffset(row), bytes, 0, len);
+            dout.addStrCol(colIdx, str.set(bytes, 0, len));
+            break;
+          }
+          case KIND_LARGE_UTF8: {
+            BaseLargeVariableWidthVector strings = (BaseLargeVariableWidthVector) v;
+            int len = strings.getValueLength(row);
+            if (bytes.length < len)
+              bytes = new byte[len];
+            long offset = strings.getOffsetBuffer().getLong((long) row * BaseLargeVariableWidthVector.OFFSET_WIDTH);
+            strings.getDataBuffer().getBytes(offset, bytes, 0, len);
+            dout.addStrCol(colIdx, str.set(bytes, 0, len));
+            break;
+          }
+          default:
+            dout.addInvalidCol(colIdx);
+        }
+        colIdx++;
+      }
+      dout.newLine();
+    }
+    return nRows;
+  }
+
+  private static byte kind(FieldVector v) {
+    if (v.getField().getDictionary() != null)
+      return KIND_DICTIONARY;
+    if (v instanceof BaseIntVector)
+      return KIND_INT;
+    if (v instanceof FloatingPointVector)
+      return KIND_FLOAT;
+    if (v instanceof BitVector)
+      return KIND_BOOL;
+    if (v instanceof DecimalVector || v instanceof Decimal256Vector)
+      return KIND_DECIMAL;
+    if (v instanceof DateDayVector)
+      return KIND_DATE_DAY;
+    if (v instanceof DateMilliVector)
+      return KIND_DATE_MILLI;
+    if (v instanceof TimeStampVector)
+      return KIND_TIMESTAMP;
+    if (v instanceof VarCharVector)
+      return KIND_UTF8;
+    if (v instanceof LargeVarCharVector)
+      return KIND_LARGE_UTF8;
+    throw unsupportedType(v.getField());
+  }
+
+  private static BufferedString[] levels(Field field, DictionaryProvider dictionaries) {
+    Dictionary dictionary = dictionaries.lookup(field.getDictionary().getId());
+    if (dictionary == null)
+      throw new ParseDataset.H2OParseException("Missing Arrow dictionary for column '" + field.getName() + "'.");
+    FieldVector values = dictionary.getVector();
+    BufferedString[] levels = new BufferedString[values.getValueCount()];
+    for (int i = 0; i < levels.length; i++) {
+      Object level = values.getObject(i);
+      if (level != null)
+        levels[i] = new BufferedString(level.toString());
+    }
+    return levels;
+  }
+
+  private static long toMillis(long value, TimeUnit unit) {
+    switch (unit) {
+      case SECOND:
+        return value * 1000;
+      case MICROSECOND:
+        return Math.floorDiv(value, 1000L);
+      case NANOSECOND:
+        return Math.floorDiv(value, 1000000L);
+      default:
+        return value;
+    }
+  }
+
+  private static H2OUnsupportedDataFileException unsupportedType(Field field) {
+    return new H2OUnsupportedDataFileException("Arrow columns of type " + field.getType() + " are not supported.",
+            "Column '" + field.getName() + "' has type " + field.getType() + ".");
+  }
+
+  static boolean hasMagic(byte[] bits) {
+    if (bits.length < MAGIC.length)
+      return false;
+    for (int i = 0; i < MAGIC.length; i++) {
+      if (bits[i] != MAGIC[i]) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Derives the setup of an Arrow file from its footer and previews its first rows.
+   */
+  static ParseSetup guessFileSetup(ByteVec vec) {
+    try (BufferAllocator allocator = newAllocator();
+         ArrowFileReader reader = new ArrowFileReader(new VecSeekableByteChannel(vec), allocator)) {
+      return guessSetup(ArrowParserProvider.ARROW_INFO, reader);
+    } catch (IOException e) {
+      throw new ParseDataset.H2OParseException("Failed to read Arrow schema", e);
+    }
+  }
+
+  /**
+   * Derives the setup from the schema of the data and previews the first rows. Column types follow the Arrow types,
+   * only (non-dictionary) string columns are guessed: the ones with almost no duplicate values in the preview
+   * are strings, the others are categoricals.
+   */
+  static ParseSetup guessSetup(ParserInfo info, ArrowReader reader) throws IOException {
+    VectorSchemaRoot root = reader.getVectorSchemaRoot();
+    List<Field> fields = root.getSchema().getFields();
+    final int nCols = fields.size();
+    final String[] names = new String[nCols];
+    final byte[] types = new byte[nCols];
+    for (int c = 0; c < nCols; c++) {
+      Field field = fields.get(c);
+      names[c] = field.getName();
+      types[c] = guessType(field);
+    }
+    PreviewWriter preview = new PreviewWriter(names);
+    try {
+      while (preview._nLines < PREVIEW_ROWS && reader.loadNextBatch())
+        parseBatch(root, reader, types, null, preview, PREVIEW_ROWS - preview._nLines);
+    } catch (IOException e) {
+      // only the beginning of the data is available
+    }
+    for (int c = 0; c < nCols; c++) {
+      if (isUtf8(fields.get(c)) && preview._nStrings[c] > 0 && preview._domains[c].size() >= 0.95 * preview._nStrings[c])
+        types[c] = Vec.T_STR;
+    }
+    return new ParseSetup(info, ParseSetup.GUESS_SEP, false, ParseSetup.HAS_HEADER,
+            names.length, names, types, null, null, preview._data);
+  }
+
+  private static boolean isUtf8(Field field) {
+    if (field.getDictionary() != null)
+      return false;
+    ArrowType.ArrowTypeID type = field.getType().getTypeID();
+    return type == ArrowType.ArrowTypeID.Utf8 || type == ArrowType.ArrowTypeID.LargeUtf8;
+  }
+
+  private static byte guessType(Field field) {
+    if (field.getDictionary() != null)
+      return Vec.T_CAT;
+    switch (field.getType().getTypeID()) {
+      case Utf8:
+      case LargeUtf8:
+      case Bool:
+        return Vec.T_CAT;
+      case Date:
+      case Timestamp:
+        return Vec.T_TIME;
+      case Int:
+      case FloatingPoint:
+      case Decimal:
+        return Vec.T_NUM;
+      default:
+        throw unsupportedType(field);
+    }
+  }
+
+  /**
+   * Collects the preview of the data (header and the first few rows) and the distinct values of the string columns.
+   */
+  private static class PreviewWriter extends Iced implements ParseWriter {
+    private static final int PREVIEW_LINES = 10;
+
+    final String[][] _data;
+    final int[] _nStrings;
+    final transient Set<String>[] _domains;
+    int _nLines;
+
+    @SuppressWarnings("unchecked")
+    PreviewWriter(String[] names) {
+      _data = new String[PREVIEW_LINES][];
+      _data[0] = names;
+      for (int i = 1; i < PREVIEW_LINES; i++)
+        _data[i] = new String[names.length];
+      _nStrings = new int[names.length];
+      _domains = new Set[names.length];
+      for (int i = 0; i < names.length; i++)
+        _domains[i] = new HashSet<>();
+    }
+
+    private void preview(int colIdx, String value) {
+      if (_nLines + 1 < PREVIEW_LINES)
+        _data[_nLines + 1][colIdx] = value;
+    }
+
+    @Override public void setColumnNames(String[] names) {}
+    @Override public void newLine() { _nLines++; }
+    @Override public boolean isString(int colIdx) { return false; }
+    @Override public void addNumCol(int colIdx, long number, int exp) { preview(colIdx, Long.toString(number)); }
+    @Override public void addNumCol(int colIdx, double d) { preview(colIdx, Double.toString(d)); }
+    @Override public void addInvalidCol(int colIdx) { preview(colIdx, null); }
+    @Override public void addNAs(int colIdx, int nrow) {}
+    @Override public void addStrCol(int colIdx, BufferedString str) {
+      String s = str.toString();
+      _nStrings[colIdx]++;
+      _domains[colIdx].add(s);
+      preview(colIdx, s);
+    }
+    @Override public void rollbackLine() {}
+    @Override public void invalidLine(ParseErr err) {}
+    @Override public void addError(ParseErr err) {}
+    @Override public void setIsAllASCII(int colIdx, boolean b) {}
+    @Override public boolean hasErrors() { return false; }
+    @Override public ParseErr[] removeErrors() { return new ParseErr[0]; }
+    @Override public long lineNum() { return _nLines; }
+  }
+
+}
@@ -0,0 +1,41 @@
+package water.parser.arrow;
+
+import water.Job;
+import water.Key;
+import water.fvec.ByteVec;
+import water.parser.*;
+
+/**
+ * Arrow IPC file format parser provider.
+ */
+public class ArrowParserProvider extends BinaryParserProvider {
+
+  /* Setup for this parser */
+  static final ParserInfo ARROW_INFO = new ParserInfo("ARROW", DefaultParserProviders.MAX_CORE_PRIO + 30, true, false, true, false);
+
+  @Override
+  public ParserInfo info() {
+    return ARROW_INFO;
+  }
+
+  @Override
+  public Parser createParser(ParseSetup setup, Key<Job> jobKey) {
+    return new ArrowParser(setup, jobKey);
+  }
+
+  @Override
+  public ParseSetup guessInitSetup(ByteVec v, byte[] bits, ParseSetup userSetup) {
+    return ArrowParser.hasMagic(bits) ? ArrowParser.guessFileSetup(v) : null;
+  }
+
+  @Override
+  public ParseSetup guessFinalSetup(ByteVec v, byte[] bits, ParseSetup ps) {
+    return ps;
+  }
+
+  @Override
+  public ParseSetup createParserSetup(Key[] inputs, ParseSetup requiredSetup) {
+    return requiredSetup;
+  }
+
+}
@@ -0,0 +1,82 @@
+package water.parser.arrow;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import water.H2O;
+import water.Job;
+import water.Key;
+import water.fvec.ByteVec;
+import water.fvec.Vec;
+import water.parser.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Parser of Arrow IPC streams. A stream has no index of its record batches, it is read sequentially and a new chunk
+ * is started whenever the batches cross a chunk boundary of the input file.
+ */
+class ArrowStreamParser extends Parser {
+
+  ArrowStreamParser(ParseSetup setup, Key<Job> jobKey) {
+    super(setup, jobKey);
+  }
+
+  @Override
+  protected ParseWriter parseChunk(int cidx, ParseReader din, ParseWriter dout) { throw H2O.unimpl(); }
+
+  @Override
+  protected StreamParseWriter sequentialParse(Vec vec, final StreamParseWriter dout) {
+    StreamParseWriter nextChunk = dout;
+    try (InputStream is = ((ByteVec) vec).openStream(_jobKey);
+         BufferAllocator allocator = ArrowParser.newAllocator();
+         ArrowStreamReader reader = new ArrowStreamReader(is, allocator)) {
+      VectorSchemaRoot root = reader.getVectorSchemaRoot();
+      ArrowParser.checkColumns(root, _keepColumns);
+      int zidx = is.read(null, 0, 0); // Back-channel read of chunk index
+      while (reader.loadNextBatch()) {
+        ArrowParser.parseBatch(root, reader, _setup.getColumnTypes(), _keepColumns, nextChunk, Integer.MAX_VALUE);
+        int xidx = is.read(null, 0, 0);
+        if (xidx > zidx) { // Match output chunks to input chunks
+          zidx = xidx;
+          nextChunk.close();
+          if (dout != nextChunk)
+            dout.reduce(nextChunk);
+          if (_jobKey != null && _jobKey.get().stop_requested())
+            break;
+          nextChunk = nextChunk.nextChunk();
+        }
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to parse Arrow record batches", e);
+    }
+    nextChunk.close();
+    if (dout != nextChunk)
+      dout.reduce(nextChunk);
+    return dout;
+  }
+
+  static boolean hasContinuationToken(byte[] bits) {
+    if (bits.length < 4)
+      return false;
+    for (int i = 0; i < 4; i++) {
+      if (bits[i] != (byte) 0xFF) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Derives the setup from the schema of the stream and previews the rows available in the given bytes.
+   */
+  static ParseSetup guessSetup(byte[] bits) {
+    try (BufferAllocator allocator = ArrowParser.newAllocator();
+         ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(bits), allocator)) {
+      return ArrowParser.guessSetup(ArrowStreamParserProvider.ARROW_STREAM_INFO, reader);
+    } catch (IOException e) {
+      throw new ParseDataset.H2OParseException("Failed to read Arrow schema", e);
+    }
+  }
+
+}
@@ -0,0 +1,41 @@
+package water.parser.arrow;
+
+import water.Job;
+import water.Key;
+import water.fvec.ByteVec;
+import water.parser.*;
+
+/**
+ * Arrow IPC stream format parser provider, streams can only be parsed sequentially.
+ */
+public class ArrowStreamParserProvider extends BinaryParserProvider {
+
+  /* Setup for this parser */
+  static final ParserInfo ARROW_STREAM_INFO = new ParserInfo("ARROW_STREAM", DefaultParserProviders.MAX_CORE_PRIO + 31, false, false, true, false);
+
+  @Override
+  public ParserInfo info() {
+    return ARROW_STREAM_INFO;
+  }
+
+  @Override
+  public Parser createParser(ParseSetup setup, Key<Job> jobKey) {
+    return new ArrowStreamParser(setup, jobKey);
+  }
+
+  @Override
+  public ParseSetup guessInitSetup(ByteVec v, byte[] bits, ParseSetup userSetup) {
+    return ArrowStreamParser.hasContinuationToken(bits) ? ArrowStreamParser.guessSetup(bits) : null;
+  }
+
+  @Override
+  public ParseSetup guessFinalSetup(ByteVec v, byte[] bits, ParseSetup ps) {
+    return ps;
+  }
+
+  @Override
+  public ParseSetup createParserSetup(Key[] inputs, ParseSetup requiredSetup) {
+    return requiredSetup;
+  }
+
+}
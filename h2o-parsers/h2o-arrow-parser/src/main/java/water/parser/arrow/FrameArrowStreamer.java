@@ -0,0 +1,24 @@
+package water.parser.arrow;
+
+import water.fvec.BinaryFormatStreamer;
+import water.fvec.Frame;
+import water.fvec.ParallelFrameWriter;
+
+public class FrameArrowStreamer implements BinaryFormatStreamer {
+
+  @Override
+  public boolean supports(String format) {
+    return "arrow".equalsIgnoreCase(format);
+  }
+
+  @Override
+  public String extension() {
+    return ".arrow";
+  }
+
+  @Override
+  public ParallelFrameWriter writer(Frame frame) {
+    return new ArrowFrameWriter(frame);
+  }
+
+}
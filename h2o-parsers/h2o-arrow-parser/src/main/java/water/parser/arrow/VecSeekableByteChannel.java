@@ -0,0 +1,99 @@
+package water.parser.arrow;
+
+import water.fvec.Chunk;
+import water.fvec.Vec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * Read-only SeekableByteChannel backed by a Vec data source, the bytes of the last accessed chunk are kept
+ * in a buffer.
+ */
+class VecSeekableByteChannel implements SeekableByteChannel {
+
+  private static final byte[] EMPTY_BUFFER = new byte[0];
+
+  private final Vec _v;
+
+  private byte[] _buffer = EMPTY_BUFFER;
+  private long _offset;
+  private long _position;
+  private boolean _open = true;
+
+  VecSeekableByteChannel(Vec v) {
+    _v = v;
+  }
+
+  @Override
+  public int read(ByteBuffer dst) throws IOException {
+    ensureOpen();
+    if (_position >= _v.length())
+      return -1;
+    int loaded = 0;
+    while (dst.hasRemaining() && _position < _v.length()) {
+      if (_position < _offset || _position >= _offset + _buffer.length) {
+        Chunk chunk = _v.chunkForRow(_position);
+        _buffer = chunk.asBytes();
+        _offset = chunk.start();
+      }
+      int pos = (int) (_position - _offset);
+      int avail = Math.min(_buffer.length - pos, dst.remaining());
+      dst.put(_buffer, pos, avail);
+      loaded += avail;
+      _position += avail;
+    }
+    return loaded;
+  }
+
+  @Override
+  public int write(ByteBuffer src) {
+    throw new NonWritableChannelException();
+  }
+
+  @Override
+  public long position() throws IOException {
+    ensureOpen();
+    return _position;
+  }
+
+  @Override
+  public SeekableByteChannel position(long newPosition) throws IOException {
+    ensureOpen();
+    if (newPosition < 0)
+      throw new IllegalArgumentException("Negative position: " + newPosition);
+    _position = newPosition;
+    return this;
+  }
+
+  @Override
+  public long size() throws IOException {
+    ensureOpen();
+    return _v.length();
+  }
+
+  @Override
+  public SeekableByteChannel truncate(long size) {
+    throw new NonWritableChannelException();
+  }
+
+  @Override
+  public boolean isOpen() {
+    return _open;
+  }
+
+  @Override
+  public void close() {
+    _open = false;
+    _buffer = EMPTY_BUFFER;
+  }
+
+  private void ensureOpen() throws ClosedChannelException {
+    if (!_open)
+      throw new ClosedChannelException();
+  }
+
+}
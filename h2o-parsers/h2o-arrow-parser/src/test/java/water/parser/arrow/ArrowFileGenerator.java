@@ -0,0 +1,125 @@
+package water.parser.arrow;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.*;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.ipc.ArrowWriter;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.util.Text;
+import org.junit.Ignore;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes Arrow files and streams with the features pyarrow uses and the writer of H2O doesn't: the IPC file format
+ * (footer with the offsets of the record batches), int8 dictionary indices, timestamps in nanoseconds and large
+ * strings. The same content is written by
+ * <pre>
+ * dict8 = pa.DictionaryArray.from_arrays(pa.array(idx, pa.int8()), pa.array(["low", "mid", "high"]))
+ * batch = pa.record_batch([dict8, pa.array(ts, pa.timestamp("ns")), pa.array(strs, pa.large_string())],
+ *                         names=["dict8", "ts_ns", "large_str"])
+ * </pre>
+ * for the batches of {@link #TYPES_BATCHES} with pa.ipc.new_file / pa.ipc.new_stream.
+ */
+@Ignore
+public class ArrowFileGenerator {
+
+  static final String[] LEVELS = {"low", "mid", "high"};
+
+  /** Two batches of 3 rows: dictionary index, timestamp in nanoseconds and string of every row */
+  static final Object[][][] TYPES_BATCHES = {
+      {{0, 1500000000123456789L, "alpha"}, {2, null, "beta"}, {null, -1500000L, null}},
+      {{1, 1600000000000000000L, "gamma"}, {0, 1600000000999999999L, "\u03b4\u03ad\u03bb\u03c4\u03b1"}, {2, 0L, "epsilon"}}
+  };
+
+  public static void main(String[] args) throws IOException {
+    generateTypes(new File("/tmp/h2o-arrow-tests/types.arrow"), false);
+    generateTypes(new File("/tmp/h2o-arrow-tests/types_stream.arrows"), true);
+  }
+
+  public static File generateTypes(File f, boolean stream) throws IOException {
+    DictionaryEncoding encoding = new DictionaryEncoding(1, false, new ArrowType.Int(8, true));
+    try (BufferAllocator allocator = new RootAllocator();
+         VarCharVector levels = new VarCharVector("levels", allocator);
+         TinyIntVector dict8 = new TinyIntVector("dict8", new FieldType(true, new ArrowType.Int(8, true), encoding), allocator);
+         TimeStampNanoVector ts = new TimeStampNanoVector("ts_ns", allocator);
+         LargeVarCharVector strs = new LargeVarCharVector("large_str", allocator)) {
+      for (int i = 0; i < LEVELS.length; i++)
+        levels.setSafe(i, LEVELS[i].getBytes(StandardCharsets.UTF_8));
+      levels.setValueCount(LEVELS.length);
+      DictionaryProvider provider = new DictionaryProvider.MapDictionaryProvider(new Dictionary(levels, encoding));
+      VectorSchemaRoot root = new VectorSchemaRoot(Arrays.<FieldVector>asList(dict8, ts, strs));
+      try (FileOutputStream fos = new FileOutputStream(mkdirs(f));
+           ArrowWriter writer = stream ? new ArrowStreamWriter(root, provider, fos.getChannel()) :
+                   new ArrowFileWriter(root, provider, fos.getChannel())) {
+        writer.start();
+        for (Object[][] batch : TYPES_BATCHES) {
+          root.allocateNew();
+          for (int row = 0; row < batch.length; row++) {
+            if (batch[row][0] == null) dict8.setNull(row); else dict8.setSafe(row, (Integer) batch[row][0]);
+            if (batch[row][1] == null) ts.setNull(row); else ts.setSafe(row, (Long) batch[row][1]);
+            if (batch[row][2] == null) strs.setNull(row); else strs.setSafe(row, new Text((String) batch[row][2]));
+          }
+          root.setRowCount(batch.length);
+          writer.writeBatch();
+        }
+        writer.end();
+      }
+    }
+    return f;
+  }
+
+  /**
+   * Writes an Arrow file with many small record batches, row i of the file has id i, level i % 3
+   * and value i / 4.
+   */
+  public static File generateBatches(File f, int nBatches, int batchRows) throws IOException {
+    DictionaryEncoding encoding = new DictionaryEncoding(1, false, new ArrowType.Int(32, true));
+    try (BufferAllocator allocator = new RootAllocator();
+         VarCharVector levels = new VarCharVector("levels", allocator);
+         BigIntVector id = new BigIntVector("id", allocator);
+         IntVector level = new IntVector("level", new FieldType(true, new ArrowType.Int(32, true), encoding), allocator);
+         Float8Vector value = new Float8Vector("value", allocator)) {
+      for (int i = 0; i < LEVELS.length; i++)
+        levels.setSafe(i, LEVELS[i].getBytes(StandardCharsets.UTF_8));
+      levels.setValueCount(LEVELS.length);
+      DictionaryProvider provider = new DictionaryProvider.MapDictionaryProvider(new Dictionary(levels, encoding));
+      List<FieldVector> vectors = Arrays.<FieldVector>asList(id, level, value);
+      VectorSchemaRoot root = new VectorSchemaRoot(vectors);
+      try (FileOutputStream fos = new FileOutputStream(mkdirs(f));
+           ArrowFileWriter writer = new ArrowFileWriter(root, provider, fos.getChannel())) {
+        writer.start();
+        long i = 0;
+        for (int b = 0; b < nBatches; b++) {
+          root.allocateNew();
+          for (int row = 0; row < batchRows; row++, i++) {
+            id.setSafe(row, i);
+            level.setSafe(row, (int) (i % LEVELS.length));
+            value.setSafe(row, i / 4.0);
+          }
+          root.setRowCount(batchRows);
+          writer.writeBatch();
+        }
+        writer.end();
+      }
+    }
+    return f;
+  }
+
+  private static File mkdirs(File f) {
+    f.getParentFile().mkdirs();
+    return f;
+  }
+
+}
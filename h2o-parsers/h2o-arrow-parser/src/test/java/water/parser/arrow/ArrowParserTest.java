@@ -0,0 +1,191 @@
+package water.parser.arrow;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import water.Scope;
+import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+import water.parser.BufferedString;
+import water.parser.ParseSetup;
+import water.parser.ParserInfo;
+import water.runner.CloudSize;
+import water.runner.H2ORunner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+import static water.TestUtil.*;
+
+@RunWith(H2ORunner.class)
+@CloudSize(1)
+public class ArrowParserTest {
+
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder();
+
+  private static Frame makeFrame() {
+    return new TestFrameBuilder()
+        .withName("testFrame")
+        .withColNames("Cat", "Str", "Int", "Num", "Time")
+        .withVecTypes(Vec.T_CAT, Vec.T_STR, Vec.T_NUM, Vec.T_NUM, Vec.T_TIME)
+        .withDataForCol(0, ar("a", "b", null, "a", "c", "b"))
+        .withDataForCol(1, ar("s1", null, "s3", "s4", "s5", "s6"))
+        .withDataForCol(2, ard(1, 2, 3, Double.NaN, 5, -6))
+        .withDataForCol(3, ard(0.5, Double.NaN, 2.25, 3, -4.75, 5))
+        .withDataForCol(4, ard(1500000000000L, 1500000001000L, 1500000002000L, Double.NaN, 1500000004000L, 1500000005000L))
+        .withChunkLayout(2, 0, 3, 1)
+        .build();
+  }
+
+  private File writeArrow(Frame fr) throws IOException {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    long len = new ArrowFrameWriter(fr).writeTo(bos);
+    assertEquals(bos.size(), len);
+    File f = tmp.newFile("frame.arrow");
+    try (FileOutputStream fos = new FileOutputStream(f)) {
+      fos.write(bos.toByteArray());
+    }
+    return f;
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    Scope.enter();
+    try {
+      Frame fr = makeFrame();
+      Frame parsed = Scope.track(parse_test_file(writeArrow(fr).getAbsolutePath()));
+      assertArrayEquals(fr.names(), parsed.names());
+      assertEquals(fr.numRows(), parsed.numRows());
+      assertTrue(parsed.vec("Cat").isCategorical());
+      assertArrayEquals(fr.vec("Cat").domain(), parsed.vec("Cat").domain());
+      assertTrue(parsed.vec("Str").isString());
+      assertTrue(parsed.vec("Int").isInt());
+      assertTrue(parsed.vec("Time").isTime());
+      for (String name : fr.names())
+        assertVecEquals(name, fr.vec(name), parsed.vec(name), 0);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testSkippedColumns() throws IOException {
+    Scope.enter();
+    try {
+      Frame fr = makeFrame();
+      Frame parsed = Scope.track(parse_test_file(writeArrow(fr).getAbsolutePath(), new int[]{1, 3}));
+      assertArrayEquals(new String[]{"Cat", "Int", "Time"}, parsed.names());
+      for (String name : parsed.names())
+        assertVecEquals(name, fr.vec(name), parsed.vec(name), 0);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testGuessStreamSetup() throws IOException {
+    Scope.enter();
+    try {
+      Frame fr = makeFrame();
+      ByteArrayOutputStream bos = new ByteArrayOutputStream();
+      new ArrowFrameWriter(fr).writeTo(bos);
+      ParseSetup ps = ArrowStreamParser.guessSetup(bos.toByteArray());
+      assertEquals(ArrowStreamParserProvider.ARROW_STREAM_INFO, ps.getParseType());
+      assertArrayEquals(fr.names(), ps.getColumnNames());
+      assertArrayEquals(new byte[]{Vec.T_CAT, Vec.T_STR, Vec.T_NUM, Vec.T_NUM, Vec.T_TIME}, ps.getColumnTypes());
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testPyArrowTypesFile() throws IOException {
+    File f = ArrowFileGenerator.generateTypes(new File(tmp.getRoot(), "types.arrow"), false);
+    checkPyArrowTypes(f, ArrowParserProvider.ARROW_INFO);
+  }
+
+  @Test
+  public void testPyArrowTypesStream() throws IOException {
+    File f = ArrowFileGenerator.generateTypes(new File(tmp.getRoot(), "types_stream.arrows"), true);
+    checkPyArrowTypes(f, ArrowStreamParserProvider.ARROW_STREAM_INFO);
+  }
+
+  @Test
+  public void testParallelParse() throws IOException {
+    Scope.enter();
+    try {
+      final int nBatches = 40;
+      final int batchRows = 50;
+      File f = ArrowFileGenerator.generateBatches(new File(tmp.getRoot(), "batches.arrow"), nBatches, batchRows);
+      Frame parsed = Scope.track(parse_test_file(f.getAbsolutePath(), setup -> {
+        assertEquals(ArrowParserProvider.ARROW_INFO, setup.getParseType());
+        setup._chunk_size = 4096;
+        return setup;
+      }));
+      assertTrue(parsed.anyVec().nChunks() > 1);
+      assertEquals(nBatches * batchRows, parsed.numRows());
+      Vec level = parsed.vec("level");
+      assertArrayEquals(new String[]{"high", "low", "mid"}, level.domain());
+      for (int i = 0; i < parsed.numRows(); i++) {
+        assertEquals(i, parsed.vec("id").at8(i));
+        assertEquals(ArrowFileGenerator.LEVELS[i % 3], level.domain()[(int) level.at8(i)]);
+        assertEquals(i / 4.0, parsed.vec("value").at(i), 0);
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  private void checkPyArrowTypes(File f, ParserInfo expectedParser) {
+    Scope.enter();
+    try {
+      Frame parsed = Scope.track(parse_test_file(f.getAbsolutePath(), setup -> {
+        assertEquals(expectedParser, setup.getParseType());
+        return setup;
+      }));
+      assertArrayEquals(new String[]{"dict8", "ts_ns", "large_str"}, parsed.names());
+      assertEquals(6, parsed.numRows());
+
+      Vec cat = parsed.vec("dict8");
+      assertTrue(cat.isCategorical());
+      assertArrayEquals(new String[]{"high", "low", "mid"}, cat.domain());
+      String[] expectedLevels = {"low", "high", null, "mid", "low", "high"};
+      for (int i = 0; i < expectedLevels.length; i++) {
+        if (expectedLevels[i] == null)
+          assertTrue(cat.isNA(i));
+        else
+          assertEquals(expectedLevels[i], cat.domain()[(int) cat.at8(i)]);
+      }
+
+      Vec time = parsed.vec("ts_ns");
+      assertTrue(time.isTime());
+      long[] expectedMillis = {1500000000123L, -1, -2, 1600000000000L, 1600000000999L, 0};
+      for (int i = 0; i < expectedMillis.length; i++) {
+        if (i == 1)
+          assertTrue(time.isNA(i));
+        else
+          assertEquals(expectedMillis[i], time.at8(i));
+      }
+
+      Vec str = parsed.vec("large_str");
+      assertTrue(str.isString());
+      String[] expectedStrings = {"alpha", "beta", null, "gamma", "\u03b4\u03ad\u03bb\u03c4\u03b1", "epsilon"};
+      BufferedString bs = new BufferedString();
+      for (int i = 0; i < expectedStrings.length; i++) {
+        if (expectedStrings[i] == null)
+          assertTrue(str.isNA(i));
+        else
+          assertEquals(expectedStrings[i], str.atStr(bs, i).toString());
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+}
@@ -0,0 +1,62 @@
+package water.parser.parquet;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+import water.util.ExportFileFormat;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+public class FrameParquetExporterTest extends TestUtil {
+
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder();
+
+  @BeforeClass
+  static public void setup() { TestUtil.stall_till_cloudsize(1); }
+
+  @Test
+  public void testExportedPartsParseBack() throws Exception {
+    Scope.enter();
+    try {
+      Frame fr = new TestFrameBuilder()
+          .withName("testFrame")
+          .withColNames("Cat", "Int", "Num", "Time")
+          .withVecTypes(Vec.T_CAT, Vec.T_NUM, Vec.T_NUM, Vec.T_TIME)
+          .withDataForCol(0, ar("a", "b", null, "a", "c", "b"))
+          .withDataForCol(1, ard(1, 2, 3, Double.NaN, 5, 6))
+          .withDataForCol(2, ard(0.5, Double.NaN, 2.25, 3, -4.75, 5))
+          .withDataForCol(3, ard(1500000000000L, 1500000001000L, 1500000002000L, Double.NaN, 1500000004000L, 1500000005000L))
+          .withChunkLayout(2, 0, 3, 1)
+          .build();
+
+      File dir = new File(tmp.getRoot(), "export");
+      Frame.export(fr, dir.getAbsolutePath(), fr._key.toString(), false, -1, ExportFileFormat.parquet, "snappy",
+          new Frame.CSVStreamParams()).get();
+
+      File[] parts = dir.listFiles((d, name) -> name.endsWith(".parquet"));
+      assertNotNull(parts);
+      assertEquals(3, parts.length); // one per non-empty chunk
+
+      Frame parsed = Scope.track(parse_test_folder(dir.getAbsolutePath()));
+      assertEquals(fr.numRows(), parsed.numRows());
+      assertArrayEquals(fr.names(), parsed.names());
+      assertTrue(parsed.vec("Cat").isCategorical());
+      assertArrayEquals(fr.vec("Cat").domain(), parsed.vec("Cat").domain());
+      assertTrue(parsed.vec("Time").isTime());
+      for (String name : fr.names())
+        assertVecEquals(name, fr.vec(name), parsed.vec(name), 0);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+}
@@ -0,0 +1,103 @@
+package water.parser.parquet;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.Vec;
+import water.parser.BufferedString;
+import water.util.PrettyPrint;
+
+import java.util.HashMap;
+
+/**
+ * Writes the rows of a set of chunks (given by the row index in the chunks) as Parquet records.
+ * Categorical levels are converted to binary only once per chunk and Parquet dictionary-encodes them.
+ */
+public class ChunkWriteSupport extends WriteSupport<Integer> {
+
+  private final MessageType _schema;
+  private final Chunk[] _chunks;
+  private final Binary[][] _levels;
+  private final BufferedString _tmpStr = new BufferedString();
+  private RecordConsumer _consumer;
+
+  public ChunkWriteSupport(MessageType schema, Chunk[] chunks) {
+    _schema = schema;
+    _chunks = chunks;
+    _levels = new Binary[chunks.length][];
+    for (int i = 0; i < chunks.length; i++) {
+      Vec v = chunks[i].vec();
+      if (!v.isCategorical())
+        continue;
+      String[] domain = v.domain();
+      _levels[i] = new Binary[domain.length];
+      for (int level = 0; level < domain.length; level++)
+        _levels[i][level] = Binary.fromString(domain[level]);
+    }
+  }
+
+  /**
+   * @return Parquet schema of the frame: strings for categorical, string and UUID columns,
+   * timestamps for time columns, longs for integer columns and doubles otherwise; all the fields are optional (NAs)
+   */
+  public static MessageType makeSchema(Frame fr) {
+    Type[] fields = new Type[fr.numCols()];
+    for (int i = 0; i < fields.length; i++) {
+      Vec v = fr.vec(i);
+      String name = fr.name(i);
+      if (v.isCategorical() || v.isString() || v.isUUID())
+        fields[i] = new PrimitiveType(Type.Repetition.OPTIONAL, PrimitiveType.PrimitiveTypeName.BINARY, name, OriginalType.UTF8);
+      else if (v.isTime())
+        fields[i] = new PrimitiveType(Type.Repetition.OPTIONAL, PrimitiveType.PrimitiveTypeName.INT64, name, OriginalType.TIMESTAMP_MILLIS);
+      else if (v.isInt())
+        fields[i] = new PrimitiveType(Type.Repetition.OPTIONAL, PrimitiveType.PrimitiveTypeName.INT64, name);
+      else
+        fields[i] = new PrimitiveType(Type.Repetition.OPTIONAL, PrimitiveType.PrimitiveTypeName.DOUBLE, name);
+    }
+    return new MessageType("h2o_frame", fields);
+  }
+
+  @Override
+  public WriteContext init(Configuration configuration) {
+    return new WriteContext(_schema, new HashMap<String, String>());
+  }
+
+  @Override
+  public void prepareForWrite(RecordConsumer recordConsumer) {
+    _consumer = recordConsumer;
+  }
+
+  @Override
+  public void write(Integer row) {
+    final int r = row;
+    _consumer.startMessage();
+    for (int i = 0; i < _chunks.length; i++) {
+      final Chunk c = _chunks[i];
+      if (c.isNA(r))
+        continue;
+      final String name = _schema.getFieldName(i);
+      _consumer.startField(name, i);
+      final Vec v = c.vec();
+      if (v.isCategorical())
+        _consumer.addBinary(_levels[i][(int) c.at8(r)]);
+      else if (v.isString())
+        _consumer.addBinary(Binary.fromString(c.atStr(_tmpStr, r).toString()));
+      else if (v.isUUID())
+        _consumer.addBinary(Binary.fromString(PrettyPrint.UUID(c.at16l(r), c.at16h(r))));
+      else if (v.isTime() || v.isInt())
+        _consumer.addLong(c.at8(r));
+      else
+        _consumer.addDouble(c.atd(r));
+      _consumer.endField(name, i);
+    }
+    _consumer.endMessage();
+  }
+
+}
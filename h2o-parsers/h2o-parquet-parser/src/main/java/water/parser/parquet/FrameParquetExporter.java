@@ -0,0 +1,128 @@
+package water.parser.parquet;
+
+import jsr166y.CountedCompleter;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.schema.MessageType;
+import water.H2O;
+import water.Job;
+import water.MRTask;
+import water.exceptions.H2OIllegalArgumentException;
+import water.fvec.BinaryFormatExporter;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.persist.PersistHdfs;
+import water.util.ExportFileFormat;
+import water.util.Log;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Exports a Frame to a directory of Parquet files. Every node writes the (non-empty) chunks it holds,
+ * one part file (and row group) per chunk.
+ */
+public class FrameParquetExporter implements BinaryFormatExporter {
+
+  @Override
+  public H2O.H2OCountedCompleter export(Frame frame, String path, boolean force, String compression, Job job) {
+    return new ExportParquetDriver(frame, path, force, codec(compression).name(), job);
+  }
+
+  @Override
+  public boolean supports(ExportFileFormat format) {
+    return format == ExportFileFormat.parquet;
+  }
+
+  static CompressionCodecName codec(String compression) {
+    if (compression == null || compression.isEmpty() || "none".equalsIgnoreCase(compression))
+      return CompressionCodecName.UNCOMPRESSED;
+    try {
+      return CompressionCodecName.valueOf(compression.toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new H2OIllegalArgumentException("compression", "exportFrame", "Compression method " + compression +
+              " is not supported by Parquet, use one of " + Arrays.toString(CompressionCodecName.values()));
+    }
+  }
+
+  private static class ExportParquetDriver extends H2O.H2OCountedCompleter<ExportParquetDriver> {
+    final Frame _frame;
+    final String _path;
+    final boolean _force;
+    final String _codec;
+    final Job _j;
+
+    ExportParquetDriver(Frame frame, String path, boolean force, String codec, Job j) {
+      _frame = frame;
+      _path = path;
+      _force = force;
+      _codec = codec;
+      _j = j;
+    }
+
+    @Override
+    public void compute2() {
+      _frame.read_lock(_j._key);
+      new PartExportParquetTask(this, _path, _force, _codec, _j).dfork(_frame);
+    }
+
+    @Override
+    public void onCompletion(CountedCompleter caller) {
+      _frame.unlock(_j);
+    }
+
+    @Override
+    public boolean onExceptionalCompletion(Throwable t, CountedCompleter caller) {
+      _frame.unlock(_j);
+      return super.onExceptionalCompletion(t, caller);
+    }
+  }
+
+  private static class PartExportParquetTask extends MRTask<PartExportParquetTask> {
+    final String _path;
+    final boolean _force;
+    final String _codec;
+    final Job _j;
+
+    PartExportParquetTask(H2O.H2OCountedCompleter<?> completer, String path, boolean force, String codec, Job j) {
+      super(completer);
+      _path = path;
+      _force = force;
+      _codec = codec;
+      _j = j;
+    }
+
+    @Override
+    protected void setupLocal() {
+      boolean created = H2O.getPM().mkdirs(_path);
+      if (! created) Log.warn("Path ", _path, " was not created.");
+    }
+
+    @Override
+    public void map(Chunk[] cs) {
+      if (cs[0]._len > 0) {
+        Path partPath = new Path(_path, String.format("part-m-%05d.parquet", cs[0].cidx()));
+        MessageType schema = ChunkWriteSupport.makeSchema(_fr);
+        try {
+          if (_force) {
+            FileSystem fs = partPath.getFileSystem(PersistHdfs.CONF);
+            fs.delete(partPath, false);
+          }
+          try (ParquetWriter<Integer> writer = new ParquetWriter<>(partPath, new ChunkWriteSupport(schema, cs),
+                  CompressionCodecName.valueOf(_codec), ParquetWriter.DEFAULT_BLOCK_SIZE, ParquetWriter.DEFAULT_PAGE_SIZE,
+                  ParquetWriter.DEFAULT_PAGE_SIZE, true, false, ParquetProperties.WriterVersion.PARQUET_1_0, PersistHdfs.CONF)) {
+            for (int row = 0; row < cs[0]._len; row++)
+              writer.write(row);
+          }
+        } catch (IOException e) {
+          throw new RuntimeException("Failed to write part " + partPath, e);
+        }
+      }
+      _j.update(1);
+    }
+  }
+
+}
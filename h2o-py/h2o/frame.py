@@ -29,7 +29,8 @@ from h2o.job import H2OJob
 from h2o.utils.config import get_config_value
 from h2o.utils.shared_utils import (_handle_numpy_array, _handle_pandas_data_frame, _handle_python_dicts,
                                     _handle_python_lists, _is_list, _is_str_list, _py_tmp_key, _quoted,
-                                    can_use_pandas, quote, normalize_slice, slice_is_normalized, check_frame_id)
+                                    can_use_pandas, can_use_pyarrow, quote, normalize_slice, slice_is_normalized,
+                                    check_frame_id)
 from h2o.utils.typechecks import (assert_is_type, assert_satisfies, Enum, I, is_type, numeric, numpy_ndarray,
                                   numpy_datetime, pandas_dataframe, pandas_timestamp, scipy_sparse, U)
 
@@ -72,6 +73,9 @@ class H2OFrame(Keyed):
         be given on a per-column basis, either as a list-of-lists, or as a dictionary {column name: list of nas}.
     :param str destination_frame: (internal) name of the target DKV key in the H2O backend.
     :param str separator: (deprecated)
+    :param bool use_arrow: if True and ``python_obj`` is a Pandas dataframe, send it to H2O in the Arrow IPC format
+        instead of CSV (requires the ``pyarrow`` library). Column types then follow the dtypes of the dataframe:
+        categorical columns become factors and datetime columns become time columns.
 
     :example:
     >>> python_obj = [1, 2, 2.5, -100.9, 0]
@@ -87,7 +91,7 @@ class H2OFrame(Keyed):
     #-------------------------------------------------------------------------------------------------------------------
 
     def __init__(self, python_obj=None, destination_frame=None, header=0, separator=",",
-                 column_names=None, column_types=None, na_strings=None, skipped_columns=None):
+                 column_names=None, column_types=None, na_strings=None, skipped_columns=None, use_arrow=False):
     
         coltype = U(None, "unknown", "uuid", "string", "float", "real", "double", "int", "long", "numeric",
                     "categorical", "factor", "enum", "time")
@@ -105,7 +109,7 @@ class H2OFrame(Keyed):
         self._is_frame = True  # Indicate that this is an actual frame, allowing typechecks to be made
         if python_obj is not None:
             self._upload_python_object(python_obj, destination_frame, header, separator,
-                                       column_names, column_types, na_strings, skipped_columns)
+                                       column_names, column_types, na_strings, skipped_columns, use_arrow)
 
     @staticmethod
     def _expr(expr, cache=None):
@@ -118,11 +122,15 @@ class H2OFrame(Keyed):
 
 
     def _upload_python_object(self, python_obj, destination_frame=None, header=0, separator=",",
-                              column_names=None, column_types=None, na_strings=None, skipped_columns=None):
+                              column_names=None, column_types=None, na_strings=None, skipped_columns=None,
+                              use_arrow=False):
         assert_is_type(python_obj, list, tuple, dict, numpy_ndarray, pandas_dataframe, scipy_sparse)
         if is_type(python_obj, scipy_sparse):
             self._upload_sparse_matrix(python_obj, destination_frame=destination_frame)
             return
+        if use_arrow and is_type(python_obj, pandas_dataframe):
+            self._upload_arrow(python_obj, destination_frame, column_names, column_types, na_strings, skipped_columns)
+            return
         # TODO: all these _handlers should really belong to this class, not to shared_utils.
         processor = (_handle_pandas_data_frame if is_type(python_obj, pandas_dataframe) else
                      _handle_numpy_array if is_type(python_obj, numpy_ndarray) else
@@ -150,6 +158,29 @@ class H2OFrame(Keyed):
         os.remove(tmp_path)  # delete the tmp file
 
 
+    def _upload_arrow(self, df, destination_frame=None, column_names=None, column_types=None, na_strings=None,
+                      skipped_columns=None):
+        if not can_use_pyarrow():
+            raise H2OValueError("The pyarrow library is required to upload data in the Arrow format.")
+        import pyarrow
+
+        table = pyarrow.Table.from_pandas(df, preserve_index=False)
+        if column_names:
+            table = table.rename_columns(column_names)
+        # the chunks of an Arrow file are parsed in parallel, each one parses the record batches starting in it:
+        # keep the batches smaller than a chunk
+        max_rows = max(1000, (4 << 20) // (8 * max(1, table.num_columns)))
+        tmp_handle, tmp_path = tempfile.mkstemp(suffix=".arrow")
+        with os.fdopen(tmp_handle, "wb") as sink:
+            writer = pyarrow.ipc.new_file(sink, table.schema)
+            writer.write_table(table, max_chunksize=max_rows)
+            writer.close()
+        try:
+            self._upload_parse(tmp_path, destination_frame, 1, None, None, column_types, na_strings, skipped_columns)
+        finally:
+            os.remove(tmp_path)
+
+
     def _upload_sparse_matrix(self, matrix, destination_frame=None):
         import scipy.sparse as sp
         if not sp.issparse(matrix):
@@ -2105,7 +2136,7 @@ class H2OFrame(Keyed):
             else:
                 print("num {}".format(" ".join(it[0] if it else "nan" for it in h2o.as_list(self[:10, i], False)[1:])))
 
-    def as_data_frame(self, use_pandas=True, header=True):
+    def as_data_frame(self, use_pandas=True, header=True, use_arrow=False):
         """
         Obtain the dataset as a python-local object.
 
@@ -2113,6 +2144,9 @@ class H2OFrame(Keyed):
             ``pandas`` library was installed). If False, then return the contents of the H2OFrame as plain nested
             list, in a row-wise order.
         :param bool header: If True (default), then column names will be appended as the first row in list
+        :param bool use_arrow: If True and a pandas DataFrame is returned, transfer the data in the Arrow IPC format
+            instead of CSV (requires the ``pyarrow`` library). Factors become pandas categoricals and time columns
+            become datetime columns.
 
         :returns: A python object (a list of lists of strings, each list is a row, if use_pandas=False, otherwise
             a pandas DataFrame) containing this H2OFrame instance's data.
@@ -2129,6 +2163,8 @@ class H2OFrame(Keyed):
         >>> df
         """ 
         if can_use_pandas() and use_pandas:
+            if use_arrow:
+                return self._download_arrow().to_pandas()
             import pandas
             return pandas.read_csv(StringIO(self.get_frame_data()), low_memory=False, skip_blank_lines=False)
         from h2o.utils.csv.readers import reader
@@ -2137,6 +2173,20 @@ class H2OFrame(Keyed):
             frame.pop(0)
         return frame
 
+    def _download_arrow(self):
+        if not can_use_pyarrow():
+            raise H2OValueError("The pyarrow library is required to download data in the Arrow format.")
+        import pyarrow
+
+        tmp_handle, tmp_path = tempfile.mkstemp(suffix=".arrow")
+        os.close(tmp_handle)
+        try:
+            h2o.api("GET /3/DownloadDataset.arrow?frame_id=%s" % quote(self.frame_id), save_to=tmp_path)
+            with open(tmp_path, "rb") as source:
+                return pyarrow.ipc.open_stream(source).read_all()
+        finally:
+            os.remove(tmp_path)
+
     def save_to_hive(self, jdbc_url, table_name, format="csv", table_path=None, tmp_path=None):
         """
         Save contents of this data frame into a Hive table.
@@ -2954,6 +3004,9 @@ class H2OFrame(Keyed):
         in your frames.  If there are duplicated rows in your rite frame, they will not be included if you use
         the hash method.  The hash method cannot perform merge if you have string columns in your left frame.
         Hence, we consider the radix method superior to the hash method and is the default method to use.
+        When the frame to be hashed (``other``, or this frame if all_y is True) is small, auto uses the broadcast
+        method instead, which copies that frame to every node.  The result is sorted by the merge key, except for
+        string or UUID keys: then the rows keep the order of the left frame (of the right frame if all_y is True).
 
         :param H2OFrame other: The frame to merge to the current one. By default, must have at least one column in common with
             this frame, and all columns in common are used as the merge key.  If you want to use only a subset of the
@@ -2963,7 +3016,7 @@ class H2OFrame(Keyed):
         :param by_x: list of columns in the current frame to use as a merge key.
         :param by_y: list of columns in the ``other`` frame to use as a merge key. Should have the same number of
             columns as in the ``by_x`` list.
-        :param method: string representing the merge method, one of auto(default), radix or hash.
+        :param method: string representing the merge method, one of auto(default), radix, hash or broadcast.
 
         :returns: New H2OFrame with the result of merging the current frame with the ``other`` frame.
 
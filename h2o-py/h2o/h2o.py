@@ -29,7 +29,7 @@ from .model.model_base import ModelBase
 from .utils.metaclass import Deprecated as deprecated
 from .utils.config import H2OConfigReader
 from .utils.shared_utils import check_frame_id, gen_header, py_tmp_key, quoted
-from .utils.typechecks import assert_is_type, assert_satisfies, BoundInt, BoundNumeric, I, is_type, numeric, U
+from .utils.typechecks import assert_is_type, assert_satisfies, BoundInt, BoundNumeric, Enum, I, is_type, numeric, U
 
 # enable h2o deprecation warnings by default to ensure that users get notified in interactive mode, without being too annoying
 warnings.filterwarnings("once", category=H2ODeprecationWarning)
@@ -1342,7 +1342,7 @@ def download_pojo(model, path="", get_jar=True, jar_name=""):
         return filename
 
 
-def download_csv(data, filename):
+def download_csv(data, filename, compression=None):
     """
     Download an H2O data set to a CSV file on the local disk.
 
@@ -1351,6 +1351,8 @@ def download_csv(data, filename):
 
     :param data: an H2OFrame object to be downloaded.
     :param filename: name for the CSV file where the data should be saved to.
+    :param compression: compress the CSV file with the given method ("gzip" or "bzip2"), the data are
+        compressed by the H2O nodes before being transferred.
 
     :examples:
 
@@ -1361,7 +1363,11 @@ def download_csv(data, filename):
     """
     assert_is_type(data, H2OFrame)
     assert_is_type(filename, str)
-    return api("GET /3/DownloadDataset?frame_id=%s&hex_string=false" % data.frame_id, save_to=filename)
+    assert_is_type(compression, None, Enum("gzip", "bzip2"))
+    url = "GET /3/DownloadDataset?frame_id=%s&hex_string=false" % data.frame_id
+    if compression is not None:
+        url += "&compression=%s" % compression
+    return api(url, save_to=filename)
 
 
 def download_all_logs(dirname=".", filename=None, container=None):
@@ -1489,7 +1495,8 @@ def load_model(path):
     return get_model(res["models"][0]["model_id"]["name"])
 
 
-def export_file(frame, path, force=False, sep=",", compression=None, parts=1, header=True, quote_header=True):
+def export_file(frame, path, force=False, sep=",", compression=None, parts=1, header=True, quote_header=True,
+                format="csv"):
     """
     Export a given H2OFrame to a path on the machine this python session is currently connected to.
 
@@ -1506,6 +1513,9 @@ def export_file(frame, path, force=False, sep=",", compression=None, parts=1, he
         Default is ``parts = 1``, which is to export to a single file.
     :param header: if True, write out column names in the header line.
     :param quote_header: if True, quote column names in the header.
+    :param format: output file format, "csv" (default) or "parquet". Parquet is written by all the H2O nodes in
+        parallel, as part files in the directory given by path (the parts parameter doesn't apply); compression
+        can then be "snappy", "gzip" or None.
 
     :examples:
 
@@ -1530,10 +1540,11 @@ def export_file(frame, path, force=False, sep=",", compression=None, parts=1, he
     assert_is_type(compression, str, None)
     assert_is_type(header, bool)
     assert_is_type(quote_header, bool)
+    assert_is_type(format, Enum("csv", "parquet"))
     H2OJob(api("POST /3/Frames/%s/export" % (frame.frame_id), 
                data={"path": path, "num_parts": parts, "force": force, 
                      "compression": compression, "separator": ord(sep),
-                     "header": header, "quote_header": quote_header}), "Export File").poll()
+                     "header": header, "quote_header": quote_header, "format": format}), "Export File").poll()
 
 
 def load_frame(frame_id, path, force=True):
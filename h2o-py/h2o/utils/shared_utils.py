@@ -82,6 +82,14 @@ def can_use_numpy():
         return False
 
 
+def can_use_pyarrow():
+    try:
+        imp.find_module('pyarrow')
+        return True
+    except ImportError:
+        return False
+
+
 _url_safe_chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_.~"
 _url_chars_map = [chr(i) if chr(i) in _url_safe_chars else "%%%02X" % i for i in range(256)]
 
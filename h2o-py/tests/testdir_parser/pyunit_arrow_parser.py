@@ -0,0 +1,89 @@
+# -*- encoding: utf-8 -*-
+from __future__ import print_function
+import sys
+sys.path.insert(1,"../../")
+import os
+import tempfile
+import h2o
+from h2o.utils.shared_utils import can_use_pyarrow, can_use_pandas
+from tests import pyunit_utils
+
+
+def write_arrow(table, new_writer, suffix, max_chunksize):
+    tmp_handle, tmp_path = tempfile.mkstemp(suffix=suffix)
+    with os.fdopen(tmp_handle, "wb") as sink:
+        writer = new_writer(sink, table.schema)
+        writer.write_table(table, max_chunksize=max_chunksize)
+        writer.close()
+    return tmp_path
+
+
+def arrow_parse_types():
+    """
+    Tests the Arrow parser on files and streams written by pyarrow with int8 dictionary indices, timestamps
+    in nanoseconds and large strings, in two record batches.
+    """
+    import pyarrow as pa
+    dict8 = pa.DictionaryArray.from_arrays(pa.array([0, 2, None, 1, 0, 2], pa.int8()), pa.array(["low", "mid", "high"]))
+    ts = pa.array([1500000000123456789, None, -1500000, 1600000000000000000, 1600000000999999999, 0], pa.timestamp("ns"))
+    strs = pa.array([u"alpha", u"beta", None, u"gamma", u"δέλτα", u"epsilon"], pa.large_string())
+    table = pa.Table.from_arrays([dict8, ts, strs], names=["dict8", "ts_ns", "large_str"])
+
+    for new_writer, suffix in ((pa.ipc.new_file, ".arrow"), (pa.ipc.new_stream, ".arrows")):
+        path = write_arrow(table, new_writer, suffix, 3)
+        try:
+            fr = h2o.upload_file(path)
+        finally:
+            os.remove(path)
+        assert fr.names == ["dict8", "ts_ns", "large_str"], fr.names
+        assert fr.types == {"dict8": "enum", "ts_ns": "time", "large_str": "string"}, fr.types
+        assert fr.nrow == 6, fr.nrow
+        assert fr["dict8"].levels() == [["high", "low", "mid"]], fr["dict8"].levels()
+
+        na = fr.isna()
+        expected_levels = ["low", "high", None, "mid", "low", "high"]
+        expected_millis = [1500000000123, None, -2, 1600000000000, 1600000000999, 0]
+        expected_strings = [u"alpha", u"beta", None, u"gamma", u"δέλτα", u"epsilon"]
+        for row in range(6):
+            for col, expected in enumerate([expected_levels[row], expected_millis[row], expected_strings[row]]):
+                if expected is None:
+                    assert na[row, col] == 1, (suffix, row, col)
+                else:
+                    assert fr[row, col] == expected, (suffix, row, col, fr[row, col], expected)
+
+
+def arrow_parse_batches_in_parallel():
+    """
+    Tests an Arrow file with many record batches spread over the chunks of the uploaded file, and the round trip
+    of a pandas dataframe through the Arrow upload and download.
+    """
+    import pandas as pd
+    nrows = 200000
+    df = pd.DataFrame({
+        "id": range(nrows),
+        "level": pd.Categorical(["abc"[i % 3] for i in range(nrows)]),
+        "value": [i / 4.0 for i in range(nrows)]
+    }, columns=["id", "level", "value"])
+
+    fr = h2o.H2OFrame(df, use_arrow=True)
+    assert fr.types == {"id": "int", "level": "enum", "value": "real"}, fr.types
+    assert fr.nrow == nrows, fr.nrow
+
+    back = fr.as_data_frame(use_arrow=True)
+    assert list(back["id"]) == list(df["id"])
+    assert list(back["level"].astype(str)) == list(df["level"].astype(str))
+    assert list(back["value"]) == list(df["value"])
+
+
+def arrow_parser():
+    if not can_use_pyarrow() or not can_use_pandas():
+        print("pyarrow and pandas are required by the Arrow parser tests, skipping")
+        return
+    arrow_parse_types()
+    arrow_parse_batches_in_parallel()
+
+
+if __name__ == "__main__":
+    pyunit_utils.standalone_test(arrow_parser)
+else:
+    arrow_parser()